@@ -0,0 +1,309 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package alternateFuelStations;
+
+import java.util.Arrays;
+
+/**
+ * <p>The Delta class holds the Stations added, updated and removed since the
+ * Stations of a list were last stored together, so that a change makes a new
+ * version of the list without copying the Stations that did not change.</p>
+ *
+ * <p>Every Station of the list has a slot. The Stations the list was made
+ * from keep their slots, and each added Station takes the next slot after the
+ * last one used, so slots never move and the indexes built over the stored
+ * Stations stay valid. The Delta keeps the slots left empty by removed
+ * Stations and the Stations of the slots that were updated or added, both
+ * sorted by slot. The list is the full slots in order, so the index of a
+ * Station is its slot less the empty slots before it.</p>
+ *
+ * <p>A Delta is never changed once made: add, update and remove return a new
+ * one, copying only its arrays, which hold one entry per change.</p>
+ * @version 1.0
+ */
+final class Delta {
+
+	private final int storedCount;
+	private final int slotCount;
+	private final int[] gaps;
+	private final int[] slots;
+	private final Station[] stations;
+
+	/**
+	 * <h1>Delta</h1>
+	 * <p>Delta(int storedCount)</p>
+	 * <p>Creates a new Delta with no changes.</p>
+	 * @param storedCount - The number of Stations stored together
+	 */
+	Delta(int storedCount) {
+		this(storedCount, storedCount, new int[0], new int[0], new Station[0]);
+	}
+
+	private Delta(int storedCount, int slotCount, int[] gaps, int[] slots, Station[] stations) {
+		this.storedCount = storedCount;
+		this.slotCount = slotCount;
+		this.gaps = gaps;
+		this.slots = slots;
+		this.stations = stations;
+	}
+
+	/**
+	 * <h1>size</h1>
+	 * <p>int size()</p>
+	 * <p>Retrieves the number of Stations in the list after the changes.</p>
+	 * @return the number of Stations
+	 */
+	int size() {
+		return slotCount - gaps.length;
+	}
+
+	/**
+	 * <h1>getChangeCount</h1>
+	 * <p>int getChangeCount()</p>
+	 * <p>Retrieves the number of entries the changes take up, which is the
+	 * number of empty slots and of Stations held by the Delta.</p>
+	 * @return the number of changes
+	 */
+	int getChangeCount() {
+		return gaps.length + slots.length;
+	}
+
+	/**
+	 * <h1>count</h1>
+	 * <p>int count()</p>
+	 * <p>Retrieves the number of Stations held by the Delta, which are the
+	 * updated and added Stations still in the list.</p>
+	 * @return the number of Stations held
+	 */
+	int count() {
+		return slots.length;
+	}
+
+	/**
+	 * <h1>station</h1>
+	 * <p>Station station(int position)</p>
+	 * <p>Retrieves a Station held by the Delta.</p>
+	 * @param position - The position of the Station, from 0 to count() - 1, in slot order
+	 * @return the Station
+	 */
+	Station station(int position) {
+		return stations[position];
+	}
+
+	/**
+	 * <h1>slotAt</h1>
+	 * <p>int slotAt(int position)</p>
+	 * <p>Retrieves the slot of a Station held by the Delta.</p>
+	 * @param position - The position of the Station, from 0 to count() - 1
+	 * @return the slot of the Station
+	 */
+	int slotAt(int position) {
+		return slots[position];
+	}
+
+	/**
+	 * <h1>find</h1>
+	 * <p>int find(int slot)</p>
+	 * <p>Finds the Station held by the Delta for a slot.</p>
+	 * @param slot - The slot
+	 * @return the position of the Station, or -1 if the slot holds a stored Station or none
+	 */
+	int find(int slot) {
+		int position = Arrays.binarySearch(slots, slot);
+		return position >= 0 ? position : -1;
+	}
+
+	/**
+	 * <h1>slot</h1>
+	 * <p>int slot(int index)</p>
+	 * <p>Retrieves the slot of the Station at an index of the list.</p>
+	 * @param index - The index of the Station
+	 * @return the slot of the Station
+	 */
+	int slot(int index) {
+		//The empty slots are sorted, so those at or before the slot are the ones with gaps[g] - g at most the index
+		int low = 0;
+		int high = gaps.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (gaps[middle] - middle <= index) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return index + low;
+	}
+
+	/**
+	 * <h1>index</h1>
+	 * <p>int index(int slot)</p>
+	 * <p>Retrieves the index in the list of the Station in a full slot.</p>
+	 * @param slot - The slot
+	 * @return the index of the Station
+	 */
+	int index(int slot) {
+		int before = Arrays.binarySearch(gaps, slot);
+		return slot - (before >= 0 ? before : -before - 1);
+	}
+
+	/**
+	 * <h1>isStored</h1>
+	 * <p>boolean isStored(int slot)</p>
+	 * <p>Tells whether a slot still holds the Station stored for it, so that
+	 * the indexes of the stored Stations are right about it.</p>
+	 * @param slot - The slot of a stored Station
+	 * @return false if the Station was removed or updated
+	 */
+	boolean isStored(int slot) {
+		return Arrays.binarySearch(gaps, slot) < 0 && Arrays.binarySearch(slots, slot) < 0;
+	}
+
+	/**
+	 * <h1>hidden</h1>
+	 * <p>int[] hidden()</p>
+	 * <p>Retrieves the slots of the stored Stations that were removed or
+	 * updated, whose entries in the indexes of the stored Stations are out of
+	 * date.</p>
+	 * @return the slots, in increasing order
+	 */
+	int[] hidden() {
+		int[] hidden = new int[gaps.length + slots.length];
+		int count = 0;
+		int g = 0;
+		int s = 0;
+
+		while ((g < gaps.length && gaps[g] < storedCount) || (s < slots.length && slots[s] < storedCount)) {
+			if (s == slots.length || slots[s] >= storedCount || (g < gaps.length && gaps[g] < slots[s])) {
+				hidden[count++] = gaps[g++];
+			} else {
+				hidden[count++] = slots[s++];
+			}
+		}
+		return Arrays.copyOf(hidden, count);
+	}
+
+	/**
+	 * <h1>map</h1>
+	 * <p>void map(int start, int length, int[] slots, int[] positions)</p>
+	 * <p>Finds the slots of a run of Stations of the list, walking the changes
+	 * alongside the slots rather than searching them for every Station.</p>
+	 * @param start - The index of the first Station
+	 * @param length - The number of Stations
+	 * @param slots - Where the slot of each Station is written
+	 * @param positions - Where the position of each Station held by the Delta is written, -1 for stored ones
+	 */
+	void map(int start, int length, int[] slots, int[] positions) {
+		int slot = slot(start);
+		int g = slot - start;
+		int s = Arrays.binarySearch(this.slots, slot);
+		s = s >= 0 ? s : -s - 1;
+
+		for (int i = 0; i < length; i++, slot++) {
+			while (g < gaps.length && gaps[g] == slot) {
+				g++;
+				slot++;
+			}
+			while (s < this.slots.length && this.slots[s] < slot) {
+				s++;
+			}
+			slots[i] = slot;
+			positions[i] = s < this.slots.length && this.slots[s] == slot ? s : -1;
+		}
+	}
+
+	/**
+	 * <h1>add</h1>
+	 * <p>Delta add(Station station)</p>
+	 * <p>Adds a Station after the last one of the list.</p>
+	 * @param station - The Station to add
+	 * @return the changes with the Station added
+	 */
+	Delta add(Station station) {
+		int[] moreSlots = Arrays.copyOf(slots, slots.length + 1);
+		Station[] moreStations = Arrays.copyOf(stations, stations.length + 1);
+		moreSlots[slots.length] = slotCount;
+		moreStations[stations.length] = station;
+		return new Delta(storedCount, slotCount + 1, gaps, moreSlots, moreStations);
+	}
+
+	/**
+	 * <h1>update</h1>
+	 * <p>Delta update(int index, Station station)</p>
+	 * <p>Replaces the Station at an index of the list, keeping its place.</p>
+	 * @param index - The index of the Station to replace
+	 * @param station - The Station to put in its place
+	 * @return the changes with the Station replaced
+	 */
+	Delta update(int index, Station station) {
+		int slot = slot(index);
+		int position = Arrays.binarySearch(slots, slot);
+
+		if (position >= 0) {
+			Station[] changed = stations.clone();
+			changed[position] = station;
+			return new Delta(storedCount, slotCount, gaps, slots, changed);
+		}
+
+		position = -position - 1;
+		return new Delta(storedCount, slotCount, gaps, insert(slots, position, slot),
+				insert(stations, position, station));
+	}
+
+	/**
+	 * <h1>remove</h1>
+	 * <p>Delta remove(int index)</p>
+	 * <p>Removes the Station at an index of the list, leaving its slot empty.</p>
+	 * @param index - The index of the Station to remove
+	 * @return the changes with the Station removed
+	 */
+	Delta remove(int index) {
+		int slot = slot(index);
+		int position = Arrays.binarySearch(slots, slot);
+		int[] fewerSlots = slots;
+		Station[] fewerStations = stations;
+
+		if (position >= 0) {
+			fewerSlots = new int[slots.length - 1];
+			fewerStations = new Station[stations.length - 1];
+			System.arraycopy(slots, 0, fewerSlots, 0, position);
+			System.arraycopy(slots, position + 1, fewerSlots, position, fewerSlots.length - position);
+			System.arraycopy(stations, 0, fewerStations, 0, position);
+			System.arraycopy(stations, position + 1, fewerStations, position, fewerStations.length - position);
+		}
+
+		int gap = -Arrays.binarySearch(gaps, slot) - 1;
+		return new Delta(storedCount, slotCount, insert(gaps, gap, slot), fewerSlots, fewerStations);
+	}
+
+	/**
+	 * <h1>estimateBytes</h1>
+	 * <p>long estimateBytes()</p>
+	 * <p>Estimates the memory held by the arrays of the changes, not counting
+	 * the Stations they hold.</p>
+	 * @return the estimated bytes
+	 */
+	long estimateBytes() {
+		return MemoryFootprint.objectBytes(20) + MemoryFootprint.arrayBytes(gaps.length, 4)
+				+ MemoryFootprint.arrayBytes(slots.length, 4) + MemoryFootprint.arrayBytes(stations.length, 4);
+	}
+
+	private static int[] insert(int[] values, int position, int value) {
+		int[] inserted = new int[values.length + 1];
+		System.arraycopy(values, 0, inserted, 0, position);
+		inserted[position] = value;
+		System.arraycopy(values, position, inserted, position + 1, values.length - position);
+		return inserted;
+	}
+
+	private static Station[] insert(Station[] values, int position, Station value) {
+		Station[] inserted = new Station[values.length + 1];
+		System.arraycopy(values, 0, inserted, 0, position);
+		inserted[position] = value;
+		System.arraycopy(values, position, inserted, position + 1, values.length - position);
+		return inserted;
+	}
+}
@@ -0,0 +1,272 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package alternateFuelStations;
+
+/**
+ * <p>The DistanceKernel class works out the distances used by the brute force
+ * scans of a list over plain arrays of latitudes and longitudes.</p>
+ *
+ * <p>Each loop below is a simple counted loop over arrays of doubles with no
+ * calls or branches in its body, a shape the JIT compiler turns into SIMD
+ * instructions handling several records at once, or at least runs without
+ * each step waiting on the one before it. It cannot do either for a loop that
+ * reads each record through a method call and keeps the closest index as it
+ * goes. The distances are the same as Math.sqrt(Math.pow(dLat, 2) +
+ * Math.pow(dLong, 2)) gives, so the results of the scans do not change.</p>
+ *
+ * <p>Lists that hold their coordinates as micro-degrees in a CompactStore are
+ * scanned by the loops over int arrays, which compare squared distances as
+ * longs, so they are exact and need no square root.</p>
+ * @version 1.0
+ */
+final class DistanceKernel {
+
+	/**
+	 * <p>The number of records copied into arrays at a time by lists that do
+	 * not keep their coordinates in arrays. The arrays of a block fit in the
+	 * first level cache alongside each other.</p>
+	 */
+	static final int BLOCK = 1024;
+
+	private static final int RUN = 32;
+
+	private DistanceKernel() {
+	}
+
+	/**
+	 * <h1>distances</h1>
+	 * <p>static void distances(double[] latitudes, double[] longitudes, int from, int to,
+	 * double latitude, double longitude, double[] distances)</p>
+	 * <p>Works out the distance from a point to each record of a range.</p>
+	 * @param latitudes - The latitude of each record
+	 * @param longitudes - The longitude of each record
+	 * @param from - The first record of the range
+	 * @param to - The record after the last one of the range
+	 * @param latitude - The latitude of the point
+	 * @param longitude - The longitude of the point
+	 * @param distances - Where the distance of each record is written, at the index of the record
+	 */
+	static void distances(double[] latitudes, double[] longitudes, int from, int to,
+			double latitude, double longitude, double[] distances) {
+		for (int i = from; i < to; i++) {
+			double dLatitude = latitudes[i] - latitude;
+			double dLongitude = longitudes[i] - longitude;
+			distances[i] = Math.sqrt(dLatitude * dLatitude + dLongitude * dLongitude);
+		}
+	}
+
+	/**
+	 * <h1>nearest</h1>
+	 * <p>static int nearest(double[] latitudes, double[] longitudes, int from, int to,
+	 * double latitude, double longitude)</p>
+	 * <p>Finds the first of the records of a range closest to a point.</p>
+	 * <p>The smallest squared distance is found first, which needs neither an
+	 * index nor a square root, and is kept in four running minimums so that
+	 * each comparison does not wait on the one before it. The records are then
+	 * read again, in order, for the first one whose distance is the square root
+	 * of it, which is the record a scan comparing distances one at a time would
+	 * have picked.</p>
+	 * @param latitudes - The latitude of each record
+	 * @param longitudes - The longitude of each record
+	 * @param from - The first record of the range
+	 * @param to - The record after the last one of the range
+	 * @param latitude - The latitude of the point
+	 * @param longitude - The longitude of the point
+	 * @return the closest record, or -1 if none of the distances is a number
+	 */
+	static int nearest(double[] latitudes, double[] longitudes, int from, int to, double latitude, double longitude) {
+		double min0 = Double.POSITIVE_INFINITY;
+		double min1 = Double.POSITIVE_INFINITY;
+		double min2 = Double.POSITIVE_INFINITY;
+		double min3 = Double.POSITIVE_INFINITY;
+
+		//A distance that is not a number fails every comparison, so it is never kept
+		int i = from;
+		for (; i + 3 < to; i += 4) {
+			double squared0 = squared(latitudes[i], longitudes[i], latitude, longitude);
+			double squared1 = squared(latitudes[i + 1], longitudes[i + 1], latitude, longitude);
+			double squared2 = squared(latitudes[i + 2], longitudes[i + 2], latitude, longitude);
+			double squared3 = squared(latitudes[i + 3], longitudes[i + 3], latitude, longitude);
+			min0 = squared0 < min0 ? squared0 : min0;
+			min1 = squared1 < min1 ? squared1 : min1;
+			min2 = squared2 < min2 ? squared2 : min2;
+			min3 = squared3 < min3 ? squared3 : min3;
+		}
+		for (; i < to; i++) {
+			double squared = squared(latitudes[i], longitudes[i], latitude, longitude);
+			min0 = squared < min0 ? squared : min0;
+		}
+
+		//Different squared distances can round to the same distance, so an earlier record may tie with the smallest
+		double distance = Math.sqrt(Math.min(Math.min(min0, min1), Math.min(min2, min3)));
+		double limit = Math.nextUp(Math.nextUp(distance) * Math.nextUp(distance));
+		for (i = from; i < to; i++) {
+			double squared = squared(latitudes[i], longitudes[i], latitude, longitude);
+			if (squared <= limit && Math.sqrt(squared) == distance) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * <h1>squaredDistances</h1>
+	 * <p>static void squaredDistances(int[] latitudes, int[] longitudes, int from, int to,
+	 * int latitude, int longitude, double[] distances)</p>
+	 * <p>Works out the squared distance in micro-degrees from a point to each
+	 * record of a range, for putting the records in order. The squared
+	 * distances are exact up to about 67 degrees apart on each axis, past
+	 * which they are rounded to the nearest double.</p>
+	 * @param latitudes - The latitude of each record in micro-degrees
+	 * @param longitudes - The longitude of each record in micro-degrees
+	 * @param from - The first record of the range
+	 * @param to - The record after the last one of the range
+	 * @param latitude - The latitude of the point in micro-degrees
+	 * @param longitude - The longitude of the point in micro-degrees
+	 * @param distances - Where the squared distance of each record is written, at the index of the record
+	 */
+	static void squaredDistances(int[] latitudes, int[] longitudes, int from, int to,
+			int latitude, int longitude, double[] distances) {
+		for (int i = from; i < to; i++) {
+			distances[i] = squared(latitudes[i], longitudes[i], latitude, longitude);
+		}
+	}
+
+	/**
+	 * <h1>nearest</h1>
+	 * <p>static int nearest(int[] latitudes, int[] longitudes, int from, int to,
+	 * int latitude, int longitude)</p>
+	 * <p>Finds the first of the records of a range closest to a point, like
+	 * nearest(double[], double[], int, int, double, double) but over
+	 * micro-degrees. The squared distances are exact, so the second pass only
+	 * looks for the first record with the smallest of them.</p>
+	 * @param latitudes - The latitude of each record in micro-degrees
+	 * @param longitudes - The longitude of each record in micro-degrees
+	 * @param from - The first record of the range
+	 * @param to - The record after the last one of the range
+	 * @param latitude - The latitude of the point in micro-degrees
+	 * @param longitude - The longitude of the point in micro-degrees
+	 * @return the closest record, or -1 if the range is empty
+	 */
+	static int nearest(int[] latitudes, int[] longitudes, int from, int to, int latitude, int longitude) {
+		long min0 = Long.MAX_VALUE;
+		long min1 = Long.MAX_VALUE;
+		long min2 = Long.MAX_VALUE;
+		long min3 = Long.MAX_VALUE;
+
+		int i = from;
+		for (; i + 3 < to; i += 4) {
+			min0 = Math.min(min0, squared(latitudes[i], longitudes[i], latitude, longitude));
+			min1 = Math.min(min1, squared(latitudes[i + 1], longitudes[i + 1], latitude, longitude));
+			min2 = Math.min(min2, squared(latitudes[i + 2], longitudes[i + 2], latitude, longitude));
+			min3 = Math.min(min3, squared(latitudes[i + 3], longitudes[i + 3], latitude, longitude));
+		}
+		for (; i < to; i++) {
+			min0 = Math.min(min0, squared(latitudes[i], longitudes[i], latitude, longitude));
+		}
+
+		long smallest = Math.min(Math.min(min0, min1), Math.min(min2, min3));
+		for (i = from; i < to; i++) {
+			if (squared(latitudes[i], longitudes[i], latitude, longitude) == smallest) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * <h1>squaredDistance</h1>
+	 * <p>static long squaredDistance(int latitude1, int longitude1, int latitude2, int longitude2)</p>
+	 * <p>Works out the squared distance between two points in micro-degrees,
+	 * the same way as the loops over int arrays above.</p>
+	 * @param latitude1 - The latitude of the first point in micro-degrees
+	 * @param longitude1 - The longitude of the first point in micro-degrees
+	 * @param latitude2 - The latitude of the second point in micro-degrees
+	 * @param longitude2 - The longitude of the second point in micro-degrees
+	 * @return the squared distance between the points
+	 */
+	static long squaredDistance(int latitude1, int longitude1, int latitude2, int longitude2) {
+		return squared(latitude1, longitude1, latitude2, longitude2);
+	}
+
+	/**
+	 * <h1>order</h1>
+	 * <p>static int[] order(double[] distances)</p>
+	 * <p>Sorts the indexes of the distances from the smallest distance to the
+	 * largest, keeping equal distances in index order as a stable sort of the
+	 * records would. Short runs are put in order by insertion and then merged,
+	 * comparing the doubles directly rather than through a Comparator.</p>
+	 * @param distances - The distance of each record
+	 * @return the records, from the closest to the farthest
+	 */
+	static int[] order(double[] distances) {
+		int count = distances.length;
+		int[] order = new int[count];
+		int[] merged = new int[count];
+
+		for (int start = 0; start < count; start += RUN) {
+			int end = Math.min(start + RUN, count);
+			for (int i = start; i < end; i++) {
+				int j = i;
+				while (j > start && distances[i] < distances[order[j - 1]]) {
+					order[j] = order[j - 1];
+					j--;
+				}
+				order[j] = i;
+			}
+		}
+
+		for (int width = RUN; width < count; width *= 2) {
+			for (int low = 0; low < count; low += 2 * width) {
+				int middle = Math.min(low + width, count);
+				int high = Math.min(low + 2 * width, count);
+				int left = low;
+				int right = middle;
+
+				for (int i = low; i < high; i++) {
+					if (left < middle && (right >= high || !(distances[order[right]] < distances[order[left]]))) {
+						merged[i] = order[left++];
+					} else {
+						merged[i] = order[right++];
+					}
+				}
+			}
+
+			int[] swap = order;
+			order = merged;
+			merged = swap;
+		}
+
+		return order;
+	}
+
+	/**
+	 * <h1>distance</h1>
+	 * <p>static double distance(double latitude1, double longitude1, double latitude2, double longitude2)</p>
+	 * <p>Works out the distance between two points, the same way as the loops above.</p>
+	 * @param latitude1 - The latitude of the first point
+	 * @param longitude1 - The longitude of the first point
+	 * @param latitude2 - The latitude of the second point
+	 * @param longitude2 - The longitude of the second point
+	 * @return the distance between the points
+	 */
+	static double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+		return Math.sqrt(squared(latitude1, longitude1, latitude2, longitude2));
+	}
+
+	private static double squared(double latitude1, double longitude1, double latitude2, double longitude2) {
+		double dLatitude = latitude1 - latitude2;
+		double dLongitude = longitude1 - longitude2;
+		return dLatitude * dLatitude + dLongitude * dLongitude;
+	}
+
+	//Coordinates held by a CompactStore differ by at most 2 * 10^9 micro-degrees, so the sum of the squares fits in a long
+	private static long squared(int latitude1, int longitude1, int latitude2, int longitude2) {
+		long dLatitude = (long) latitude1 - latitude2;
+		long dLongitude = (long) longitude1 - longitude2;
+		return dLatitude * dLatitude + dLongitude * dLongitude;
+	}
+}
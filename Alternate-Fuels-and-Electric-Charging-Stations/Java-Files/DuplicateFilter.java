@@ -0,0 +1,189 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package alternateFuelStations;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * <p>The DuplicateFilter class drops the records that are already in a list
+ * while it is read in, so that files which overlap can be merged.</p>
+ *
+ * <p>Two records are duplicates when neither their latitudes nor their
+ * longitudes differ by more than the tolerance, and their names and addresses
+ * are the same once case, punctuation and spacing are ignored. The name or the
+ * address can be left out of the comparison.</p>
+ *
+ * <p>Records are hashed by the cell of a grid the size of the tolerance that
+ * they fall in, together with their normalised name and address. A duplicate
+ * of a record can only be in the same cell or one of the eight around it, so
+ * each record is checked against the few records of nine hash entries instead
+ * of against every record kept so far. The records of each hash entry are
+ * chained from the most recent one, so the records added after any point can
+ * be taken out again when a file cannot be read.</p>
+ * @version 1.0
+ */
+final class DuplicateFilter {
+
+	private final double tolerance;
+	private final boolean byName;
+	private final boolean byAddress;
+
+	private final HashMap<Key, Integer> heads = new HashMap<Key, Integer>();
+	private Key[] keys = new Key[64];
+	private int[] next = new int[64];
+	private double[] latitudes = new double[64];
+	private double[] longitudes = new double[64];
+	private int size;
+
+	//The hash key of a record: its grid cell and its normalised name and address
+	private static final class Key {
+
+		final long latitudeCell;
+		final long longitudeCell;
+		final String name;
+		final String address;
+
+		Key(long latitudeCell, long longitudeCell, String name, String address) {
+			this.latitudeCell = latitudeCell;
+			this.longitudeCell = longitudeCell;
+			this.name = name;
+			this.address = address;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) other;
+			return latitudeCell == key.latitudeCell && longitudeCell == key.longitudeCell
+					&& name.equals(key.name) && address.equals(key.address);
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = Long.hashCode(latitudeCell);
+			hash = 31 * hash + Long.hashCode(longitudeCell);
+			hash = 31 * hash + name.hashCode();
+			return 31 * hash + address.hashCode();
+		}
+	}
+
+	/**
+	 * <h1>DuplicateFilter</h1>
+	 * <p>DuplicateFilter(double tolerance, boolean byName, boolean byAddress)</p>
+	 * <p>Creates a new DuplicateFilter holding no records.</p>
+	 * @param tolerance - The largest difference in degrees between the coordinates of duplicates
+	 * @param byName - Whether duplicates must have the same name
+	 * @param byAddress - Whether duplicates must have the same address
+	 */
+	DuplicateFilter(double tolerance, boolean byName, boolean byAddress) {
+		this.tolerance = tolerance;
+		this.byName = byName;
+		this.byAddress = byAddress;
+	}
+
+	/**
+	 * <h1>add</h1>
+	 * <p>boolean add(double latitude, double longitude, String name, String address)</p>
+	 * <p>Checks a record against the records kept so far, and keeps it if it is
+	 * not a duplicate of any of them.</p>
+	 * @param latitude - The latitude of the record
+	 * @param longitude - The longitude of the record
+	 * @param name - The name of the record
+	 * @param address - The address of the record
+	 * @return true if the record was kept, false if it is a duplicate
+	 */
+	boolean add(double latitude, double longitude, String name, String address) {
+		String normalName = byName ? normalise(name) : "";
+		String normalAddress = byAddress ? normalise(address) : "";
+		long latitudeCell = cell(latitude);
+		long longitudeCell = cell(longitude);
+
+		int reach = tolerance > 0 ? 1 : 0;
+		for (long i = latitudeCell - reach; i <= latitudeCell + reach; i++) {
+			for (long j = longitudeCell - reach; j <= longitudeCell + reach; j++) {
+				Integer head = heads.get(new Key(i, j, normalName, normalAddress));
+				for (int record = head == null ? -1 : head; record != -1; record = next[record]) {
+					if (Math.abs(latitudes[record] - latitude) <= tolerance
+							&& Math.abs(longitudes[record] - longitude) <= tolerance) {
+						return false;
+					}
+				}
+			}
+		}
+
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			next = Arrays.copyOf(next, size * 2);
+			latitudes = Arrays.copyOf(latitudes, size * 2);
+			longitudes = Arrays.copyOf(longitudes, size * 2);
+		}
+
+		Key key = new Key(latitudeCell, longitudeCell, normalName, normalAddress);
+		Integer head = heads.put(key, size);
+		keys[size] = key;
+		next[size] = head == null ? -1 : head;
+		latitudes[size] = latitude;
+		longitudes[size] = longitude;
+		size++;
+		return true;
+	}
+
+	/**
+	 * <h1>truncate</h1>
+	 * <p>void truncate(int count)</p>
+	 * <p>Forgets the records kept after the first count of them.</p>
+	 * @param count - The number of records to remember
+	 */
+	void truncate(int count) {
+		while (size > count) {
+			size--;
+			if (next[size] == -1) {
+				heads.remove(keys[size]);
+			} else {
+				heads.put(keys[size], next[size]);
+			}
+			keys[size] = null;
+		}
+	}
+
+	//Places a coordinate in the grid, or uses it as it is when duplicates must match exactly
+	private long cell(double coordinate) {
+		if (tolerance > 0) {
+			return (long) Math.floor(coordinate / tolerance);
+		}
+		return Double.doubleToLongBits(coordinate + 0.0);
+	}
+
+	//Lower cases a value and keeps only its words, separated by single spaces
+	static String normalise(String value) {
+		if (value == null) {
+			return "";
+		}
+
+		String lower = value.toLowerCase(Locale.ROOT);
+		StringBuilder normal = new StringBuilder(lower.length());
+		boolean space = false;
+
+		for (int i = 0; i < lower.length(); i++) {
+			char c = lower.charAt(i);
+			if (Character.isLetterOrDigit(c)) {
+				if (space && normal.length() > 0) {
+					normal.append(' ');
+				}
+				normal.append(c);
+				space = false;
+			} else {
+				space = true;
+			}
+		}
+
+		return normal.toString();
+	}
+}
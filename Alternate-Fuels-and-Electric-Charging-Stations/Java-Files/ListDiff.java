@@ -0,0 +1,247 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package alternateFuelStations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * <p>The ListDiff class holds the differences between two versions of a
+ * StationList, such as the lists read in by two nightly refreshes: the
+ * Stations added, the Stations removed, and the Stations that are still there
+ * but changed.</p>
+ *
+ * <p>Stations have no id, so a Station is known by its name and address once
+ * case, punctuation and spacing are ignored. A Station whose name and address
+ * are the same in both lists but whose coordinates or any other field are not
+ * has changed, while one whose name or address has changed is removed and
+ * added again. Where several Stations share a name and address, they are
+ * paired with the Stations that are exactly the same first, and the rest are
+ * paired in the order they are in the lists.</p>
+ *
+ * <p>Each Station is hashed by its identity and by the content of all of its
+ * fields, so the lists are each read once and the Stations are compared
+ * through HashMaps rather than against each other, taking time in proportion
+ * to the sizes of the lists.</p>
+ * @version 1.0
+ */
+public class ListDiff {
+
+	private Station[] added;
+	private Station[] removed;
+	private Station[] changedFrom;
+	private Station[] changedTo;
+	private int unchanged;
+
+	//The hash key of a Station: its identity and the hash of all of its fields
+	private static final class Key {
+
+		final String identity;
+		final long content;
+
+		Key(String identity, long content) {
+			this.identity = identity;
+			this.content = content;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) other;
+			return content == key.content && identity.equals(key.identity);
+		}
+
+		@Override
+		public int hashCode() {
+			return identity.hashCode() * 31 + Long.hashCode(content);
+		}
+	}
+
+	/**
+	 * <h1>ListDiff</h1>
+	 * <p>ListDiff(StationList older, StationList newer)</p>
+	 * <p>Creates a new ListDiff comparing two versions of a list.</p>
+	 * @param older - The earlier version of the list
+	 * @param newer - The later version of the list
+	 */
+	ListDiff(StationList older, StationList newer) {
+
+		int olderSize = older.size();
+		int newerSize = newer.size();
+		String[] olderIdentities = new String[olderSize];
+		String[] newerIdentities = new String[newerSize];
+		boolean[] olderMatched = new boolean[olderSize];
+		boolean[] newerMatched = new boolean[newerSize];
+		int[] next = new int[olderSize];
+
+		//The Stations of the older list with each identity and content, chained in order
+		HashMap<Key, Integer> same = new HashMap<Key, Integer>();
+		for (int i = olderSize - 1; i >= 0; i--) {
+			olderIdentities[i] = identity(older, i);
+			Key key = new Key(olderIdentities[i], content(older, i));
+			Integer head = same.put(key, i);
+			next[i] = head == null ? -1 : head;
+		}
+
+		//Pairs each Station of the newer list with the first unpaired one of the older list exactly like it
+		for (int j = 0; j < newerSize; j++) {
+			newerIdentities[j] = identity(newer, j);
+			Key key = new Key(newerIdentities[j], content(newer, j));
+			Integer head = same.get(key);
+			int previous = -1;
+
+			for (int i = head == null ? -1 : head; i != -1; previous = i, i = next[i]) {
+				if (sameContent(older, i, newer, j)) {
+					if (previous == -1) {
+						same.put(key, next[i]);
+					} else {
+						next[previous] = next[i];
+					}
+					olderMatched[i] = true;
+					newerMatched[j] = true;
+					unchanged++;
+					break;
+				}
+			}
+		}
+
+		//The unpaired Stations of the older list with each identity, chained in order
+		HashMap<String, Integer> identities = new HashMap<String, Integer>();
+		for (int i = olderSize - 1; i >= 0; i--) {
+			if (!olderMatched[i]) {
+				Integer head = identities.put(olderIdentities[i], i);
+				next[i] = head == null ? -1 : head;
+			}
+		}
+
+		ArrayList<Station> addedStations = new ArrayList<Station>();
+		ArrayList<Station> from = new ArrayList<Station>();
+		ArrayList<Station> to = new ArrayList<Station>();
+		for (int j = 0; j < newerSize; j++) {
+			if (newerMatched[j]) {
+				continue;
+			}
+
+			Integer head = identities.get(newerIdentities[j]);
+			if (head == null || head == -1) {
+				addedStations.add(newer.station(j));
+			} else {
+				identities.put(newerIdentities[j], next[head]);
+				olderMatched[head] = true;
+				from.add(older.station(head));
+				to.add(newer.station(j));
+			}
+		}
+
+		ArrayList<Station> removedStations = new ArrayList<Station>();
+		for (int i = 0; i < olderSize; i++) {
+			if (!olderMatched[i]) {
+				removedStations.add(older.station(i));
+			}
+		}
+
+		added = addedStations.toArray(new Station[addedStations.size()]);
+		removed = removedStations.toArray(new Station[removedStations.size()]);
+		changedFrom = from.toArray(new Station[from.size()]);
+		changedTo = to.toArray(new Station[to.size()]);
+	}
+
+	/**
+	 * <h1>getAdded</h1>
+	 * <p>public Station[] getAdded()</p>
+	 * <p>Retrieves the Stations of the newer list that are not in the older
+	 * one, in the order of the newer list.</p>
+	 * @return the added Stations, which is empty if there are none
+	 */
+	public Station[] getAdded() {
+		return added;
+	}
+
+	/**
+	 * <h1>getRemoved</h1>
+	 * <p>public Station[] getRemoved()</p>
+	 * <p>Retrieves the Stations of the older list that are not in the newer
+	 * one, in the order of the older list.</p>
+	 * @return the removed Stations, which is empty if there are none
+	 */
+	public Station[] getRemoved() {
+		return removed;
+	}
+
+	/**
+	 * <h1>getChanged</h1>
+	 * <p>public Station[] getChanged()</p>
+	 * <p>Retrieves the changed Stations as they are in the newer list, in the
+	 * order of the newer list.</p>
+	 * @return the changed Stations, which is empty if there are none
+	 */
+	public Station[] getChanged() {
+		return changedTo;
+	}
+
+	/**
+	 * <h1>getChangedFrom</h1>
+	 * <p>public Station[] getChangedFrom()</p>
+	 * <p>Retrieves the changed Stations as they were in the older list. Each
+	 * one is at the same index as the Station it changed into in getChanged().</p>
+	 * @return the changed Stations before they changed, which is empty if there are none
+	 */
+	public Station[] getChangedFrom() {
+		return changedFrom;
+	}
+
+	/**
+	 * <h1>getUnchangedCount</h1>
+	 * <p>public int getUnchangedCount()</p>
+	 * <p>Retrieves the number of Stations that are exactly the same in both lists.</p>
+	 * @return the number of unchanged Stations
+	 */
+	public int getUnchangedCount() {
+		return unchanged;
+	}
+
+	/**
+	 * <h1>isEmpty</h1>
+	 * <p>public boolean isEmpty()</p>
+	 * <p>Retrieves whether the lists hold exactly the same Stations.</p>
+	 * @return true if no Station was added, removed or changed
+	 */
+	public boolean isEmpty() {
+		return added.length == 0 && removed.length == 0 && changedTo.length == 0;
+	}
+
+	//The normalised name and address of a Station
+	private static String identity(StationList list, int i) {
+		return DuplicateFilter.normalise(list.stringAt(i, StationList.NAME)) + '\n'
+				+ DuplicateFilter.normalise(list.stringAt(i, StationList.ADDRESS));
+	}
+
+	//A hash of the coordinates and every field of a Station
+	private static long content(StationList list, int i) {
+		long hash = Double.doubleToLongBits(list.latitudeAt(i) + 0.0);
+		hash = hash * 0x9E3779B97F4A7C15L + Double.doubleToLongBits(list.longitudeAt(i) + 0.0);
+		for (int column = 0; column < StationList.FIELDS.length; column++) {
+			String value = list.stringAt(i, column);
+			hash = hash * 0x9E3779B97F4A7C15L + (value == null ? 0 : value.hashCode() + 1);
+		}
+		return hash ^ (hash >>> 32);
+	}
+
+	private static boolean sameContent(StationList older, int i, StationList newer, int j) {
+		if (older.latitudeAt(i) != newer.latitudeAt(j) || older.longitudeAt(i) != newer.longitudeAt(j)) {
+			return false;
+		}
+		for (int column = 0; column < StationList.FIELDS.length; column++) {
+			String value = older.stringAt(i, column);
+			if (value == null ? newer.stringAt(j, column) != null : !value.equals(newer.stringAt(j, column))) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
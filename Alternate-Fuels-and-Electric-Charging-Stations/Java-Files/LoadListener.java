@@ -0,0 +1,30 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package alternateFuelStations;
+
+/**
+ * <p>The LoadListener interface receives progress reports while
+ * StationList.loadAsync() reads in the JSON files of a list.</p>
+ *
+ * <p>Reports are made from the background thread reading the files, after
+ * each file has been read in.</p>
+ * @version 1.0
+ */
+public interface LoadListener {
+
+	/**
+	 * <h1>progress</h1>
+	 * <p>void progress(StationList loaded, int filesRead, int fileCount)</p>
+	 * <p>Called each time a file has been read in. Until the last file is read
+	 * loaded is a partial StationList holding the Stations of the files read so far, for
+	 * which isPartial() returns true. It does not change as more files are read
+	 * and can be kept and queried from any thread.</p>
+	 * @param loaded - The StationList read in so far
+	 * @param filesRead - The number of files read in so far
+	 * @param fileCount - The number of files being read in
+	 */
+	void progress(StationList loaded, int filesRead, int fileCount);
+}
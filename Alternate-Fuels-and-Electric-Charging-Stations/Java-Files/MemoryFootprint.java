@@ -0,0 +1,273 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package alternateFuelStations;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>The MemoryFootprint class is an estimate of the memory held by a
+ * StationList, broken down into its coordinates, each of its String fields,
+ * and each of its indexes and caches.</p>
+ *
+ * <p>The sizes are worked out from the lengths of the arrays and Strings
+ * the list holds rather than measured, assuming a 64-bit JVM with compressed
+ * references: 12 byte object headers, 16 byte array headers, 4 byte
+ * references and objects aligned to 8 bytes. A String shared by several
+ * records is only counted once, and indexes are not charged for the Strings
+ * they share with the records. Memory held outside of the Java heap by off-heap
+ * lists is counted separately as off-heap bytes.</p>
+ * @version 1.0
+ */
+public class MemoryFootprint {
+
+	private int records;
+	private LinkedHashMap<String, long[]> components = new LinkedHashMap<String, long[]>();
+
+	/**
+	 * <h1>MemoryFootprint</h1>
+	 * <p>MemoryFootprint(int records)</p>
+	 * <p>Creates a new MemoryFootprint with no components.</p>
+	 * @param records - The number of records in the list
+	 */
+	MemoryFootprint(int records) {
+		this.records = records;
+	}
+
+	/**
+	 * <h1>add</h1>
+	 * <p>void add(String component, long heapBytes, long offHeapBytes)</p>
+	 * <p>Adds bytes to a component, creating it if it is not there yet.</p>
+	 * @param component - The name of the component
+	 * @param heapBytes - The bytes held on the Java heap
+	 * @param offHeapBytes - The bytes held outside of the Java heap
+	 */
+	void add(String component, long heapBytes, long offHeapBytes) {
+		long[] bytes = components.get(component);
+		if (bytes == null) {
+			bytes = new long[2];
+			components.put(component, bytes);
+		}
+		bytes[0] += heapBytes;
+		bytes[1] += offHeapBytes;
+	}
+
+	/**
+	 * <h1>add</h1>
+	 * <p>void add(MemoryFootprint other)</p>
+	 * <p>Adds the bytes of every component of another MemoryFootprint, such as
+	 * that of the list a changed version of it shares its Stations with.</p>
+	 * @param other - The other MemoryFootprint
+	 */
+	void add(MemoryFootprint other) {
+		for (Map.Entry<String, long[]> component : other.components.entrySet()) {
+			add(component.getKey(), component.getValue()[0], component.getValue()[1]);
+		}
+	}
+
+	/**
+	 * <h1>getRecordCount</h1>
+	 * <p>public int getRecordCount()</p>
+	 * <p>Retrieves the number of Stations in the list.</p>
+	 * @return the number of Stations
+	 */
+	public int getRecordCount() {
+		return records;
+	}
+
+	/**
+	 * <h1>getComponents</h1>
+	 * <p>public String[] getComponents()</p>
+	 * <p>Retrieves the names of the parts of the list the memory is broken down
+	 * into. The coordinates, records and String fields come first, followed by
+	 * the indexes and caches that have been built.</p>
+	 * @return the names of the components
+	 */
+	public String[] getComponents() {
+		return components.keySet().toArray(new String[components.size()]);
+	}
+
+	/**
+	 * <h1>getBytes</h1>
+	 * <p>public long getBytes(String component)</p>
+	 * <p>Retrieves the estimated bytes held by one component, both on and off
+	 * the Java heap.</p>
+	 * @param component - The name of the component
+	 * @return the bytes held by the component, or 0 if the list has no such component
+	 */
+	public long getBytes(String component) {
+		long[] bytes = components.get(component);
+		return bytes == null ? 0 : bytes[0] + bytes[1];
+	}
+
+	/**
+	 * <h1>getHeapBytes</h1>
+	 * <p>public long getHeapBytes()</p>
+	 * <p>Retrieves the estimated bytes held by the list on the Java heap.</p>
+	 * @return the heap bytes
+	 */
+	public long getHeapBytes() {
+		long total = 0;
+		for (long[] bytes : components.values()) {
+			total += bytes[0];
+		}
+		return total;
+	}
+
+	/**
+	 * <h1>getOffHeapBytes</h1>
+	 * <p>public long getOffHeapBytes()</p>
+	 * <p>Retrieves the bytes held by the list outside of the Java heap, which
+	 * is 0 unless the list was read in off-heap.</p>
+	 * @return the off-heap bytes
+	 */
+	public long getOffHeapBytes() {
+		long total = 0;
+		for (long[] bytes : components.values()) {
+			total += bytes[1];
+		}
+		return total;
+	}
+
+	/**
+	 * <h1>getTotalBytes</h1>
+	 * <p>public long getTotalBytes()</p>
+	 * <p>Retrieves the estimated bytes held by the list, both on and off the
+	 * Java heap.</p>
+	 * @return the total bytes
+	 */
+	public long getTotalBytes() {
+		return getHeapBytes() + getOffHeapBytes();
+	}
+
+	/**
+	 * <h1>getBytesPerRecord</h1>
+	 * <p>public double getBytesPerRecord()</p>
+	 * <p>Retrieves the total bytes divided by the number of Stations.</p>
+	 * @return the bytes per Station, or 0 if the list is empty
+	 */
+	public double getBytesPerRecord() {
+		return records == 0 ? 0 : (double) getTotalBytes() / records;
+	}
+
+	/**
+	 * <h1>toString</h1>
+	 * <p>public String toString()</p>
+	 * <p>Lists the bytes of each component, one per line, followed by the totals.</p>
+	 * @return the breakdown as text
+	 */
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder();
+		for (Map.Entry<String, long[]> component : components.entrySet()) {
+			text.append(component.getKey()).append(": ").append(component.getValue()[0] + component.getValue()[1]);
+			if (component.getValue()[1] > 0) {
+				text.append(" (").append(component.getValue()[1]).append(" off-heap)");
+			}
+			text.append('\n');
+		}
+		text.append("total: ").append(getTotalBytes()).append(" for ").append(records).append(" records, ");
+		text.append(String.format("%.1f", getBytesPerRecord())).append(" bytes per record");
+		return text.toString();
+	}
+
+	/**
+	 * <h1>objectBytes</h1>
+	 * <p>static long objectBytes(int fieldBytes)</p>
+	 * <p>Estimates the size of an object from the size of its fields.</p>
+	 * @param fieldBytes - The bytes taken by the fields, 4 for each reference
+	 * @return the size of the object
+	 */
+	static long objectBytes(int fieldBytes) {
+		return align(12 + fieldBytes);
+	}
+
+	/**
+	 * <h1>arrayBytes</h1>
+	 * <p>static long arrayBytes(long length, int elementBytes)</p>
+	 * <p>Estimates the size of an array, not counting any objects it refers to.</p>
+	 * @param length - The length of the array
+	 * @param elementBytes - The bytes taken by each element, 4 for references
+	 * @return the size of the array
+	 */
+	static long arrayBytes(long length, int elementBytes) {
+		return align(16 + length * elementBytes);
+	}
+
+	/**
+	 * <h1>stringBytes</h1>
+	 * <p>static long stringBytes(String value)</p>
+	 * <p>Estimates the size of a String and its bytes, which take one byte per
+	 * character when every character is Latin-1 and two otherwise.</p>
+	 * @param value - The String, may be null
+	 * @return the size of the String, 0 if it is null
+	 */
+	static long stringBytes(String value) {
+		if (value == null) {
+			return 0;
+		}
+
+		int width = 1;
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) > 0xFF) {
+				width = 2;
+				break;
+			}
+		}
+		return objectBytes(12) + arrayBytes(value.length(), width);
+	}
+
+	/**
+	 * <h1>stringArrayBytes</h1>
+	 * <p>static long stringArrayBytes(String[] values)</p>
+	 * <p>Estimates the size of an array of Strings along with the Strings.</p>
+	 * @param values - The array
+	 * @return the size of the array and its Strings
+	 */
+	static long stringArrayBytes(String[] values) {
+		long bytes = arrayBytes(values.length, 4);
+		for (int i = 0; i < values.length; i++) {
+			bytes += stringBytes(values[i]);
+		}
+		return bytes;
+	}
+
+	/**
+	 * <h1>intArraysBytes</h1>
+	 * <p>static long intArraysBytes(int[][] arrays)</p>
+	 * <p>Estimates the size of an array of int arrays along with the int arrays.</p>
+	 * @param arrays - The array
+	 * @return the size of the array and the int arrays
+	 */
+	static long intArraysBytes(int[][] arrays) {
+		long bytes = arrayBytes(arrays.length, 4);
+		for (int i = 0; i < arrays.length; i++) {
+			bytes += arrays[i] == null ? 0 : arrayBytes(arrays[i].length, 4);
+		}
+		return bytes;
+	}
+
+	/**
+	 * <h1>hashMapBytes</h1>
+	 * <p>static long hashMapBytes(int entries, boolean linked)</p>
+	 * <p>Estimates the size of a HashMap and its entries at the default load
+	 * factor, not counting its keys and values.</p>
+	 * @param entries - The number of entries
+	 * @param linked - Whether the map is a LinkedHashMap, whose entries are larger
+	 * @return the size of the map and its entries
+	 */
+	static long hashMapBytes(int entries, boolean linked) {
+		int tableLength = 16;
+		while (tableLength * 3 / 4 < entries) {
+			tableLength *= 2;
+		}
+		return objectBytes(linked ? 45 : 36) + arrayBytes(tableLength, 4) + entries * objectBytes(linked ? 24 : 16);
+	}
+
+	private static long align(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+}
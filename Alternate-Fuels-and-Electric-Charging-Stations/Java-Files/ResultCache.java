@@ -0,0 +1,230 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package alternateFuelStations;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>The ResultCache class remembers the results of location based queries so
+ * that positions a few metres apart share one result.</p>
+ *
+ * <p>Coordinates are rounded to a grid of the given resolution in degrees, and
+ * a query is always answered for the centre of its grid cell, so the cached
+ * result does not depend on which position in the cell was asked for first.
+ * The cache holds at most a fixed number of results, dropping the least
+ * recently used one when it is full, and results older than the time to live
+ * are computed again.</p>
+ *
+ * <p>All methods are synchronized. Results are computed by the caller outside
+ * of the lock, so two threads asking for the same new cell at once may both
+ * compute it.</p>
+ * @version 1.0
+ */
+final class ResultCache {
+
+	private final int maxEntries;
+	private final double resolution;
+	private final long ttlNanos;
+	private final Map<Key, Entry> entries;
+
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * <p>A query together with the grid cell of its coordinates.</p>
+	 */
+	static final class Key {
+
+		final int query;
+		final long latitudeCell;
+		final long longitudeCell;
+
+		Key(int query, long latitudeCell, long longitudeCell) {
+			this.query = query;
+			this.latitudeCell = latitudeCell;
+			this.longitudeCell = longitudeCell;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) other;
+			return query == key.query && latitudeCell == key.latitudeCell && longitudeCell == key.longitudeCell;
+		}
+
+		@Override
+		public int hashCode() {
+			long hash = query * 31L + latitudeCell;
+			hash = hash * 1000003L + longitudeCell;
+			return (int) (hash ^ (hash >>> 32));
+		}
+	}
+
+	private static final class Entry {
+
+		final Object value;
+		final long created;
+
+		Entry(Object value, long created) {
+			this.value = value;
+			this.created = created;
+		}
+	}
+
+	/**
+	 * <h1>ResultCache</h1>
+	 * <p>ResultCache(final int maxEntries, long ttlMillis, double resolution)</p>
+	 * <p>Creates a new, empty ResultCache.</p>
+	 * @param maxEntries - The largest number of results held at once
+	 * @param ttlMillis - How long a result is kept in milliseconds, 0 to keep it until it is evicted
+	 * @param resolution - The size of a grid cell in degrees
+	 */
+	ResultCache(final int maxEntries, long ttlMillis, double resolution) {
+		this.maxEntries = maxEntries;
+		this.resolution = resolution;
+		this.ttlNanos = ttlMillis * 1000000L;
+
+		entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				if (size() > maxEntries) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * <h1>key</h1>
+	 * <p>Key key(int query, double latitude, double longitude)</p>
+	 * <p>Creates the key of a query made from the given coordinates.</p>
+	 * @param query - A number identifying the query and its other parameters
+	 * @param latitude - The latitude the query was made from
+	 * @param longitude - The longitude the query was made from
+	 * @return the key
+	 */
+	Key key(int query, double latitude, double longitude) {
+		return new Key(query, Math.round(latitude / resolution), Math.round(longitude / resolution));
+	}
+
+	/**
+	 * <h1>latitude</h1>
+	 * <p>double latitude(Key key)</p>
+	 * <p>Retrieves the latitude of the centre of the grid cell of a key, which
+	 * is where the query should be answered from.</p>
+	 * @param key - The key of the query
+	 * @return the latitude of the cell
+	 */
+	double latitude(Key key) {
+		return key.latitudeCell * resolution;
+	}
+
+	/**
+	 * <h1>longitude</h1>
+	 * <p>double longitude(Key key)</p>
+	 * <p>Retrieves the longitude of the centre of the grid cell of a key.</p>
+	 * @param key - The key of the query
+	 * @return the longitude of the cell
+	 */
+	double longitude(Key key) {
+		return key.longitudeCell * resolution;
+	}
+
+	/**
+	 * <h1>get</h1>
+	 * <p>synchronized Object get(Key key)</p>
+	 * <p>Retrieves a cached result, counting a hit or a miss.</p>
+	 * @param key - The key of the query
+	 * @return the result, or null if it is not cached or has expired
+	 */
+	synchronized Object get(Key key) {
+		Entry entry = entries.get(key);
+
+		if (entry != null && ttlNanos > 0 && System.nanoTime() - entry.created > ttlNanos) {
+			entries.remove(key);
+			evictions++;
+			entry = null;
+		}
+
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+
+		hits++;
+		return entry.value;
+	}
+
+	/**
+	 * <h1>put</h1>
+	 * <p>synchronized void put(Key key, Object value)</p>
+	 * <p>Caches a result, evicting the least recently used one if the cache
+	 * is full.</p>
+	 * @param key - The key of the query
+	 * @param value - The result, results that are null are not cached
+	 */
+	synchronized void put(Key key, Object value) {
+		if (value != null) {
+			entries.put(key, new Entry(value, System.nanoTime()));
+		}
+	}
+
+	/**
+	 * <h1>clear</h1>
+	 * <p>synchronized void clear()</p>
+	 * <p>Removes every cached result. The hit and miss counts are kept.</p>
+	 */
+	synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * <h1>emptyCopy</h1>
+	 * <p>ResultCache emptyCopy()</p>
+	 * <p>Creates a new, empty ResultCache with the same size, time to live and
+	 * resolution, for a changed version of the list whose results differ.</p>
+	 * @return the new ResultCache
+	 */
+	ResultCache emptyCopy() {
+		return new ResultCache(maxEntries, ttlNanos / 1000000L, resolution);
+	}
+
+	/**
+	 * <h1>getStats</h1>
+	 * <p>synchronized CacheStats getStats()</p>
+	 * <p>Retrieves the hit and miss counts of the cache.</p>
+	 * @return a snapshot of the counts
+	 */
+	synchronized CacheStats getStats() {
+		return new CacheStats(hits, misses, evictions, entries.size());
+	}
+
+	/**
+	 * <h1>estimateBytes</h1>
+	 * <p>synchronized long estimateBytes()</p>
+	 * <p>Estimates the memory held by the cached results. The records the
+	 * results refer to are not counted.</p>
+	 * @return the estimated bytes
+	 */
+	synchronized long estimateBytes() {
+		long bytes = MemoryFootprint.objectBytes(40) + MemoryFootprint.hashMapBytes(entries.size(), true);
+		for (Entry entry : entries.values()) {
+			bytes += MemoryFootprint.objectBytes(20) + MemoryFootprint.objectBytes(12);
+			if (entry.value instanceof Object[]) {
+				bytes += MemoryFootprint.arrayBytes(((Object[]) entry.value).length, 4);
+			}
+		}
+		return bytes;
+	}
+}
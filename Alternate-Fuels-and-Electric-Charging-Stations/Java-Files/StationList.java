@@ -5,15 +5,31 @@
 
 package alternateFuelStations;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.google.gson.stream.JsonReader;
 
@@ -32,10 +48,75 @@ import com.google.gson.stream.JsonReader;
  */
 public class StationList {
 	
+	static final int NAME = 0;
+	private static final int FUEL_TYPE = 1;
+	static final int ADDRESS = 2;
+	private static final int ACCESS = 3;
+	
+	//The names of the String fields, in column order, used by getMemoryFootprint() and ListDiff
+	static final String[] FIELDS = {"name", "fuelType", "address", "access"};
+	
+	private static final int NEARBY_CANDIDATES = 64;
+	
+	//A changed list stores its Stations together again once its changes outnumber 8 times the square root of its size, or 256
+	private static final int MIN_CHANGES = 256;
+	private static final int CHANGES_PER_ROOT = 8;
+	
+	//The String columns stored off-heap as codes into a dictionary
+	private static final boolean[] CATEGORICAL = {false, true, false, true};
+	
+	private static final int CLOSEST_QUERY = 0;
+	private static final int SORT_QUERY = 1;
+	
+	//Files are only split for parallel parsing into chunks of at least this many bytes
+	private static final int PARALLEL_CHUNK = 1 << 22;
+	
+	//Files smaller than this are parsed on one thread, as splitting them costs more than it saves
+	private static final int PARALLEL_MINIMUM = 1 << 25;
+	
+	//Files larger than this are read with Gson as they are streamed, rather than held in memory for the OdenScanner
+	private static final int SCAN_LIMIT = 1 << 24;
+	
+	//The largest array the JVM can make, which is as much of a file as parallel parsing can hold
+	private static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+	
+	//Runs each asynchronous load on a thread of its own, as reading files blocks
+	private static final Executor LOADER = new Executor() {
+		@Override
+		public void execute(Runnable task) {
+			Thread thread = new Thread(task, "StationList loader");
+			thread.setDaemon(true);
+			thread.start();
+		}
+	};
+	
 	private ArrayList<Station> inputStations;
-	private ArrayList<String> fuelTypes;
+	private volatile ArrayList<String> fuelTypes;
 	
 	private Station[] stations;
+	private int stationCount;
+	private OffHeapStore store;
+	private CompactStore compact;
+	private ResultCache resultCache;
+	private DuplicateFilter duplicateFilter;
+	private int duplicates;
+	private boolean parallelParsing;
+	private boolean partial;
+	
+	//The Stations given to partial lists while the list is read in, which share the array up to their own size
+	private Station[] snapshotStations;
+	private int snapshotCount;
+	private ArrayList<String> snapshotFuelTypes;
+	
+	//The list holding the stored Stations of a changed list, and the changes made since they were stored
+	private StationList base;
+	private Delta delta;
+	
+	private volatile FuzzyIndex nameIndex;
+	private volatile PrefixIndex[] prefixIndexes = new PrefixIndex[4];
+	private volatile TilePyramid[] tilePyramids = new TilePyramid[4];
+	private volatile ClusterIndex clusterIndex;
+	private volatile double[][] coordinates;
 	
 	/**
 	 * <h1>StationList</h1>
@@ -49,20 +130,35 @@ public class StationList {
 	 * through the parameters
 	 */
 	public StationList(Reader json) throws IOException {
+		this(json, new LoadOptions());
+	}
+	
+	/**
+	 * <h1>StationList</h1>
+	 * <p>public StationList(Reader json, LoadOptions options) throws IOException</p>
+	 * <p>Creates a new StationList when given a Reader to a JSON file and the
+	 * options to read it in with. For the list to be created properly the JSON 
+	 * file must contain geographic data (GeoJSON) for alternative fueling 
+	 * stations that is in the oden unified format.</p>
+	 * @param json - The reader reading in data from a JSON file
+	 * @param options - The options used to read in the data
+	 * @throws IOException if there is a problem with the Reader given
+	 * through the parameters
+	 */
+	public StationList(Reader json, LoadOptions options) throws IOException {
 		
-		inputStations = new ArrayList<Station>();
+		startLoading(options);
 		JsonReader reader = new JsonReader(json);
 		
 		try {
-			inputStations = readStations(reader);
+			readStations(reader);
 		} catch (IOException e) {
 			System.err.println("Caught IOException: " + e.getMessage());
 		} finally {
 			reader.close();
 		}
 		
-		stations = inputStations.toArray(new Station[inputStations.size()]);
-		fuelTypes = readFuelTypes(stations);
+		finishLoading(options);
 	}
 	
 	/**
@@ -76,29 +172,72 @@ public class StationList {
 	 * @throws IOException if there is a problem reading in data from the files
 	 */
 	public StationList(String filePath) throws IOException {
+		this(filePath, new LoadOptions());
+	}
+	
+	/**
+	 * <h1>StationList</h1>
+	 * <p>public StationList(String filePath, LoadOptions options) throws IOException</p>
+	 * <p>Creates a new StationList when given a file path (as a String) to a 
+	 * folder containing JSON files and the options to read them in with. The 
+	 * file path must be the full system path and the folder must only contain 
+	 * JSON files containing geographic data (GeoJSON) for alternative fueling 
+	 * stations that is in the oden unified format.
+	 * <p>The folder may also hold gzip compressed JSON files ending in .json.gz and zip 
+	 * files of JSON files ending in .zip, which are decompressed while they are parsed 
+	 * rather than being decompressed in memory first.</p>
+	 * <p>Files of up to 16 MB are held in memory while they are parsed, and larger files 
+	 * are parsed as they are read without being held in memory.</p>
+	 * @param filePath - The file path to the folder containing the JSON files
+	 * @param options - The options used to read in the data
+	 * @throws IOException if there is a problem reading in data from the files
+	 */
+	public StationList(String filePath, LoadOptions options) throws IOException {
+		this(inputFiles(filePath), options, null);
+	}
+	
+	//Reads in the JSON files of a folder, reporting to the listener after each file but the last
+	private StationList(File[] inputFiles, LoadOptions options, LoadListener listener) throws IOException {
 		
-		inputStations = new ArrayList<Station>();
-		File folder = new File(filePath);
-		File[] fileList = folder.listFiles();
+		startLoading(options);
+		int fileCount = inputFiles.length;
+		Decompressor decompressor = new Decompressor(inputFiles);
 		
 		try {
 			
-			FileInputStream fileStream;
-			for (int i = 0; i < fileList.length; i++) {
+			for (int filesRead = 1; filesRead <= fileCount; filesRead++) {
 				
-				if (fileList[i].isFile() && fileList[i].getName().endsWith(".json")) {
-					
-					fileStream = new FileInputStream(fileList[i]);
-					ArrayList<Station> temp = readStations(new JsonReader(new InputStreamReader(fileStream, "UTF-8")));
-					inputStations.addAll(temp);
+				InputStream json;
+				while ((json = decompressor.next()) != null) {
+					readStations(json);
+				}
+				
+				if (listener != null && filesRead < fileCount) {
+					listener.progress(snapshot(), filesRead, fileCount);
 				}
 			}
 		} catch (IOException e) {
 			System.err.println("Caught IOException: " + e.getMessage());
-		} 
+		} finally {
+			decompressor.close();
+		}
+		
+		finishLoading(options);
+	}
+	
+	//Lists the files of a folder that hold JSON files, going by their names
+	private static File[] inputFiles(String filePath) {
+		File folder = new File(filePath);
+		File[] fileList = folder.listFiles();
+		ArrayList<File> inputFiles = new ArrayList<File>();
+		
+		for (int i = 0; i < fileList.length; i++) {
+			if (fileList[i].isFile() && Decompressor.isInput(fileList[i].getName())) {
+				inputFiles.add(fileList[i]);
+			}
+		}
 		
-		stations = inputStations.toArray(new Station[inputStations.size()]);
-		fuelTypes = readFuelTypes(stations);
+		return inputFiles.toArray(new File[inputFiles.size()]);
 	}
 	
 	/**
@@ -113,22 +252,182 @@ public class StationList {
 	 * @throws IOException if there is a problem reading in data from the files
 	 */
 	public StationList(InputStream[] inputStreams) throws IOException {
+		this(inputStreams, new LoadOptions());
+	}
+	
+	/**
+	 * <h1>StationList</h1>
+	 * <p>public StationList(InputStream[] inputStreams, LoadOptions options) throws IOException</p>
+	 * <p>Creates a new StationList when given an array of InputStream objects that are 
+	 * being reading JSON files and the options to read them in with. The InputStreams 
+	 * must be from JSON files containing geographic data (GeoJSON) for alternative 
+	 * fueling stations that are in the oden unified format.
+	 * <p>InputStreams of gzip compressed JSON files or of zip files holding JSON files
+	 * are recognised from their first bytes and decompressed as they are read in.</p>
+	 * <p>Files of up to 16 MB are held in memory while they are parsed, and larger files 
+	 * are parsed as they are read without being held in memory.</p>
+	 * <p>It is recommended that this constructor be used with Android, where the
+	 * compactCoordinates option of LoadOptions keeps the list small.</p>
+	 * @param inputStreams - The array of InputStreams to the JSON files
+	 * @param options - The options used to read in the data
+	 * @throws IOException if there is a problem reading in data from the files
+	 */
+	public StationList(InputStream[] inputStreams, LoadOptions options) throws IOException {
+		this(inputStreams, options, null);
+	}
+	
+	//Reads in the JSON files of an array of InputStreams, reporting to the listener after each file but the last
+	private StationList(InputStream[] inputStreams, LoadOptions options, LoadListener listener) throws IOException {
 		
-		inputStations = new ArrayList<Station>();
+		startLoading(options);
+		Decompressor decompressor = new Decompressor(inputStreams);
 		
 		try {
 			
 			for (int i = 0; i < inputStreams.length; i++) {
-									
-				ArrayList<Station> temp = readStations(new JsonReader(new InputStreamReader(inputStreams[i], "UTF-8")));
-				inputStations.addAll(temp);
+				
+				InputStream json;
+				while ((json = decompressor.next()) != null) {
+					readStations(json);
+				}
+				
+				if (listener != null && i + 1 < inputStreams.length) {
+					listener.progress(snapshot(), i + 1, inputStreams.length);
+				}
 			}
 		} catch (IOException e) {
 			System.err.println("Caught IOException: " + e.getMessage());
-		} 
+		} finally {
+			decompressor.close();
+		}
 		
-		stations = inputStations.toArray(new Station[inputStations.size()]);
-		fuelTypes = readFuelTypes(stations);
+		finishLoading(options);
+	}
+	
+	//Creates a partial list holding the Stations read in so far
+	private StationList(Station[] stations, int count, ArrayList<String> fuelTypes) {
+		this.stations = stations;
+		this.stationCount = count;
+		this.fuelTypes = fuelTypes;
+		partial = true;
+	}
+	
+	//Creates a changed list sharing the stored Stations of another list
+	private StationList(StationList base, Delta delta, ResultCache resultCache) {
+		this.base = base;
+		this.delta = delta;
+		this.resultCache = resultCache != null ? resultCache.emptyCopy() : null;
+		duplicates = base.duplicates;
+	}
+	
+	//Stores the Stations of a changed list together in a new list, off-heap or compact if its stored Stations were
+	private StationList(StationList changed) {
+		
+		if (changed.base.store != null || changed.base.compact != null) {
+			if (changed.base.compact != null) {
+				compact = new CompactStore(CATEGORICAL);
+			} else {
+				store = new OffHeapStore(CATEGORICAL);
+			}
+			int[] slots = new int[DistanceKernel.BLOCK];
+			int[] positions = new int[DistanceKernel.BLOCK];
+			String[] values = new String[FIELDS.length];
+			
+			for (int start = 0; start < changed.size(); start += DistanceKernel.BLOCK) {
+				int length = Math.min(DistanceKernel.BLOCK, changed.size() - start);
+				changed.delta.map(start, length, slots, positions);
+				for (int i = 0; i < length; i++) {
+					for (int column = 0; column < values.length; column++) {
+						values[column] = positions[i] >= 0 ? field(changed.delta.station(positions[i]), column)
+								: changed.base.stringAt(slots[i], column);
+					}
+					if (compact != null) {
+						compact.add(changed.slotLatitude(slots[i]), changed.slotLongitude(slots[i]), values);
+					} else {
+						store.add(changed.slotLatitude(slots[i]), changed.slotLongitude(slots[i]), values);
+					}
+				}
+			}
+			if (compact != null) {
+				compact.trim();
+			}
+		} else {
+			stations = changed.getAllStations();
+			stationCount = stations.length;
+		}
+		
+		resultCache = changed.resultCache;
+		duplicates = changed.duplicates;
+		fuelTypes = readFuelTypes();
+	}
+	
+	/**
+	 * <h1>loadAsync</h1>
+	 * <p>public static CompletableFuture&lt;StationList&gt; loadAsync(String filePath, LoadOptions options, 
+	 * LoadListener listener)</p>
+	 * <p>Starts reading in a StationList from a folder of JSON files on a background thread,
+	 * in the same way as the StationList(String, LoadOptions) constructor, and returns
+	 * without waiting for it.</p>
+	 * <p>After each file but the last the listener is given a partial StationList of the 
+	 * Stations read so far, which can be queried while the rest of the files are read 
+	 * in. Once every file is read it is given the finished StationList.</p>
+	 * @param filePath - The file path to the folder containing the JSON files
+	 * @param options - The options used to read in the data
+	 * @param listener - Receives the progress of the loading, may be null
+	 * @return a future completed with the StationList once every file is read in
+	 */
+	public static CompletableFuture<StationList> loadAsync(final String filePath,
+			final LoadOptions options, final LoadListener listener) {
+		
+		return CompletableFuture.supplyAsync(new Supplier<StationList>() {
+			@Override
+			public StationList get() {
+				try {
+					File[] inputFiles = inputFiles(filePath);
+					StationList list = new StationList(inputFiles, options, listener);
+					if (listener != null) {
+						listener.progress(list, inputFiles.length, inputFiles.length);
+					}
+					return list;
+				} catch (IOException e) {
+					throw new CompletionException(e);
+				}
+			}
+		}, LOADER);
+	}
+	
+	/**
+	 * <h1>loadAsync</h1>
+	 * <p>public static CompletableFuture&lt;StationList&gt; loadAsync(InputStream[] inputStreams, 
+	 * LoadOptions options, LoadListener listener)</p>
+	 * <p>Starts reading in a StationList from an array of InputStreams on a background thread,
+	 * in the same way as the StationList(InputStream[], LoadOptions) constructor, and returns
+	 * without waiting for it.</p>
+	 * <p>After each InputStream but the last the listener is given a partial StationList of 
+	 * the Stations read so far, which can be queried while the rest of the InputStreams 
+	 * are read in. Once every InputStream is read it is given the finished StationList.</p>
+	 * @param inputStreams - The array of InputStreams to the JSON files
+	 * @param options - The options used to read in the data
+	 * @param listener - Receives the progress of the loading, may be null
+	 * @return a future completed with the StationList once every InputStream is read in
+	 */
+	public static CompletableFuture<StationList> loadAsync(final InputStream[] inputStreams,
+			final LoadOptions options, final LoadListener listener) {
+		
+		return CompletableFuture.supplyAsync(new Supplier<StationList>() {
+			@Override
+			public StationList get() {
+				try {
+					StationList list = new StationList(inputStreams, options, listener);
+					if (listener != null) {
+						listener.progress(list, inputStreams.length, inputStreams.length);
+					}
+					return list;
+				} catch (IOException e) {
+					throw new CompletionException(e);
+				}
+			}
+		}, LOADER);
 	}
 	
 	/**
@@ -138,7 +437,74 @@ public class StationList {
 	 * @return The full list of Stations
 	 */
 	public Station[] getAllStations() {
-		return stations;
+		
+		if (stations != null) {
+			return stationCount == stations.length ? stations : Arrays.copyOf(stations, stationCount);
+		}
+		
+		Station[] allStations = new Station[size()];
+		
+		if (delta != null) {
+			int[] slots = new int[DistanceKernel.BLOCK];
+			int[] positions = new int[DistanceKernel.BLOCK];
+			
+			for (int start = 0; start < allStations.length; start += DistanceKernel.BLOCK) {
+				int length = Math.min(DistanceKernel.BLOCK, allStations.length - start);
+				delta.map(start, length, slots, positions);
+				for (int i = 0; i < length; i++) {
+					allStations[start + i] = positions[i] >= 0 ? delta.station(positions[i]) : base.station(slots[i]);
+				}
+			}
+			return allStations;
+		}
+		
+		for (int i = 0; i < allStations.length; i++) {
+			allStations[i] = station(i);
+		}
+		
+		return allStations;
+	}
+	
+	/**
+	 * <h1>size</h1>
+	 * <p>public int size()</p>
+	 * <p>Retrieves the number of Stations in the list.</p>
+	 * @return The number of Stations
+	 */
+	public final int size() {
+		
+		if (delta != null) {
+			return delta.size();
+		}
+		
+		if (compact != null) {
+			return compact.size();
+		}
+		
+		return stations != null ? stationCount : store.size();
+	}
+	
+	/**
+	 * <h1>isPartial</h1>
+	 * <p>public boolean isPartial()</p>
+	 * <p>Retrieves whether the list is a partial list given to a LoadListener while 
+	 * loadAsync() is still reading in the rest of the Stations.</p>
+	 * @return true if the list only holds some of the Stations
+	 */
+	public boolean isPartial() {
+		return partial;
+	}
+	
+	/**
+	 * <h1>getDuplicateCount</h1>
+	 * <p>public int getDuplicateCount()</p>
+	 * <p>Retrieves the number of Stations left out of the list while it was read in 
+	 * because they were duplicates of Stations already in it. This is always 0 unless 
+	 * LoadOptions.setDeduplicate(true) was set.</p>
+	 * @return The number of duplicate Stations left out
+	 */
+	public int getDuplicateCount() {
+		return duplicates;
 	}
 	
 	/**
@@ -148,6 +514,7 @@ public class StationList {
 	 * @return The list of fuel types
 	 */
 	public String[] getFuelTypes() {
+		ArrayList<String> fuelTypes = fuelTypes();
 		return fuelTypes.toArray(new String[fuelTypes.size()]);
 	}
 	
@@ -162,27 +529,32 @@ public class StationList {
 	 */
 	public Station getClosestStation(double latitude, double longitude) {
 		
-		Station closest = null;
-		double shortestDist = 0;
-
-		if (stations != null) {
-			
-			closest = stations[0];
-			shortestDist = Math.sqrt(Math.pow((stations[0].getLatitude() - latitude), 2) 
-					+ Math.pow((stations[0].getLongitude() - longitude), 2));
-		}
-		
-		for (int i = 0; i < stations.length; i++) {
-			double currentDist = Math.sqrt(Math.pow((stations[i].getLatitude() - latitude), 2) 
-					+ Math.pow((stations[i].getLongitude() - longitude), 2));
+		if (resultCache != null) {
+			ResultCache.Key key = resultCache.key(CLOSEST_QUERY, latitude, longitude);
+			Station cached = (Station) resultCache.get(key);
 			
-			if (currentDist < shortestDist) {
-				shortestDist = currentDist;
-				closest = stations[i];
+			if (cached == null) {
+				cached = closestStation(resultCache.latitude(key), resultCache.longitude(key));
+				resultCache.put(key, cached);
 			}
+			return cached;
 		}
 		
-		return closest;
+		return closestStation(latitude, longitude);
+	}
+	
+	/**
+	 * <h1>trackClosestStation</h1>
+	 * <p>public NearestTracker trackClosestStation()</p>
+	 * <p>Creates a NearestTracker for a user who keeps asking for the closest
+	 * Station while they move. The tracker remembers its last answer and how far
+	 * the user can move before it could change, so repeated lookups from nearby
+	 * positions cost next to nothing compared to getClosestStation(). Each moving
+	 * user should have a tracker of their own.</p>
+	 * @return a new NearestTracker over this list
+	 */
+	public NearestTracker trackClosestStation() {
+		return new NearestTracker(this);
 	}
 	
 	/**
@@ -196,29 +568,136 @@ public class StationList {
 	 * @return the list of Stations sorted by their distance to the given latitude and longitude
 	 */
 	public Station[] sortByDistance(final double latitude, final double longitude) {
-		Station[] sortedStations = stations;
 		
-		Arrays.sort(sortedStations, new Comparator<Station>() {
-			@Override
-			public int compare(Station first, Station second) {
-
-				double firstDist = Math.sqrt(Math.pow((first.getLatitude() - latitude), 2) 
-						+ Math.pow((first.getLongitude() - longitude), 2));
-				
-				double secondDist = Math.sqrt(Math.pow((second.getLatitude() - latitude), 2) 
-						+ Math.pow((second.getLongitude() - longitude), 2));
-				
-				if (firstDist < secondDist) {
-					return -1;
-				} else if (firstDist > secondDist) {
-					return 1;
-				} else {
-					return 0;
+		if (resultCache != null) {
+			ResultCache.Key key = resultCache.key(SORT_QUERY, latitude, longitude);
+			Station[] cached = (Station[]) resultCache.get(key);
+			
+			if (cached == null) {
+				cached = sortStationsByDistance(resultCache.latitude(key), resultCache.longitude(key));
+				resultCache.put(key, cached);
+			}
+			return cached.clone();
+		}
+		
+		return sortStationsByDistance(latitude, longitude);
+	}
+	
+	/**
+	 * <h1>getCacheStats</h1>
+	 * <p>public CacheStats getCacheStats()</p>
+	 * <p>Retrieves the hit, miss and eviction counts of the result cache set up
+	 * with LoadOptions.setResultCacheSize(int).</p>
+	 * <p>This method returns <b>null</b> if the result cache is off.</p>
+	 * @return a snapshot of the result cache counts
+	 */
+	public CacheStats getCacheStats() {
+		return resultCache != null ? resultCache.getStats() : null;
+	}
+	
+	/**
+	 * <h1>clearCache</h1>
+	 * <p>public void clearCache()</p>
+	 * <p>Removes every result from the result cache, if there is one. The cache
+	 * of a list is emptied automatically whenever its stations change, so this is
+	 * only needed to free memory.</p>
+	 */
+	public final void clearCache() {
+		if (resultCache != null) {
+			resultCache.clear();
+		}
+	}
+	
+	/**
+	 * <h1>getMemoryFootprint</h1>
+	 * <p>public MemoryFootprint getMemoryFootprint()</p>
+	 * <p>Estimates the memory held by the list, broken down into the Station objects,
+	 * their coordinates, each of their String fields, and whichever of the name search
+	 * index, the autocomplete indexes, the map tiles, the cluster index and the result
+	 * cache have been built. The sizes are worked out from what the list holds rather
+	 * than measured, so they are estimates; lists read in off-heap report most of
+	 * their memory as off-heap bytes.</p>
+	 * <p>The String fields are walked once for each call, so this is meant for
+	 * sizing and monitoring rather than for being called on every query.</p>
+	 * <p>A list made by add, update or remove also counts the list it shares its stored 
+	 * Stations with, along with its own changes and the indexes built over them.</p>
+	 * @return the estimated memory footprint of the list
+	 */
+	public MemoryFootprint getMemoryFootprint() {
+		
+		int count = size();
+		MemoryFootprint footprint = new MemoryFootprint(count);
+		
+		if (delta != null) {
+			footprint.add(base.getMemoryFootprint());
+			long bytes = delta.estimateBytes();
+			for (int i = 0; i < delta.count(); i++) {
+				bytes += MemoryFootprint.objectBytes(32);
+				for (int column = 0; column < FIELDS.length; column++) {
+					bytes += MemoryFootprint.stringBytes(field(delta.station(i), column));
 				}
 			}
-		});
+			footprint.add("changes", bytes, 0);
+		} else if (compact != null) {
+			footprint.add("coordinates", compact.coordinateBytes(), 0);
+			for (int column = 0; column < FIELDS.length; column++) {
+				footprint.add(FIELDS[column], compact.columnBytes(column), 0);
+			}
+		} else if (stations == null) {
+			footprint.add("coordinates", 0, 16L * count);
+			long used = 16L * count;
+			for (int column = 0; column < FIELDS.length; column++) {
+				long bytes = store.columnBytes(column);
+				footprint.add(FIELDS[column], store.dictionaryBytes(column), bytes);
+				used += bytes;
+			}
+			footprint.add("unused", 0, Math.max(0, store.getDirectBytes() - used));
+		} else {
+			footprint.add("stations", MemoryFootprint.arrayBytes(count, 4)
+					+ count * (MemoryFootprint.objectBytes(32) - 16), 0);
+			footprint.add("coordinates", 16L * count, 0);
+			IdentityHashMap<String, Boolean> counted = new IdentityHashMap<String, Boolean>();
+			for (int column = 0; column < FIELDS.length; column++) {
+				long bytes = 0;
+				for (int i = 0; i < count; i++) {
+					String value = stringAt(i, column);
+					if (value != null && counted.put(value, Boolean.TRUE) == null) {
+						bytes += MemoryFootprint.stringBytes(value);
+					}
+				}
+				footprint.add(FIELDS[column], bytes, 0);
+			}
+		}
 		
-		return sortedStations;
+		FuzzyIndex names = nameIndex;
+		if (names != null) {
+			footprint.add("nameIndex", names.estimateBytes(), 0);
+		}
+		for (int column = 0; column < FIELDS.length; column++) {
+			PrefixIndex completions = prefixIndexes[column];
+			if (completions != null) {
+				footprint.add(FIELDS[column] + "Completions", completions.estimateBytes(), 0);
+			}
+		}
+		for (int column = 0; column < FIELDS.length; column++) {
+			TilePyramid tiles = tilePyramids[column];
+			if (tiles != null) {
+				footprint.add(FIELDS[column] + "Tiles", tiles.estimateBytes(), 0);
+			}
+		}
+		double[][] arrays = coordinates;
+		if (arrays != null) {
+			footprint.add("coordinateArrays", 2 * MemoryFootprint.arrayBytes(arrays[0].length, 8), 0);
+		}
+		ClusterIndex clusters = clusterIndex;
+		if (clusters != null) {
+			footprint.add("clusterIndex", clusters.estimateBytes(), 0);
+		}
+		if (resultCache != null) {
+			footprint.add("resultCache", resultCache.estimateBytes(), 0);
+		}
+		
+		return footprint;
 	}
 	
 	/**
@@ -234,9 +713,10 @@ public class StationList {
 		
 		ArrayList<Station> searchStations = new ArrayList<Station>();
 
-		for (int i = 0; i < stations.length; i++) {
-			if (stations[i].getName().toLowerCase().contains(name.toLowerCase())) {
-				searchStations.add(stations[i]);
+		for (int i = 0; i < size(); i++) {
+			String value = stringAt(i, NAME);
+			if (value != null && value.toLowerCase().contains(name.toLowerCase())) {
+				searchStations.add(station(i));
 			}
 		}
 		
@@ -247,6 +727,78 @@ public class StationList {
 		return null;
 	}
 	
+	/**
+	 * <h1>fuzzySearchByName</h1>
+	 * <p>public Station[] fuzzySearchByName(String name, int maxDistance)</p>
+	 * <p>Takes in a String and returns an array of all stations whose name has,
+	 * for every word of the String, a word that is at most maxDistance single 
+	 * character edits away from it. Searching for "Stabucks" finds the stations 
+	 * named "Starbucks". The stations are ordered from the best match to the worst.</p>
+	 * <p>The index used by this method is built the first time it is called.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param name - The name of the Station being searched for
+	 * @param maxDistance - The number of edits allowed per word, 1 or 2 is recommended
+	 * @return all the stations with a name matching the given keywords, best match first
+	 */
+	public Station[] fuzzySearchByName(String name, int maxDistance) {
+		return fuzzySearch(name, maxDistance, false, 0, 0);
+	}
+	
+	/**
+	 * <h1>fuzzySearchByName</h1>
+	 * <p>public Station[] fuzzySearchByName(String name, int maxDistance, double latitude, 
+	 * double longitude)</p>
+	 * <p>Works like fuzzySearchByName(String, int), except that stations that match
+	 * the name equally well are ordered from closest to farthest away from the given
+	 * coordinates.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param name - The name of the Station being searched for
+	 * @param maxDistance - The number of edits allowed per word, 1 or 2 is recommended
+	 * @param latitude - The latitude of the User
+	 * @param longitude - The longitude of the User
+	 * @return all the stations with a name matching the given keywords, best match first
+	 */
+	public Station[] fuzzySearchByName(String name, int maxDistance, double latitude, double longitude) {
+		return fuzzySearch(name, maxDistance, true, latitude, longitude);
+	}
+	
+	/**
+	 * <h1>autocompleteName</h1>
+	 * <p>public String[] autocompleteName(String prefix, int limit)</p>
+	 * <p>Takes in the start of a name and returns up to limit distinct names of
+	 * stations that start with it, or have a word that starts with it, ignoring case.
+	 * Typing "Starb" completes to "Starbucks". The names that start with the prefix
+	 * come first, each group in alphabetical order.</p>
+	 * <p>The index used by this method is built the first time it is called, after
+	 * which each call only reads as many entries as it returns.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param prefix - The part of the name typed so far
+	 * @param limit - The largest number of completions to return
+	 * @return the completed names
+	 */
+	public String[] autocompleteName(String prefix, int limit) {
+		return autocomplete(NAME, prefix, limit, false, 0, 0);
+	}
+	
+	/**
+	 * <h1>autocompleteName</h1>
+	 * <p>public String[] autocompleteName(String prefix, int limit, double latitude, 
+	 * double longitude)</p>
+	 * <p>Works like autocompleteName(String, int), except that the first 64 
+	 * completions, or limit if it is larger, are ordered by how close the nearest 
+	 * Station with that name is to the given coordinates before the first limit of 
+	 * them are returned.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param prefix - The part of the name typed so far
+	 * @param limit - The largest number of completions to return
+	 * @param latitude - The latitude of the User
+	 * @param longitude - The longitude of the User
+	 * @return the completed names, closest first
+	 */
+	public String[] autocompleteName(String prefix, int limit, double latitude, double longitude) {
+		return autocomplete(NAME, prefix, limit, true, latitude, longitude);
+	}
+	
 	/**
 	 * <h1>searchByAddress</h1>
 	 * <p>public Station[] searchByAddress(String address)</p>
@@ -259,9 +811,10 @@ public class StationList {
 	public Station[] searchByAddress(String address) {
 		ArrayList<Station> searchStations = new ArrayList<Station>();
 
-		for (int i = 0; i < stations.length; i++) {
-			if (stations[i].getAddress().toLowerCase().contains(address.toLowerCase())) {
-				searchStations.add(stations[i]);
+		for (int i = 0; i < size(); i++) {
+			String value = stringAt(i, ADDRESS);
+			if (value != null && value.toLowerCase().contains(address.toLowerCase())) {
+				searchStations.add(station(i));
 			}
 		}
 		
@@ -271,7 +824,44 @@ public class StationList {
 		
 		return null;
 	}
-
+	
+	/**
+	 * <h1>autocompleteAddress</h1>
+	 * <p>public String[] autocompleteAddress(String prefix, int limit)</p>
+	 * <p>Takes in the start of an address and returns up to limit distinct addresses of
+	 * stations that start with it, or have a word that starts with it, ignoring case.
+	 * Typing "main" completes to "123 Main St". The addresses that start with the prefix
+	 * come first, each group in alphabetical order.</p>
+	 * <p>The index used by this method is built the first time it is called, after
+	 * which each call only reads as many entries as it returns.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param prefix - The part of the address typed so far
+	 * @param limit - The largest number of completions to return
+	 * @return the completed addresses
+	 */
+	public String[] autocompleteAddress(String prefix, int limit) {
+		return autocomplete(ADDRESS, prefix, limit, false, 0, 0);
+	}
+	
+	/**
+	 * <h1>autocompleteAddress</h1>
+	 * <p>public String[] autocompleteAddress(String prefix, int limit, double latitude, 
+	 * double longitude)</p>
+	 * <p>Works like autocompleteAddress(String, int), except that the first 64 
+	 * completions, or limit if it is larger, are ordered by how close the nearest 
+	 * Station with that address is to the given coordinates before the first limit of 
+	 * them are returned.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param prefix - The part of the address typed so far
+	 * @param limit - The largest number of completions to return
+	 * @param latitude - The latitude of the User
+	 * @param longitude - The longitude of the User
+	 * @return the completed addresses, closest first
+	 */
+	public String[] autocompleteAddress(String prefix, int limit, double latitude, double longitude) {
+		return autocomplete(ADDRESS, prefix, limit, true, latitude, longitude);
+	}
+	
 	/**
 	 * <h1>getPublicStations</h1>
 	 * <p>public Station[] getPublicStations()</p>
@@ -283,9 +873,9 @@ public class StationList {
 	public Station[] getPublicStations() {
 		ArrayList<Station> filterStations = new ArrayList<Station>();
 		
-		for (int i = 0; i < stations.length; i++) {
-			if (stations[i].getAccess().equals("Public")) {
-				filterStations.add(stations[i]);
+		for (int i = 0; i < size(); i++) {
+			if ("Public".equals(stringAt(i, ACCESS))) {
+				filterStations.add(station(i));
 			}
 		}
 		
@@ -308,9 +898,9 @@ public class StationList {
 	public Station[] getPrivateStations() {
 		ArrayList<Station> filterStations = new ArrayList<Station>();
 		
-		for (int i = 0; i < stations.length; i++) {
-			if (!stations[i].getAccess().equals("Public")) {
-				filterStations.add(stations[i]);
+		for (int i = 0; i < size(); i++) {
+			if (!"Public".equals(stringAt(i, ACCESS))) {
+				filterStations.add(station(i));
 			}
 		}
 		
@@ -335,15 +925,15 @@ public class StationList {
 	 */
 	public Station[] filterByFuelType(String fuelType) {
 		
-		if (!fuelTypes.contains(fuelType)) {
+		if (!fuelTypes().contains(fuelType)) {
 			return null;
 		}
 		
 		ArrayList<Station> filterStations = new ArrayList<Station>();
 		
-		for (int i = 0; i < stations.length; i++) {
-			if (stations[i].getFuelType().equalsIgnoreCase(fuelType)) {
-				filterStations.add(stations[i]);
+		for (int i = 0; i < size(); i++) {
+			if (fuelType.equalsIgnoreCase(stringAt(i, FUEL_TYPE))) {
+				filterStations.add(station(i));
 			}
 		}
 		
@@ -354,37 +944,1372 @@ public class StationList {
 		return null;
 	}
 	
-	//Reads in the fuel types during construction
-	private ArrayList<String> readFuelTypes(Station[] stations) {
-		ArrayList<String> fuelTypes = new ArrayList<String>();
+	/**
+	 * <h1>aggregateByFuelType</h1>
+	 * <p>public Tile[] aggregateByFuelType(double south, double west, double north, double east, int zoom)</p>
+	 * <p>Takes in the edges of a map viewport and a zoom level and returns the number
+	 * of Stations in each map tile of the viewport, grouped by fuel type. Only tiles
+	 * holding at least one Station are returned. A viewport with its west edge east 
+	 * of its east edge crosses the 180th meridian.</p>
+	 * <p>The counts are read from a pyramid of tile counts built once, either while 
+	 * the list is read in if LoadOptions.setPrecomputeAggregates(true) is set, or 
+	 * the first time it is needed, so the Stations themselves are not looked at.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param south - The latitude of the southern edge of the viewport
+	 * @param west - The longitude of the western edge of the viewport
+	 * @param north - The latitude of the northern edge of the viewport
+	 * @param east - The longitude of the eastern edge of the viewport
+	 * @param zoom - The zoom level of the tiles, from 0 to 20
+	 * @return the tiles of the viewport that hold Stations
+	 */
+	public Tile[] aggregateByFuelType(double south, double west, double north, double east, int zoom) {
+		return aggregate(FUEL_TYPE, south, west, north, east, zoom);
+	}
+	
+	/**
+	 * <h1>aggregateByAccess</h1>
+	 * <p>public Tile[] aggregateByAccess(double south, double west, double north, double east, int zoom)</p>
+	 * <p>Takes in the edges of a map viewport and a zoom level and returns the number
+	 * of Stations in each map tile of the viewport, grouped by access. Only tiles
+	 * holding at least one Station are returned. A viewport with its west edge east 
+	 * of its east edge crosses the 180th meridian.</p>
+	 * <p>The counts are read from a pyramid of tile counts built once, either while 
+	 * the list is read in if LoadOptions.setPrecomputeAggregates(true) is set, or 
+	 * the first time it is needed, so the Stations themselves are not looked at.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param south - The latitude of the southern edge of the viewport
+	 * @param west - The longitude of the western edge of the viewport
+	 * @param north - The latitude of the northern edge of the viewport
+	 * @param east - The longitude of the eastern edge of the viewport
+	 * @param zoom - The zoom level of the tiles, from 0 to 20
+	 * @return the tiles of the viewport that hold Stations
+	 */
+	public Tile[] aggregateByAccess(double south, double west, double north, double east, int zoom) {
+		return aggregate(ACCESS, south, west, north, east, zoom);
+	}
+	
+	/**
+	 * <h1>getClusters</h1>
+	 * <p>public Cluster[] getClusters(double south, double west, double north, double east, int zoom)</p>
+	 * <p>Takes in the edges of a map viewport and a zoom level and returns the 
+	 * Stations in the viewport grouped into Clusters, so that a map can draw one 
+	 * marker for each Cluster. Stations within about 40 pixels of each other at 
+	 * the zoom level are grouped together. Above zoom level 16 every Station is 
+	 * returned as a Cluster of its own. A viewport with its west edge east of its 
+	 * east edge crosses the 180th meridian.</p>
+	 * <p>The Clusters of every zoom level are built once, either while the list is 
+	 * read in if LoadOptions.setPrecomputeClusters(true) is set, or the first time 
+	 * they are needed.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param south - The latitude of the southern edge of the viewport
+	 * @param west - The longitude of the western edge of the viewport
+	 * @param north - The latitude of the northern edge of the viewport
+	 * @param east - The longitude of the eastern edge of the viewport
+	 * @param zoom - The zoom level of the map
+	 * @return the Clusters in the viewport
+	 */
+	public Cluster[] getClusters(double south, double west, double north, double east, int zoom) {
 		
-		if (stations != null) {
-			fuelTypes.add(stations[0].getFuelType());
+		if (zoom < 0) {
+			throw new IllegalArgumentException("zoom must not be negative");
 		}
-
-		for (int i = 0; i < stations.length; i++) {
-				
-			if (!fuelTypes.contains(stations[i].getFuelType())) {
-				fuelTypes.add(stations[i].getFuelType());
-			}
+		if (south > north) {
+			throw new IllegalArgumentException("south must not be greater than north");
 		}
 		
-		return fuelTypes;
+		ClusterIndex index = clusterIndex();
+		int level = Math.min(zoom, ClusterIndex.MAX_ZOOM + 1);
+		int[] entries = index.clusters(south, west, north, east, level);
+		
+		if (entries.length == 0) {
+			return null;
+		}
+		
+		Cluster[] clusters = new Cluster[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			int record = index.record(level, entries[i]);
+			clusters[i] = new Cluster(index.latitude(level, entries[i]), index.longitude(level, entries[i]), 
+					index.count(level, entries[i]), index.expansionZoom(level, entries[i]), 
+					record >= 0 ? station(record) : null);
+		}
+		
+		return clusters;
 	}
 	
-	private ArrayList<Station> readStations(JsonReader reader) throws IOException {
-		ArrayList<Station> readStations = new ArrayList<Station>();
-
-		reader.beginArray();
-		while (reader.hasNext()) {
-			readStations.add(readStation(reader));
+	/**
+	 * <h1>getStationsAlongRoute</h1>
+	 * <p>public Station[] getStationsAlongRoute(double[] latitudes, double[] longitudes, double metres)</p>
+	 * <p>Takes in a route as the latitudes and longitudes of its points, in order, and
+	 * returns the Stations within the given distance of it, in the order they are reached
+	 * along the route. Each segment of the route is the shortest path over the Earth
+	 * between its two points, and distances are great circle distances in metres. A
+	 * Station near several parts of the route is placed at the first of them.</p>
+	 * <p>Only the Stations near each segment are read from the spatial index built for
+	 * getClusters(), so the Stations far from the route are never measured.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param latitudes - The latitude of each point of the route
+	 * @param longitudes - The longitude of each point of the route
+	 * @param metres - The largest distance from the route in metres
+	 * @return the Stations within the distance of the route, in order along it
+	 * @throws IllegalArgumentException if the route has no points, a point is not a valid
+	 * latitude and longitude, or the distance is negative
+	 */
+	public Station[] getStationsAlongRoute(double[] latitudes, double[] longitudes, double metres) {
+		
+		if (delta != null) {
+			return changedAlongRoute(latitudes, longitudes, metres);
 		}
-		reader.endArray();
 		
-		return readStations;
+		Corridor corridor = new Corridor(latitudes, longitudes, metres) {
+			@Override
+			double latitude(int record) {
+				return latitudeAt(record);
+			}
+			
+			@Override
+			double longitude(int record) {
+				return longitudeAt(record);
+			}
+		};
+		
+		int[] records = corridor.search(clusterIndex());
+		if (records.length == 0) {
+			return null;
+		}
+		
+		Station[] along = new Station[records.length];
+		for (int i = 0; i < records.length; i++) {
+			along[i] = station(records[i]);
+		}
+		
+		return along;
+	}
+	
+	/**
+	 * <h1>diff</h1>
+	 * <p>public ListDiff diff(StationList previous)</p>
+	 * <p>Compares this list with an earlier version of it, such as the list read in 
+	 * by the last refresh, and returns the Stations that were added, removed or changed 
+	 * since, so that only the differences need to be passed on. Stations are known by 
+	 * their name and address, and the lists are compared in time in proportion to 
+	 * their sizes.</p>
+	 * @param previous - The earlier version of the list
+	 * @return the differences between the earlier version and this list
+	 * @throws IllegalArgumentException if previous is null
+	 */
+	public ListDiff diff(StationList previous) {
+		
+		if (previous == null) {
+			throw new IllegalArgumentException("previous must not be null");
+		}
+		
+		return new ListDiff(previous, this);
+	}
+	
+	/**
+	 * <h1>add</h1>
+	 * <p>public StationList add(Station station)</p>
+	 * <p>Returns a new version of the list with the given Station added after the last
+	 * one. This list is not changed, so threads still reading it keep seeing the same 
+	 * Stations, and the new version shares the Stations and indexes of this one instead 
+	 * of copying them.</p>
+	 * <p>The changes made by add, update and remove are kept apart from the stored 
+	 * Stations, with small indexes of their own that each query combines with the 
+	 * indexes of the stored Stations, so a change costs about as much as the number of 
+	 * changes rather than the size of the list. Once the changes outnumber 8 times the 
+	 * square root of the number of Stations, or 256 if that is larger, the Stations are 
+	 * stored together again and their indexes are built again as they are needed. The 
+	 * Clusters of getClusters() depend on every Station and are built again for each 
+	 * version.</p>
+	 * @param station - The Station to add
+	 * @return the new version of the list
+	 * @throws IllegalArgumentException if station is null
+	 */
+	public StationList add(Station station) {
+		
+		if (station == null) {
+			throw new IllegalArgumentException("station must not be null");
+		}
+		
+		return change(changes().add(fit(station)));
+	}
+	
+	/**
+	 * <h1>update</h1>
+	 * <p>public StationList update(int index, Station station)</p>
+	 * <p>Returns a new version of the list with the Station at the given index replaced
+	 * by the given Station, in the same place. Like add(Station), this list is not 
+	 * changed.</p>
+	 * @param index - The index of the Station to replace, as in getAllStations()
+	 * @param station - The Station to put in its place
+	 * @return the new version of the list
+	 * @throws IllegalArgumentException if the index is outside of the list or station is null
+	 */
+	public StationList update(int index, Station station) {
+		
+		if (index < 0 || index >= size()) {
+			throw new IllegalArgumentException("index must be between 0 and " + (size() - 1));
+		}
+		if (station == null) {
+			throw new IllegalArgumentException("station must not be null");
+		}
+		
+		return change(changes().update(index, fit(station)));
+	}
+	
+	/**
+	 * <h1>remove</h1>
+	 * <p>public StationList remove(int index)</p>
+	 * <p>Returns a new version of the list without the Station at the given index. The 
+	 * Stations after it move down by one. Like add(Station), this list is not changed.</p>
+	 * @param index - The index of the Station to remove, as in getAllStations()
+	 * @return the new version of the list
+	 * @throws IllegalArgumentException if the index is outside of the list
+	 */
+	public StationList remove(int index) {
+		
+		if (index < 0 || index >= size()) {
+			throw new IllegalArgumentException("index must be between 0 and " + (size() - 1));
+		}
+		
+		return change(changes().remove(index));
+	}
+	
+	/**
+	 * <h1>indexOf</h1>
+	 * <p>public int indexOf(Station station)</p>
+	 * <p>Finds the index of the first Station in the list with the same coordinates and
+	 * fields as the given one, such as a Station returned by a query or by diff(), to be 
+	 * passed to update or remove.</p>
+	 * @param station - The Station to look for
+	 * @return the index of the Station, or -1 if the list does not hold it
+	 */
+	public int indexOf(Station station) {
+		
+		if (station == null) {
+			return -1;
+		}
+		
+		for (int i = 0; i < size(); i++) {
+			if (latitudeAt(i) == station.getLatitude() && longitudeAt(i) == station.getLongitude()
+					&& sameFields(i, station)) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * <h1>stream</h1>
+	 * <p>public Stream&lt;Station&gt; stream()</p>
+	 * <p>Retrieves the full list of Stations as a Stream. The stations are only read as
+	 * the Stream is consumed, so limit and skip stop reading early.</p>
+	 * @return a Stream of every Station
+	 */
+	public Stream<Station> stream() {
+		return toStations(IntStream.range(0, size()));
+	}
+	
+	/**
+	 * <h1>streamByDistance</h1>
+	 * <p>public Stream&lt;Station&gt; streamByDistance(double latitude, double longitude)</p>
+	 * <p>Works like sortByDistance(double, double), except that the stations are
+	 * returned as a Stream that is evaluated lazily. The stations are not sorted up 
+	 * front; each one is taken from a heap as it is needed, so reading the closest 
+	 * few stations costs little more than a single pass over the list.</p>
+	 * @param latitude - The latitude of the User
+	 * @param longitude - The longitude of the User
+	 * @return a Stream of the stations ordered from closest to farthest away
+	 */
+	public Stream<Station> streamByDistance(final double latitude, final double longitude) {
+		final int count = size();
+		
+		return toStations(StreamSupport.intStream(new Supplier<Spliterator.OfInt>() {
+			@Override
+			public Spliterator.OfInt get() {
+				double[] distances = new double[count];
+				
+				distancesTo(latitude, longitude, distances);
+				return new NearestFirst(distances);
+			}
+		}, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL, false));
+	}
+	
+	/**
+	 * <h1>streamByName</h1>
+	 * <p>public Stream&lt;Station&gt; streamByName(String name)</p>
+	 * <p>Works like searchByName(String), except that the stations are returned as a Stream
+	 * that is evaluated lazily. The Stream is empty, never <b>null</b>, if no 
+	 * results are found.</p>
+	 * @param name - The name of the Station being searched for
+	 * @return a Stream of the stations that have a name containing the given keyword
+	 */
+	public Stream<Station> streamByName(String name) {
+		return toStations(IntStream.range(0, size()).filter(containing(NAME, name)));
+	}
+	
+	/**
+	 * <h1>streamByAddress</h1>
+	 * <p>public Stream&lt;Station&gt; streamByAddress(String address)</p>
+	 * <p>Works like searchByAddress(String), except that the stations are returned as a Stream
+	 * that is evaluated lazily. The Stream is empty, never <b>null</b>, if no 
+	 * results are found.</p>
+	 * @param address - The address of the Station being searched for
+	 * @return a Stream of the stations that have an address containing the given keyword
+	 */
+	public Stream<Station> streamByAddress(String address) {
+		return toStations(IntStream.range(0, size()).filter(containing(ADDRESS, address)));
+	}
+	
+	/**
+	 * <h1>streamByFuelType</h1>
+	 * <p>public Stream&lt;Station&gt; streamByFuelType(String fuelType)</p>
+	 * <p>Works like filterByFuelType(String), except that the stations are returned as a 
+	 * Stream that is evaluated lazily. The Stream is empty, never <b>null</b>, if no
+	 * results are found.</p>
+	 * @param fuelType - The fuel type the stations are filtered by
+	 * @return a Stream of the stations with the fuel type specified
+	 */
+	public Stream<Station> streamByFuelType(final String fuelType) {
+		
+		if (!fuelTypes().contains(fuelType)) {
+			return Stream.empty();
+		}
+		
+		return toStations(IntStream.range(0, size()).filter(new IntPredicate() {
+			@Override
+			public boolean test(int i) {
+				return fuelType.equalsIgnoreCase(stringAt(i, FUEL_TYPE));
+			}
+		}));
+	}
+	
+	/**
+	 * <h1>streamPublicStations</h1>
+	 * <p>public Stream&lt;Station&gt; streamPublicStations()</p>
+	 * <p>Works like getPublicStations(), except that the stations are returned as a
+	 * Stream that is evaluated lazily. The Stream is empty, never <b>null</b>, if no
+	 * results are found.</p>
+	 * @return a Stream of the stations with an access value equal to "Public"
+	 */
+	public Stream<Station> streamPublicStations() {
+		return toStations(IntStream.range(0, size()).filter(new IntPredicate() {
+			@Override
+			public boolean test(int i) {
+				return "Public".equals(stringAt(i, ACCESS));
+			}
+		}));
+	}
+	
+	/**
+	 * <h1>streamPrivateStations</h1>
+	 * <p>public Stream&lt;Station&gt; streamPrivateStations()</p>
+	 * <p>Works like getPrivateStations(), except that the stations are returned as a
+	 * Stream that is evaluated lazily. The Stream is empty, never <b>null</b>, if no
+	 * results are found.</p>
+	 * @return a Stream of the stations with an access value other than "Public"
+	 */
+	public Stream<Station> streamPrivateStations() {
+		return toStations(IntStream.range(0, size()).filter(new IntPredicate() {
+			@Override
+			public boolean test(int i) {
+				return !"Public".equals(stringAt(i, ACCESS));
+			}
+		}));
+	}
+	
+	//Finds the Station closest to the given coordinates by checking every Station
+	private Station closestStation(double latitude, double longitude) {
+		int closest = scanClosest(latitude, longitude);
+		return closest == -1 ? null : station(closest);
+	}
+	
+	//Finds the index of the Station closest to the given coordinates by checking every Station
+	private int scanClosest(double latitude, double longitude) {
+		
+		if (isCompact() && CompactStore.covers(latitude, longitude)) {
+			return compactClosest(CompactStore.quantise(latitude), CompactStore.quantise(longitude));
+		}
+		
+		int closest = -1;
+		
+		if (stations != null) {
+			double[][] coordinates = coordinates();
+			closest = DistanceKernel.nearest(coordinates[0], coordinates[1], 0, size(), latitude, longitude);
+		} else {
+			double shortestDist = 0;
+			double[] latitudes = new double[DistanceKernel.BLOCK];
+			double[] longitudes = new double[DistanceKernel.BLOCK];
+			
+			for (int start = 0; start < size(); start += DistanceKernel.BLOCK) {
+				int length = Math.min(DistanceKernel.BLOCK, size() - start);
+				copyCoordinates(start, length, latitudes, longitudes);
+				
+				int nearest = DistanceKernel.nearest(latitudes, longitudes, 0, length, latitude, longitude);
+				if (nearest != -1) {
+					double currentDist = DistanceKernel.distance(latitudes[nearest], longitudes[nearest], latitude, longitude);
+					if (closest == -1 || currentDist < shortestDist) {
+						shortestDist = currentDist;
+						closest = start + nearest;
+					}
+				}
+			}
+		}
+		
+		//Only coordinates that are not numbers give no closest Station, and a plain scan would then keep the first
+		return closest == -1 && size() > 0 ? 0 : closest;
+	}
+	
+	//Sorts a copy of the stations by their distance to the given coordinates
+	private Station[] sortStationsByDistance(double latitude, double longitude) {
+		
+		double[] distances = new double[size()];
+		
+		distancesTo(latitude, longitude, distances);
+		
+		//The distances are worked out once, rather than twice for every comparison of the sort
+		int[] order = DistanceKernel.order(distances);
+		
+		Station[] allStations = stations != null ? stations : getAllStations();
+		Station[] sortedStations = new Station[order.length];
+		for (int i = 0; i < order.length; i++) {
+			sortedStations[i] = allStations[order[i]];
+		}
+		
+		return sortedStations;
+	}
+	
+	//Works out the distance of every Station to the given coordinates, which both sortByDistance and streamByDistance order by
+	private void distancesTo(double latitude, double longitude, double[] distances) {
+		if (isCompact() && CompactStore.covers(latitude, longitude)) {
+			compactDistances(CompactStore.quantise(latitude), CompactStore.quantise(longitude), distances);
+		} else if (stations != null) {
+			double[][] coordinates = coordinates();
+			DistanceKernel.distances(coordinates[0], coordinates[1], 0, distances.length, latitude, longitude, distances);
+		} else {
+			double[] latitudes = new double[DistanceKernel.BLOCK];
+			double[] longitudes = new double[DistanceKernel.BLOCK];
+			double[] block = new double[DistanceKernel.BLOCK];
+			
+			for (int start = 0; start < distances.length; start += DistanceKernel.BLOCK) {
+				int length = Math.min(DistanceKernel.BLOCK, distances.length - start);
+				copyCoordinates(start, length, latitudes, longitudes);
+				DistanceKernel.distances(latitudes, longitudes, 0, length, latitude, longitude, block);
+				System.arraycopy(block, 0, distances, start, length);
+			}
+		}
+	}
+	
+	//Finds the index of the Station closest to the given micro-degrees in a compact list, or one changed from it
+	private int compactClosest(int latitude, int longitude) {
+		
+		if (compact != null) {
+			return DistanceKernel.nearest(compact.latitudes(), compact.longitudes(), 0, size(), latitude, longitude);
+		}
+		
+		int closest = -1;
+		long shortest = 0;
+		double[] latitudes = new double[DistanceKernel.BLOCK];
+		double[] longitudes = new double[DistanceKernel.BLOCK];
+		int[] microLatitudes = new int[DistanceKernel.BLOCK];
+		int[] microLongitudes = new int[DistanceKernel.BLOCK];
+		
+		for (int start = 0; start < size(); start += DistanceKernel.BLOCK) {
+			int length = Math.min(DistanceKernel.BLOCK, size() - start);
+			copyMicrodegrees(start, length, latitudes, longitudes, microLatitudes, microLongitudes);
+			
+			int nearest = DistanceKernel.nearest(microLatitudes, microLongitudes, 0, length, latitude, longitude);
+			long squared = DistanceKernel.squaredDistance(microLatitudes[nearest], microLongitudes[nearest],
+					latitude, longitude);
+			if (closest == -1 || squared < shortest) {
+				shortest = squared;
+				closest = start + nearest;
+			}
+		}
+		
+		return closest;
+	}
+	
+	//Works out the squared distance in micro-degrees from the given point to each Station of a compact list
+	private void compactDistances(int latitude, int longitude, double[] distances) {
+		
+		if (compact != null) {
+			DistanceKernel.squaredDistances(compact.latitudes(), compact.longitudes(), 0, distances.length,
+					latitude, longitude, distances);
+			return;
+		}
+		
+		double[] latitudes = new double[DistanceKernel.BLOCK];
+		double[] longitudes = new double[DistanceKernel.BLOCK];
+		int[] microLatitudes = new int[DistanceKernel.BLOCK];
+		int[] microLongitudes = new int[DistanceKernel.BLOCK];
+		double[] block = new double[DistanceKernel.BLOCK];
+		
+		for (int start = 0; start < distances.length; start += DistanceKernel.BLOCK) {
+			int length = Math.min(DistanceKernel.BLOCK, distances.length - start);
+			copyMicrodegrees(start, length, latitudes, longitudes, microLatitudes, microLongitudes);
+			DistanceKernel.squaredDistances(microLatitudes, microLongitudes, 0, length, latitude, longitude, block);
+			System.arraycopy(block, 0, distances, start, length);
+		}
+	}
+	
+	//Copies the coordinates of a block of Stations of a list changed from a compact one into arrays of micro-degrees
+	private void copyMicrodegrees(int start, int length, double[] latitudes, double[] longitudes,
+			int[] microLatitudes, int[] microLongitudes) {
+		
+		//The coordinates were rounded to micro-degrees, so rounding them again gives back the same values
+		copyCoordinates(start, length, latitudes, longitudes);
+		for (int i = 0; i < length; i++) {
+			microLatitudes[i] = CompactStore.quantise(latitudes[i]);
+			microLongitudes[i] = CompactStore.quantise(longitudes[i]);
+		}
+	}
+	
+	//Tells whether the coordinates of the list are held as micro-degrees, by it or by the list it was changed from
+	private boolean isCompact() {
+		return compact != null || (base != null && base.compact != null);
+	}
+	
+	//Copies the coordinates of a block of Stations held off-heap, compact, or by a changed list, into arrays
+	private void copyCoordinates(int start, int length, double[] latitudes, double[] longitudes) {
+		
+		if (delta != null) {
+			int[] slots = new int[length];
+			int[] positions = new int[length];
+			delta.map(start, length, slots, positions);
+			
+			for (int i = 0; i < length; i++) {
+				if (positions[i] >= 0) {
+					latitudes[i] = delta.station(positions[i]).getLatitude();
+					longitudes[i] = delta.station(positions[i]).getLongitude();
+				} else {
+					latitudes[i] = base.latitudeAt(slots[i]);
+					longitudes[i] = base.longitudeAt(slots[i]);
+				}
+			}
+			return;
+		}
+		
+		if (compact != null) {
+			for (int i = 0; i < length; i++) {
+				latitudes[i] = compact.latitude(start + i);
+				longitudes[i] = compact.longitude(start + i);
+			}
+			return;
+		}
+		
+		for (int i = 0; i < length; i++) {
+			latitudes[i] = store.latitude(start + i);
+			longitudes[i] = store.longitude(start + i);
+		}
+	}
+	
+	private Station[] fuzzySearch(String name, int maxDistance, boolean byDistance,
+			final double latitude, final double longitude) {
+		
+		if (maxDistance < 0) {
+			throw new IllegalArgumentException("maxDistance must not be negative");
+		}
+		
+		ArrayList<FuzzyIndex.Match> matches = nameMatches(name, maxDistance);
+		
+		if (byDistance) {
+			Collections.sort(matches, new Comparator<FuzzyIndex.Match>() {
+				@Override
+				public int compare(FuzzyIndex.Match first, FuzzyIndex.Match second) {
+					
+					if (first.score != second.score) {
+						return first.score < second.score ? -1 : 1;
+					}
+					
+					double firstDist = Math.pow((latitudeAt(first.record) - latitude), 2) 
+							+ Math.pow((longitudeAt(first.record) - longitude), 2);
+					double secondDist = Math.pow((latitudeAt(second.record) - latitude), 2) 
+							+ Math.pow((longitudeAt(second.record) - longitude), 2);
+					
+					return Double.compare(firstDist, secondDist);
+				}
+			});
+		}
+		
+		if (matches.size() > 0) {
+			Station[] searchStations = new Station[matches.size()];
+			for (int i = 0; i < searchStations.length; i++) {
+				searchStations[i] = station(matches.get(i).record);
+			}
+			return searchStations;
+		}
+		
+		return null;
+	}
+	
+	//Builds the fuzzy name index the first time it is needed
+	private FuzzyIndex nameIndex() {
+		FuzzyIndex index = nameIndex;
+		
+		if (index == null) {
+			synchronized (this) {
+				index = nameIndex;
+				if (index == null) {
+					index = new FuzzyIndex(delta != null ? changedColumn(NAME) : column(NAME));
+					nameIndex = index;
+				}
+			}
+		}
+		
+		return index;
+	}
+	
+	private String[] autocomplete(int column, String prefix, int limit, boolean byDistance,
+			double latitude, double longitude) {
+		
+		if (limit < 1) {
+			throw new IllegalArgumentException("limit must be positive");
+		}
+		
+		int wanted = byDistance ? Math.max(limit, NEARBY_CANDIDATES) : limit;
+		PrefixIndex index = completions(column);
+		int[] indexed = null;
+		
+		//A changed list completes from an index of just the Stations holding the values that can come first
+		if (delta != null) {
+			indexed = completionRecords(column, prefix, wanted);
+			String[] values = new String[indexed.length];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = stringAt(indexed[i], column);
+			}
+			index = new PrefixIndex(values);
+		}
+		
+		int[] found = index.complete(prefix, wanted);
+		
+		if (byDistance) {
+			final double[] distances = new double[found.length];
+			Integer[] order = new Integer[found.length];
+			
+			for (int i = 0; i < found.length; i++) {
+				int[] records = index.records(found[i]);
+				distances[i] = Double.MAX_VALUE;
+				for (int r = 0; r < records.length; r++) {
+					int record = indexed != null ? indexed[records[r]] : records[r];
+					distances[i] = Math.min(distances[i], Math.pow((latitudeAt(record) - latitude), 2) 
+							+ Math.pow((longitudeAt(record) - longitude), 2));
+				}
+				order[i] = i;
+			}
+			
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer first, Integer second) {
+					return Double.compare(distances[first], distances[second]);
+				}
+			});
+			
+			int[] nearest = new int[Math.min(limit, found.length)];
+			for (int i = 0; i < nearest.length; i++) {
+				nearest[i] = found[order[i]];
+			}
+			found = nearest;
+		}
+		
+		if (found.length > 0) {
+			String[] completions = new String[found.length];
+			for (int i = 0; i < completions.length; i++) {
+				completions[i] = index.value(found[i]);
+			}
+			return completions;
+		}
+		
+		return null;
+	}
+	
+	//Builds the autocomplete index of a column the first time it is needed
+	private PrefixIndex completions(int column) {
+		PrefixIndex[] indexes = prefixIndexes;
+		
+		if (indexes[column] == null) {
+			synchronized (this) {
+				indexes = prefixIndexes;
+				if (indexes[column] == null) {
+					indexes = indexes.clone();
+					indexes[column] = new PrefixIndex(delta != null ? changedColumn(column) : column(column));
+					prefixIndexes = indexes;
+				}
+			}
+		}
+		
+		return indexes[column];
+	}
+	
+	private Tile[] aggregate(int column, double south, double west, double north, double east, int zoom) {
+		
+		if (zoom < 0 || zoom > TilePyramid.MAX_ZOOM) {
+			throw new IllegalArgumentException("zoom must be between 0 and " + TilePyramid.MAX_ZOOM);
+		}
+		if (south > north) {
+			throw new IllegalArgumentException("south must not be greater than north");
+		}
+		
+		Tile[] tiles = delta != null ? base.tilePyramid(column).tiles(south, west, north, east, zoom, tilePyramid(column))
+				: tilePyramid(column).tiles(south, west, north, east, zoom);
+		
+		if (tiles.length > 0) {
+			return tiles;
+		}
+		
+		return null;
+	}
+	
+	//Builds the tile counts of a column the first time they are needed
+	private TilePyramid tilePyramid(int column) {
+		TilePyramid[] pyramids = tilePyramids;
+		
+		if (pyramids[column] == null) {
+			synchronized (this) {
+				pyramids = tilePyramids;
+				if (pyramids[column] == null) {
+					pyramids = pyramids.clone();
+					
+					if (delta != null) {
+						pyramids[column] = changedPyramid(column);
+					} else {
+						double[] latitudes = new double[size()];
+						double[] longitudes = new double[size()];
+						for (int i = 0; i < latitudes.length; i++) {
+							latitudes[i] = latitudeAt(i);
+							longitudes[i] = longitudeAt(i);
+						}
+						pyramids[column] = new TilePyramid(latitudes, longitudes, column(column));
+					}
+					tilePyramids = pyramids;
+				}
+			}
+		}
+		
+		return pyramids[column];
+	}
+	
+	//Copies the coordinates of every Station into arrays the first time the list held on the heap is scanned
+	private double[][] coordinates() {
+		double[][] arrays = coordinates;
+		
+		if (arrays == null) {
+			synchronized (this) {
+				arrays = coordinates;
+				if (arrays == null) {
+					arrays = new double[2][size()];
+					for (int i = 0; i < size(); i++) {
+						arrays[0][i] = stations[i].getLatitude();
+						arrays[1][i] = stations[i].getLongitude();
+					}
+					
+					coordinates = arrays;
+				}
+			}
+		}
+		
+		return arrays;
+	}
+	
+	//Builds the Clusters of every zoom level the first time they are needed
+	private ClusterIndex clusterIndex() {
+		ClusterIndex index = clusterIndex;
+		
+		if (index == null) {
+			synchronized (this) {
+				index = clusterIndex;
+				if (index == null) {
+					double[] latitudes = new double[size()];
+					double[] longitudes = new double[size()];
+					for (int i = 0; i < latitudes.length; i++) {
+						latitudes[i] = latitudeAt(i);
+						longitudes[i] = longitudeAt(i);
+					}
+					
+					index = new ClusterIndex(latitudes, longitudes);
+					clusterIndex = index;
+				}
+			}
+		}
+		
+		return index;
+	}
+	
+	//Retrieves one of the String columns of every Station
+	private String[] column(int column) {
+		String[] values = new String[size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = stringAt(i, column);
+		}
+		return values;
+	}
+	
+	//Turns a Stream of indexes into a Stream of the Stations at those indexes
+	private Stream<Station> toStations(IntStream indexes) {
+		return indexes.mapToObj(new IntFunction<Station>() {
+			@Override
+			public Station apply(int i) {
+				return station(i);
+			}
+		});
+	}
+	
+	//Accepts the indexes of the Stations that have a column containing the keyword, ignoring case
+	private IntPredicate containing(final int column, String keyword) {
+		final String lowerKeyword = keyword.toLowerCase();
+		
+		return new IntPredicate() {
+			@Override
+			public boolean test(int i) {
+				String value = stringAt(i, column);
+				return value != null && value.toLowerCase().contains(lowerKeyword);
+			}
+		};
+	}
+	
+	//Retrieves the Station at the given index, creating a view of it when the list is held off-heap or compact
+	final Station station(int i) {
+		
+		if (delta != null) {
+			int slot = delta.slot(i);
+			int position = delta.find(slot);
+			return position >= 0 ? delta.station(position) : base.station(slot);
+		}
+		
+		if (stations != null) {
+			return stations[i];
+		}
+		
+		if (compact != null) {
+			return new Station(compact.latitude(i), compact.longitude(i), compact.string(i, NAME),
+					compact.string(i, FUEL_TYPE), compact.string(i, ADDRESS), compact.string(i, ACCESS));
+		}
+		
+		return new Station(store.latitude(i), store.longitude(i), store.string(i, NAME),
+				store.string(i, FUEL_TYPE), store.string(i, ADDRESS), store.string(i, ACCESS));
+	}
+	
+	final double latitudeAt(int i) {
+		
+		if (delta != null) {
+			return slotLatitude(delta.slot(i));
+		}
+		
+		if (compact != null) {
+			return compact.latitude(i);
+		}
+		
+		return stations != null ? stations[i].getLatitude() : store.latitude(i);
+	}
+	
+	final double longitudeAt(int i) {
+		
+		if (delta != null) {
+			return slotLongitude(delta.slot(i));
+		}
+		
+		if (compact != null) {
+			return compact.longitude(i);
+		}
+		
+		return stations != null ? stations[i].getLongitude() : store.longitude(i);
+	}
+	
+	//Retrieves one of the String columns of the Station at the given index without creating a view
+	final String stringAt(int i, int column) {
+		
+		if (delta != null) {
+			int slot = delta.slot(i);
+			int position = delta.find(slot);
+			return position >= 0 ? field(delta.station(position), column) : base.stringAt(slot, column);
+		}
+		
+		if (compact != null) {
+			return compact.string(i, column);
+		}
+		
+		if (stations == null) {
+			return store.string(i, column);
+		}
+		
+		return field(stations[i], column);
+	}
+	
+	private static String field(Station station, int column) {
+		
+		switch (column) {
+		case NAME:
+			return station.getName();
+		case FUEL_TYPE:
+			return station.getFuelType();
+		case ADDRESS:
+			return station.getAddress();
+		default:
+			return station.getAccess();
+		}
+	}
+	
+	//Tells whether the Station at the given index has the same String fields as another Station
+	private boolean sameFields(int i, Station station) {
+		
+		for (int column = 0; column < FIELDS.length; column++) {
+			String value = stringAt(i, column);
+			String other = field(station, column);
+			if (value == null ? other != null : !value.equals(other)) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	//Retrieves the fuel types, reading them in the first time they are needed by a changed list
+	private ArrayList<String> fuelTypes() {
+		ArrayList<String> types = fuelTypes;
+		
+		if (types == null) {
+			synchronized (this) {
+				types = fuelTypes;
+				if (types == null) {
+					types = readFuelTypes();
+					fuelTypes = types;
+				}
+			}
+		}
+		
+		return types;
+	}
+	
+	//Rounds the coordinates of a Station added to a compact list to the micro-degrees the list would hold
+	private Station fit(Station station) {
+		
+		if (!isCompact()) {
+			return station;
+		}
+		
+		return new Station(CompactStore.round(station.getLatitude()), CompactStore.round(station.getLongitude()),
+				station.getName(), station.getFuelType(), station.getAddress(), station.getAccess());
+	}
+	
+	//Retrieves the changes of the list, which a list that was never changed has none of
+	private Delta changes() {
+		return delta != null ? delta : new Delta(size());
+	}
+	
+	//Creates the version of the list holding the given changes, storing its Stations together once there are many
+	private StationList change(Delta changes) {
+		
+		StationList stored = base != null ? base : this;
+		StationList changed = new StationList(stored, changes, resultCache);
+		
+		if (changes.getChangeCount() > Math.max(MIN_CHANGES, (int) Math.sqrt(stored.size()) * CHANGES_PER_ROOT)) {
+			return new StationList(changed);
+		}
+		
+		return changed;
+	}
+	
+	//Retrieves the latitude of the Station in a slot of a changed list
+	private double slotLatitude(int slot) {
+		int position = delta.find(slot);
+		return position >= 0 ? delta.station(position).getLatitude() : base.latitudeAt(slot);
+	}
+	
+	//Retrieves the longitude of the Station in a slot of a changed list
+	private double slotLongitude(int slot) {
+		int position = delta.find(slot);
+		return position >= 0 ? delta.station(position).getLongitude() : base.longitudeAt(slot);
+	}
+	
+	//Retrieves one of the String columns of the Stations held by the changes of a changed list
+	private String[] changedColumn(int column) {
+		String[] values = new String[delta.count()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = field(delta.station(i), column);
+		}
+		return values;
+	}
+	
+	/*
+	 * Finds the Stations matching a name in a changed list, merging the matches of the stored 
+	 * Stations that did not change with those of the Stations held by the changes. Both are in 
+	 * order of score and then slot, and slots are in the same order as indexes.
+	 */
+	private ArrayList<FuzzyIndex.Match> nameMatches(String name, int maxDistance) {
+		
+		if (delta == null) {
+			return nameIndex().search(name, maxDistance);
+		}
+		
+		ArrayList<FuzzyIndex.Match> stored = base.nameIndex().search(name, maxDistance);
+		ArrayList<FuzzyIndex.Match> changed = nameIndex().search(name, maxDistance);
+		ArrayList<FuzzyIndex.Match> matches = new ArrayList<FuzzyIndex.Match>();
+		int i = 0;
+		int j = 0;
+		
+		while (true) {
+			while (i < stored.size() && !delta.isStored(stored.get(i).record)) {
+				i++;
+			}
+			if (i == stored.size() && j == changed.size()) {
+				break;
+			}
+			
+			if (j == changed.size() || (i < stored.size() && (stored.get(i).score < changed.get(j).score
+					|| (stored.get(i).score == changed.get(j).score 
+					&& stored.get(i).record < delta.slotAt(changed.get(j).record))))) {
+				matches.add(new FuzzyIndex.Match(delta.index(stored.get(i).record), stored.get(i).score));
+				i++;
+			} else {
+				matches.add(new FuzzyIndex.Match(delta.index(delta.slotAt(changed.get(j).record)), changed.get(j).score));
+				j++;
+			}
+		}
+		
+		return matches;
+	}
+	
+	/*
+	 * Finds the Stations of a changed list holding the values that can be among the first 
+	 * completions of a prefix: the first completions of the Stations held by the changes, 
+	 * and those of the stored Stations that did not change. Each stored Station removed or 
+	 * updated can take away at most one value, so that many more stored values are read.
+	 */
+	private int[] completionRecords(int column, String prefix, int wanted) {
+		
+		PrefixIndex stored = base.completions(column);
+		PrefixIndex changed = completions(column);
+		ArrayList<Integer> records = new ArrayList<Integer>();
+		
+		for (int value : stored.complete(prefix, wanted + delta.hidden().length)) {
+			for (int slot : stored.records(value)) {
+				if (delta.isStored(slot)) {
+					records.add(delta.index(slot));
+				}
+			}
+		}
+		for (int value : changed.complete(prefix, wanted)) {
+			for (int position : changed.records(value)) {
+				records.add(delta.index(delta.slotAt(position)));
+			}
+		}
+		
+		//In index order, values that tie keep the order of their first Station, as in an index of the whole list
+		int[] sorted = new int[records.size()];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = records.get(i);
+		}
+		Arrays.sort(sorted);
+		return sorted;
+	}
+	
+	//Counts the changes of a changed list in every tile: its Stations add one, and the stored Stations they hide take one away
+	private TilePyramid changedPyramid(int column) {
+		
+		int[] hidden = delta.hidden();
+		int count = delta.count() + hidden.length;
+		double[] latitudes = new double[count];
+		double[] longitudes = new double[count];
+		String[] values = new String[count];
+		int[] weights = new int[count];
+		
+		for (int i = 0; i < delta.count(); i++) {
+			latitudes[i] = delta.station(i).getLatitude();
+			longitudes[i] = delta.station(i).getLongitude();
+			values[i] = field(delta.station(i), column);
+			weights[i] = 1;
+		}
+		for (int i = 0; i < hidden.length; i++) {
+			latitudes[delta.count() + i] = base.latitudeAt(hidden[i]);
+			longitudes[delta.count() + i] = base.longitudeAt(hidden[i]);
+			values[delta.count() + i] = base.stringAt(hidden[i], column);
+			weights[delta.count() + i] = -1;
+		}
+		
+		return new TilePyramid(latitudes, longitudes, values, weights);
+	}
+	
+	//Finds the Stations of a changed list along a route, from the spatial index of the stored Stations and the changes
+	private Station[] changedAlongRoute(double[] latitudes, double[] longitudes, double metres) {
+		
+		Corridor corridor = new Corridor(latitudes, longitudes, metres) {
+			@Override
+			double latitude(int slot) {
+				return slotLatitude(slot);
+			}
+			
+			@Override
+			double longitude(int slot) {
+				return slotLongitude(slot);
+			}
+			
+			@Override
+			boolean excludes(int slot) {
+				return !delta.isStored(slot);
+			}
+		};
+		
+		int[] changedSlots = new int[delta.count()];
+		for (int i = 0; i < changedSlots.length; i++) {
+			changedSlots[i] = delta.slotAt(i);
+		}
+		
+		int[] slots = corridor.search(base.clusterIndex(), changedSlots);
+		if (slots.length == 0) {
+			return null;
+		}
+		
+		Station[] along = new Station[slots.length];
+		for (int i = 0; i < slots.length; i++) {
+			along[i] = station(delta.index(slots[i]));
+		}
+		
+		return along;
+	}
+	
+	//Reads in the fuel types during construction
+	private ArrayList<String> readFuelTypes() {
+		ArrayList<String> fuelTypes = new ArrayList<String>();
+
+		for (int i = 0; i < size(); i++) {
+			String fuelType = stringAt(i, FUEL_TYPE);
+			
+			if (fuelType != null && !fuelTypes.contains(fuelType)) {
+				fuelTypes.add(fuelType);
+			}
+		}
+		
+		return fuelTypes;
+	}
+	
+	//Prepares the list to have Stations added to it, either on the heap or off-heap
+	private void startLoading(LoadOptions options) {
+		
+		parallelParsing = options.isParallelParsing();
+		
+		if (options.isOffHeap()) {
+			store = new OffHeapStore(CATEGORICAL);
+		} else if (options.isCompactCoordinates()) {
+			compact = new CompactStore(CATEGORICAL);
+		} else {
+			inputStations = new ArrayList<Station>();
+		}
+		
+		if (options.isDeduplicate()) {
+			duplicateFilter = new DuplicateFilter(options.getDuplicateTolerance(), options.isDuplicateByName(),
+					options.isDuplicateByAddress());
+		}
+		
+		if (options.getResultCacheSize() > 0) {
+			resultCache = new ResultCache(options.getResultCacheSize(), options.getResultCacheTtl(),
+					options.getResultCacheResolution());
+		}
+	}
+	
+	private void finishLoading(LoadOptions options) {
+		
+		duplicateFilter = null;
+		snapshotStations = null;
+		snapshotFuelTypes = null;
+		
+		if (compact != null) {
+			compact.trim();
+		} else if (store == null) {
+			stations = inputStations.toArray(new Station[inputStations.size()]);
+			stationCount = stations.length;
+		}
+		fuelTypes = readFuelTypes();
+		
+		clearCache();
+		
+		if (options.isPrecomputeAggregates()) {
+			tilePyramid(FUEL_TYPE);
+			tilePyramid(ACCESS);
+		}
+		
+		if (options.isPrecomputeClusters()) {
+			clusterIndex();
+		}
+	}
+	
+	/*
+	 * Creates a partial list of the Stations read in so far, while the list is being read in.
+	 * The partial lists share one array, which only has the Stations read since the last
+	 * partial list added to it, so each Station is copied, or made a view of, only once.
+	 */
+	private StationList snapshot() {
+		int count = loadedCount();
+		
+		if (snapshotStations == null) {
+			snapshotStations = new Station[Math.max(16, count)];
+			snapshotFuelTypes = new ArrayList<String>();
+		} else if (count > snapshotStations.length) {
+			snapshotStations = Arrays.copyOf(snapshotStations, Math.max(count, 2 * snapshotStations.length));
+		}
+		
+		for (int i = snapshotCount; i < count; i++) {
+			Station station = inputStations != null ? inputStations.get(i) : station(i);
+			snapshotStations[i] = station;
+			
+			String type = field(station, FUEL_TYPE);
+			if (type != null && !snapshotFuelTypes.contains(type)) {
+				snapshotFuelTypes.add(type);
+			}
+		}
+		snapshotCount = count;
+		
+		return new StationList(snapshotStations, count, new ArrayList<String>(snapshotFuelTypes));
+	}
+	
+	private int loadedCount() {
+		if (compact != null) {
+			return compact.size();
+		}
+		
+		return store != null ? store.size() : inputStations.size();
+	}
+	
+	//Removes the Stations of a file that could not be read
+	private void truncate(int count) {
+		
+		if (duplicateFilter != null) {
+			duplicateFilter.truncate(count);
+		}
+		
+		if (store != null) {
+			store.truncate(count);
+		} else if (compact != null) {
+			compact.truncate(count);
+		} else {
+			inputStations.subList(count, inputStations.size()).clear();
+		}
+	}
+	
+	private void addStation(double latitude, double longitude, String name, String fuelType,
+			String address, String access) {
+		
+		if (duplicateFilter != null && !duplicateFilter.add(latitude, longitude, name, address)) {
+			duplicates++;
+			return;
+		}
+		
+		if (store != null) {
+			store.add(latitude, longitude, name, fuelType, address, access);
+		} else if (compact != null) {
+			compact.add(latitude, longitude, name, fuelType, address, access);
+		} else {
+			inputStations.add(new Station(latitude, longitude, name, fuelType, address, access));
+		}
+	}
+	
+	/*
+	 * Reads the stations of one JSON file from the Decompressor. Files up to SCAN_LIMIT,
+	 * or up to MAX_ARRAY when they are parsed in parallel, are held in memory and read 
+	 * with the OdenScanner, and larger files are read with Gson as they are streamed.
+	 */
+	private void readStations(InputStream json) throws IOException {
+		int limit = parallelParsing ? MAX_ARRAY : SCAN_LIMIT;
+		byte[] start = OdenScanner.readFully(json, limit);
+		
+		if (start.length <= limit) {
+			readStations(start);
+		} else {
+			readStations(new JsonReader(new InputStreamReader(new SequenceInputStream(new ByteArrayInputStream(start), json),
+					"UTF-8")));
+		}
+	}
+	
+	/*
+	 * Reads the stations from the raw bytes of a JSON file with the OdenScanner,
+	 * reading the same bytes again with Gson if the scanner cannot handle them
+	 */
+	private void readStations(byte[] json) throws IOException {
+		int mark = loadedCount();
+		int duplicateMark = duplicates;
+		
+		try {
+			if (parallelParsing && json.length >= PARALLEL_MINIMUM) {
+				scanStationsInParallel(json);
+			} else {
+				scanStations(new OdenScanner(json, 0, json.length));
+			}
+		} catch (IOException e) {
+			truncate(mark);
+			duplicates = duplicateMark;
+			readStations(new JsonReader(new InputStreamReader(new ByteArrayInputStream(json), "UTF-8")));
+		}
+	}
+	
+	private void scanStations(OdenScanner scanner) throws IOException {
+		
+		scanner.retain(new int[] {OdenScanner.NM, OdenScanner.FT, OdenScanner.ADR, OdenScanner.AC});
+		scanner.beginArray();
+		while (scanner.nextFeature()) {
+			addStation(scanner.getCoordinate(0), scanner.getCoordinate(1),
+					scanner.getString(OdenScanner.NM), scanner.getString(OdenScanner.FT),
+					scanner.getString(OdenScanner.ADR), scanner.getString(OdenScanner.AC));
+		}
+	}
+	
+	/*
+	 * Reads the stations of a large JSON file by parsing chunks of it in parallel,
+	 * adding them in the order of the file once every chunk is parsed. The file 
+	 * is parsed on one thread instead if it cannot be split into whole features.
+	 */
+	private void scanStationsInParallel(final byte[] json) throws IOException {
+		
+		int parts = Math.min(json.length / PARALLEL_CHUNK, 4 * Runtime.getRuntime().availableProcessors());
+		final int[] bounds = OdenScanner.split(json, 0, json.length, parts);
+		final int[] keys = new int[] {OdenScanner.NM, OdenScanner.FT, OdenScanner.ADR, OdenScanner.AC};
+		List<OdenScanner.Features> chunks;
+		
+		try {
+			chunks = IntStream.range(0, bounds.length - 1).parallel()
+					.mapToObj(new IntFunction<OdenScanner.Features>() {
+						@Override
+						public OdenScanner.Features apply(int chunk) {
+							try {
+								return new OdenScanner(json, bounds[chunk], bounds[chunk + 1])
+										.readFeatures(keys, chunk == 0, chunk == bounds.length - 2);
+							} catch (IOException e) {
+								throw new UncheckedIOException(e);
+							}
+						}
+					}).collect(Collectors.<OdenScanner.Features>toList());
+		} catch (UncheckedIOException e) {
+			scanStations(new OdenScanner(json, 0, json.length));
+			return;
+		}
+		
+		for (OdenScanner.Features chunk : chunks) {
+			for (int i = 0; i < chunk.size(); i++) {
+				addStation(chunk.getCoordinate(i, 0), chunk.getCoordinate(i, 1),
+						chunk.getString(i, OdenScanner.NM), chunk.getString(i, OdenScanner.FT),
+						chunk.getString(i, OdenScanner.ADR), chunk.getString(i, OdenScanner.AC));
+			}
+		}
+	}
+	
+	//Reads the stations of a file with Gson, keeping none of them if the file cannot be read
+	private void readStations(JsonReader reader) throws IOException {
+		int mark = loadedCount();
+		int duplicateMark = duplicates;
+
+		try {
+			reader.beginArray();
+			while (reader.hasNext()) {
+				readStation(reader);
+			}
+			reader.endArray();
+		} catch (IOException e) {
+			truncate(mark);
+			duplicates = duplicateMark;
+			throw e;
+		}
 	}
 	
-	private Station readStation(JsonReader reader) throws IOException {
+	private void readStation(JsonReader reader) throws IOException {
 		ArrayList<Double> coordinates = null;
 		String fuelType = null;
 		String name = null;
@@ -427,7 +2352,7 @@ public class StationList {
 		}
 		reader.endObject();
 		
-		return new Station(coordinates.get(0), coordinates.get(1), name, fuelType, address, access);
+		addStation(coordinates.get(0), coordinates.get(1), name, fuelType, address, access);
 	}
 	
 	private ArrayList<Double> readCoordinates(JsonReader reader) throws IOException {
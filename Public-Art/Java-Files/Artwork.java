@@ -31,6 +31,10 @@ public class Artwork {
 	private String artType;
 	private String summary;
 	private String description;
+	
+	private TextArena text;
+	private int summaryHandle;
+	private int descriptionHandle;
 
 	/**
 	 * <h1>Artwork</h1>
@@ -62,6 +66,20 @@ public class Artwork {
 		
 	}
 	
+	/*
+	 * Creates an Artwork whose summary and description are held compressed
+	 * in a TextArena and only decompressed when they are retrieved
+	 */
+	Artwork(double latitude, double longitude, String name, String address,
+			String artistName, String artType, TextArena text, int summaryHandle, int descriptionHandle) {
+		
+		this(latitude, longitude, name, address, artistName, artType, null, null);
+		
+		this.text = text;
+		this.summaryHandle = summaryHandle;
+		this.descriptionHandle = descriptionHandle;
+	}
+	
 	/**
 	 * <h1>displayArtwork</h1>
 	 * <p>displayArtwork()</p>
@@ -141,6 +159,9 @@ public class Artwork {
 	 * @return the summary
 	 */
 	public String getSummary() {
+		if (text != null) {
+			return text.get(summaryHandle);
+		}
 		return summary;
 	}
 
@@ -151,6 +172,9 @@ public class Artwork {
 	 * @return the description
 	 */
 	public String getDescription() {
+		if (text != null) {
+			return text.get(descriptionHandle);
+		}
 		return description;
 	}
 	
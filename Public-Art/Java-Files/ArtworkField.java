@@ -0,0 +1,36 @@
+/**This file was created for Terratap-Technologies-Inc by 
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas. 
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package publicArt;
+
+/**
+ * <p>The ArtworkField enum lists the properties of an Artwork that can be 
+ * read in from the oden unified format. It is used with the LoadOptions class
+ * to choose which properties an ArtworkList keeps when it is created.</p>
+ * 
+ * <p>The latitude and longitude of an Artwork are always kept.</p>
+ * @version 1.0
+ */
+public enum ArtworkField {
+	
+	/** The name of the Artwork, "nm" in the JSON file */
+	NAME(OdenScanner.NM),
+	/** The address of the Artwork, "adr" in the JSON file */
+	ADDRESS(OdenScanner.ADR),
+	/** The name of the Artist, "aNm" in the JSON file */
+	ARTIST_NAME(OdenScanner.ANM),
+	/** The art type of the Artwork, "type" in the JSON file */
+	ART_TYPE(OdenScanner.TYPE),
+	/** The summary of the Artwork, "summ" in the JSON file */
+	SUMMARY(OdenScanner.SUMM),
+	/** The description of the Artwork, "desc" in the JSON file */
+	DESCRIPTION(OdenScanner.DESC);
+	
+	final int key;
+	
+	private ArtworkField(int key) {
+		this.key = key;
+	}
+}
@@ -5,15 +5,32 @@
 
 package publicArt;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.google.gson.stream.JsonReader;
 
@@ -32,10 +49,79 @@ import com.google.gson.stream.JsonReader;
  */
 public class ArtworkList {
 
+	static final int NAME = 0;
+	static final int ADDRESS = 1;
+	private static final int ARTIST_NAME = 2;
+	private static final int ART_TYPE = 3;
+	private static final int SUMMARY = 4;
+	private static final int DESCRIPTION = 5;
+	
+	//The names of the String fields, in column order, used by getMemoryFootprint() and ListDiff
+	static final String[] FIELDS = {"name", "address", "artistName", "artType", "summary", "description"};
+	
+	private static final int NEARBY_CANDIDATES = 64;
+	
+	//A changed list stores its Artworks together again once its changes outnumber 8 times the square root of its size, or 256
+	private static final int MIN_CHANGES = 256;
+	private static final int CHANGES_PER_ROOT = 8;
+	
+	//The String columns stored off-heap as codes into a dictionary
+	private static final boolean[] CATEGORICAL = {false, false, false, true, false, false};
+	
+	private static final int CLOSEST_QUERY = 0;
+	private static final int SORT_QUERY = 1;
+	
+	//Files are only split for parallel parsing into chunks of at least this many bytes
+	private static final int PARALLEL_CHUNK = 1 << 22;
+	
+	//Files smaller than this are parsed on one thread, as splitting them costs more than it saves
+	private static final int PARALLEL_MINIMUM = 1 << 25;
+	
+	//Files larger than this are read with Gson as they are streamed, rather than held in memory for the OdenScanner
+	private static final int SCAN_LIMIT = 1 << 24;
+	
+	//The largest array the JVM can make, which is as much of a file as parallel parsing can hold
+	private static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+	
+	//Runs each asynchronous load on a thread of its own, as reading files blocks
+	private static final Executor LOADER = new Executor() {
+		@Override
+		public void execute(Runnable task) {
+			Thread thread = new Thread(task, "ArtworkList loader");
+			thread.setDaemon(true);
+			thread.start();
+		}
+	};
+
 	private ArrayList<Artwork> inputArtworks;
-	private ArrayList<String> artTypes;
+	private volatile ArrayList<String> artTypes;
+	private Set<ArtworkField> fields;
+	private TextArena textArena;
 	
 	private Artwork[] artworks;
+	private int artworkCount;
+	private OffHeapStore store;
+	private CompactStore compact;
+	private ResultCache resultCache;
+	private DuplicateFilter duplicateFilter;
+	private int duplicates;
+	private boolean parallelParsing;
+	private boolean partial;
+	
+	//The Artworks given to partial lists while the list is read in, which share the array up to their own size
+	private Artwork[] snapshotArtworks;
+	private int snapshotCount;
+	private ArrayList<String> snapshotArtTypes;
+	
+	//The list holding the stored Artworks of a changed list, and the changes made since they were stored
+	private ArtworkList base;
+	private Delta delta;
+	
+	private volatile FuzzyIndex nameIndex;
+	private volatile PrefixIndex[] prefixIndexes = new PrefixIndex[6];
+	private volatile TilePyramid[] tilePyramids = new TilePyramid[6];
+	private volatile ClusterIndex clusterIndex;
+	private volatile double[][] coordinates;
 	
 	/**
 	 * <h1>ArtworkList</h1>
@@ -49,20 +135,35 @@ public class ArtworkList {
 	 * through the parameters
 	 */
 	public ArtworkList(Reader json) throws IOException {
+		this(json, new LoadOptions());
+	}
+	
+	/**
+	 * <h1>ArtworkList</h1>
+	 * <p>public ArtworkList(Reader json, LoadOptions options) throws IOException</p>
+	 * <p>Creates a new ArtworkList when given a Reader to a JSON file and the
+	 * options to read it in with. For the list to be created properly the JSON 
+	 * file must contain geographic data (GeoJSON) for public art that is in the 
+	 * oden unified format.</p>
+	 * @param json - The reader reading in data from a JSON file
+	 * @param options - The options used to read in the data
+	 * @throws IOException if there is a problem with the Reader given
+	 * through the parameters
+	 */
+	public ArtworkList(Reader json, LoadOptions options) throws IOException {
 		
-		inputArtworks = new ArrayList<Artwork>();
+		startLoading(options);
 		JsonReader reader = new JsonReader(json);
 		
 		try {
-			inputArtworks = readArtworks(reader);
+			readArtworks(reader);
 		} catch (IOException e) {
 			System.err.println("Caught IOException: " + e.getMessage());
 		} finally {
 			reader.close();
 		}
 		
-		artworks = inputArtworks.toArray(new Artwork[inputArtworks.size()]);
-		artTypes = readArtTypes(artworks);
+		finishLoading(options);
 	}
 	
 	/**
@@ -76,29 +177,72 @@ public class ArtworkList {
 	 * @throws IOException if there is a problem reading in data from the files
 	 */
 	public ArtworkList(String filePath) throws IOException {
+		this(filePath, new LoadOptions());
+	}
+	
+	/**
+	 * <h1>ArtworkList</h1>
+	 * <p>public ArtworkList(String filePath, LoadOptions options) throws IOException</p>
+	 * <p>Creates a new ArtworkList when given a file path (as a String) to a 
+	 * folder containing JSON files and the options to read them in with. The 
+	 * file path must be the full system path and the folder must only contain 
+	 * JSON files containing geographic data (GeoJSON) for public art that is in 
+	 * the oden unified format.
+	 * <p>The folder may also hold gzip compressed JSON files ending in .json.gz and zip 
+	 * files of JSON files ending in .zip, which are decompressed while they are parsed 
+	 * rather than being decompressed in memory first.</p>
+	 * <p>Files of up to 16 MB are held in memory while they are parsed, and larger files 
+	 * are parsed as they are read without being held in memory.</p>
+	 * @param filePath - The file path to the folder containing the JSON files
+	 * @param options - The options used to read in the data
+	 * @throws IOException if there is a problem reading in data from the files
+	 */
+	public ArtworkList(String filePath, LoadOptions options) throws IOException {
+		this(inputFiles(filePath), options, null);
+	}
+	
+	//Reads in the JSON files of a folder, reporting to the listener after each file but the last
+	private ArtworkList(File[] inputFiles, LoadOptions options, LoadListener listener) throws IOException {
 		
-		inputArtworks = new ArrayList<Artwork>();
-		File folder = new File(filePath);
-		File[] fileList = folder.listFiles();
+		startLoading(options);
+		int fileCount = inputFiles.length;
+		Decompressor decompressor = new Decompressor(inputFiles);
 		
 		try {
 			
-			FileInputStream fileStream;
-			for (int i = 0; i < fileList.length; i++) {
+			for (int filesRead = 1; filesRead <= fileCount; filesRead++) {
 				
-				if (fileList[i].isFile() && fileList[i].getName().endsWith(".json")) {
-					
-					fileStream = new FileInputStream(fileList[i]);
-					ArrayList<Artwork> temp = readArtworks(new JsonReader(new InputStreamReader(fileStream, "UTF-8")));
-					inputArtworks.addAll(temp);
+				InputStream json;
+				while ((json = decompressor.next()) != null) {
+					readArtworks(json);
+				}
+				
+				if (listener != null && filesRead < fileCount) {
+					listener.progress(snapshot(), filesRead, fileCount);
 				}
 			}
 		} catch (IOException e) {
 			System.err.println("Caught IOException: " + e.getMessage());
-		} 
+		} finally {
+			decompressor.close();
+		}
+		
+		finishLoading(options);
+	}
+	
+	//Lists the files of a folder that hold JSON files, going by their names
+	private static File[] inputFiles(String filePath) {
+		File folder = new File(filePath);
+		File[] fileList = folder.listFiles();
+		ArrayList<File> inputFiles = new ArrayList<File>();
+		
+		for (int i = 0; i < fileList.length; i++) {
+			if (fileList[i].isFile() && Decompressor.isInput(fileList[i].getName())) {
+				inputFiles.add(fileList[i]);
+			}
+		}
 		
-		artworks = inputArtworks.toArray(new Artwork[inputArtworks.size()]);
-		artTypes = readArtTypes(artworks);
+		return inputFiles.toArray(new File[inputFiles.size()]);
 	}
 	
 	/**
@@ -113,22 +257,183 @@ public class ArtworkList {
 	 * @throws IOException if there is a problem reading in data from the files
 	 */
 	public ArtworkList(InputStream[] inputStreams) throws IOException {
+		this(inputStreams, new LoadOptions());
+	}
+	
+	/**
+	 * <h1>ArtworkList</h1>
+	 * <p>public ArtworkList(InputStream[] inputStreams, LoadOptions options) throws IOException</p>
+	 * <p>Creates a new ArtworkList when given an array of InputStream objects that are 
+	 * being reading JSON files and the options to read them in with. The InputStreams 
+	 * must be from JSON files containing geographic data (GeoJSON) for public art 
+	 * that are in the oden unified format.
+	 * <p>InputStreams of gzip compressed JSON files or of zip files holding JSON files
+	 * are recognised from their first bytes and decompressed as they are read in.</p>
+	 * <p>Files of up to 16 MB are held in memory while they are parsed, and larger files 
+	 * are parsed as they are read without being held in memory.</p>
+	 * <p>It is recommended that this constructor be used with Android, where the
+	 * compactCoordinates option of LoadOptions keeps the list small.</p>
+	 * @param inputStreams - The array of InputStreams to the JSON files
+	 * @param options - The options used to read in the data
+	 * @throws IOException if there is a problem reading in data from the files
+	 */
+	public ArtworkList(InputStream[] inputStreams, LoadOptions options) throws IOException {
+		this(inputStreams, options, null);
+	}
+	
+	//Reads in the JSON files of an array of InputStreams, reporting to the listener after each file but the last
+	private ArtworkList(InputStream[] inputStreams, LoadOptions options, LoadListener listener) throws IOException {
 		
-		inputArtworks = new ArrayList<Artwork>();
+		startLoading(options);
+		Decompressor decompressor = new Decompressor(inputStreams);
 		
 		try {
 			
 			for (int i = 0; i < inputStreams.length; i++) {
-									
-				ArrayList<Artwork> temp = readArtworks(new JsonReader(new InputStreamReader(inputStreams[i], "UTF-8")));
-				inputArtworks.addAll(temp);
+				
+				InputStream json;
+				while ((json = decompressor.next()) != null) {
+					readArtworks(json);
+				}
+				
+				if (listener != null && i + 1 < inputStreams.length) {
+					listener.progress(snapshot(), i + 1, inputStreams.length);
+				}
 			}
 		} catch (IOException e) {
 			System.err.println("Caught IOException: " + e.getMessage());
-		} 
+		} finally {
+			decompressor.close();
+		}
 		
-		artworks = inputArtworks.toArray(new Artwork[inputArtworks.size()]);
-		artTypes = readArtTypes(artworks);
+		finishLoading(options);
+	}
+	
+	//Creates a partial list holding the Artworks read in so far
+	private ArtworkList(Artwork[] artworks, int count, ArrayList<String> artTypes) {
+		this.artworks = artworks;
+		this.artworkCount = count;
+		this.artTypes = artTypes;
+		partial = true;
+	}
+	
+	//Creates a changed list sharing the stored Artworks of another list
+	private ArtworkList(ArtworkList base, Delta delta, ResultCache resultCache) {
+		this.base = base;
+		this.delta = delta;
+		this.resultCache = resultCache != null ? resultCache.emptyCopy() : null;
+		duplicates = base.duplicates;
+	}
+	
+	//Stores the Artworks of a changed list together in a new list, off-heap or compact if its stored Artworks were
+	private ArtworkList(ArtworkList changed) {
+		
+		if (changed.base.store != null || changed.base.compact != null) {
+			if (changed.base.compact != null) {
+				compact = new CompactStore(CATEGORICAL);
+			} else {
+				store = new OffHeapStore(CATEGORICAL);
+			}
+			int[] slots = new int[DistanceKernel.BLOCK];
+			int[] positions = new int[DistanceKernel.BLOCK];
+			String[] values = new String[FIELDS.length];
+			
+			for (int start = 0; start < changed.size(); start += DistanceKernel.BLOCK) {
+				int length = Math.min(DistanceKernel.BLOCK, changed.size() - start);
+				changed.delta.map(start, length, slots, positions);
+				for (int i = 0; i < length; i++) {
+					for (int column = 0; column < values.length; column++) {
+						values[column] = positions[i] >= 0 ? field(changed.delta.artwork(positions[i]), column)
+								: changed.base.stringAt(slots[i], column);
+					}
+					if (compact != null) {
+						compact.add(changed.slotLatitude(slots[i]), changed.slotLongitude(slots[i]), values);
+					} else {
+						store.add(changed.slotLatitude(slots[i]), changed.slotLongitude(slots[i]), values);
+					}
+				}
+			}
+			if (compact != null) {
+				compact.trim();
+			}
+		} else {
+			artworks = changed.getAllArtworks();
+			artworkCount = artworks.length;
+			textArena = changed.base.textArena;
+		}
+		
+		resultCache = changed.resultCache;
+		duplicates = changed.duplicates;
+		artTypes = readArtTypes();
+	}
+	
+	/**
+	 * <h1>loadAsync</h1>
+	 * <p>public static CompletableFuture&lt;ArtworkList&gt; loadAsync(String filePath, LoadOptions options, 
+	 * LoadListener listener)</p>
+	 * <p>Starts reading in a ArtworkList from a folder of JSON files on a background thread,
+	 * in the same way as the ArtworkList(String, LoadOptions) constructor, and returns
+	 * without waiting for it.</p>
+	 * <p>After each file but the last the listener is given a partial ArtworkList of the 
+	 * Artworks read so far, which can be queried while the rest of the files are read 
+	 * in. Once every file is read it is given the finished ArtworkList.</p>
+	 * @param filePath - The file path to the folder containing the JSON files
+	 * @param options - The options used to read in the data
+	 * @param listener - Receives the progress of the loading, may be null
+	 * @return a future completed with the ArtworkList once every file is read in
+	 */
+	public static CompletableFuture<ArtworkList> loadAsync(final String filePath,
+			final LoadOptions options, final LoadListener listener) {
+		
+		return CompletableFuture.supplyAsync(new Supplier<ArtworkList>() {
+			@Override
+			public ArtworkList get() {
+				try {
+					File[] inputFiles = inputFiles(filePath);
+					ArtworkList list = new ArtworkList(inputFiles, options, listener);
+					if (listener != null) {
+						listener.progress(list, inputFiles.length, inputFiles.length);
+					}
+					return list;
+				} catch (IOException e) {
+					throw new CompletionException(e);
+				}
+			}
+		}, LOADER);
+	}
+	
+	/**
+	 * <h1>loadAsync</h1>
+	 * <p>public static CompletableFuture&lt;ArtworkList&gt; loadAsync(InputStream[] inputStreams, 
+	 * LoadOptions options, LoadListener listener)</p>
+	 * <p>Starts reading in a ArtworkList from an array of InputStreams on a background thread,
+	 * in the same way as the ArtworkList(InputStream[], LoadOptions) constructor, and returns
+	 * without waiting for it.</p>
+	 * <p>After each InputStream but the last the listener is given a partial ArtworkList of 
+	 * the Artworks read so far, which can be queried while the rest of the InputStreams 
+	 * are read in. Once every InputStream is read it is given the finished ArtworkList.</p>
+	 * @param inputStreams - The array of InputStreams to the JSON files
+	 * @param options - The options used to read in the data
+	 * @param listener - Receives the progress of the loading, may be null
+	 * @return a future completed with the ArtworkList once every InputStream is read in
+	 */
+	public static CompletableFuture<ArtworkList> loadAsync(final InputStream[] inputStreams,
+			final LoadOptions options, final LoadListener listener) {
+		
+		return CompletableFuture.supplyAsync(new Supplier<ArtworkList>() {
+			@Override
+			public ArtworkList get() {
+				try {
+					ArtworkList list = new ArtworkList(inputStreams, options, listener);
+					if (listener != null) {
+						listener.progress(list, inputStreams.length, inputStreams.length);
+					}
+					return list;
+				} catch (IOException e) {
+					throw new CompletionException(e);
+				}
+			}
+		}, LOADER);
 	}
 	
 	/**
@@ -138,7 +443,74 @@ public class ArtworkList {
 	 * @return The full list of Artworks
 	 */
 	public Artwork[] getAllArtworks() {
-		return artworks;
+		
+		if (artworks != null) {
+			return artworkCount == artworks.length ? artworks : Arrays.copyOf(artworks, artworkCount);
+		}
+		
+		Artwork[] allArtworks = new Artwork[size()];
+		
+		if (delta != null) {
+			int[] slots = new int[DistanceKernel.BLOCK];
+			int[] positions = new int[DistanceKernel.BLOCK];
+			
+			for (int start = 0; start < allArtworks.length; start += DistanceKernel.BLOCK) {
+				int length = Math.min(DistanceKernel.BLOCK, allArtworks.length - start);
+				delta.map(start, length, slots, positions);
+				for (int i = 0; i < length; i++) {
+					allArtworks[start + i] = positions[i] >= 0 ? delta.artwork(positions[i]) : base.artwork(slots[i]);
+				}
+			}
+			return allArtworks;
+		}
+		
+		for (int i = 0; i < allArtworks.length; i++) {
+			allArtworks[i] = artwork(i);
+		}
+		
+		return allArtworks;
+	}
+	
+	/**
+	 * <h1>size</h1>
+	 * <p>public int size()</p>
+	 * <p>Retrieves the number of Artworks in the list.</p>
+	 * @return The number of Artworks
+	 */
+	public final int size() {
+		
+		if (delta != null) {
+			return delta.size();
+		}
+		
+		if (compact != null) {
+			return compact.size();
+		}
+		
+		return artworks != null ? artworkCount : store.size();
+	}
+	
+	/**
+	 * <h1>isPartial</h1>
+	 * <p>public boolean isPartial()</p>
+	 * <p>Retrieves whether the list is a partial list given to a LoadListener while 
+	 * loadAsync() is still reading in the rest of the Artworks.</p>
+	 * @return true if the list only holds some of the Artworks
+	 */
+	public boolean isPartial() {
+		return partial;
+	}
+	
+	/**
+	 * <h1>getDuplicateCount</h1>
+	 * <p>public int getDuplicateCount()</p>
+	 * <p>Retrieves the number of Artworks left out of the list while it was read in 
+	 * because they were duplicates of Artworks already in it. This is always 0 unless 
+	 * LoadOptions.setDeduplicate(true) was set.</p>
+	 * @return The number of duplicate Artworks left out
+	 */
+	public int getDuplicateCount() {
+		return duplicates;
 	}
 	
 	/**
@@ -148,6 +520,7 @@ public class ArtworkList {
 	 * @return The list of art types
 	 */
 	public String[] getArtTypes() {
+		ArrayList<String> artTypes = artTypes();
 		return artTypes.toArray(new String[artTypes.size()]);
 	}
 	
@@ -162,27 +535,32 @@ public class ArtworkList {
 	 */
 	public Artwork getClosestArtwork(double latitude, double longitude) {
 		
-		Artwork closest = null;
-		double shortestDist = 0;
-
-		if (artworks != null) {
-			
-			closest = artworks[0];
-			shortestDist = Math.sqrt(Math.pow((artworks[0].getLatitude() - latitude), 2) 
-					+ Math.pow((artworks[0].getLongitude() - longitude), 2));
-		}
-		
-		for (int i = 0; i < artworks.length; i++) {
-			double currentDist = Math.sqrt(Math.pow((artworks[i].getLatitude() - latitude), 2) 
-					+ Math.pow((artworks[i].getLongitude() - longitude), 2));
+		if (resultCache != null) {
+			ResultCache.Key key = resultCache.key(CLOSEST_QUERY, latitude, longitude);
+			Artwork cached = (Artwork) resultCache.get(key);
 			
-			if (currentDist < shortestDist) {
-				shortestDist = currentDist;
-				closest = artworks[i];
+			if (cached == null) {
+				cached = closestArtwork(resultCache.latitude(key), resultCache.longitude(key));
+				resultCache.put(key, cached);
 			}
+			return cached;
 		}
 		
-		return closest;
+		return closestArtwork(latitude, longitude);
+	}
+	
+	/**
+	 * <h1>trackClosestArtwork</h1>
+	 * <p>public NearestTracker trackClosestArtwork()</p>
+	 * <p>Creates a NearestTracker for a user who keeps asking for the closest
+	 * Artwork while they move. The tracker remembers its last answer and how far
+	 * the user can move before it could change, so repeated lookups from nearby
+	 * positions cost next to nothing compared to getClosestArtwork(). Each moving
+	 * user should have a tracker of their own.</p>
+	 * @return a new NearestTracker over this list
+	 */
+	public NearestTracker trackClosestArtwork() {
+		return new NearestTracker(this);
 	}
 	
 	/**
@@ -196,29 +574,143 @@ public class ArtworkList {
 	 * @return the list of Artworks sorted by their distance to the given latitude and longitude
 	 */
 	public Artwork[] sortByDistance(final double latitude, final double longitude) {
-		Artwork[] sortedArtworks = artworks;
 		
-		Arrays.sort(sortedArtworks, new Comparator<Artwork>() {
-			@Override
-			public int compare(Artwork first, Artwork second) {
-
-				double firstDist = Math.sqrt(Math.pow((first.getLatitude() - latitude), 2) 
-						+ Math.pow((first.getLongitude() - longitude), 2));
-				
-				double secondDist = Math.sqrt(Math.pow((second.getLatitude() - latitude), 2) 
-						+ Math.pow((second.getLongitude() - longitude), 2));
-				
-				if (firstDist < secondDist) {
-					return -1;
-				} else if (firstDist > secondDist) {
-					return 1;
-				} else {
-					return 0;
+		if (resultCache != null) {
+			ResultCache.Key key = resultCache.key(SORT_QUERY, latitude, longitude);
+			Artwork[] cached = (Artwork[]) resultCache.get(key);
+			
+			if (cached == null) {
+				cached = sortArtworksByDistance(resultCache.latitude(key), resultCache.longitude(key));
+				resultCache.put(key, cached);
+			}
+			return cached.clone();
+		}
+		
+		return sortArtworksByDistance(latitude, longitude);
+	}
+	
+	/**
+	 * <h1>getCacheStats</h1>
+	 * <p>public CacheStats getCacheStats()</p>
+	 * <p>Retrieves the hit, miss and eviction counts of the result cache set up
+	 * with LoadOptions.setResultCacheSize(int).</p>
+	 * <p>This method returns <b>null</b> if the result cache is off.</p>
+	 * @return a snapshot of the result cache counts
+	 */
+	public CacheStats getCacheStats() {
+		return resultCache != null ? resultCache.getStats() : null;
+	}
+	
+	/**
+	 * <h1>clearCache</h1>
+	 * <p>public void clearCache()</p>
+	 * <p>Removes every result from the result cache, if there is one. The cache
+	 * of a list is emptied automatically whenever its artworks change, so this is
+	 * only needed to free memory.</p>
+	 */
+	public final void clearCache() {
+		if (resultCache != null) {
+			resultCache.clear();
+		}
+	}
+	
+	/**
+	 * <h1>getMemoryFootprint</h1>
+	 * <p>public MemoryFootprint getMemoryFootprint()</p>
+	 * <p>Estimates the memory held by the list, broken down into the Artwork objects,
+	 * their coordinates, each of their String fields, and whichever of the name search
+	 * index, the autocomplete indexes, the map tiles, the cluster index and the result
+	 * cache have been built. The sizes are worked out from what the list holds rather
+	 * than measured, so they are estimates; lists read in off-heap report most of
+	 * their memory as off-heap bytes. Summaries and descriptions kept compressed are
+	 * counted together as textArena.</p>
+	 * <p>The String fields are walked once for each call, so this is meant for
+	 * sizing and monitoring rather than for being called on every query.</p>
+	 * <p>A list made by add, update or remove also counts the list it shares its stored 
+	 * Artworks with, along with its own changes and the indexes built over them.</p>
+	 * @return the estimated memory footprint of the list
+	 */
+	public MemoryFootprint getMemoryFootprint() {
+		
+		int count = size();
+		MemoryFootprint footprint = new MemoryFootprint(count);
+		
+		if (delta != null) {
+			footprint.add(base.getMemoryFootprint());
+			long bytes = delta.estimateBytes();
+			for (int i = 0; i < delta.count(); i++) {
+				bytes += MemoryFootprint.objectBytes(52);
+				for (int column = 0; column < FIELDS.length; column++) {
+					bytes += MemoryFootprint.stringBytes(field(delta.artwork(i), column));
 				}
 			}
-		});
+			footprint.add("changes", bytes, 0);
+		} else if (compact != null) {
+			footprint.add("coordinates", compact.coordinateBytes(), 0);
+			for (int column = 0; column < FIELDS.length; column++) {
+				footprint.add(FIELDS[column], compact.columnBytes(column), 0);
+			}
+		} else if (artworks == null) {
+			footprint.add("coordinates", 0, 16L * count);
+			long used = 16L * count;
+			for (int column = 0; column < FIELDS.length; column++) {
+				long bytes = store.columnBytes(column);
+				footprint.add(FIELDS[column], store.dictionaryBytes(column), bytes);
+				used += bytes;
+			}
+			footprint.add("unused", 0, Math.max(0, store.getDirectBytes() - used));
+		} else {
+			footprint.add("artworks", MemoryFootprint.arrayBytes(count, 4)
+					+ count * (MemoryFootprint.objectBytes(52) - 16), 0);
+			footprint.add("coordinates", 16L * count, 0);
+			IdentityHashMap<String, Boolean> counted = new IdentityHashMap<String, Boolean>();
+			for (int column = 0; column < FIELDS.length; column++) {
+				if (textArena != null && (column == SUMMARY || column == DESCRIPTION)) {
+					continue;
+				}
+				long bytes = 0;
+				for (int i = 0; i < count; i++) {
+					String value = stringAt(i, column);
+					if (value != null && counted.put(value, Boolean.TRUE) == null) {
+						bytes += MemoryFootprint.stringBytes(value);
+					}
+				}
+				footprint.add(FIELDS[column], bytes, 0);
+			}
+			if (textArena != null) {
+				footprint.add("textArena", textArena.estimateBytes(), 0);
+			}
+		}
 		
-		return sortedArtworks;
+		FuzzyIndex names = nameIndex;
+		if (names != null) {
+			footprint.add("nameIndex", names.estimateBytes(), 0);
+		}
+		for (int column = 0; column < FIELDS.length; column++) {
+			PrefixIndex completions = prefixIndexes[column];
+			if (completions != null) {
+				footprint.add(FIELDS[column] + "Completions", completions.estimateBytes(), 0);
+			}
+		}
+		for (int column = 0; column < FIELDS.length; column++) {
+			TilePyramid tiles = tilePyramids[column];
+			if (tiles != null) {
+				footprint.add(FIELDS[column] + "Tiles", tiles.estimateBytes(), 0);
+			}
+		}
+		double[][] arrays = coordinates;
+		if (arrays != null) {
+			footprint.add("coordinateArrays", 2 * MemoryFootprint.arrayBytes(arrays[0].length, 8), 0);
+		}
+		ClusterIndex clusters = clusterIndex;
+		if (clusters != null) {
+			footprint.add("clusterIndex", clusters.estimateBytes(), 0);
+		}
+		if (resultCache != null) {
+			footprint.add("resultCache", resultCache.estimateBytes(), 0);
+		}
+		
+		return footprint;
 	}
 	
 	/**
@@ -234,9 +726,10 @@ public class ArtworkList {
 		
 		ArrayList<Artwork> searchArtworks = new ArrayList<Artwork>();
 
-		for (int i = 0; i < artworks.length; i++) {
-			if (artworks[i].getName().toLowerCase().contains(name.toLowerCase())) {
-				searchArtworks.add(artworks[i]);
+		for (int i = 0; i < size(); i++) {
+			String value = stringAt(i, NAME);
+			if (value != null && value.toLowerCase().contains(name.toLowerCase())) {
+				searchArtworks.add(artwork(i));
 			}
 		}
 		
@@ -247,6 +740,78 @@ public class ArtworkList {
 		return null;
 	}
 	
+	/**
+	 * <h1>fuzzySearchByName</h1>
+	 * <p>public Artwork[] fuzzySearchByName(String name, int maxDistance)</p>
+	 * <p>Takes in a String and returns an array of all artworks whose name has,
+	 * for every word of the String, a word that is at most maxDistance single 
+	 * character edits away from it. Searching for "Mermaid" finds the artworks 
+	 * named "The Mermaid". The artworks are ordered from the best match to the worst.</p>
+	 * <p>The index used by this method is built the first time it is called.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param name - The name of the Artwork being searched for
+	 * @param maxDistance - The number of edits allowed per word, 1 or 2 is recommended
+	 * @return all the artworks with a name matching the given keywords, best match first
+	 */
+	public Artwork[] fuzzySearchByName(String name, int maxDistance) {
+		return fuzzySearch(name, maxDistance, false, 0, 0);
+	}
+	
+	/**
+	 * <h1>fuzzySearchByName</h1>
+	 * <p>public Artwork[] fuzzySearchByName(String name, int maxDistance, double latitude, 
+	 * double longitude)</p>
+	 * <p>Works like fuzzySearchByName(String, int), except that artworks that match
+	 * the name equally well are ordered from closest to farthest away from the given
+	 * coordinates.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param name - The name of the Artwork being searched for
+	 * @param maxDistance - The number of edits allowed per word, 1 or 2 is recommended
+	 * @param latitude - The latitude of the User
+	 * @param longitude - The longitude of the User
+	 * @return all the artworks with a name matching the given keywords, best match first
+	 */
+	public Artwork[] fuzzySearchByName(String name, int maxDistance, double latitude, double longitude) {
+		return fuzzySearch(name, maxDistance, true, latitude, longitude);
+	}
+	
+	/**
+	 * <h1>autocompleteName</h1>
+	 * <p>public String[] autocompleteName(String prefix, int limit)</p>
+	 * <p>Takes in the start of a name and returns up to limit distinct names of
+	 * artworks that start with it, or have a word that starts with it, ignoring case.
+	 * Typing "merm" completes to "The Mermaid". The names that start with the prefix
+	 * come first, each group in alphabetical order.</p>
+	 * <p>The index used by this method is built the first time it is called, after
+	 * which each call only reads as many entries as it returns.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param prefix - The part of the name typed so far
+	 * @param limit - The largest number of completions to return
+	 * @return the completed names
+	 */
+	public String[] autocompleteName(String prefix, int limit) {
+		return autocomplete(NAME, prefix, limit, false, 0, 0);
+	}
+	
+	/**
+	 * <h1>autocompleteName</h1>
+	 * <p>public String[] autocompleteName(String prefix, int limit, double latitude, 
+	 * double longitude)</p>
+	 * <p>Works like autocompleteName(String, int), except that the first 64 
+	 * completions, or limit if it is larger, are ordered by how close the nearest 
+	 * Artwork with that name is to the given coordinates before the first limit of 
+	 * them are returned.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param prefix - The part of the name typed so far
+	 * @param limit - The largest number of completions to return
+	 * @param latitude - The latitude of the User
+	 * @param longitude - The longitude of the User
+	 * @return the completed names, closest first
+	 */
+	public String[] autocompleteName(String prefix, int limit, double latitude, double longitude) {
+		return autocomplete(NAME, prefix, limit, true, latitude, longitude);
+	}
+	
 	/**
 	 * <h1>searchByAddress</h1>
 	 * <p>public Artwork[] searchByAddress(String address)</p>
@@ -259,9 +824,10 @@ public class ArtworkList {
 	public Artwork[] searchByAddress(String address) {
 		ArrayList<Artwork> searchArtworks = new ArrayList<Artwork>();
 
-		for (int i = 0; i < artworks.length; i++) {
-			if (artworks[i].getAddress().toLowerCase().contains(address.toLowerCase())) {
-				searchArtworks.add(artworks[i]);
+		for (int i = 0; i < size(); i++) {
+			String value = stringAt(i, ADDRESS);
+			if (value != null && value.toLowerCase().contains(address.toLowerCase())) {
+				searchArtworks.add(artwork(i));
 			}
 		}
 		
@@ -272,6 +838,43 @@ public class ArtworkList {
 		return null;
 	}
 	
+	/**
+	 * <h1>autocompleteAddress</h1>
+	 * <p>public String[] autocompleteAddress(String prefix, int limit)</p>
+	 * <p>Takes in the start of an address and returns up to limit distinct addresses of
+	 * artworks that start with it, or have a word that starts with it, ignoring case.
+	 * Typing "main" completes to "123 Main St". The addresses that start with the prefix
+	 * come first, each group in alphabetical order.</p>
+	 * <p>The index used by this method is built the first time it is called, after
+	 * which each call only reads as many entries as it returns.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param prefix - The part of the address typed so far
+	 * @param limit - The largest number of completions to return
+	 * @return the completed addresses
+	 */
+	public String[] autocompleteAddress(String prefix, int limit) {
+		return autocomplete(ADDRESS, prefix, limit, false, 0, 0);
+	}
+	
+	/**
+	 * <h1>autocompleteAddress</h1>
+	 * <p>public String[] autocompleteAddress(String prefix, int limit, double latitude, 
+	 * double longitude)</p>
+	 * <p>Works like autocompleteAddress(String, int), except that the first 64 
+	 * completions, or limit if it is larger, are ordered by how close the nearest 
+	 * Artwork with that address is to the given coordinates before the first limit of 
+	 * them are returned.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param prefix - The part of the address typed so far
+	 * @param limit - The largest number of completions to return
+	 * @param latitude - The latitude of the User
+	 * @param longitude - The longitude of the User
+	 * @return the completed addresses, closest first
+	 */
+	public String[] autocompleteAddress(String prefix, int limit, double latitude, double longitude) {
+		return autocomplete(ADDRESS, prefix, limit, true, latitude, longitude);
+	}
+	
 	/**
 	 * <h1>searchByArtistName</h1>
 	 * <p>public Artwork[] searchByArtistName(String name)</p>
@@ -285,9 +888,10 @@ public class ArtworkList {
 		
 		ArrayList<Artwork> searchArtworks = new ArrayList<Artwork>();
 
-		for (int i = 0; i < artworks.length; i++) {
-			if (artworks[i].getArtistName().toLowerCase().contains(artistName.toLowerCase())) {
-				searchArtworks.add(artworks[i]);
+		for (int i = 0; i < size(); i++) {
+			String value = stringAt(i, ARTIST_NAME);
+			if (value != null && value.toLowerCase().contains(artistName.toLowerCase())) {
+				searchArtworks.add(artwork(i));
 			}
 		}
 		
@@ -298,6 +902,43 @@ public class ArtworkList {
 		return null;
 	}
 	
+	/**
+	 * <h1>autocompleteArtistName</h1>
+	 * <p>public String[] autocompleteArtistName(String prefix, int limit)</p>
+	 * <p>Takes in the start of an artist name and returns up to limit distinct artist names of
+	 * artworks that start with it, or have a word that starts with it, ignoring case.
+	 * Typing "carr" completes to "Emily Carr". The artist names that start with the prefix
+	 * come first, each group in alphabetical order.</p>
+	 * <p>The index used by this method is built the first time it is called, after
+	 * which each call only reads as many entries as it returns.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param prefix - The part of the artist name typed so far
+	 * @param limit - The largest number of completions to return
+	 * @return the completed artist names
+	 */
+	public String[] autocompleteArtistName(String prefix, int limit) {
+		return autocomplete(ARTIST_NAME, prefix, limit, false, 0, 0);
+	}
+	
+	/**
+	 * <h1>autocompleteArtistName</h1>
+	 * <p>public String[] autocompleteArtistName(String prefix, int limit, double latitude, 
+	 * double longitude)</p>
+	 * <p>Works like autocompleteArtistName(String, int), except that the first 64 
+	 * completions, or limit if it is larger, are ordered by how close the nearest 
+	 * Artwork with that artist name is to the given coordinates before the first limit 
+	 * of them are returned.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param prefix - The part of the artist name typed so far
+	 * @param limit - The largest number of completions to return
+	 * @param latitude - The latitude of the User
+	 * @param longitude - The longitude of the User
+	 * @return the completed artist names, closest first
+	 */
+	public String[] autocompleteArtistName(String prefix, int limit, double latitude, double longitude) {
+		return autocomplete(ARTIST_NAME, prefix, limit, true, latitude, longitude);
+	}
+	
 	/**
 	 * <h1>filterByArtType</h1>
 	 * <p>public Artwork[] filterByArtTypes()</p>
@@ -312,15 +953,15 @@ public class ArtworkList {
 	 */
 	public Artwork[] filterByArtType(String artType) {
 		
-		if (!artTypes.contains(artType)) {
+		if (!artTypes().contains(artType)) {
 			return null;
 		}
 		
 		ArrayList<Artwork> filterArtworks = new ArrayList<Artwork>();
 		
-		for (int i = 0; i < artworks.length; i++) {
-			if (artworks[i].getArtType().equalsIgnoreCase(artType)) {
-				filterArtworks.add(artworks[i]);
+		for (int i = 0; i < size(); i++) {
+			if (artType.equalsIgnoreCase(stringAt(i, ART_TYPE))) {
+				filterArtworks.add(artwork(i));
 			}
 		}
 		
@@ -331,37 +972,1348 @@ public class ArtworkList {
 		return null;
 	}
 	
-	//Reads in the art types during construction
-	private ArrayList<String> readArtTypes(Artwork[] artworks) {
-		ArrayList<String> artTypes = new ArrayList<String>();
+	/**
+	 * <h1>aggregateByArtType</h1>
+	 * <p>public Tile[] aggregateByArtType(double south, double west, double north, double east, int zoom)</p>
+	 * <p>Takes in the edges of a map viewport and a zoom level and returns the number
+	 * of Artworks in each map tile of the viewport, grouped by art type. Only tiles
+	 * holding at least one Artwork are returned. A viewport with its west edge east 
+	 * of its east edge crosses the 180th meridian.</p>
+	 * <p>The counts are read from a pyramid of tile counts built once, either while 
+	 * the list is read in if LoadOptions.setPrecomputeAggregates(true) is set, or 
+	 * the first time it is needed, so the Artworks themselves are not looked at.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param south - The latitude of the southern edge of the viewport
+	 * @param west - The longitude of the western edge of the viewport
+	 * @param north - The latitude of the northern edge of the viewport
+	 * @param east - The longitude of the eastern edge of the viewport
+	 * @param zoom - The zoom level of the tiles, from 0 to 20
+	 * @return the tiles of the viewport that hold Artworks
+	 */
+	public Tile[] aggregateByArtType(double south, double west, double north, double east, int zoom) {
+		return aggregate(ART_TYPE, south, west, north, east, zoom);
+	}
+	
+	/**
+	 * <h1>getClusters</h1>
+	 * <p>public Cluster[] getClusters(double south, double west, double north, double east, int zoom)</p>
+	 * <p>Takes in the edges of a map viewport and a zoom level and returns the 
+	 * Artworks in the viewport grouped into Clusters, so that a map can draw one 
+	 * marker for each Cluster. Artworks within about 40 pixels of each other at 
+	 * the zoom level are grouped together. Above zoom level 16 every Artwork is 
+	 * returned as a Cluster of its own. A viewport with its west edge east of its 
+	 * east edge crosses the 180th meridian.</p>
+	 * <p>The Clusters of every zoom level are built once, either while the list is 
+	 * read in if LoadOptions.setPrecomputeClusters(true) is set, or the first time 
+	 * they are needed.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param south - The latitude of the southern edge of the viewport
+	 * @param west - The longitude of the western edge of the viewport
+	 * @param north - The latitude of the northern edge of the viewport
+	 * @param east - The longitude of the eastern edge of the viewport
+	 * @param zoom - The zoom level of the map
+	 * @return the Clusters in the viewport
+	 */
+	public Cluster[] getClusters(double south, double west, double north, double east, int zoom) {
 		
-		if (artworks != null) {
-			artTypes.add(artworks[0].getArtType());
+		if (zoom < 0) {
+			throw new IllegalArgumentException("zoom must not be negative");
 		}
-
-		for (int i = 0; i < artworks.length; i++) {
-				
-			if (!artTypes.contains(artworks[i].getArtType())) {
-				artTypes.add(artworks[i].getArtType());
-			}
+		if (south > north) {
+			throw new IllegalArgumentException("south must not be greater than north");
 		}
 		
-		return artTypes;
-	}
-	
-	private ArrayList<Artwork> readArtworks(JsonReader reader) throws IOException {
-		ArrayList<Artwork> readArtworks = new ArrayList<Artwork>();
-
-		reader.beginArray();
-		while (reader.hasNext()) {
-			readArtworks.add(readArtwork(reader));
+		ClusterIndex index = clusterIndex();
+		int level = Math.min(zoom, ClusterIndex.MAX_ZOOM + 1);
+		int[] entries = index.clusters(south, west, north, east, level);
+		
+		if (entries.length == 0) {
+			return null;
 		}
-		reader.endArray();
 		
-		return readArtworks;
-	}
+		Cluster[] clusters = new Cluster[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			int record = index.record(level, entries[i]);
+			clusters[i] = new Cluster(index.latitude(level, entries[i]), index.longitude(level, entries[i]), 
+					index.count(level, entries[i]), index.expansionZoom(level, entries[i]), 
+					record >= 0 ? artwork(record) : null);
+		}
+		
+		return clusters;
+	}
+	
+	/**
+	 * <h1>getArtworksAlongRoute</h1>
+	 * <p>public Artwork[] getArtworksAlongRoute(double[] latitudes, double[] longitudes, double metres)</p>
+	 * <p>Takes in a route as the latitudes and longitudes of its points, in order, and
+	 * returns the Artworks within the given distance of it, in the order they are reached
+	 * along the route. Each segment of the route is the shortest path over the Earth
+	 * between its two points, and distances are great circle distances in metres. A
+	 * Artwork near several parts of the route is placed at the first of them.</p>
+	 * <p>Only the Artworks near each segment are read from the spatial index built for
+	 * getClusters(), so the Artworks far from the route are never measured.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param latitudes - The latitude of each point of the route
+	 * @param longitudes - The longitude of each point of the route
+	 * @param metres - The largest distance from the route in metres
+	 * @return the Artworks within the distance of the route, in order along it
+	 * @throws IllegalArgumentException if the route has no points, a point is not a valid
+	 * latitude and longitude, or the distance is negative
+	 */
+	public Artwork[] getArtworksAlongRoute(double[] latitudes, double[] longitudes, double metres) {
+		
+		if (delta != null) {
+			return changedAlongRoute(latitudes, longitudes, metres);
+		}
+		
+		Corridor corridor = new Corridor(latitudes, longitudes, metres) {
+			@Override
+			double latitude(int record) {
+				return latitudeAt(record);
+			}
+			
+			@Override
+			double longitude(int record) {
+				return longitudeAt(record);
+			}
+		};
+		
+		int[] records = corridor.search(clusterIndex());
+		if (records.length == 0) {
+			return null;
+		}
+		
+		Artwork[] along = new Artwork[records.length];
+		for (int i = 0; i < records.length; i++) {
+			along[i] = artwork(records[i]);
+		}
+		
+		return along;
+	}
+	
+	/**
+	 * <h1>diff</h1>
+	 * <p>public ListDiff diff(ArtworkList previous)</p>
+	 * <p>Compares this list with an earlier version of it, such as the list read in 
+	 * by the last refresh, and returns the Artworks that were added, removed or changed 
+	 * since, so that only the differences need to be passed on. Artworks are known by 
+	 * their name and address, and the lists are compared in time in proportion to 
+	 * their sizes.</p>
+	 * @param previous - The earlier version of the list
+	 * @return the differences between the earlier version and this list
+	 * @throws IllegalArgumentException if previous is null
+	 */
+	public ListDiff diff(ArtworkList previous) {
+		
+		if (previous == null) {
+			throw new IllegalArgumentException("previous must not be null");
+		}
+		
+		return new ListDiff(previous, this);
+	}
+	
+	/**
+	 * <h1>add</h1>
+	 * <p>public ArtworkList add(Artwork artwork)</p>
+	 * <p>Returns a new version of the list with the given Artwork added after the last
+	 * one. This list is not changed, so threads still reading it keep seeing the same 
+	 * Artworks, and the new version shares the Artworks and indexes of this one instead 
+	 * of copying them.</p>
+	 * <p>The changes made by add, update and remove are kept apart from the stored 
+	 * Artworks, with small indexes of their own that each query combines with the 
+	 * indexes of the stored Artworks, so a change costs about as much as the number of 
+	 * changes rather than the size of the list. Once the changes outnumber 8 times the 
+	 * square root of the number of Artworks, or 256 if that is larger, the Artworks are 
+	 * stored together again and their indexes are built again as they are needed. The 
+	 * Clusters of getClusters() depend on every Artwork and are built again for each 
+	 * version.</p>
+	 * @param artwork - The Artwork to add
+	 * @return the new version of the list
+	 * @throws IllegalArgumentException if artwork is null
+	 */
+	public ArtworkList add(Artwork artwork) {
+		
+		if (artwork == null) {
+			throw new IllegalArgumentException("artwork must not be null");
+		}
+		
+		return change(changes().add(fit(artwork)));
+	}
+	
+	/**
+	 * <h1>update</h1>
+	 * <p>public ArtworkList update(int index, Artwork artwork)</p>
+	 * <p>Returns a new version of the list with the Artwork at the given index replaced
+	 * by the given Artwork, in the same place. Like add(Artwork), this list is not 
+	 * changed.</p>
+	 * @param index - The index of the Artwork to replace, as in getAllArtworks()
+	 * @param artwork - The Artwork to put in its place
+	 * @return the new version of the list
+	 * @throws IllegalArgumentException if the index is outside of the list or artwork is null
+	 */
+	public ArtworkList update(int index, Artwork artwork) {
+		
+		if (index < 0 || index >= size()) {
+			throw new IllegalArgumentException("index must be between 0 and " + (size() - 1));
+		}
+		if (artwork == null) {
+			throw new IllegalArgumentException("artwork must not be null");
+		}
+		
+		return change(changes().update(index, fit(artwork)));
+	}
+	
+	/**
+	 * <h1>remove</h1>
+	 * <p>public ArtworkList remove(int index)</p>
+	 * <p>Returns a new version of the list without the Artwork at the given index. The 
+	 * Artworks after it move down by one. Like add(Artwork), this list is not changed.</p>
+	 * @param index - The index of the Artwork to remove, as in getAllArtworks()
+	 * @return the new version of the list
+	 * @throws IllegalArgumentException if the index is outside of the list
+	 */
+	public ArtworkList remove(int index) {
+		
+		if (index < 0 || index >= size()) {
+			throw new IllegalArgumentException("index must be between 0 and " + (size() - 1));
+		}
+		
+		return change(changes().remove(index));
+	}
+	
+	/**
+	 * <h1>indexOf</h1>
+	 * <p>public int indexOf(Artwork artwork)</p>
+	 * <p>Finds the index of the first Artwork in the list with the same coordinates and
+	 * fields as the given one, such as an Artwork returned by a query or by diff(), to be 
+	 * passed to update or remove.</p>
+	 * @param artwork - The Artwork to look for
+	 * @return the index of the Artwork, or -1 if the list does not hold it
+	 */
+	public int indexOf(Artwork artwork) {
+		
+		if (artwork == null) {
+			return -1;
+		}
+		
+		for (int i = 0; i < size(); i++) {
+			if (latitudeAt(i) == artwork.getLatitude() && longitudeAt(i) == artwork.getLongitude()
+					&& sameFields(i, artwork)) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * <h1>stream</h1>
+	 * <p>public Stream&lt;Artwork&gt; stream()</p>
+	 * <p>Retrieves the full list of Artworks as a Stream. The artworks are only read as
+	 * the Stream is consumed, so limit and skip stop reading early.</p>
+	 * @return a Stream of every Artwork
+	 */
+	public Stream<Artwork> stream() {
+		return toArtworks(IntStream.range(0, size()));
+	}
+	
+	/**
+	 * <h1>streamByDistance</h1>
+	 * <p>public Stream&lt;Artwork&gt; streamByDistance(double latitude, double longitude)</p>
+	 * <p>Works like sortByDistance(double, double), except that the artworks are
+	 * returned as a Stream that is evaluated lazily. The artworks are not sorted up 
+	 * front; each one is taken from a heap as it is needed, so reading the closest 
+	 * few artworks costs little more than a single pass over the list.</p>
+	 * @param latitude - The latitude of the User
+	 * @param longitude - The longitude of the User
+	 * @return a Stream of the artworks ordered from closest to farthest away
+	 */
+	public Stream<Artwork> streamByDistance(final double latitude, final double longitude) {
+		final int count = size();
+		
+		return toArtworks(StreamSupport.intStream(new Supplier<Spliterator.OfInt>() {
+			@Override
+			public Spliterator.OfInt get() {
+				double[] distances = new double[count];
+				
+				distancesTo(latitude, longitude, distances);
+				return new NearestFirst(distances);
+			}
+		}, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL, false));
+	}
+	
+	/**
+	 * <h1>streamByName</h1>
+	 * <p>public Stream&lt;Artwork&gt; streamByName(String name)</p>
+	 * <p>Works like searchByName(String), except that the artworks are returned as a Stream
+	 * that is evaluated lazily. The Stream is empty, never <b>null</b>, if no 
+	 * results are found.</p>
+	 * @param name - The name of the Artwork being searched for
+	 * @return a Stream of the artworks that have a name containing the given keyword
+	 */
+	public Stream<Artwork> streamByName(String name) {
+		return toArtworks(IntStream.range(0, size()).filter(containing(NAME, name)));
+	}
+	
+	/**
+	 * <h1>streamByAddress</h1>
+	 * <p>public Stream&lt;Artwork&gt; streamByAddress(String address)</p>
+	 * <p>Works like searchByAddress(String), except that the artworks are returned as a Stream
+	 * that is evaluated lazily. The Stream is empty, never <b>null</b>, if no 
+	 * results are found.</p>
+	 * @param address - The address of the Artwork being searched for
+	 * @return a Stream of the artworks that have an address containing the given keyword
+	 */
+	public Stream<Artwork> streamByAddress(String address) {
+		return toArtworks(IntStream.range(0, size()).filter(containing(ADDRESS, address)));
+	}
+	
+	/**
+	 * <h1>streamByArtistName</h1>
+	 * <p>public Stream&lt;Artwork&gt; streamByArtistName(String artistName)</p>
+	 * <p>Works like searchByArtistName(String), except that the artworks are returned as a Stream
+	 * that is evaluated lazily. The Stream is empty, never <b>null</b>, if no 
+	 * results are found.</p>
+	 * @param artistName - The artist name of the Artwork being searched for
+	 * @return a Stream of the artworks that have an artist name containing the given keyword
+	 */
+	public Stream<Artwork> streamByArtistName(String artistName) {
+		return toArtworks(IntStream.range(0, size()).filter(containing(ARTIST_NAME, artistName)));
+	}
+	
+	/**
+	 * <h1>streamByArtType</h1>
+	 * <p>public Stream&lt;Artwork&gt; streamByArtType(String artType)</p>
+	 * <p>Works like filterByArtType(String), except that the artworks are returned as a 
+	 * Stream that is evaluated lazily. The Stream is empty, never <b>null</b>, if no
+	 * results are found.</p>
+	 * @param artType - The art type the artworks are filtered by
+	 * @return a Stream of the artworks with the art type specified
+	 */
+	public Stream<Artwork> streamByArtType(final String artType) {
+		
+		if (!artTypes().contains(artType)) {
+			return Stream.empty();
+		}
+		
+		return toArtworks(IntStream.range(0, size()).filter(new IntPredicate() {
+			@Override
+			public boolean test(int i) {
+				return artType.equalsIgnoreCase(stringAt(i, ART_TYPE));
+			}
+		}));
+	}
+	
+	//Finds the Artwork closest to the given coordinates by checking every Artwork
+	private Artwork closestArtwork(double latitude, double longitude) {
+		int closest = scanClosest(latitude, longitude);
+		return closest == -1 ? null : artwork(closest);
+	}
+	
+	//Finds the index of the Artwork closest to the given coordinates by checking every Artwork
+	private int scanClosest(double latitude, double longitude) {
+		
+		if (isCompact() && CompactStore.covers(latitude, longitude)) {
+			return compactClosest(CompactStore.quantise(latitude), CompactStore.quantise(longitude));
+		}
+		
+		int closest = -1;
+		
+		if (artworks != null) {
+			double[][] coordinates = coordinates();
+			closest = DistanceKernel.nearest(coordinates[0], coordinates[1], 0, size(), latitude, longitude);
+		} else {
+			double shortestDist = 0;
+			double[] latitudes = new double[DistanceKernel.BLOCK];
+			double[] longitudes = new double[DistanceKernel.BLOCK];
+			
+			for (int start = 0; start < size(); start += DistanceKernel.BLOCK) {
+				int length = Math.min(DistanceKernel.BLOCK, size() - start);
+				copyCoordinates(start, length, latitudes, longitudes);
+				
+				int nearest = DistanceKernel.nearest(latitudes, longitudes, 0, length, latitude, longitude);
+				if (nearest != -1) {
+					double currentDist = DistanceKernel.distance(latitudes[nearest], longitudes[nearest], latitude, longitude);
+					if (closest == -1 || currentDist < shortestDist) {
+						shortestDist = currentDist;
+						closest = start + nearest;
+					}
+				}
+			}
+		}
+		
+		//Only coordinates that are not numbers give no closest Artwork, and a plain scan would then keep the first
+		return closest == -1 && size() > 0 ? 0 : closest;
+	}
+	
+	//Sorts a copy of the artworks by their distance to the given coordinates
+	private Artwork[] sortArtworksByDistance(double latitude, double longitude) {
+		
+		double[] distances = new double[size()];
+		
+		distancesTo(latitude, longitude, distances);
+		
+		//The distances are worked out once, rather than twice for every comparison of the sort
+		int[] order = DistanceKernel.order(distances);
+		
+		Artwork[] allArtworks = artworks != null ? artworks : getAllArtworks();
+		Artwork[] sortedArtworks = new Artwork[order.length];
+		for (int i = 0; i < order.length; i++) {
+			sortedArtworks[i] = allArtworks[order[i]];
+		}
+		
+		return sortedArtworks;
+	}
+	
+	//Works out the distance of every Artwork to the given coordinates, which both sortByDistance and streamByDistance order by
+	private void distancesTo(double latitude, double longitude, double[] distances) {
+		if (isCompact() && CompactStore.covers(latitude, longitude)) {
+			compactDistances(CompactStore.quantise(latitude), CompactStore.quantise(longitude), distances);
+		} else if (artworks != null) {
+			double[][] coordinates = coordinates();
+			DistanceKernel.distances(coordinates[0], coordinates[1], 0, distances.length, latitude, longitude, distances);
+		} else {
+			double[] latitudes = new double[DistanceKernel.BLOCK];
+			double[] longitudes = new double[DistanceKernel.BLOCK];
+			double[] block = new double[DistanceKernel.BLOCK];
+			
+			for (int start = 0; start < distances.length; start += DistanceKernel.BLOCK) {
+				int length = Math.min(DistanceKernel.BLOCK, distances.length - start);
+				copyCoordinates(start, length, latitudes, longitudes);
+				DistanceKernel.distances(latitudes, longitudes, 0, length, latitude, longitude, block);
+				System.arraycopy(block, 0, distances, start, length);
+			}
+		}
+	}
+	
+	//Finds the index of the Artwork closest to the given micro-degrees in a compact list, or one changed from it
+	private int compactClosest(int latitude, int longitude) {
+		
+		if (compact != null) {
+			return DistanceKernel.nearest(compact.latitudes(), compact.longitudes(), 0, size(), latitude, longitude);
+		}
+		
+		int closest = -1;
+		long shortest = 0;
+		double[] latitudes = new double[DistanceKernel.BLOCK];
+		double[] longitudes = new double[DistanceKernel.BLOCK];
+		int[] microLatitudes = new int[DistanceKernel.BLOCK];
+		int[] microLongitudes = new int[DistanceKernel.BLOCK];
+		
+		for (int start = 0; start < size(); start += DistanceKernel.BLOCK) {
+			int length = Math.min(DistanceKernel.BLOCK, size() - start);
+			copyMicrodegrees(start, length, latitudes, longitudes, microLatitudes, microLongitudes);
+			
+			int nearest = DistanceKernel.nearest(microLatitudes, microLongitudes, 0, length, latitude, longitude);
+			long squared = DistanceKernel.squaredDistance(microLatitudes[nearest], microLongitudes[nearest],
+					latitude, longitude);
+			if (closest == -1 || squared < shortest) {
+				shortest = squared;
+				closest = start + nearest;
+			}
+		}
+		
+		return closest;
+	}
+	
+	//Works out the squared distance in micro-degrees from the given point to each Artwork of a compact list
+	private void compactDistances(int latitude, int longitude, double[] distances) {
+		
+		if (compact != null) {
+			DistanceKernel.squaredDistances(compact.latitudes(), compact.longitudes(), 0, distances.length,
+					latitude, longitude, distances);
+			return;
+		}
+		
+		double[] latitudes = new double[DistanceKernel.BLOCK];
+		double[] longitudes = new double[DistanceKernel.BLOCK];
+		int[] microLatitudes = new int[DistanceKernel.BLOCK];
+		int[] microLongitudes = new int[DistanceKernel.BLOCK];
+		double[] block = new double[DistanceKernel.BLOCK];
+		
+		for (int start = 0; start < distances.length; start += DistanceKernel.BLOCK) {
+			int length = Math.min(DistanceKernel.BLOCK, distances.length - start);
+			copyMicrodegrees(start, length, latitudes, longitudes, microLatitudes, microLongitudes);
+			DistanceKernel.squaredDistances(microLatitudes, microLongitudes, 0, length, latitude, longitude, block);
+			System.arraycopy(block, 0, distances, start, length);
+		}
+	}
+	
+	//Copies the coordinates of a block of Artworks of a list changed from a compact one into arrays of micro-degrees
+	private void copyMicrodegrees(int start, int length, double[] latitudes, double[] longitudes,
+			int[] microLatitudes, int[] microLongitudes) {
+		
+		//The coordinates were rounded to micro-degrees, so rounding them again gives back the same values
+		copyCoordinates(start, length, latitudes, longitudes);
+		for (int i = 0; i < length; i++) {
+			microLatitudes[i] = CompactStore.quantise(latitudes[i]);
+			microLongitudes[i] = CompactStore.quantise(longitudes[i]);
+		}
+	}
+	
+	//Tells whether the coordinates of the list are held as micro-degrees, by it or by the list it was changed from
+	private boolean isCompact() {
+		return compact != null || (base != null && base.compact != null);
+	}
+	
+	//Copies the coordinates of a block of Artworks held off-heap, compact, or by a changed list, into arrays
+	private void copyCoordinates(int start, int length, double[] latitudes, double[] longitudes) {
+		
+		if (delta != null) {
+			int[] slots = new int[length];
+			int[] positions = new int[length];
+			delta.map(start, length, slots, positions);
+			
+			for (int i = 0; i < length; i++) {
+				if (positions[i] >= 0) {
+					latitudes[i] = delta.artwork(positions[i]).getLatitude();
+					longitudes[i] = delta.artwork(positions[i]).getLongitude();
+				} else {
+					latitudes[i] = base.latitudeAt(slots[i]);
+					longitudes[i] = base.longitudeAt(slots[i]);
+				}
+			}
+			return;
+		}
+		
+		if (compact != null) {
+			for (int i = 0; i < length; i++) {
+				latitudes[i] = compact.latitude(start + i);
+				longitudes[i] = compact.longitude(start + i);
+			}
+			return;
+		}
+		
+		for (int i = 0; i < length; i++) {
+			latitudes[i] = store.latitude(start + i);
+			longitudes[i] = store.longitude(start + i);
+		}
+	}
+	
+	private Artwork[] fuzzySearch(String name, int maxDistance, boolean byDistance,
+			final double latitude, final double longitude) {
+		
+		if (maxDistance < 0) {
+			throw new IllegalArgumentException("maxDistance must not be negative");
+		}
+		
+		ArrayList<FuzzyIndex.Match> matches = nameMatches(name, maxDistance);
+		
+		if (byDistance) {
+			Collections.sort(matches, new Comparator<FuzzyIndex.Match>() {
+				@Override
+				public int compare(FuzzyIndex.Match first, FuzzyIndex.Match second) {
+					
+					if (first.score != second.score) {
+						return first.score < second.score ? -1 : 1;
+					}
+					
+					double firstDist = Math.pow((latitudeAt(first.record) - latitude), 2) 
+							+ Math.pow((longitudeAt(first.record) - longitude), 2);
+					double secondDist = Math.pow((latitudeAt(second.record) - latitude), 2) 
+							+ Math.pow((longitudeAt(second.record) - longitude), 2);
+					
+					return Double.compare(firstDist, secondDist);
+				}
+			});
+		}
+		
+		if (matches.size() > 0) {
+			Artwork[] searchArtworks = new Artwork[matches.size()];
+			for (int i = 0; i < searchArtworks.length; i++) {
+				searchArtworks[i] = artwork(matches.get(i).record);
+			}
+			return searchArtworks;
+		}
+		
+		return null;
+	}
+	
+	//Builds the fuzzy name index the first time it is needed
+	private FuzzyIndex nameIndex() {
+		FuzzyIndex index = nameIndex;
+		
+		if (index == null) {
+			synchronized (this) {
+				index = nameIndex;
+				if (index == null) {
+					index = new FuzzyIndex(delta != null ? changedColumn(NAME) : column(NAME));
+					nameIndex = index;
+				}
+			}
+		}
+		
+		return index;
+	}
+	
+	private String[] autocomplete(int column, String prefix, int limit, boolean byDistance,
+			double latitude, double longitude) {
+		
+		if (limit < 1) {
+			throw new IllegalArgumentException("limit must be positive");
+		}
+		
+		int wanted = byDistance ? Math.max(limit, NEARBY_CANDIDATES) : limit;
+		PrefixIndex index = completions(column);
+		int[] indexed = null;
+		
+		//A changed list completes from an index of just the Artworks holding the values that can come first
+		if (delta != null) {
+			indexed = completionRecords(column, prefix, wanted);
+			String[] values = new String[indexed.length];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = stringAt(indexed[i], column);
+			}
+			index = new PrefixIndex(values);
+		}
+		
+		int[] found = index.complete(prefix, wanted);
+		
+		if (byDistance) {
+			final double[] distances = new double[found.length];
+			Integer[] order = new Integer[found.length];
+			
+			for (int i = 0; i < found.length; i++) {
+				int[] records = index.records(found[i]);
+				distances[i] = Double.MAX_VALUE;
+				for (int r = 0; r < records.length; r++) {
+					int record = indexed != null ? indexed[records[r]] : records[r];
+					distances[i] = Math.min(distances[i], Math.pow((latitudeAt(record) - latitude), 2) 
+							+ Math.pow((longitudeAt(record) - longitude), 2));
+				}
+				order[i] = i;
+			}
+			
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer first, Integer second) {
+					return Double.compare(distances[first], distances[second]);
+				}
+			});
+			
+			int[] nearest = new int[Math.min(limit, found.length)];
+			for (int i = 0; i < nearest.length; i++) {
+				nearest[i] = found[order[i]];
+			}
+			found = nearest;
+		}
+		
+		if (found.length > 0) {
+			String[] completions = new String[found.length];
+			for (int i = 0; i < completions.length; i++) {
+				completions[i] = index.value(found[i]);
+			}
+			return completions;
+		}
+		
+		return null;
+	}
+	
+	//Builds the autocomplete index of a column the first time it is needed
+	private PrefixIndex completions(int column) {
+		PrefixIndex[] indexes = prefixIndexes;
+		
+		if (indexes[column] == null) {
+			synchronized (this) {
+				indexes = prefixIndexes;
+				if (indexes[column] == null) {
+					indexes = indexes.clone();
+					indexes[column] = new PrefixIndex(delta != null ? changedColumn(column) : column(column));
+					prefixIndexes = indexes;
+				}
+			}
+		}
+		
+		return indexes[column];
+	}
+	
+	private Tile[] aggregate(int column, double south, double west, double north, double east, int zoom) {
+		
+		if (zoom < 0 || zoom > TilePyramid.MAX_ZOOM) {
+			throw new IllegalArgumentException("zoom must be between 0 and " + TilePyramid.MAX_ZOOM);
+		}
+		if (south > north) {
+			throw new IllegalArgumentException("south must not be greater than north");
+		}
+		
+		Tile[] tiles = delta != null ? base.tilePyramid(column).tiles(south, west, north, east, zoom, tilePyramid(column))
+				: tilePyramid(column).tiles(south, west, north, east, zoom);
+		
+		if (tiles.length > 0) {
+			return tiles;
+		}
+		
+		return null;
+	}
+	
+	//Builds the tile counts of a column the first time they are needed
+	private TilePyramid tilePyramid(int column) {
+		TilePyramid[] pyramids = tilePyramids;
+		
+		if (pyramids[column] == null) {
+			synchronized (this) {
+				pyramids = tilePyramids;
+				if (pyramids[column] == null) {
+					pyramids = pyramids.clone();
+					
+					if (delta != null) {
+						pyramids[column] = changedPyramid(column);
+					} else {
+						double[] latitudes = new double[size()];
+						double[] longitudes = new double[size()];
+						for (int i = 0; i < latitudes.length; i++) {
+							latitudes[i] = latitudeAt(i);
+							longitudes[i] = longitudeAt(i);
+						}
+						pyramids[column] = new TilePyramid(latitudes, longitudes, column(column));
+					}
+					tilePyramids = pyramids;
+				}
+			}
+		}
+		
+		return pyramids[column];
+	}
+	
+	//Copies the coordinates of every Artwork into arrays the first time the list held on the heap is scanned
+	private double[][] coordinates() {
+		double[][] arrays = coordinates;
+		
+		if (arrays == null) {
+			synchronized (this) {
+				arrays = coordinates;
+				if (arrays == null) {
+					arrays = new double[2][size()];
+					for (int i = 0; i < size(); i++) {
+						arrays[0][i] = artworks[i].getLatitude();
+						arrays[1][i] = artworks[i].getLongitude();
+					}
+					
+					coordinates = arrays;
+				}
+			}
+		}
+		
+		return arrays;
+	}
+	
+	//Builds the Clusters of every zoom level the first time they are needed
+	private ClusterIndex clusterIndex() {
+		ClusterIndex index = clusterIndex;
+		
+		if (index == null) {
+			synchronized (this) {
+				index = clusterIndex;
+				if (index == null) {
+					double[] latitudes = new double[size()];
+					double[] longitudes = new double[size()];
+					for (int i = 0; i < latitudes.length; i++) {
+						latitudes[i] = latitudeAt(i);
+						longitudes[i] = longitudeAt(i);
+					}
+					
+					index = new ClusterIndex(latitudes, longitudes);
+					clusterIndex = index;
+				}
+			}
+		}
+		
+		return index;
+	}
+	
+	//Retrieves one of the String columns of every Artwork
+	private String[] column(int column) {
+		String[] values = new String[size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = stringAt(i, column);
+		}
+		return values;
+	}
+	
+	//Turns a Stream of indexes into a Stream of the Artworks at those indexes
+	private Stream<Artwork> toArtworks(IntStream indexes) {
+		return indexes.mapToObj(new IntFunction<Artwork>() {
+			@Override
+			public Artwork apply(int i) {
+				return artwork(i);
+			}
+		});
+	}
+	
+	//Accepts the indexes of the Artworks that have a column containing the keyword, ignoring case
+	private IntPredicate containing(final int column, String keyword) {
+		final String lowerKeyword = keyword.toLowerCase();
+		
+		return new IntPredicate() {
+			@Override
+			public boolean test(int i) {
+				String value = stringAt(i, column);
+				return value != null && value.toLowerCase().contains(lowerKeyword);
+			}
+		};
+	}
+	
+	//Retrieves the Artwork at the given index, creating a view of it when the list is held off-heap or compact
+	final Artwork artwork(int i) {
+		
+		if (delta != null) {
+			int slot = delta.slot(i);
+			int position = delta.find(slot);
+			return position >= 0 ? delta.artwork(position) : base.artwork(slot);
+		}
+		
+		if (artworks != null) {
+			return artworks[i];
+		}
+		
+		if (compact != null) {
+			return new Artwork(compact.latitude(i), compact.longitude(i), compact.string(i, NAME),
+					compact.string(i, ADDRESS), compact.string(i, ARTIST_NAME), compact.string(i, ART_TYPE),
+					compact.string(i, SUMMARY), compact.string(i, DESCRIPTION));
+		}
+		
+		return new Artwork(store.latitude(i), store.longitude(i), store.string(i, NAME),
+				store.string(i, ADDRESS), store.string(i, ARTIST_NAME), store.string(i, ART_TYPE),
+				store.string(i, SUMMARY), store.string(i, DESCRIPTION));
+	}
+	
+	final double latitudeAt(int i) {
+		
+		if (delta != null) {
+			return slotLatitude(delta.slot(i));
+		}
+		
+		if (compact != null) {
+			return compact.latitude(i);
+		}
+		
+		return artworks != null ? artworks[i].getLatitude() : store.latitude(i);
+	}
+	
+	final double longitudeAt(int i) {
+		
+		if (delta != null) {
+			return slotLongitude(delta.slot(i));
+		}
+		
+		if (compact != null) {
+			return compact.longitude(i);
+		}
+		
+		return artworks != null ? artworks[i].getLongitude() : store.longitude(i);
+	}
+	
+	//Retrieves one of the String columns of the Artwork at the given index without creating a view
+	final String stringAt(int i, int column) {
+		
+		if (delta != null) {
+			int slot = delta.slot(i);
+			int position = delta.find(slot);
+			return position >= 0 ? field(delta.artwork(position), column) : base.stringAt(slot, column);
+		}
+		
+		if (compact != null) {
+			return compact.string(i, column);
+		}
+		
+		if (artworks == null) {
+			return store.string(i, column);
+		}
+		
+		return field(artworks[i], column);
+	}
+	
+	private static String field(Artwork artwork, int column) {
+		
+		switch (column) {
+		case NAME:
+			return artwork.getName();
+		case ADDRESS:
+			return artwork.getAddress();
+		case ARTIST_NAME:
+			return artwork.getArtistName();
+		case ART_TYPE:
+			return artwork.getArtType();
+		case SUMMARY:
+			return artwork.getSummary();
+		default:
+			return artwork.getDescription();
+		}
+	}
 	
-	private Artwork readArtwork(JsonReader reader) throws IOException {
+	//Tells whether the Artwork at the given index has the same String fields as another Artwork
+	private boolean sameFields(int i, Artwork artwork) {
+		
+		for (int column = 0; column < FIELDS.length; column++) {
+			String value = stringAt(i, column);
+			String other = field(artwork, column);
+			if (value == null ? other != null : !value.equals(other)) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	//Retrieves the art types, reading them in the first time they are needed by a changed list
+	private ArrayList<String> artTypes() {
+		ArrayList<String> types = artTypes;
+		
+		if (types == null) {
+			synchronized (this) {
+				types = artTypes;
+				if (types == null) {
+					types = readArtTypes();
+					artTypes = types;
+				}
+			}
+		}
+		
+		return types;
+	}
+	
+	//Rounds the coordinates of an Artwork added to a compact list to the micro-degrees the list would hold
+	private Artwork fit(Artwork artwork) {
+		
+		if (!isCompact()) {
+			return artwork;
+		}
+		
+		return new Artwork(CompactStore.round(artwork.getLatitude()), CompactStore.round(artwork.getLongitude()),
+				artwork.getName(), artwork.getAddress(), artwork.getArtistName(), artwork.getArtType(),
+				artwork.getSummary(), artwork.getDescription());
+	}
+	
+	//Retrieves the changes of the list, which a list that was never changed has none of
+	private Delta changes() {
+		return delta != null ? delta : new Delta(size());
+	}
+	
+	//Creates the version of the list holding the given changes, storing its Artworks together once there are many
+	private ArtworkList change(Delta changes) {
+		
+		ArtworkList stored = base != null ? base : this;
+		ArtworkList changed = new ArtworkList(stored, changes, resultCache);
+		
+		if (changes.getChangeCount() > Math.max(MIN_CHANGES, (int) Math.sqrt(stored.size()) * CHANGES_PER_ROOT)) {
+			return new ArtworkList(changed);
+		}
+		
+		return changed;
+	}
+	
+	//Retrieves the latitude of the Artwork in a slot of a changed list
+	private double slotLatitude(int slot) {
+		int position = delta.find(slot);
+		return position >= 0 ? delta.artwork(position).getLatitude() : base.latitudeAt(slot);
+	}
+	
+	//Retrieves the longitude of the Artwork in a slot of a changed list
+	private double slotLongitude(int slot) {
+		int position = delta.find(slot);
+		return position >= 0 ? delta.artwork(position).getLongitude() : base.longitudeAt(slot);
+	}
+	
+	//Retrieves one of the String columns of the Artworks held by the changes of a changed list
+	private String[] changedColumn(int column) {
+		String[] values = new String[delta.count()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = field(delta.artwork(i), column);
+		}
+		return values;
+	}
+	
+	/*
+	 * Finds the Artworks matching a name in a changed list, merging the matches of the stored 
+	 * Artworks that did not change with those of the Artworks held by the changes. Both are in 
+	 * order of score and then slot, and slots are in the same order as indexes.
+	 */
+	private ArrayList<FuzzyIndex.Match> nameMatches(String name, int maxDistance) {
+		
+		if (delta == null) {
+			return nameIndex().search(name, maxDistance);
+		}
+		
+		ArrayList<FuzzyIndex.Match> stored = base.nameIndex().search(name, maxDistance);
+		ArrayList<FuzzyIndex.Match> changed = nameIndex().search(name, maxDistance);
+		ArrayList<FuzzyIndex.Match> matches = new ArrayList<FuzzyIndex.Match>();
+		int i = 0;
+		int j = 0;
+		
+		while (true) {
+			while (i < stored.size() && !delta.isStored(stored.get(i).record)) {
+				i++;
+			}
+			if (i == stored.size() && j == changed.size()) {
+				break;
+			}
+			
+			if (j == changed.size() || (i < stored.size() && (stored.get(i).score < changed.get(j).score
+					|| (stored.get(i).score == changed.get(j).score 
+					&& stored.get(i).record < delta.slotAt(changed.get(j).record))))) {
+				matches.add(new FuzzyIndex.Match(delta.index(stored.get(i).record), stored.get(i).score));
+				i++;
+			} else {
+				matches.add(new FuzzyIndex.Match(delta.index(delta.slotAt(changed.get(j).record)), changed.get(j).score));
+				j++;
+			}
+		}
+		
+		return matches;
+	}
+	
+	/*
+	 * Finds the Artworks of a changed list holding the values that can be among the first 
+	 * completions of a prefix: the first completions of the Artworks held by the changes, 
+	 * and those of the stored Artworks that did not change. Each stored Artwork removed or 
+	 * updated can take away at most one value, so that many more stored values are read.
+	 */
+	private int[] completionRecords(int column, String prefix, int wanted) {
+		
+		PrefixIndex stored = base.completions(column);
+		PrefixIndex changed = completions(column);
+		ArrayList<Integer> records = new ArrayList<Integer>();
+		
+		for (int value : stored.complete(prefix, wanted + delta.hidden().length)) {
+			for (int slot : stored.records(value)) {
+				if (delta.isStored(slot)) {
+					records.add(delta.index(slot));
+				}
+			}
+		}
+		for (int value : changed.complete(prefix, wanted)) {
+			for (int position : changed.records(value)) {
+				records.add(delta.index(delta.slotAt(position)));
+			}
+		}
+		
+		//In index order, values that tie keep the order of their first Artwork, as in an index of the whole list
+		int[] sorted = new int[records.size()];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = records.get(i);
+		}
+		Arrays.sort(sorted);
+		return sorted;
+	}
+	
+	//Counts the changes of a changed list in every tile: its Artworks add one, and the stored Artworks they hide take one away
+	private TilePyramid changedPyramid(int column) {
+		
+		int[] hidden = delta.hidden();
+		int count = delta.count() + hidden.length;
+		double[] latitudes = new double[count];
+		double[] longitudes = new double[count];
+		String[] values = new String[count];
+		int[] weights = new int[count];
+		
+		for (int i = 0; i < delta.count(); i++) {
+			latitudes[i] = delta.artwork(i).getLatitude();
+			longitudes[i] = delta.artwork(i).getLongitude();
+			values[i] = field(delta.artwork(i), column);
+			weights[i] = 1;
+		}
+		for (int i = 0; i < hidden.length; i++) {
+			latitudes[delta.count() + i] = base.latitudeAt(hidden[i]);
+			longitudes[delta.count() + i] = base.longitudeAt(hidden[i]);
+			values[delta.count() + i] = base.stringAt(hidden[i], column);
+			weights[delta.count() + i] = -1;
+		}
+		
+		return new TilePyramid(latitudes, longitudes, values, weights);
+	}
+	
+	//Finds the Artworks of a changed list along a route, from the spatial index of the stored Artworks and the changes
+	private Artwork[] changedAlongRoute(double[] latitudes, double[] longitudes, double metres) {
+		
+		Corridor corridor = new Corridor(latitudes, longitudes, metres) {
+			@Override
+			double latitude(int slot) {
+				return slotLatitude(slot);
+			}
+			
+			@Override
+			double longitude(int slot) {
+				return slotLongitude(slot);
+			}
+			
+			@Override
+			boolean excludes(int slot) {
+				return !delta.isStored(slot);
+			}
+		};
+		
+		int[] changedSlots = new int[delta.count()];
+		for (int i = 0; i < changedSlots.length; i++) {
+			changedSlots[i] = delta.slotAt(i);
+		}
+		
+		int[] slots = corridor.search(base.clusterIndex(), changedSlots);
+		if (slots.length == 0) {
+			return null;
+		}
+		
+		Artwork[] along = new Artwork[slots.length];
+		for (int i = 0; i < slots.length; i++) {
+			along[i] = artwork(delta.index(slots[i]));
+		}
+		
+		return along;
+	}
+	
+	//Reads in the art types during construction
+	private ArrayList<String> readArtTypes() {
+		ArrayList<String> artTypes = new ArrayList<String>();
+
+		for (int i = 0; i < size(); i++) {
+			String artType = stringAt(i, ART_TYPE);
+			
+			if (artType != null && !artTypes.contains(artType)) {
+				artTypes.add(artType);
+			}
+		}
+		
+		return artTypes;
+	}
+	
+	//Prepares the list to have Artworks added to it, either on the heap or off-heap
+	private void startLoading(LoadOptions options) {
+		
+		parallelParsing = options.isParallelParsing();
+		
+		fields = options.getFields();
+		
+		if (options.isOffHeap()) {
+			store = new OffHeapStore(CATEGORICAL);
+		} else if (options.isCompactCoordinates()) {
+			compact = new CompactStore(CATEGORICAL);
+		} else {
+			inputArtworks = new ArrayList<Artwork>();
+			
+			if (options.isCompressText()) {
+				textArena = new TextArena(options.getTextCacheSize());
+			}
+		}
+		
+		if (options.isDeduplicate()) {
+			duplicateFilter = new DuplicateFilter(options.getDuplicateTolerance(), options.isDuplicateByName(),
+					options.isDuplicateByAddress());
+		}
+		
+		if (options.getResultCacheSize() > 0) {
+			resultCache = new ResultCache(options.getResultCacheSize(), options.getResultCacheTtl(),
+					options.getResultCacheResolution());
+		}
+	}
+	
+	private void finishLoading(LoadOptions options) {
+		
+		duplicateFilter = null;
+		snapshotArtworks = null;
+		snapshotArtTypes = null;
+		
+		if (textArena != null) {
+			textArena.seal();
+		}
+		
+		if (compact != null) {
+			compact.trim();
+		} else if (store == null) {
+			artworks = inputArtworks.toArray(new Artwork[inputArtworks.size()]);
+			artworkCount = artworks.length;
+		}
+		artTypes = readArtTypes();
+		
+		clearCache();
+		
+		if (options.isPrecomputeAggregates()) {
+			tilePyramid(ART_TYPE);
+		}
+		
+		if (options.isPrecomputeClusters()) {
+			clusterIndex();
+		}
+	}
+	
+	/*
+	 * Creates a partial list of the Artworks read in so far, while the list is being read in.
+	 * The partial lists share one array, which only has the Artworks read since the last
+	 * partial list added to it, so each Artwork is copied, or made a view of, only once.
+	 */
+	private ArtworkList snapshot() {
+		int count = loadedCount();
+		
+		if (snapshotArtworks == null) {
+			snapshotArtworks = new Artwork[Math.max(16, count)];
+			snapshotArtTypes = new ArrayList<String>();
+		} else if (count > snapshotArtworks.length) {
+			snapshotArtworks = Arrays.copyOf(snapshotArtworks, Math.max(count, 2 * snapshotArtworks.length));
+		}
+		
+		for (int i = snapshotCount; i < count; i++) {
+			Artwork artwork = inputArtworks != null ? inputArtworks.get(i) : artwork(i);
+			snapshotArtworks[i] = artwork;
+			
+			String type = field(artwork, ART_TYPE);
+			if (type != null && !snapshotArtTypes.contains(type)) {
+				snapshotArtTypes.add(type);
+			}
+		}
+		snapshotCount = count;
+		
+		return new ArtworkList(snapshotArtworks, count, new ArrayList<String>(snapshotArtTypes));
+	}
+	
+	private int loadedCount() {
+		if (compact != null) {
+			return compact.size();
+		}
+		
+		return store != null ? store.size() : inputArtworks.size();
+	}
+	
+	//Removes the Artworks of a file that could not be read
+	private void truncate(int count) {
+		
+		if (duplicateFilter != null) {
+			duplicateFilter.truncate(count);
+		}
+		
+		if (store != null) {
+			store.truncate(count);
+		} else if (compact != null) {
+			compact.truncate(count);
+		} else {
+			inputArtworks.subList(count, inputArtworks.size()).clear();
+		}
+	}
+	
+	/*
+	 * Reads the artworks of one JSON file from the Decompressor. Files up to SCAN_LIMIT,
+	 * or up to MAX_ARRAY when they are parsed in parallel, are held in memory and read 
+	 * with the OdenScanner, and larger files are read with Gson as they are streamed.
+	 */
+	private void readArtworks(InputStream json) throws IOException {
+		int limit = parallelParsing ? MAX_ARRAY : SCAN_LIMIT;
+		byte[] start = OdenScanner.readFully(json, limit);
+		
+		if (start.length <= limit) {
+			readArtworks(start);
+		} else {
+			readArtworks(new JsonReader(new InputStreamReader(new SequenceInputStream(new ByteArrayInputStream(start), json),
+					"UTF-8")));
+		}
+	}
+	
+	/*
+	 * Reads the artworks from the raw bytes of a JSON file with the OdenScanner,
+	 * reading the same bytes again with Gson if the scanner cannot handle them
+	 */
+	private void readArtworks(byte[] json) throws IOException {
+		int mark = loadedCount();
+		int duplicateMark = duplicates;
+		int textMark = textArena != null ? textArena.mark() : 0;
+		
+		try {
+			if (parallelParsing && json.length >= PARALLEL_MINIMUM) {
+				scanArtworksInParallel(json);
+			} else {
+				scanArtworks(new OdenScanner(json, 0, json.length));
+			}
+		} catch (IOException e) {
+			truncate(mark);
+			duplicates = duplicateMark;
+			if (textArena != null) {
+				textArena.rollback(textMark);
+			}
+			readArtworks(new JsonReader(new InputStreamReader(new ByteArrayInputStream(json), "UTF-8")));
+		}
+	}
+	
+	private void scanArtworks(OdenScanner scanner) throws IOException {
+		
+		scanner.retain(retainedKeys());
+		scanner.beginArray();
+		while (scanner.nextFeature()) {
+			addArtwork(scanner.getCoordinate(0), scanner.getCoordinate(1),
+					scanner.getString(OdenScanner.NM), scanner.getString(OdenScanner.ADR),
+					scanner.getString(OdenScanner.ANM), scanner.getString(OdenScanner.TYPE),
+					scanner.getString(OdenScanner.SUMM), scanner.getString(OdenScanner.DESC));
+		}
+	}
+	
+	/*
+	 * Reads the artworks of a large JSON file by parsing chunks of it in parallel,
+	 * adding them in the order of the file once every chunk is parsed. The file 
+	 * is parsed on one thread instead if it cannot be split into whole features.
+	 */
+	private void scanArtworksInParallel(final byte[] json) throws IOException {
+		
+		int parts = Math.min(json.length / PARALLEL_CHUNK, 4 * Runtime.getRuntime().availableProcessors());
+		final int[] bounds = OdenScanner.split(json, 0, json.length, parts);
+		final int[] keys = retainedKeys();
+		List<OdenScanner.Features> chunks;
+		
+		try {
+			chunks = IntStream.range(0, bounds.length - 1).parallel()
+					.mapToObj(new IntFunction<OdenScanner.Features>() {
+						@Override
+						public OdenScanner.Features apply(int chunk) {
+							try {
+								return new OdenScanner(json, bounds[chunk], bounds[chunk + 1])
+										.readFeatures(keys, chunk == 0, chunk == bounds.length - 2);
+							} catch (IOException e) {
+								throw new UncheckedIOException(e);
+							}
+						}
+					}).collect(Collectors.<OdenScanner.Features>toList());
+		} catch (UncheckedIOException e) {
+			scanArtworks(new OdenScanner(json, 0, json.length));
+			return;
+		}
+		
+		for (OdenScanner.Features chunk : chunks) {
+			for (int i = 0; i < chunk.size(); i++) {
+				addArtwork(chunk.getCoordinate(i, 0), chunk.getCoordinate(i, 1),
+						chunk.getString(i, OdenScanner.NM), chunk.getString(i, OdenScanner.ADR),
+						chunk.getString(i, OdenScanner.ANM), chunk.getString(i, OdenScanner.TYPE),
+						chunk.getString(i, OdenScanner.SUMM), chunk.getString(i, OdenScanner.DESC));
+			}
+		}
+	}
+	
+	//The key constants of the properties kept for each artwork
+	private int[] retainedKeys() {
+		int[] keys = new int[fields.size()];
+		int k = 0;
+		for (ArtworkField field : fields) {
+			keys[k++] = field.key;
+		}
+		return keys;
+	}
+	
+	//Reads the artworks of a file with Gson, keeping none of them if the file cannot be read
+	private void readArtworks(JsonReader reader) throws IOException {
+		int mark = loadedCount();
+		int duplicateMark = duplicates;
+		int textMark = textArena != null ? textArena.mark() : 0;
+
+		try {
+			reader.beginArray();
+			while (reader.hasNext()) {
+				readArtwork(reader);
+			}
+			reader.endArray();
+		} catch (IOException e) {
+			truncate(mark);
+			duplicates = duplicateMark;
+			if (textArena != null) {
+				textArena.rollback(textMark);
+			}
+			throw e;
+		}
+	}
+	
+	private void readArtwork(JsonReader reader) throws IOException {
 		ArrayList<Double> coordinates = null;
 		String name = null;
 		String address = null;
@@ -387,17 +2339,17 @@ public class ArtworkList {
 				reader.beginObject();
 				while (reader.hasNext()) {
 					String property = reader.nextName();
-					if (property.equals("nm")) {
+					if (property.equals("nm") && fields.contains(ArtworkField.NAME)) {
 						name = reader.nextString();
-					} else if (property.equals("adr")) {
+					} else if (property.equals("adr") && fields.contains(ArtworkField.ADDRESS)) {
 						address = reader.nextString();
-					} else if (property.equals("aNm")) {
+					} else if (property.equals("aNm") && fields.contains(ArtworkField.ARTIST_NAME)) {
 						artistName = reader.nextString();
-					} else if (property.equals("type")) {
+					} else if (property.equals("type") && fields.contains(ArtworkField.ART_TYPE)) {
 						artType = reader.nextString();
-					} else if (property.equals("summ")) {
+					} else if (property.equals("summ") && fields.contains(ArtworkField.SUMMARY)) {
 						summary = reader.nextString();
-					} else if (property.equals("desc")) {
+					} else if (property.equals("desc") && fields.contains(ArtworkField.DESCRIPTION)) {
 						description = reader.nextString();
 					} else {
 						reader.skipValue();
@@ -410,10 +2362,32 @@ public class ArtworkList {
 		}
 		reader.endObject();
 		
-		return new Artwork(coordinates.get(0), coordinates.get(1), name, address, artistName,
+		addArtwork(coordinates.get(0), coordinates.get(1), name, address, artistName,
 				artType, summary, description);
 	}
 	
+	//Adds an Artwork, moving its summary and description into the TextArena if the text is compressed
+	private void addArtwork(double latitude, double longitude, String name, String address,
+			String artistName, String artType, String summary, String description) {
+		
+		if (duplicateFilter != null && !duplicateFilter.add(latitude, longitude, name, address)) {
+			duplicates++;
+			return;
+		}
+		
+		if (store != null) {
+			store.add(latitude, longitude, name, address, artistName, artType, summary, description);
+		} else if (compact != null) {
+			compact.add(latitude, longitude, name, address, artistName, artType, summary, description);
+		} else if (textArena != null) {
+			inputArtworks.add(new Artwork(latitude, longitude, name, address, artistName, artType,
+					textArena, textArena.add(summary), textArena.add(description)));
+		} else {
+			inputArtworks.add(new Artwork(latitude, longitude, name, address, artistName, artType,
+					summary, description));
+		}
+	}
+	
 	//Reads through the coordinates array in the json object
 	private ArrayList<Double> readCoordinates(JsonReader reader) throws IOException {
 	     ArrayList<Double> coordinates = new ArrayList<Double>();
@@ -0,0 +1,94 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package publicArt;
+
+/**
+ * <p>The Cluster class is one marker of a clustered map: either a group of
+ * Artworks close to each other at the zoom level of the map, or a single
+ * Artwork.</p>
+ * @version 1.0
+ */
+public class Cluster {
+
+	private double latitude;
+	private double longitude;
+	private int count;
+	private int expansionZoom;
+	private Artwork artwork;
+
+	/**
+	 * <h1>Cluster</h1>
+	 * <p>Cluster(double latitude, double longitude, int count, int expansionZoom, Artwork artwork)</p>
+	 * <p>Creates a new Cluster.</p>
+	 * @param latitude - The latitude of the centre of the Cluster
+	 * @param longitude - The longitude of the centre of the Cluster
+	 * @param count - The number of Artworks in the Cluster
+	 * @param expansionZoom - The zoom level the Cluster splits at, -1 for a single Artwork
+	 * @param artwork - The Artwork of a single Artwork Cluster, null otherwise
+	 */
+	Cluster(double latitude, double longitude, int count, int expansionZoom, Artwork artwork) {
+		this.latitude = latitude;
+		this.longitude = longitude;
+		this.count = count;
+		this.expansionZoom = expansionZoom;
+		this.artwork = artwork;
+	}
+
+	/**
+	 * <h1>getLatitude</h1>
+	 * <p>public double getLatitude()</p>
+	 * <p>Retrieves the latitude of the Cluster, which is the centre of its
+	 * Artworks on the map.</p>
+	 * @return the latitude of the Cluster
+	 */
+	public double getLatitude() {
+		return latitude;
+	}
+
+	/**
+	 * <h1>getLongitude</h1>
+	 * <p>public double getLongitude()</p>
+	 * <p>Retrieves the longitude of the Cluster, which is the centre of its
+	 * Artworks on the map.</p>
+	 * @return the longitude of the Cluster
+	 */
+	public double getLongitude() {
+		return longitude;
+	}
+
+	/**
+	 * <h1>getCount</h1>
+	 * <p>public int getCount()</p>
+	 * <p>Retrieves the number of Artworks in the Cluster.</p>
+	 * @return the number of Artworks
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * <h1>getExpansionZoom</h1>
+	 * <p>public int getExpansionZoom()</p>
+	 * <p>Retrieves the lowest zoom level at which the Cluster is split into
+	 * smaller Clusters, which is the zoom level to show when the Cluster is
+	 * clicked.</p>
+	 * @return the zoom level, or -1 if the Cluster is a single Artwork
+	 */
+	public int getExpansionZoom() {
+		return expansionZoom;
+	}
+
+	/**
+	 * <h1>getArtwork</h1>
+	 * <p>public Artwork getArtwork()</p>
+	 * <p>Retrieves the Artwork of a Cluster holding a single Artwork.</p>
+	 * <p>This method returns <b>null</b> if the Cluster holds more than one Artwork.</p>
+	 * @return the Artwork of the Cluster
+	 */
+	public Artwork getArtwork() {
+		return artwork;
+	}
+}
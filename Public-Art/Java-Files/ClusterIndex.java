@@ -0,0 +1,323 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package publicArt;
+
+import java.util.Arrays;
+
+/**
+ * <p>The ClusterIndex class groups the records of a list into clusters for
+ * each zoom level of a web map, so that a map showing a large area can draw
+ * one marker per cluster instead of one per record.</p>
+ *
+ * <p>The clusters are built the same way as by the supercluster library.
+ * Records are placed on the Web Mercator map, and the level above MAX_ZOOM
+ * holds every record on its own. Each lower zoom level is then made from the
+ * one above it by merging the entries within RADIUS pixels of each other,
+ * taking entries in order, into a cluster placed at their weighted centre.
+ * Every level keeps a k-d tree of its entries so a viewport can be read
+ * without looking at the entries outside of it.</p>
+ * @version 1.0
+ */
+final class ClusterIndex {
+
+	static final int MAX_ZOOM = 16;
+
+	private static final double RADIUS = 40;
+	private static final double EXTENT = 512;
+
+	private final Level[] levels = new Level[MAX_ZOOM + 2];
+
+	//The entries of one zoom level, in Web Mercator coordinates from 0 to 1
+	private static final class Level {
+
+		final double[] xs;
+		final double[] ys;
+		final int[] counts;
+		final int[] records;
+		final int[] expansions;
+		final int[] tree;
+
+		Level(double[] xs, double[] ys, int[] counts, int[] records, int[] expansions) {
+			this.xs = xs;
+			this.ys = ys;
+			this.counts = counts;
+			this.records = records;
+			this.expansions = expansions;
+
+			tree = new int[xs.length];
+			for (int i = 0; i < tree.length; i++) {
+				tree[i] = i;
+			}
+			build(0, tree.length, 0);
+		}
+
+		int size() {
+			return xs.length;
+		}
+
+		//Orders tree[start, end) so that the middle entry splits the rest by x or y
+		private void build(int start, int end, int depth) {
+			if (end - start <= 1) {
+				return;
+			}
+
+			int middle = (start + end) >>> 1;
+			double[] axis = depth % 2 == 0 ? xs : ys;
+
+			int low = start;
+			int high = end - 1;
+			while (low < high) {
+				double pivot = axis[tree[(low + high) >>> 1]];
+				int i = low;
+				int j = high;
+				while (i <= j) {
+					while (axis[tree[i]] < pivot) {
+						i++;
+					}
+					while (axis[tree[j]] > pivot) {
+						j--;
+					}
+					if (i <= j) {
+						int swap = tree[i];
+						tree[i++] = tree[j];
+						tree[j--] = swap;
+					}
+				}
+				if (middle <= j) {
+					high = j;
+				} else if (middle >= i) {
+					low = i;
+				} else {
+					break;
+				}
+			}
+
+			build(start, middle, depth + 1);
+			build(middle + 1, end, depth + 1);
+		}
+
+		/*
+		 * Adds the entries of tree[start, end) inside the box to found, or only
+		 * those within radius of (x, y) when radius is not negative
+		 */
+		void search(double minX, double minY, double maxX, double maxY, double x, double y, double radius,
+				int start, int end, int depth, Found found) {
+
+			if (start >= end) {
+				return;
+			}
+
+			int middle = (start + end) >>> 1;
+			int entry = tree[middle];
+			double entryX = xs[entry];
+			double entryY = ys[entry];
+
+			if (entryX >= minX && entryX <= maxX && entryY >= minY && entryY <= maxY && (radius < 0
+					|| (entryX - x) * (entryX - x) + (entryY - y) * (entryY - y) <= radius * radius)) {
+				found.add(entry);
+			}
+
+			double split = depth % 2 == 0 ? entryX : entryY;
+			if ((depth % 2 == 0 ? minX : minY) <= split) {
+				search(minX, minY, maxX, maxY, x, y, radius, start, middle, depth + 1, found);
+			}
+			if ((depth % 2 == 0 ? maxX : maxY) >= split) {
+				search(minX, minY, maxX, maxY, x, y, radius, middle + 1, end, depth + 1, found);
+			}
+		}
+	}
+
+	//A growing list of entries
+	private static final class Found {
+
+		int[] entries = new int[16];
+		int size;
+
+		void add(int entry) {
+			if (size == entries.length) {
+				entries = Arrays.copyOf(entries, size * 2);
+			}
+			entries[size++] = entry;
+		}
+	}
+
+	/**
+	 * <h1>ClusterIndex</h1>
+	 * <p>ClusterIndex(double[] latitudes, double[] longitudes)</p>
+	 * <p>Builds the clusters of every zoom level for a set of records.</p>
+	 * @param latitudes - The latitude of each record
+	 * @param longitudes - The longitude of each record
+	 */
+	ClusterIndex(double[] latitudes, double[] longitudes) {
+		int count = latitudes.length;
+		double[] xs = new double[count];
+		double[] ys = new double[count];
+		int[] counts = new int[count];
+		int[] records = new int[count];
+		int[] expansions = new int[count];
+
+		for (int i = 0; i < count; i++) {
+			xs[i] = x(longitudes[i]);
+			ys[i] = y(latitudes[i]);
+			counts[i] = 1;
+			records[i] = i;
+			expansions[i] = -1;
+		}
+
+		levels[MAX_ZOOM + 1] = new Level(xs, ys, counts, records, expansions);
+		for (int zoom = MAX_ZOOM; zoom >= 0; zoom--) {
+			levels[zoom] = cluster(levels[zoom + 1], zoom);
+		}
+	}
+
+	/**
+	 * <h1>clusters</h1>
+	 * <p>int[] clusters(double south, double west, double north, double east, int zoom)</p>
+	 * <p>Finds the entries of a zoom level inside an area. Areas with a west
+	 * edge east of their east edge cross the 180th meridian.</p>
+	 * @param south - The southern edge of the area
+	 * @param west - The western edge of the area
+	 * @param north - The northern edge of the area
+	 * @param east - The eastern edge of the area
+	 * @param zoom - The zoom level, from 0 to MAX_ZOOM + 1
+	 * @return the entries of the zoom level inside the area, in no order
+	 */
+	int[] clusters(double south, double west, double north, double east, int zoom) {
+		Level level = levels[zoom];
+		Found found = new Found();
+		double minY = y(north);
+		double maxY = y(south);
+
+		if (west <= east) {
+			level.search(x(west), minY, x(east), maxY, 0, 0, -1, 0, level.size(), 0, found);
+		} else {
+			level.search(x(west), minY, 1, maxY, 0, 0, -1, 0, level.size(), 0, found);
+			level.search(0, minY, x(east), maxY, 0, 0, -1, 0, level.size(), 0, found);
+		}
+
+		return Arrays.copyOf(found.entries, found.size);
+	}
+
+	double latitude(int zoom, int entry) {
+		double y = levels[zoom].ys[entry];
+		return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y))));
+	}
+
+	double longitude(int zoom, int entry) {
+		return levels[zoom].xs[entry] * 360 - 180;
+	}
+
+	int count(int zoom, int entry) {
+		return levels[zoom].counts[entry];
+	}
+
+	/**
+	 * <h1>record</h1>
+	 * <p>int record(int zoom, int entry)</p>
+	 * <p>Retrieves the record an entry stands for when it holds a single record.</p>
+	 * @param zoom - The zoom level of the entry
+	 * @param entry - The entry
+	 * @return the index of the record, or -1 if the entry is a cluster
+	 */
+	int record(int zoom, int entry) {
+		return levels[zoom].records[entry];
+	}
+
+	/**
+	 * <h1>expansionZoom</h1>
+	 * <p>int expansionZoom(int zoom, int entry)</p>
+	 * <p>Retrieves the zoom level at which a cluster splits into smaller ones.</p>
+	 * @param zoom - The zoom level of the entry
+	 * @param entry - The entry
+	 * @return the zoom level the cluster splits at, or -1 if the entry is a single record
+	 */
+	int expansionZoom(int zoom, int entry) {
+		return levels[zoom].expansions[entry];
+	}
+
+	/**
+	 * <h1>estimateBytes</h1>
+	 * <p>long estimateBytes()</p>
+	 * <p>Estimates the memory held by the entries and trees of every zoom level.</p>
+	 * @return the estimated bytes
+	 */
+	long estimateBytes() {
+		long bytes = MemoryFootprint.objectBytes(4) + MemoryFootprint.arrayBytes(levels.length, 4);
+		for (int zoom = 0; zoom < levels.length; zoom++) {
+			bytes += MemoryFootprint.objectBytes(24) + 2 * MemoryFootprint.arrayBytes(levels[zoom].size(), 8)
+					+ 4 * MemoryFootprint.arrayBytes(levels[zoom].size(), 4);
+		}
+		return bytes;
+	}
+
+	//Makes the entries of a zoom level by merging the nearby entries of the level above it
+	private static Level cluster(Level above, int zoom) {
+		int size = above.size();
+		double radius = RADIUS / (EXTENT * Math.pow(2, zoom));
+		boolean[] merged = new boolean[size];
+		Found neighbours = new Found();
+
+		double[] xs = new double[size];
+		double[] ys = new double[size];
+		int[] counts = new int[size];
+		int[] records = new int[size];
+		int[] expansions = new int[size];
+		int entries = 0;
+
+		for (int i = 0; i < size; i++) {
+			if (merged[i]) {
+				continue;
+			}
+			merged[i] = true;
+
+			double x = above.xs[i];
+			double y = above.ys[i];
+			neighbours.size = 0;
+			above.search(x - radius, y - radius, x + radius, y + radius, x, y, radius, 0, size, 0, neighbours);
+
+			int count = above.counts[i];
+			double weightedX = x * count;
+			double weightedY = y * count;
+			for (int j = 0; j < neighbours.size; j++) {
+				int neighbour = neighbours.entries[j];
+				if (!merged[neighbour]) {
+					merged[neighbour] = true;
+					count += above.counts[neighbour];
+					weightedX += above.xs[neighbour] * above.counts[neighbour];
+					weightedY += above.ys[neighbour] * above.counts[neighbour];
+				}
+			}
+
+			if (count == above.counts[i]) {
+				xs[entries] = x;
+				ys[entries] = y;
+				counts[entries] = count;
+				records[entries] = above.records[i];
+				expansions[entries] = above.expansions[i];
+			} else {
+				xs[entries] = weightedX / count;
+				ys[entries] = weightedY / count;
+				counts[entries] = count;
+				records[entries] = -1;
+				expansions[entries] = zoom + 1;
+			}
+			entries++;
+		}
+
+		return new Level(Arrays.copyOf(xs, entries), Arrays.copyOf(ys, entries), Arrays.copyOf(counts, entries),
+				Arrays.copyOf(records, entries), Arrays.copyOf(expansions, entries));
+	}
+
+	private static double x(double longitude) {
+		return longitude / 360 + 0.5;
+	}
+
+	private static double y(double latitude) {
+		double sin = Math.sin(Math.toRadians(latitude));
+		double y = 0.5 - 0.25 * Math.log((1 + sin) / (1 - sin)) / Math.PI;
+		return y < 0 ? 0 : y > 1 ? 1 : y;
+	}
+}
@@ -0,0 +1,304 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package publicArt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+
+/**
+ * <p>The Corridor class finds the records of a list within a distance of a
+ * route, given as a polyline of latitude and longitude points, and orders them
+ * by how far along the route they are reached.</p>
+ *
+ * <p>Each segment of the route is the great circle arc between two points.
+ * Only the records inside the bounding box of a segment, grown by the
+ * distance, are read from the k-d tree of the ClusterIndex, so a record is
+ * only measured against the few segments that pass near it. The box of an arc
+ * takes in the point where the arc bulges farthest north or south, so long
+ * segments are not cut short. Distances are great circle distances in metres,
+ * measured the same way as the haversine formula on a sphere of the mean radius
+ * of the Earth.</p>
+ *
+ * <p>Subclasses give the coordinates of the records, which are read exactly
+ * rather than from the map coordinates held by the ClusterIndex.</p>
+ * @version 1.0
+ */
+abstract class Corridor {
+
+	static final double EARTH_RADIUS = 6371008.8;
+
+	private final double[] latitudes;
+	private final double[] longitudes;
+	private final double metres;
+	private final double[] starts;
+
+	/**
+	 * <h1>Corridor</h1>
+	 * <p>Corridor(double[] latitudes, double[] longitudes, double metres)</p>
+	 * <p>Creates a new Corridor around a route.</p>
+	 * @param latitudes - The latitude of each point of the route, in order
+	 * @param longitudes - The longitude of each point of the route, in order
+	 * @param metres - The largest distance from the route in metres
+	 */
+	Corridor(double[] latitudes, double[] longitudes, double metres) {
+
+		if (latitudes == null || longitudes == null || latitudes.length != longitudes.length) {
+			throw new IllegalArgumentException("the route must have as many latitudes as longitudes");
+		}
+		if (latitudes.length == 0) {
+			throw new IllegalArgumentException("the route must have at least one point");
+		}
+		if (!(metres >= 0) || Double.isInfinite(metres)) {
+			throw new IllegalArgumentException("metres must be a number that is not negative");
+		}
+		for (int i = 0; i < latitudes.length; i++) {
+			if (!(Math.abs(latitudes[i]) <= 90) || !(Math.abs(longitudes[i]) <= 180)) {
+				throw new IllegalArgumentException("the route has a point that is not a valid latitude and longitude");
+			}
+		}
+
+		this.latitudes = latitudes.clone();
+		this.longitudes = longitudes.clone();
+		this.metres = metres;
+
+		//The distance along the route at which each segment starts
+		starts = new double[latitudes.length];
+		for (int i = 1; i < starts.length; i++) {
+			starts[i] = starts[i - 1] + angle(latitudes[i - 1], longitudes[i - 1], latitudes[i], longitudes[i])
+					* EARTH_RADIUS;
+		}
+	}
+
+	abstract double latitude(int record);
+
+	abstract double longitude(int record);
+
+	/**
+	 * <h1>excludes</h1>
+	 * <p>boolean excludes(int record)</p>
+	 * <p>Tells whether a record of the ClusterIndex is left out of the search,
+	 * which lists with changes do for the records removed or updated since the
+	 * index was built. No record is left out unless a subclass says so.</p>
+	 * @param record - A record of the ClusterIndex
+	 * @return true if the record is not searched
+	 */
+	boolean excludes(int record) {
+		return false;
+	}
+
+	/**
+	 * <h1>search</h1>
+	 * <p>int[] search(ClusterIndex index)</p>
+	 * <p>Finds the records within the distance of the route. A record near
+	 * several parts of the route is placed at the first of them it is reached
+	 * from, at the point of that segment closest to it. Records reached at the
+	 * same point come closest to the route first, then in index order.</p>
+	 * @param index - The ClusterIndex of the list
+	 * @return the records within the distance, in order along the route
+	 */
+	int[] search(ClusterIndex index) {
+		return search(index, new int[0]);
+	}
+
+	/**
+	 * <h1>search</h1>
+	 * <p>int[] search(ClusterIndex index, int[] others)</p>
+	 * <p>Finds the records within the distance of the route like search(ClusterIndex),
+	 * along with those of a few records that are not in the ClusterIndex, which
+	 * are checked against the box of every segment.</p>
+	 * @param index - The ClusterIndex of the list
+	 * @param others - The records that are not in the ClusterIndex
+	 * @return the records within the distance, in order along the route
+	 */
+	int[] search(ClusterIndex index, int[] others) {
+
+		final HashMap<Integer, double[]> found = new HashMap<Integer, double[]>();
+		int level = ClusterIndex.MAX_ZOOM + 1;
+		int segments = Math.max(1, latitudes.length - 1);
+
+		for (int segment = 0; segment < segments; segment++) {
+			int end = Math.min(segment + 1, latitudes.length - 1);
+			double[] box = box(segment, end);
+
+			for (int entry : index.clusters(box[0], box[1], box[2], box[3], level)) {
+				int record = index.record(level, entry);
+				if (!excludes(record)) {
+					measure(record, segment, end, found);
+				}
+			}
+			for (int record : others) {
+				if (inside(box, latitude(record), longitude(record))) {
+					measure(record, segment, end, found);
+				}
+			}
+		}
+
+		ArrayList<Integer> records = new ArrayList<Integer>(found.keySet());
+		Collections.sort(records, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer first, Integer second) {
+				double[] firstPosition = found.get(first);
+				double[] secondPosition = found.get(second);
+
+				int order = Double.compare(firstPosition[0], secondPosition[0]);
+				if (order == 0) {
+					order = Double.compare(firstPosition[1], secondPosition[1]);
+				}
+				return order != 0 ? order : Integer.compare(first, second);
+			}
+		});
+
+		int[] result = new int[records.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = records.get(i);
+		}
+		return result;
+	}
+
+	//Keeps the position of a record along the route if it is within the distance of a segment and was not found before
+	private void measure(int record, int start, int end, HashMap<Integer, double[]> found) {
+		if (found.containsKey(record)) {
+			return;
+		}
+
+		double[] position = position(start, end, latitude(record), longitude(record));
+		if (position[1] <= metres) {
+			found.put(record, position);
+		}
+	}
+
+	//Tells whether a point is inside a box from box(), which may cross the 180th meridian
+	private static boolean inside(double[] box, double latitude, double longitude) {
+		if (latitude < box[0] || latitude > box[2]) {
+			return false;
+		}
+		return box[1] <= box[3] ? longitude >= box[1] && longitude <= box[3] : longitude >= box[1] || longitude <= box[3];
+	}
+
+	//The south, west, north and east edges of a segment grown by the distance
+	private double[] box(int start, int end) {
+
+		double south = Math.min(latitudes[start], latitudes[end]);
+		double north = Math.max(latitudes[start], latitudes[end]);
+
+		//The great circle of the segment is farthest from the equator at its vertices, which may lie on the segment
+		double[] p1 = vector(latitudes[start], longitudes[start]);
+		double[] p2 = vector(latitudes[end], longitudes[end]);
+		double[] normal = cross(p1, p2);
+		double length = Math.sqrt(dot(normal, normal));
+		if (length > 1e-12) {
+			double[] vertex = {-normal[0] * normal[2], -normal[1] * normal[2],
+					normal[0] * normal[0] + normal[1] * normal[1]};
+			double vertexLength = Math.sqrt(dot(vertex, vertex));
+			if (vertexLength > 1e-12) {
+				for (int sign = -1; sign <= 1; sign += 2) {
+					double[] v = {sign * vertex[0] / vertexLength, sign * vertex[1] / vertexLength,
+							sign * vertex[2] / vertexLength};
+					if (dot(cross(p1, v), normal) >= 0 && dot(cross(v, p2), normal) >= 0) {
+						double latitude = Math.toDegrees(Math.asin(Math.max(-1, Math.min(1, v[2]))));
+						south = Math.min(south, latitude);
+						north = Math.max(north, latitude);
+					}
+				}
+			}
+		}
+
+		double grow = Math.toDegrees(metres / EARTH_RADIUS);
+		double farthest = Math.max(Math.abs(south), Math.abs(north));
+		south = Math.max(-90, south - grow);
+		north = Math.min(90, north + grow);
+
+		//A circle of the distance around a point at the farthest latitude is the widest in longitude
+		double ratio = Math.sin(Math.min(Math.PI / 2, metres / EARTH_RADIUS)) / Math.cos(Math.toRadians(farthest));
+		if (farthest + grow >= 90 || ratio >= 1) {
+			return new double[] {south, -180, north, 180};
+		}
+		double growLongitude = Math.toDegrees(Math.asin(ratio));
+
+		//A short arc that does not pass over a pole keeps its longitude between those of its ends
+		double west = longitudes[start];
+		double east = longitudes[end];
+		double span = east - west;
+		if (span > 180 || (span < 0 && span >= -180)) {
+			west = longitudes[end];
+			east = longitudes[start];
+		}
+
+		if ((east - west + 360) % 360 + 2 * growLongitude >= 360) {
+			return new double[] {south, -180, north, 180};
+		}
+		west -= growLongitude;
+		east += growLongitude;
+		if (west < -180) {
+			west += 360;
+		}
+		if (east > 180) {
+			east -= 360;
+		}
+		return new double[] {south, west, north, east};
+	}
+
+	//The distance along the route and the distance from the route of a point, measured to one segment
+	private double[] position(int start, int end, double latitude, double longitude) {
+
+		double toPoint = angle(latitudes[start], longitudes[start], latitude, longitude);
+		double length = (starts[end] - starts[start]) / EARTH_RADIUS;
+		if (length == 0) {
+			return new double[] {starts[start], toPoint * EARTH_RADIUS};
+		}
+
+		double bearing = bearing(latitudes[start], longitudes[start], latitudes[end], longitudes[end]);
+		double toPointBearing = bearing(latitudes[start], longitudes[start], latitude, longitude);
+		double crossTrack = Math.asin(Math.sin(toPoint) * Math.sin(toPointBearing - bearing));
+		double alongTrack = Math.acos(Math.max(-1, Math.min(1, Math.cos(toPoint) / Math.cos(crossTrack))));
+		if (Math.cos(toPointBearing - bearing) < 0) {
+			alongTrack = -alongTrack;
+		}
+
+		if (alongTrack <= 0) {
+			return new double[] {starts[start], toPoint * EARTH_RADIUS};
+		}
+		if (alongTrack >= length) {
+			return new double[] {starts[end], angle(latitudes[end], longitudes[end], latitude, longitude)
+					* EARTH_RADIUS};
+		}
+		return new double[] {starts[start] + alongTrack * EARTH_RADIUS, Math.abs(crossTrack) * EARTH_RADIUS};
+	}
+
+	//The angle between two points seen from the centre of the Earth, by the haversine formula
+	private static double angle(double latitude1, double longitude1, double latitude2, double longitude2) {
+		double sinLatitude = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+		double sinLongitude = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+		double a = sinLatitude * sinLatitude + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+				* sinLongitude * sinLongitude;
+		return 2 * Math.asin(Math.min(1, Math.sqrt(a)));
+	}
+
+	//The initial bearing from one point to another, in radians
+	private static double bearing(double latitude1, double longitude1, double latitude2, double longitude2) {
+		double phi1 = Math.toRadians(latitude1);
+		double phi2 = Math.toRadians(latitude2);
+		double lambda = Math.toRadians(longitude2 - longitude1);
+		return Math.atan2(Math.sin(lambda) * Math.cos(phi2),
+				Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(lambda));
+	}
+
+	private static double[] vector(double latitude, double longitude) {
+		double phi = Math.toRadians(latitude);
+		double lambda = Math.toRadians(longitude);
+		return new double[] {Math.cos(phi) * Math.cos(lambda), Math.cos(phi) * Math.sin(lambda), Math.sin(phi)};
+	}
+
+	private static double[] cross(double[] a, double[] b) {
+		return new double[] {a[1] * b[2] - a[2] * b[1], a[2] * b[0] - a[0] * b[2], a[0] * b[1] - a[1] * b[0]};
+	}
+
+	private static double dot(double[] a, double[] b) {
+		return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+	}
+}
@@ -0,0 +1,384 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package publicArt;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * <p>The Decompressor class reads the JSON files of a list from files or
+ * InputStreams that may be compressed, so that exports can be read without
+ * being decompressed to disk first.</p>
+ *
+ * <p>Each input is recognised by its first bytes rather than its name: gzip
+ * inputs are inflated as they are read, zip inputs give one JSON file for each
+ * of their .json and .json.gz entries, and anything else is read as plain JSON.
+ * Separate inputs are inflated in parallel on background threads, a few inputs
+ * ahead of the one being parsed, while the JSON files are still handed over in
+ * order. Each background thread waits once it holds CHUNKS buffers of its
+ * input that have not been parsed yet, so no file is ever held decompressed in
+ * memory by the Decompressor and entries of any size can be read.</p>
+ * @version 1.0
+ */
+final class Decompressor {
+
+	private static final int GZIP_MAGIC = 0x1F8B;
+	private static final int ZIP_MAGIC = 0x504B0304;
+	private static final int BUFFER = 65536;
+
+	//The number of inputs inflated ahead of the one being parsed, and the buffers each may hold before it waits
+	private static final int AHEAD = Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors() - 1));
+	private static final int CHUNKS = 16;
+
+	//Mark the end of one JSON file of an input and the end of the input itself
+	private static final byte[] END_OF_FILE = new byte[0];
+	private static final byte[] END_OF_INPUT = new byte[0];
+
+	private static final ThreadFactory THREADS = new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable task) {
+			Thread thread = new Thread(task, "Decompressor");
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
+
+	private final Inflating[] inputs;
+	private int started;
+	private int current = -1;
+	private boolean ended = true;
+	private Chunked json;
+
+	//Keeps a wrapping stream from closing the stream it reads from
+	private static final class Unclosed extends FilterInputStream {
+
+		Unclosed(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	/*
+	 * Inflates one input on a background thread, putting its JSON files into a
+	 * bounded queue one buffer at a time. Each file is followed by END_OF_FILE
+	 * and the input by END_OF_INPUT, which is also put when reading it fails.
+	 */
+	private static final class Inflating implements Runnable {
+
+		private final File file;
+		private final InputStream stream;
+		private final ArrayBlockingQueue<byte[]> chunks = new ArrayBlockingQueue<byte[]>(CHUNKS);
+		private volatile Throwable failure;
+		private Thread thread;
+		private boolean finished;
+
+		Inflating(File file, InputStream stream) {
+			this.file = file;
+			this.stream = stream;
+		}
+
+		@Override
+		public void run() {
+			try {
+				ArrayList<InputStream> opened = new ArrayList<InputStream>();
+				try {
+					read(opened);
+				} finally {
+					close(opened);
+				}
+				chunks.put(END_OF_INPUT);
+			} catch (InterruptedException e) {
+				//The Decompressor was closed, so nothing is waiting for the rest of the input
+			} catch (Exception e) {
+				fail(e);
+			} catch (Error e) {
+				fail(e);
+				throw e;
+			}
+		}
+
+		private void fail(Throwable e) {
+			failure = e;
+			try {
+				chunks.put(END_OF_INPUT);
+			} catch (InterruptedException stopped) {
+				//The Decompressor was closed, so nothing is waiting for the failure
+			}
+		}
+
+		//Opens the input, walking its entries if it is a zip or handing it over as one JSON file otherwise
+		private void read(ArrayList<InputStream> opened) throws IOException, InterruptedException {
+			InputStream input;
+			if (file != null) {
+				input = new FileInputStream(file);
+				opened.add(input);
+			} else {
+				input = new Unclosed(stream);
+			}
+
+			InputStream json = inflate(new BufferedInputStream(input, BUFFER), opened);
+			if (magic(json) != ZIP_MAGIC) {
+				copy(json);
+				return;
+			}
+
+			ZipInputStream zip = new ZipInputStream(json);
+			opened.add(zip);
+			ArrayList<InputStream> entryOpened = new ArrayList<InputStream>();
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				String name = entry.getName();
+				if (!entry.isDirectory() && (name.endsWith(".json") || name.endsWith(".json.gz"))) {
+					try {
+						copy(inflate(new BufferedInputStream(new Unclosed(zip), BUFFER), entryOpened));
+					} finally {
+						close(entryOpened);
+					}
+				}
+			}
+		}
+
+		//Puts one JSON file into the queue, waiting whenever the queue is full
+		private void copy(InputStream json) throws IOException, InterruptedException {
+			while (true) {
+				byte[] chunk = new byte[BUFFER];
+				int length = 0;
+				int read;
+				while (length < BUFFER && (read = json.read(chunk, length, BUFFER - length)) >= 0) {
+					length += read;
+				}
+				if (length > 0) {
+					chunks.put(length == BUFFER ? chunk : Arrays.copyOf(chunk, length));
+				}
+				if (length < BUFFER) {
+					break;
+				}
+			}
+			chunks.put(END_OF_FILE);
+		}
+
+		//Waits for the next buffer of the input, giving END_OF_INPUT again once the input has ended
+		byte[] take() throws IOException {
+			if (finished) {
+				return END_OF_INPUT;
+			}
+			byte[] chunk;
+			try {
+				chunk = chunks.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("interrupted while reading");
+			}
+			if (chunk == END_OF_INPUT) {
+				finished = true;
+				Throwable e = failure;
+				if (e instanceof IOException) {
+					throw (IOException) e;
+				} else if (e instanceof Error) {
+					throw (Error) e;
+				} else if (e != null) {
+					throw new IOException(e);
+				}
+			}
+			return chunk;
+		}
+	}
+
+	//Hands one JSON file over to the parser from the buffers of its input
+	private static final class Chunked extends InputStream {
+
+		private final Inflating input;
+		private byte[] chunk;
+		private int position;
+
+		Chunked(Inflating input, byte[] chunk) {
+			this.input = input;
+			this.chunk = chunk;
+		}
+
+		//Moves on to the next buffer once the current one has been read, returning false at the end of the file
+		private boolean fill() throws IOException {
+			while (position == chunk.length) {
+				if (chunk == END_OF_FILE || chunk == END_OF_INPUT) {
+					return false;
+				}
+				chunk = input.take();
+				position = 0;
+				if (chunk == END_OF_INPUT) {
+					throw new IOException("input ended in the middle of a JSON file");
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return fill() ? chunk[position++] & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!fill()) {
+				return -1;
+			}
+			int length = Math.min(len, chunk.length - position);
+			System.arraycopy(chunk, position, b, off, length);
+			position += length;
+			return length;
+		}
+
+		@Override
+		public int available() {
+			return chunk.length - position;
+		}
+
+		//Skips whatever the parser left of the file
+		void skipRest() throws IOException {
+			position = chunk.length;
+			while (fill()) {
+				position = chunk.length;
+			}
+		}
+	}
+
+	/**
+	 * <h1>Decompressor</h1>
+	 * <p>Decompressor(File[] files)</p>
+	 * <p>Creates a new Decompressor reading the given files, in order.</p>
+	 * @param files - The files to read
+	 */
+	Decompressor(File[] files) {
+		inputs = new Inflating[files.length];
+		for (int i = 0; i < files.length; i++) {
+			inputs[i] = new Inflating(files[i], null);
+		}
+	}
+
+	/**
+	 * <h1>Decompressor</h1>
+	 * <p>Decompressor(InputStream[] streams)</p>
+	 * <p>Creates a new Decompressor reading the given InputStreams, in order.
+	 * The InputStreams are read on background threads and are not closed.</p>
+	 * @param streams - The InputStreams to read
+	 */
+	Decompressor(InputStream[] streams) {
+		inputs = new Inflating[streams.length];
+		for (int i = 0; i < streams.length; i++) {
+			inputs[i] = new Inflating(null, streams[i]);
+		}
+	}
+
+	/**
+	 * <h1>isInput</h1>
+	 * <p>static boolean isInput(String name)</p>
+	 * <p>Checks whether a file holds JSON files going by its name, which must
+	 * end in .json, .json.gz or .zip.</p>
+	 * @param name - The name of the file
+	 * @return true if the file should be read
+	 */
+	static boolean isInput(String name) {
+		return name.endsWith(".json") || name.endsWith(".json.gz") || name.endsWith(".zip");
+	}
+
+	/**
+	 * <h1>next</h1>
+	 * <p>InputStream next() throws IOException</p>
+	 * <p>Retrieves the next JSON file of the current input, starting the
+	 * inputs up to AHEAD after it. Once the input has no more JSON files null
+	 * is returned, and the call after that moves on to the next input. Whatever
+	 * the caller left of the previous stream is skipped, and the streams are
+	 * not to be closed by the caller.</p>
+	 * @return the next JSON file of the input, or null once the input has been read
+	 * @throws IOException if there is a problem reading the input
+	 */
+	InputStream next() throws IOException {
+		if (json != null) {
+			Chunked previous = json;
+			json = null;
+			previous.skipRest();
+		}
+		if (ended) {
+			current++;
+			ended = false;
+		}
+		while (started < inputs.length && started <= current + AHEAD) {
+			Inflating input = inputs[started++];
+			input.thread = THREADS.newThread(input);
+			input.thread.start();
+		}
+
+		byte[] chunk = inputs[current].take();
+		if (chunk == END_OF_INPUT) {
+			ended = true;
+			return null;
+		}
+		json = new Chunked(inputs[current], chunk);
+		return json;
+	}
+
+	/**
+	 * <h1>close</h1>
+	 * <p>void close()</p>
+	 * <p>Stops the background threads, which close the streams they opened.
+	 * InputStreams given to the Decompressor are left open.</p>
+	 */
+	void close() {
+		for (int i = 0; i < started; i++) {
+			inputs[i].thread.interrupt();
+		}
+		json = null;
+	}
+
+	private static void close(ArrayList<InputStream> streams) {
+		for (InputStream stream : streams) {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				//Nothing more is read from the stream, so failing to close it loses nothing
+			}
+		}
+		streams.clear();
+	}
+
+	//Wraps a stream in as many gzip streams as it has gzip headers
+	private static InputStream inflate(InputStream input, ArrayList<InputStream> opened) throws IOException {
+		while (magic(input) >>> 16 == GZIP_MAGIC) {
+			input = new BufferedInputStream(new GZIPInputStream(input, BUFFER), BUFFER);
+			opened.add(input);
+		}
+		return input;
+	}
+
+	//Looks at the first four bytes of a stream without consuming them
+	private static int magic(InputStream input) throws IOException {
+		input.mark(4);
+		int magic = 0;
+		for (int i = 0; i < 4; i++) {
+			int b = input.read();
+			magic = (magic << 8) | (b < 0 ? 0 : b);
+		}
+		input.reset();
+		return magic;
+	}
+}
@@ -0,0 +1,277 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package publicArt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>The FuzzyIndex class finds records whose text is within a small edit
+ * distance of a query, so that misspelled searches still find results.</p>
+ *
+ * <p>Each value is split into lower case words. The distinct words are held
+ * in a BK-tree, a tree in which every child is labelled with its Levenshtein
+ * distance to its parent. Because edit distance is a metric, a search for
+ * words within n edits of a query only has to follow the children whose
+ * label is within n of the query's distance to the node, which skips most of
+ * the vocabulary. Each word keeps the list of records it appears in.</p>
+ * @version 1.0
+ */
+final class FuzzyIndex {
+
+	private static final int NONE = -1;
+
+	private final String[] words;
+	private final int[] firstChild;
+	private final int[] nextSibling;
+	private final int[] edge;
+	private final int[][] postings;
+
+	/**
+	 * <p>A record found by a search, along with its score. The score is the
+	 * total number of edits needed to match every word of the query.</p>
+	 */
+	static final class Match {
+
+		final int record;
+		final int score;
+
+		Match(int record, int score) {
+			this.record = record;
+			this.score = score;
+		}
+	}
+
+	/**
+	 * <h1>FuzzyIndex</h1>
+	 * <p>FuzzyIndex(String[] values)</p>
+	 * <p>Builds the index over one value per record.</p>
+	 * @param values - The value of each record, may contain nulls
+	 */
+	FuzzyIndex(String[] values) {
+		LinkedHashMap<String, ArrayList<Integer>> records = new LinkedHashMap<String, ArrayList<Integer>>();
+
+		for (int i = 0; i < values.length; i++) {
+			String[] tokens = tokenize(values[i]);
+			for (int t = 0; t < tokens.length; t++) {
+				ArrayList<Integer> list = records.get(tokens[t]);
+				if (list == null) {
+					list = new ArrayList<Integer>();
+					records.put(tokens[t], list);
+				}
+				if (list.isEmpty() || list.get(list.size() - 1) != i) {
+					list.add(i);
+				}
+			}
+		}
+
+		int size = records.size();
+		words = new String[size];
+		firstChild = new int[size];
+		nextSibling = new int[size];
+		edge = new int[size];
+		postings = new int[size][];
+
+		int node = 0;
+		for (Map.Entry<String, ArrayList<Integer>> entry : records.entrySet()) {
+			words[node] = entry.getKey();
+			postings[node] = new int[entry.getValue().size()];
+			for (int i = 0; i < postings[node].length; i++) {
+				postings[node][i] = entry.getValue().get(i);
+			}
+			firstChild[node] = NONE;
+			nextSibling[node] = NONE;
+			if (node > 0) {
+				insert(node);
+			}
+			node++;
+		}
+	}
+
+	/**
+	 * <h1>search</h1>
+	 * <p>ArrayList&lt;Match&gt; search(String query, int maxDistance)</p>
+	 * <p>Finds the records containing, for every word of the query, a word
+	 * within maxDistance edits of it. The matches are sorted by score, and
+	 * then by record index.</p>
+	 * @param query - The text being searched for
+	 * @param maxDistance - The largest number of edits allowed per word
+	 * @return the matching records
+	 */
+	ArrayList<Match> search(String query, int maxDistance) {
+		String[] tokens = tokenize(query);
+		ArrayList<Match> matches = new ArrayList<Match>();
+
+		if (tokens.length == 0 || words.length == 0) {
+			return matches;
+		}
+
+		//Best distance found so far for each query word, per record
+		HashMap<Integer, int[]> best = new HashMap<Integer, int[]>();
+
+		for (int t = 0; t < tokens.length; t++) {
+			ArrayList<Integer> found = new ArrayList<Integer>();
+			ArrayList<Integer> distances = new ArrayList<Integer>();
+			findWords(tokens[t], maxDistance, found, distances);
+
+			for (int w = 0; w < found.size(); w++) {
+				int[] wordPostings = postings[found.get(w)];
+				int distance = distances.get(w);
+
+				for (int p = 0; p < wordPostings.length; p++) {
+					int[] recordBest = best.get(wordPostings[p]);
+					if (recordBest == null) {
+						if (t > 0) {
+							continue; //Already missing an earlier word of the query
+						}
+						recordBest = new int[tokens.length];
+						for (int i = 0; i < recordBest.length; i++) {
+							recordBest[i] = Integer.MAX_VALUE;
+						}
+						best.put(wordPostings[p], recordBest);
+					}
+					recordBest[t] = Math.min(recordBest[t], distance);
+				}
+			}
+		}
+
+		for (Map.Entry<Integer, int[]> entry : best.entrySet()) {
+			int score = 0;
+			int[] recordBest = entry.getValue();
+			for (int t = 0; t < recordBest.length && score != Integer.MAX_VALUE; t++) {
+				score = recordBest[t] == Integer.MAX_VALUE ? Integer.MAX_VALUE : score + recordBest[t];
+			}
+			if (score != Integer.MAX_VALUE) {
+				matches.add(new Match(entry.getKey(), score));
+			}
+		}
+
+		Collections.sort(matches, new Comparator<Match>() {
+			@Override
+			public int compare(Match first, Match second) {
+				if (first.score != second.score) {
+					return first.score < second.score ? -1 : 1;
+				}
+				return first.record < second.record ? -1 : (first.record == second.record ? 0 : 1);
+			}
+		});
+
+		return matches;
+	}
+
+	//Walks the BK-tree, only following the children that can hold words within maxDistance
+	private void findWords(String token, int maxDistance, ArrayList<Integer> found, ArrayList<Integer> distances) {
+		int[] stack = new int[16];
+		int top = 0;
+		stack[top++] = 0;
+
+		while (top > 0) {
+			int node = stack[--top];
+			int distance = distance(token, words[node]);
+			if (distance <= maxDistance) {
+				found.add(node);
+				distances.add(distance);
+			}
+
+			for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+				if (Math.abs(edge[child] - distance) <= maxDistance) {
+					if (top == stack.length) {
+						int[] larger = new int[stack.length * 2];
+						System.arraycopy(stack, 0, larger, 0, top);
+						stack = larger;
+					}
+					stack[top++] = child;
+				}
+			}
+		}
+	}
+
+	private void insert(int node) {
+		int parent = 0;
+		while (true) {
+			int distance = distance(words[node], words[parent]);
+
+			int child = firstChild[parent];
+			while (child != NONE && edge[child] != distance) {
+				child = nextSibling[child];
+			}
+
+			if (child == NONE) {
+				edge[node] = distance;
+				nextSibling[node] = firstChild[parent];
+				firstChild[parent] = node;
+				return;
+			}
+			parent = child;
+		}
+	}
+
+	//Splits a value into its distinct lower case words
+	static String[] tokenize(String value) {
+		if (value == null) {
+			return new String[0];
+		}
+
+		ArrayList<String> tokens = new ArrayList<String>();
+		String lower = value.toLowerCase(Locale.ROOT);
+		int start = -1;
+
+		for (int i = 0; i <= lower.length(); i++) {
+			boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+			if (wordChar && start == -1) {
+				start = i;
+			} else if (!wordChar && start != -1) {
+				String token = lower.substring(start, i);
+				if (!tokens.contains(token)) {
+					tokens.add(token);
+				}
+				start = -1;
+			}
+		}
+
+		return tokens.toArray(new String[tokens.size()]);
+	}
+
+	//Levenshtein distance between two words
+	static int distance(String first, String second) {
+		int[] previous = new int[second.length() + 1];
+		int[] current = new int[second.length() + 1];
+
+		for (int j = 0; j <= second.length(); j++) {
+			previous[j] = j;
+		}
+
+		for (int i = 1; i <= first.length(); i++) {
+			current[0] = i;
+			char c = first.charAt(i - 1);
+			for (int j = 1; j <= second.length(); j++) {
+				int substitution = previous[j - 1] + (c == second.charAt(j - 1) ? 0 : 1);
+				current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+			}
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+
+		return previous[second.length()];
+	}
+
+	/**
+	 * <h1>estimateBytes</h1>
+	 * <p>long estimateBytes()</p>
+	 * <p>Estimates the memory held by the index, including its words.</p>
+	 * @return the estimated bytes
+	 */
+	long estimateBytes() {
+		return MemoryFootprint.objectBytes(20) + MemoryFootprint.stringArrayBytes(words) + 3 * MemoryFootprint.arrayBytes(words.length, 4)
+				+ MemoryFootprint.intArraysBytes(postings);
+	}
+}
@@ -0,0 +1,247 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package publicArt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * <p>The ListDiff class holds the differences between two versions of a
+ * ArtworkList, such as the lists read in by two nightly refreshes: the
+ * Artworks added, the Artworks removed, and the Artworks that are still there
+ * but changed.</p>
+ *
+ * <p>Artworks have no id, so an Artwork is known by its name and address once
+ * case, punctuation and spacing are ignored. An Artwork whose name and address
+ * are the same in both lists but whose coordinates or any other field are not
+ * has changed, while one whose name or address has changed is removed and
+ * added again. Where several Artworks share a name and address, they are
+ * paired with the Artworks that are exactly the same first, and the rest are
+ * paired in the order they are in the lists.</p>
+ *
+ * <p>Each Artwork is hashed by its identity and by the content of all of its
+ * fields, so the lists are each read once and the Artworks are compared
+ * through HashMaps rather than against each other, taking time in proportion
+ * to the sizes of the lists.</p>
+ * @version 1.0
+ */
+public class ListDiff {
+
+	private Artwork[] added;
+	private Artwork[] removed;
+	private Artwork[] changedFrom;
+	private Artwork[] changedTo;
+	private int unchanged;
+
+	//The hash key of an Artwork: its identity and the hash of all of its fields
+	private static final class Key {
+
+		final String identity;
+		final long content;
+
+		Key(String identity, long content) {
+			this.identity = identity;
+			this.content = content;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) other;
+			return content == key.content && identity.equals(key.identity);
+		}
+
+		@Override
+		public int hashCode() {
+			return identity.hashCode() * 31 + Long.hashCode(content);
+		}
+	}
+
+	/**
+	 * <h1>ListDiff</h1>
+	 * <p>ListDiff(ArtworkList older, ArtworkList newer)</p>
+	 * <p>Creates a new ListDiff comparing two versions of a list.</p>
+	 * @param older - The earlier version of the list
+	 * @param newer - The later version of the list
+	 */
+	ListDiff(ArtworkList older, ArtworkList newer) {
+
+		int olderSize = older.size();
+		int newerSize = newer.size();
+		String[] olderIdentities = new String[olderSize];
+		String[] newerIdentities = new String[newerSize];
+		boolean[] olderMatched = new boolean[olderSize];
+		boolean[] newerMatched = new boolean[newerSize];
+		int[] next = new int[olderSize];
+
+		//The Artworks of the older list with each identity and content, chained in order
+		HashMap<Key, Integer> same = new HashMap<Key, Integer>();
+		for (int i = olderSize - 1; i >= 0; i--) {
+			olderIdentities[i] = identity(older, i);
+			Key key = new Key(olderIdentities[i], content(older, i));
+			Integer head = same.put(key, i);
+			next[i] = head == null ? -1 : head;
+		}
+
+		//Pairs each Artwork of the newer list with the first unpaired one of the older list exactly like it
+		for (int j = 0; j < newerSize; j++) {
+			newerIdentities[j] = identity(newer, j);
+			Key key = new Key(newerIdentities[j], content(newer, j));
+			Integer head = same.get(key);
+			int previous = -1;
+
+			for (int i = head == null ? -1 : head; i != -1; previous = i, i = next[i]) {
+				if (sameContent(older, i, newer, j)) {
+					if (previous == -1) {
+						same.put(key, next[i]);
+					} else {
+						next[previous] = next[i];
+					}
+					olderMatched[i] = true;
+					newerMatched[j] = true;
+					unchanged++;
+					break;
+				}
+			}
+		}
+
+		//The unpaired Artworks of the older list with each identity, chained in order
+		HashMap<String, Integer> identities = new HashMap<String, Integer>();
+		for (int i = olderSize - 1; i >= 0; i--) {
+			if (!olderMatched[i]) {
+				Integer head = identities.put(olderIdentities[i], i);
+				next[i] = head == null ? -1 : head;
+			}
+		}
+
+		ArrayList<Artwork> addedArtworks = new ArrayList<Artwork>();
+		ArrayList<Artwork> from = new ArrayList<Artwork>();
+		ArrayList<Artwork> to = new ArrayList<Artwork>();
+		for (int j = 0; j < newerSize; j++) {
+			if (newerMatched[j]) {
+				continue;
+			}
+
+			Integer head = identities.get(newerIdentities[j]);
+			if (head == null || head == -1) {
+				addedArtworks.add(newer.artwork(j));
+			} else {
+				identities.put(newerIdentities[j], next[head]);
+				olderMatched[head] = true;
+				from.add(older.artwork(head));
+				to.add(newer.artwork(j));
+			}
+		}
+
+		ArrayList<Artwork> removedArtworks = new ArrayList<Artwork>();
+		for (int i = 0; i < olderSize; i++) {
+			if (!olderMatched[i]) {
+				removedArtworks.add(older.artwork(i));
+			}
+		}
+
+		added = addedArtworks.toArray(new Artwork[addedArtworks.size()]);
+		removed = removedArtworks.toArray(new Artwork[removedArtworks.size()]);
+		changedFrom = from.toArray(new Artwork[from.size()]);
+		changedTo = to.toArray(new Artwork[to.size()]);
+	}
+
+	/**
+	 * <h1>getAdded</h1>
+	 * <p>public Artwork[] getAdded()</p>
+	 * <p>Retrieves the Artworks of the newer list that are not in the older
+	 * one, in the order of the newer list.</p>
+	 * @return the added Artworks, which is empty if there are none
+	 */
+	public Artwork[] getAdded() {
+		return added;
+	}
+
+	/**
+	 * <h1>getRemoved</h1>
+	 * <p>public Artwork[] getRemoved()</p>
+	 * <p>Retrieves the Artworks of the older list that are not in the newer
+	 * one, in the order of the older list.</p>
+	 * @return the removed Artworks, which is empty if there are none
+	 */
+	public Artwork[] getRemoved() {
+		return removed;
+	}
+
+	/**
+	 * <h1>getChanged</h1>
+	 * <p>public Artwork[] getChanged()</p>
+	 * <p>Retrieves the changed Artworks as they are in the newer list, in the
+	 * order of the newer list.</p>
+	 * @return the changed Artworks, which is empty if there are none
+	 */
+	public Artwork[] getChanged() {
+		return changedTo;
+	}
+
+	/**
+	 * <h1>getChangedFrom</h1>
+	 * <p>public Artwork[] getChangedFrom()</p>
+	 * <p>Retrieves the changed Artworks as they were in the older list. Each
+	 * one is at the same index as the Artwork it changed into in getChanged().</p>
+	 * @return the changed Artworks before they changed, which is empty if there are none
+	 */
+	public Artwork[] getChangedFrom() {
+		return changedFrom;
+	}
+
+	/**
+	 * <h1>getUnchangedCount</h1>
+	 * <p>public int getUnchangedCount()</p>
+	 * <p>Retrieves the number of Artworks that are exactly the same in both lists.</p>
+	 * @return the number of unchanged Artworks
+	 */
+	public int getUnchangedCount() {
+		return unchanged;
+	}
+
+	/**
+	 * <h1>isEmpty</h1>
+	 * <p>public boolean isEmpty()</p>
+	 * <p>Retrieves whether the lists hold exactly the same Artworks.</p>
+	 * @return true if no Artwork was added, removed or changed
+	 */
+	public boolean isEmpty() {
+		return added.length == 0 && removed.length == 0 && changedTo.length == 0;
+	}
+
+	//The normalised name and address of an Artwork
+	private static String identity(ArtworkList list, int i) {
+		return DuplicateFilter.normalise(list.stringAt(i, ArtworkList.NAME)) + '\n'
+				+ DuplicateFilter.normalise(list.stringAt(i, ArtworkList.ADDRESS));
+	}
+
+	//A hash of the coordinates and every field of an Artwork
+	private static long content(ArtworkList list, int i) {
+		long hash = Double.doubleToLongBits(list.latitudeAt(i) + 0.0);
+		hash = hash * 0x9E3779B97F4A7C15L + Double.doubleToLongBits(list.longitudeAt(i) + 0.0);
+		for (int column = 0; column < ArtworkList.FIELDS.length; column++) {
+			String value = list.stringAt(i, column);
+			hash = hash * 0x9E3779B97F4A7C15L + (value == null ? 0 : value.hashCode() + 1);
+		}
+		return hash ^ (hash >>> 32);
+	}
+
+	private static boolean sameContent(ArtworkList older, int i, ArtworkList newer, int j) {
+		if (older.latitudeAt(i) != newer.latitudeAt(j) || older.longitudeAt(i) != newer.longitudeAt(j)) {
+			return false;
+		}
+		for (int column = 0; column < ArtworkList.FIELDS.length; column++) {
+			String value = older.stringAt(i, column);
+			if (value == null ? newer.stringAt(j, column) != null : !value.equals(newer.stringAt(j, column))) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,460 @@
+/**This file was created for Terratap-Technologies-Inc by 
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas. 
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package publicArt;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * <p>The LoadOptions class holds the settings used by the ArtworkList 
+ * constructors while the JSON files are read in.</p>
+ * 
+ * <p>By default every property of the Artworks is kept. The setters return
+ * the LoadOptions object so that they can be chained.</p>
+ * @version 1.0
+ */
+public class LoadOptions {
+	
+	private EnumSet<ArtworkField> fields;
+	private boolean compressText;
+	private int textCacheSize;
+	private boolean offHeap;
+	private boolean compactCoordinates;
+	private int resultCacheSize;
+	private long resultCacheTtl;
+	private double resultCacheResolution;
+	private boolean deduplicate;
+	private double duplicateTolerance;
+	private boolean duplicateByName;
+	private boolean duplicateByAddress;
+	private boolean precomputeAggregates;
+	private boolean precomputeClusters;
+	private boolean parallelParsing;
+	
+	/**
+	 * <h1>LoadOptions</h1>
+	 * <p>LoadOptions()</p>
+	 * <p>Creates a new LoadOptions with the default settings.</p>
+	 */
+	public LoadOptions() {
+		fields = EnumSet.allOf(ArtworkField.class);
+		compressText = false;
+		textCacheSize = 32;
+		offHeap = false;
+		compactCoordinates = false;
+		resultCacheSize = 0;
+		resultCacheTtl = 0;
+		resultCacheResolution = 0.0001;
+		deduplicate = false;
+		duplicateTolerance = 0.0001;
+		duplicateByName = true;
+		duplicateByAddress = true;
+		precomputeAggregates = false;
+		precomputeClusters = false;
+		parallelParsing = false;
+	}
+	
+	/**
+	 * <h1>setFields</h1>
+	 * <p>public LoadOptions setFields(ArtworkField... fields)</p>
+	 * <p>Sets the properties that are kept for each Artwork. The values of
+	 * every other property are skipped while the files are read and are
+	 * <b>null</b> in the resulting Artworks. Searches and filters on a property
+	 * that was not kept find no results.</p>
+	 * @param fields - The properties to keep
+	 * @return this LoadOptions
+	 */
+	public LoadOptions setFields(ArtworkField... fields) {
+		this.fields = EnumSet.noneOf(ArtworkField.class);
+		for (int i = 0; i < fields.length; i++) {
+			this.fields.add(fields[i]);
+		}
+		return this;
+	}
+	
+	/**
+	 * <h1>getFields</h1>
+	 * <p>public Set&lt;ArtworkField&gt; getFields()</p>
+	 * <p>Retrieves the properties that are kept for each Artwork.</p>
+	 * @return the properties that are kept
+	 */
+	public Set<ArtworkField> getFields() {
+		return EnumSet.copyOf(fields);
+	}
+	
+	/**
+	 * <h1>setCompressText</h1>
+	 * <p>public LoadOptions setCompressText(boolean compressText)</p>
+	 * <p>Sets whether the summary and description of each Artwork are held
+	 * compressed in memory. Compressed text is decompressed each time 
+	 * getSummary() or getDescription() is called, unless the value is still in 
+	 * the cache of recently decompressed text.</p>
+	 * <p>This is recommended for large lists where the summaries and 
+	 * descriptions are rarely viewed.</p>
+	 * @param compressText - true to compress the text, false to keep it as Strings
+	 * @return this LoadOptions
+	 */
+	public LoadOptions setCompressText(boolean compressText) {
+		this.compressText = compressText;
+		return this;
+	}
+	
+	/**
+	 * <h1>isCompressText</h1>
+	 * <p>public boolean isCompressText()</p>
+	 * <p>Retrieves whether the summary and description of each Artwork are held
+	 * compressed in memory.</p>
+	 * @return true if the text is compressed
+	 */
+	public boolean isCompressText() {
+		return compressText;
+	}
+	
+	/**
+	 * <h1>setTextCacheSize</h1>
+	 * <p>public LoadOptions setTextCacheSize(int textCacheSize)</p>
+	 * <p>Sets how many recently decompressed summaries and descriptions are 
+	 * cached when the text is compressed. The default is 32, and 0 turns the 
+	 * cache off.</p>
+	 * @param textCacheSize - The number of values to cache
+	 * @return this LoadOptions
+	 */
+	public LoadOptions setTextCacheSize(int textCacheSize) {
+		if (textCacheSize < 0) {
+			throw new IllegalArgumentException("textCacheSize must not be negative");
+		}
+		this.textCacheSize = textCacheSize;
+		return this;
+	}
+	
+	/**
+	 * <h1>getTextCacheSize</h1>
+	 * <p>public int getTextCacheSize()</p>
+	 * <p>Retrieves how many recently decompressed values are cached.</p>
+	 * @return the number of values cached
+	 */
+	public int getTextCacheSize() {
+		return textCacheSize;
+	}
+	
+	/**
+	 * <h1>setOffHeap</h1>
+	 * <p>public LoadOptions setOffHeap(boolean offHeap)</p>
+	 * <p>Sets whether the Artworks are held outside of the Java heap. Off-heap
+	 * lists keep the coordinates, art types and the UTF-8 bytes of the other 
+	 * properties in direct memory, and create an Artwork object each time one 
+	 * is retrieved. This keeps the heap small for very large lists, at the cost 
+	 * of slower access. The compressText setting is not used by off-heap lists.</p>
+	 * <p>Direct memory is limited by the -XX:MaxDirectMemorySize setting of the 
+	 * JVM and is released once the ArtworkList is garbage collected.</p>
+	 * @param offHeap - true to hold the Artworks off-heap
+	 * @return this LoadOptions
+	 */
+	public LoadOptions setOffHeap(boolean offHeap) {
+		this.offHeap = offHeap;
+		return this;
+	}
+	
+	/**
+	 * <h1>isOffHeap</h1>
+	 * <p>public boolean isOffHeap()</p>
+	 * <p>Retrieves whether the Artworks are held outside of the Java heap.</p>
+	 * @return true if the Artworks are held off-heap
+	 */
+	public boolean isOffHeap() {
+		return offHeap;
+	}
+	
+	/**
+	 * <h1>setCompactCoordinates</h1>
+	 * <p>public LoadOptions setCompactCoordinates(boolean compactCoordinates)</p>
+	 * <p>Sets whether the coordinates of the Artworks are held as whole micro-degrees,
+	 * for phones and other devices short on memory. Compact lists keep the
+	 * coordinates in two int arrays and each other value in one array per column
+	 * rather than in an Artwork object each, and create an Artwork each time one is
+	 * retrieved. The coordinates take half the memory of two doubles, and the
+	 * distances scanned by the ArtworkList are compared in integer arithmetic.</p>
+	 * <p>Each coordinate is rounded to the nearest micro-degree, which moves it by at
+	 * most 0.5 micro-degrees, about 5.6 centimetres of latitude. The Artworks
+	 * retrieved have the rounded coordinates, as do those added by add or update. A
+	 * point queried is rounded the same way, so a distance is never more than 1.5
+	 * micro-degrees (about 16 centimetres) from the distance between the unrounded
+	 * points, and the closest Artwork found is never more than 3 micro-degrees (about
+	 * 32 centimetres) farther away than the closest one before rounding. The results
+	 * are the same as those of a list read in from the rounded coordinates. The
+	 * offHeap setting takes precedence over this one. The compressText setting is not
+	 * used by compact lists.</p>
+	 * @param compactCoordinates - true to hold the coordinates as micro-degrees
+	 * @return this LoadOptions
+	 */
+	public LoadOptions setCompactCoordinates(boolean compactCoordinates) {
+		this.compactCoordinates = compactCoordinates;
+		return this;
+	}
+	
+	/**
+	 * <h1>isCompactCoordinates</h1>
+	 * <p>public boolean isCompactCoordinates()</p>
+	 * <p>Retrieves whether the coordinates of the Artworks are held as micro-degrees.</p>
+	 * @return true if the coordinates are held as micro-degrees
+	 */
+	public boolean isCompactCoordinates() {
+		return compactCoordinates;
+	}
+	
+	/**
+	 * <h1>setResultCacheSize</h1>
+	 * <p>public LoadOptions setResultCacheSize(int resultCacheSize)</p>
+	 * <p>Sets how many results of getClosestArtwork() and sortByDistance() the ArtworkList
+	 * remembers. Coordinates are rounded to the result cache resolution, so 
+	 * queries made from nearby positions, such as successive GPS fixes, share a 
+	 * result instead of scanning the list again. The default is 0, which turns 
+	 * the cache off.</p>
+	 * <p>A cached sortByDistance() result holds one reference per Artwork, so large
+	 * lists should use a small cache.</p>
+	 * @param resultCacheSize - The largest number of results to cache
+	 * @return this LoadOptions
+	 */
+	public LoadOptions setResultCacheSize(int resultCacheSize) {
+		if (resultCacheSize < 0) {
+			throw new IllegalArgumentException("resultCacheSize must not be negative");
+		}
+		this.resultCacheSize = resultCacheSize;
+		return this;
+	}
+	
+	/**
+	 * <h1>getResultCacheSize</h1>
+	 * <p>public int getResultCacheSize()</p>
+	 * <p>Retrieves how many query results are cached.</p>
+	 * @return the number of results cached, 0 if the cache is off
+	 */
+	public int getResultCacheSize() {
+		return resultCacheSize;
+	}
+	
+	/**
+	 * <h1>setResultCacheTtl</h1>
+	 * <p>public LoadOptions setResultCacheTtl(long resultCacheTtl)</p>
+	 * <p>Sets how long a cached result is used before it is computed again, in
+	 * milliseconds. The default is 0, which keeps results until they are the 
+	 * least recently used when the cache is full.</p>
+	 * @param resultCacheTtl - The time to live of a result in milliseconds
+	 * @return this LoadOptions
+	 */
+	public LoadOptions setResultCacheTtl(long resultCacheTtl) {
+		if (resultCacheTtl < 0) {
+			throw new IllegalArgumentException("resultCacheTtl must not be negative");
+		}
+		this.resultCacheTtl = resultCacheTtl;
+		return this;
+	}
+	
+	/**
+	 * <h1>getResultCacheTtl</h1>
+	 * <p>public long getResultCacheTtl()</p>
+	 * <p>Retrieves how long a cached result is used, in milliseconds.</p>
+	 * @return the time to live of a result, 0 if results do not expire
+	 */
+	public long getResultCacheTtl() {
+		return resultCacheTtl;
+	}
+	
+	/**
+	 * <h1>setResultCacheResolution</h1>
+	 * <p>public LoadOptions setResultCacheResolution(double resultCacheResolution)</p>
+	 * <p>Sets the size in degrees of the grid that coordinates are rounded to
+	 * before a result is looked up. Queries are answered for the centre of their
+	 * grid cell, so a cached result may differ from an exact one by up to half a 
+	 * cell. The default is 0.0001 degrees, about 11 metres.</p>
+	 * @param resultCacheResolution - The size of a grid cell in degrees
+	 * @return this LoadOptions
+	 */
+	public LoadOptions setResultCacheResolution(double resultCacheResolution) {
+		if (!(resultCacheResolution > 0)) {
+			throw new IllegalArgumentException("resultCacheResolution must be positive");
+		}
+		this.resultCacheResolution = resultCacheResolution;
+		return this;
+	}
+	
+	/**
+	 * <h1>getResultCacheResolution</h1>
+	 * <p>public double getResultCacheResolution()</p>
+	 * <p>Retrieves the size in degrees of the grid used by the result cache.</p>
+	 * @return the size of a grid cell in degrees
+	 */
+	public double getResultCacheResolution() {
+		return resultCacheResolution;
+	}
+	
+	/**
+	 * <h1>setPrecomputeAggregates</h1>
+	 * <p>public LoadOptions setPrecomputeAggregates(boolean precomputeAggregates)</p>
+	 * <p>Sets whether the map tile counts used by aggregateByArtType() are 
+	 * built while the Artworks are read in, instead of the first time they are 
+	 * needed. This makes loading slower so that the first viewport query is as 
+	 * fast as the rest.</p>
+	 * @param precomputeAggregates - true to build the tile counts while loading
+	 * @return this LoadOptions
+	 */
+	public LoadOptions setPrecomputeAggregates(boolean precomputeAggregates) {
+		this.precomputeAggregates = precomputeAggregates;
+		return this;
+	}
+	
+	/**
+	 * <h1>isPrecomputeAggregates</h1>
+	 * <p>public boolean isPrecomputeAggregates()</p>
+	 * <p>Retrieves whether the map tile counts are built while loading.</p>
+	 * @return true if the tile counts are built while loading
+	 */
+	public boolean isPrecomputeAggregates() {
+		return precomputeAggregates;
+	}
+	
+	/**
+	 * <h1>setPrecomputeClusters</h1>
+	 * <p>public LoadOptions setPrecomputeClusters(boolean precomputeClusters)</p>
+	 * <p>Sets whether the map Clusters used by getClusters() are built while 
+	 * the Artworks are read in, instead of the first time they are needed.</p>
+	 * @param precomputeClusters - true to build the Clusters while loading
+	 * @return this LoadOptions
+	 */
+	public LoadOptions setPrecomputeClusters(boolean precomputeClusters) {
+		this.precomputeClusters = precomputeClusters;
+		return this;
+	}
+	
+	/**
+	 * <h1>isPrecomputeClusters</h1>
+	 * <p>public boolean isPrecomputeClusters()</p>
+	 * <p>Retrieves whether the map Clusters are built while loading.</p>
+	 * @return true if the Clusters are built while loading
+	 */
+	public boolean isPrecomputeClusters() {
+		return precomputeClusters;
+	}
+	
+	/**
+	 * <h1>setDeduplicate</h1>
+	 * <p>public LoadOptions setDeduplicate(boolean deduplicate)</p>
+	 * <p>Sets whether Artworks that are already in the list are left out while the 
+	 * files are read in, so that files which overlap can be merged. Two Artworks are 
+	 * duplicates when their coordinates are within the duplicate tolerance of each 
+	 * other and their names and addresses are the same, ignoring case, punctuation 
+	 * and spacing. The first of the duplicates read in is kept.</p>
+	 * @param deduplicate - true to leave out duplicate Artworks
+	 * @return this LoadOptions
+	 */
+	public LoadOptions setDeduplicate(boolean deduplicate) {
+		this.deduplicate = deduplicate;
+		return this;
+	}
+	
+	/**
+	 * <h1>isDeduplicate</h1>
+	 * <p>public boolean isDeduplicate()</p>
+	 * <p>Retrieves whether duplicate Artworks are left out.</p>
+	 * @return true if duplicate Artworks are left out
+	 */
+	public boolean isDeduplicate() {
+		return deduplicate;
+	}
+	
+	/**
+	 * <h1>setDuplicateTolerance</h1>
+	 * <p>public LoadOptions setDuplicateTolerance(double duplicateTolerance)</p>
+	 * <p>Sets the largest difference in degrees between the latitudes, and between 
+	 * the longitudes, of two duplicate Artworks. The default is 0.0001 degrees, about 
+	 * 11 metres of latitude. A tolerance of 0 only matches identical coordinates.</p>
+	 * @param duplicateTolerance - The tolerance in degrees
+	 * @return this LoadOptions
+	 */
+	public LoadOptions setDuplicateTolerance(double duplicateTolerance) {
+		if (duplicateTolerance < 0) {
+			throw new IllegalArgumentException("duplicateTolerance must not be negative");
+		}
+		this.duplicateTolerance = duplicateTolerance;
+		return this;
+	}
+	
+	/**
+	 * <h1>getDuplicateTolerance</h1>
+	 * <p>public double getDuplicateTolerance()</p>
+	 * <p>Retrieves the largest difference in degrees between the coordinates of 
+	 * two duplicate Artworks.</p>
+	 * @return the tolerance in degrees
+	 */
+	public double getDuplicateTolerance() {
+		return duplicateTolerance;
+	}
+	
+	/**
+	 * <h1>setDuplicateKey</h1>
+	 * <p>public LoadOptions setDuplicateKey(boolean byName, boolean byAddress)</p>
+	 * <p>Sets which of the names and addresses of two Artworks must match for them to 
+	 * be duplicates, besides their coordinates. Both must match by default.</p>
+	 * @param byName - Whether duplicates must have the same name
+	 * @param byAddress - Whether duplicates must have the same address
+	 * @return this LoadOptions
+	 */
+	public LoadOptions setDuplicateKey(boolean byName, boolean byAddress) {
+		this.duplicateByName = byName;
+		this.duplicateByAddress = byAddress;
+		return this;
+	}
+	
+	/**
+	 * <h1>isDuplicateByName</h1>
+	 * <p>public boolean isDuplicateByName()</p>
+	 * <p>Retrieves whether duplicates must have the same name.</p>
+	 * @return true if duplicates must have the same name
+	 */
+	public boolean isDuplicateByName() {
+		return duplicateByName;
+	}
+	
+	/**
+	 * <h1>isDuplicateByAddress</h1>
+	 * <p>public boolean isDuplicateByAddress()</p>
+	 * <p>Retrieves whether duplicates must have the same address.</p>
+	 * @return true if duplicates must have the same address
+	 */
+	public boolean isDuplicateByAddress() {
+		return duplicateByAddress;
+	}
+	
+	/**
+	 * <h1>setParallelParsing</h1>
+	 * <p>public LoadOptions setParallelParsing(boolean parallelParsing)</p>
+	 * <p>Sets whether large JSON files are parsed on several threads. Each file of 
+	 * 32 MB or more is split into chunks of whole features at the commas of its top 
+	 * level array, the chunks are parsed in parallel, and their Artworks are added to 
+	 * the list in the order they appear in the file, so the list is the same as when 
+	 * the file is parsed on one thread. Smaller files, which take longer to split than 
+	 * they save, and files that cannot be split are parsed on one thread.</p>
+	 * <p>With parallel parsing each file is held in memory whole, up to the 2 GB an 
+	 * array can hold, while other lists only hold files of up to 16 MB and parse 
+	 * larger files as they are read.</p>
+	 * @param parallelParsing - true to parse large files on several threads
+	 * @return this LoadOptions
+	 */
+	public LoadOptions setParallelParsing(boolean parallelParsing) {
+		this.parallelParsing = parallelParsing;
+		return this;
+	}
+	
+	/**
+	 * <h1>isParallelParsing</h1>
+	 * <p>public boolean isParallelParsing()</p>
+	 * <p>Retrieves whether large JSON files are parsed on several threads.</p>
+	 * @return true if large files are parsed on several threads
+	 */
+	public boolean isParallelParsing() {
+		return parallelParsing;
+	}
+}
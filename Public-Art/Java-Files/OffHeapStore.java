@@ -0,0 +1,316 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package publicArt;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * <p>The OffHeapStore class holds the records of a list outside of the Java
+ * heap in direct ByteBuffers, so that the number of objects on the heap does
+ * not grow with the size of the data set.</p>
+ *
+ * <p>Every record has a fixed size slot holding its latitude, its longitude
+ * and one int per String column. Categorical columns (such as the art type)
+ * store a code into a small dictionary kept on the heap, while the other
+ * columns store the position of their value in a separate area of length
+ * prefixed UTF-8 bytes. Both areas are split into chunks so that they can
+ * grow without being copied.</p>
+ *
+ * <p>Records are only appended while a list is being read in, after which the
+ * store is read only and can be read from several threads at once.</p>
+ * @version 1.0
+ */
+final class OffHeapStore {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final int RECORD_CHUNK_BITS = 14;
+	private static final int RECORDS_PER_CHUNK = 1 << RECORD_CHUNK_BITS;
+	private static final int STRING_CHUNK_BITS = 22;
+	private static final int STRING_CHUNK_SIZE = 1 << STRING_CHUNK_BITS;
+	private static final int NULL = -1;
+
+	private final boolean[] categorical;
+	private final int recordSize;
+
+	private final ArrayList<ByteBuffer> recordChunks = new ArrayList<ByteBuffer>();
+	private final ArrayList<ByteBuffer> stringChunks = new ArrayList<ByteBuffer>();
+	private int size;
+
+	private final ArrayList<HashMap<String, Integer>> codes = new ArrayList<HashMap<String, Integer>>();
+	private final ArrayList<ArrayList<String>> categories = new ArrayList<ArrayList<String>>();
+
+	/**
+	 * <h1>OffHeapStore</h1>
+	 * <p>OffHeapStore(boolean[] categorical)</p>
+	 * <p>Creates a new, empty OffHeapStore.</p>
+	 * @param categorical - One entry per String column, true if the column
+	 * only holds a few distinct values and is stored as a dictionary code
+	 */
+	OffHeapStore(boolean[] categorical) {
+		this.categorical = categorical.clone();
+		this.recordSize = 16 + 4 * categorical.length;
+
+		for (int i = 0; i < categorical.length; i++) {
+			codes.add(new HashMap<String, Integer>());
+			categories.add(new ArrayList<String>());
+		}
+	}
+
+	/**
+	 * <h1>add</h1>
+	 * <p>void add(double latitude, double longitude, String... values)</p>
+	 * <p>Appends a record to the store.</p>
+	 * @param latitude - The latitude of the record
+	 * @param longitude - The longitude of the record
+	 * @param values - The value of each String column, may contain nulls
+	 */
+	void add(double latitude, double longitude, String... values) {
+		int chunk = size >>> RECORD_CHUNK_BITS;
+		if (chunk == recordChunks.size()) {
+			recordChunks.add(ByteBuffer.allocateDirect(RECORDS_PER_CHUNK * recordSize));
+		}
+
+		ByteBuffer records = recordChunks.get(chunk);
+		int offset = (size & (RECORDS_PER_CHUNK - 1)) * recordSize;
+		records.putDouble(offset, latitude);
+		records.putDouble(offset + 8, longitude);
+
+		for (int column = 0; column < categorical.length; column++) {
+			int value;
+			if (values[column] == null) {
+				value = NULL;
+			} else if (categorical[column]) {
+				value = code(column, values[column]);
+			} else {
+				value = putString(values[column]);
+			}
+			records.putInt(offset + 16 + 4 * column, value);
+		}
+
+		size++;
+	}
+
+	/**
+	 * <h1>truncate</h1>
+	 * <p>void truncate(int size)</p>
+	 * <p>Removes the records added after the store held the given number of
+	 * records. This is used to drop a file that failed part way through. The
+	 * space held by the Strings of the removed records is not reclaimed.</p>
+	 * @param size - The number of records to keep
+	 */
+	void truncate(int size) {
+		if (size < this.size) {
+			this.size = size;
+		}
+	}
+
+	/**
+	 * <h1>size</h1>
+	 * <p>int size()</p>
+	 * <p>Retrieves the number of records in the store.</p>
+	 * @return the number of records
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * <h1>latitude</h1>
+	 * <p>double latitude(int record)</p>
+	 * <p>Retrieves the latitude of a record.</p>
+	 * @param record - The index of the record
+	 * @return the latitude
+	 */
+	double latitude(int record) {
+		return recordChunks.get(record >>> RECORD_CHUNK_BITS).getDouble(slot(record));
+	}
+
+	/**
+	 * <h1>longitude</h1>
+	 * <p>double longitude(int record)</p>
+	 * <p>Retrieves the longitude of a record.</p>
+	 * @param record - The index of the record
+	 * @return the longitude
+	 */
+	double longitude(int record) {
+		return recordChunks.get(record >>> RECORD_CHUNK_BITS).getDouble(slot(record) + 8);
+	}
+
+	/**
+	 * <h1>string</h1>
+	 * <p>String string(int record, int column)</p>
+	 * <p>Retrieves the value of a String column of a record. Values of
+	 * categorical columns are shared, other values are decoded each time.</p>
+	 * @param record - The index of the record
+	 * @param column - The index of the column
+	 * @return the value, which may be null
+	 */
+	String string(int record, int column) {
+		int value = recordChunks.get(record >>> RECORD_CHUNK_BITS).getInt(slot(record) + 16 + 4 * column);
+		if (value == NULL) {
+			return null;
+		}
+		if (categorical[column]) {
+			return categories.get(column).get(value);
+		}
+		return getString(value);
+	}
+
+	/**
+	 * <h1>getCategories</h1>
+	 * <p>String[] getCategories(int column)</p>
+	 * <p>Retrieves the distinct values of a categorical column in the order
+	 * they were first added.</p>
+	 * @param column - The index of the column
+	 * @return the distinct values
+	 */
+	String[] getCategories(int column) {
+		ArrayList<String> values = categories.get(column);
+		return values.toArray(new String[values.size()]);
+	}
+
+	/**
+	 * <h1>getDirectBytes</h1>
+	 * <p>long getDirectBytes()</p>
+	 * <p>Retrieves the number of bytes of direct memory allocated by the store.</p>
+	 * @return the allocated bytes
+	 */
+	long getDirectBytes() {
+		long bytes = 0;
+		for (int i = 0; i < recordChunks.size(); i++) {
+			bytes += recordChunks.get(i).capacity();
+		}
+		for (int i = 0; i < stringChunks.size(); i++) {
+			bytes += stringChunks.get(i).capacity();
+		}
+		return bytes;
+	}
+
+	/**
+	 * <h1>columnBytes</h1>
+	 * <p>long columnBytes(int column)</p>
+	 * <p>Counts the direct memory used by a String column: the four bytes in
+	 * the record of each value, and the length prefixed bytes of each value
+	 * of a column that is not categorical.</p>
+	 * @param column - The index of the column
+	 * @return the estimated bytes
+	 */
+	long columnBytes(int column) {
+		long bytes = 4L * size;
+		if (categorical[column]) {
+			return bytes;
+		}
+
+		for (int record = 0; record < size; record++) {
+			int value = recordChunks.get(record >>> RECORD_CHUNK_BITS).getInt(slot(record) + 16 + 4 * column);
+			if (value != NULL) {
+				ByteBuffer chunk = stringChunks.get(value >>> STRING_CHUNK_BITS);
+				int index = value & (STRING_CHUNK_SIZE - 1);
+				int length = 0;
+				int shift = 0;
+				byte b;
+				do {
+					b = chunk.get(index++);
+					length |= (b & 0x7F) << shift;
+					shift += 7;
+					bytes++;
+				} while (b < 0);
+				bytes += length;
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * <h1>dictionaryBytes</h1>
+	 * <p>long dictionaryBytes(int column)</p>
+	 * <p>Estimates the heap memory held by the dictionary of a categorical
+	 * column: its distinct values and the map from values to codes. Columns that
+	 * are not categorical have no dictionary.</p>
+	 * @param column - The index of the column
+	 * @return the estimated bytes
+	 */
+	long dictionaryBytes(int column) {
+		if (!categorical[column]) {
+			return 0;
+		}
+
+		ArrayList<String> values = categories.get(column);
+		long bytes = MemoryFootprint.objectBytes(12) + MemoryFootprint.arrayBytes(values.size(), 4)
+				+ MemoryFootprint.hashMapBytes(values.size(), false);
+		for (int i = 0; i < values.size(); i++) {
+			bytes += MemoryFootprint.stringBytes(values.get(i)) + MemoryFootprint.objectBytes(4);
+		}
+		return bytes;
+	}
+
+	private int slot(int record) {
+		return (record & (RECORDS_PER_CHUNK - 1)) * recordSize;
+	}
+
+	private int code(int column, String value) {
+		Integer code = codes.get(column).get(value);
+		if (code == null) {
+			code = categories.get(column).size();
+			codes.get(column).put(value, code);
+			categories.get(column).add(value);
+		}
+		return code;
+	}
+
+	/*
+	 * Writes a String as a varint length followed by its UTF-8 bytes, starting a
+	 * new chunk when it does not fit in the current one. Strings larger than a
+	 * chunk get a chunk of their own.
+	 */
+	private int putString(String value) {
+		byte[] bytes = value.getBytes(UTF_8);
+		int needed = bytes.length + 5;
+
+		ByteBuffer chunk = stringChunks.isEmpty() ? null : stringChunks.get(stringChunks.size() - 1);
+		if (chunk == null || chunk.remaining() < needed) {
+			if (stringChunks.size() == (1 << (31 - STRING_CHUNK_BITS))) {
+				throw new IllegalStateException("OffHeapStore is limited to 2 GB of Strings");
+			}
+			chunk = ByteBuffer.allocateDirect(Math.max(STRING_CHUNK_SIZE, needed));
+			stringChunks.add(chunk);
+		}
+
+		int position = ((stringChunks.size() - 1) << STRING_CHUNK_BITS) | chunk.position();
+		int length = bytes.length;
+		while (length >= 0x80) {
+			chunk.put((byte) (length | 0x80));
+			length >>>= 7;
+		}
+		chunk.put((byte) length);
+		chunk.put(bytes);
+		return position;
+	}
+
+	private String getString(int position) {
+		ByteBuffer chunk = stringChunks.get(position >>> STRING_CHUNK_BITS);
+		int index = position & (STRING_CHUNK_SIZE - 1);
+
+		int length = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = chunk.get(index++);
+			length |= (b & 0x7F) << shift;
+			shift += 7;
+		} while (b < 0);
+
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = chunk.get(index + i);
+		}
+		return new String(bytes, UTF_8);
+	}
+}
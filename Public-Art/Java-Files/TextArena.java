@@ -0,0 +1,286 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package publicArt;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * <p>The TextArena class stores large pieces of text compressed in blocks.
+ * Text is appended as UTF-8 to an open block, and once the block holds
+ * BLOCK_SIZE bytes it is compressed with a Deflater and sealed. Each piece of
+ * text is identified by an int handle made of its block number and its
+ * position within the block. Handles are never negative, so an arena holds at
+ * most MAX_BLOCKS blocks, about 1 GB of text before it is compressed.</p>
+ *
+ * <p>Text is decompressed when it is retrieved, outside the lock of the
+ * arena so that threads reading different blocks do not wait for each other.
+ * The most recently retrieved values are kept in a small least recently used
+ * cache so that repeated views of the same Artwork do not decompress its block
+ * again.</p>
+ * @version 1.0
+ */
+final class TextArena {
+
+	static final int NO_TEXT = -1;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final int BLOCK_SIZE = 32 * 1024;
+	private static final int ENTRY_BITS = 16;
+	private static final int MAX_ENTRIES = (1 << ENTRY_BITS) - 1;
+	private static final int MAX_BLOCKS = 1 << (31 - ENTRY_BITS);
+
+	private final ArrayList<byte[]> blocks = new ArrayList<byte[]>();
+	private final ArrayList<int[]> blockOffsets = new ArrayList<int[]>();
+
+	private ByteArrayOutputStream openBlock = new ByteArrayOutputStream();
+	private int[] openOffsets = new int[64];
+	private int openEntries;
+
+	//Counts the rollbacks, so that text decompressed across one is not cached under a handle it no longer has
+	private int rollbacks;
+
+	private final Map<Integer, String> cache;
+
+	/**
+	 * <h1>TextArena</h1>
+	 * <p>TextArena(final int cacheSize)</p>
+	 * <p>Creates a new, empty TextArena.</p>
+	 * @param cacheSize - The number of decompressed values to cache, 0 for none
+	 */
+	TextArena(final int cacheSize) {
+		cache = new LinkedHashMap<Integer, String>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+				return size() > cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * <h1>add</h1>
+	 * <p>synchronized int add(String text)</p>
+	 * <p>Appends a piece of text to the arena.</p>
+	 * @param text - The text to store, may be null
+	 * @return the handle used to retrieve the text
+	 * @throws IllegalStateException if the arena already holds MAX_BLOCKS blocks
+	 */
+	synchronized int add(String text) {
+		if (text == null) {
+			return NO_TEXT;
+		}
+
+		if (openEntries == MAX_ENTRIES) {
+			seal();
+		}
+		if (blocks.size() == MAX_BLOCKS) {
+			throw new IllegalStateException("The text arena is full at " + MAX_BLOCKS + " blocks");
+		}
+		if (openEntries + 1 >= openOffsets.length) {
+			int[] larger = new int[openOffsets.length * 2];
+			System.arraycopy(openOffsets, 0, larger, 0, openEntries + 1);
+			openOffsets = larger;
+		}
+
+		byte[] bytes = text.getBytes(UTF_8);
+		openBlock.write(bytes, 0, bytes.length);
+		int handle = (blocks.size() << ENTRY_BITS) | openEntries;
+		openOffsets[++openEntries] = openBlock.size();
+
+		if (openBlock.size() >= BLOCK_SIZE) {
+			seal();
+		}
+		return handle;
+	}
+
+	/**
+	 * <h1>seal</h1>
+	 * <p>synchronized void seal()</p>
+	 * <p>Compresses the open block, if it holds any text, and starts a new one.
+	 * This is called once all the text has been added.</p>
+	 */
+	synchronized void seal() {
+		if (openEntries == 0) {
+			return;
+		}
+
+		byte[] raw = openBlock.toByteArray();
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 3 + 16);
+		byte[] chunk = new byte[4096];
+
+		deflater.setInput(raw);
+		deflater.finish();
+		while (!deflater.finished()) {
+			compressed.write(chunk, 0, deflater.deflate(chunk));
+		}
+		deflater.end();
+
+		int[] offsets = new int[openEntries + 1];
+		System.arraycopy(openOffsets, 0, offsets, 0, offsets.length);
+
+		blocks.add(compressed.toByteArray());
+		blockOffsets.add(offsets);
+
+		openBlock = new ByteArrayOutputStream();
+		openEntries = 0;
+	}
+
+	/**
+	 * <h1>mark</h1>
+	 * <p>synchronized int mark()</p>
+	 * <p>Retrieves the position the next piece of text will be appended at,
+	 * for rollback(int).</p>
+	 * @return the position
+	 */
+	synchronized int mark() {
+		return (blocks.size() << ENTRY_BITS) | openEntries;
+	}
+
+	/**
+	 * <h1>rollback</h1>
+	 * <p>synchronized void rollback(int mark)</p>
+	 * <p>Removes the text appended after the given position, such as the text
+	 * of a file that failed part way through. Blocks sealed since then are
+	 * dropped, and the block the position falls in is decompressed again and
+	 * reopened if it was sealed.</p>
+	 * @param mark - A position returned by mark()
+	 */
+	synchronized void rollback(int mark) {
+		int block = mark >>> ENTRY_BITS;
+		int entries = mark & MAX_ENTRIES;
+
+		if (block > blocks.size() || (block == blocks.size() && entries >= openEntries)) {
+			return;
+		}
+
+		byte[] raw;
+		if (block == blocks.size()) {
+			raw = openBlock.toByteArray();
+		} else {
+			raw = inflate(blocks.get(block), blockOffsets.get(block), block);
+			System.arraycopy(blockOffsets.get(block), 0, openOffsets, 0, entries + 1);
+			blocks.subList(block, blocks.size()).clear();
+			blockOffsets.subList(block, blockOffsets.size()).clear();
+		}
+
+		openBlock = new ByteArrayOutputStream();
+		openBlock.write(raw, 0, openOffsets[entries]);
+		openEntries = entries;
+		rollbacks++;
+		cache.clear();
+	}
+
+	/**
+	 * <h1>get</h1>
+	 * <p>String get(int handle)</p>
+	 * <p>Retrieves a piece of text, decompressing its block if the text is
+	 * not in the cache. The block is decompressed without holding the lock of
+	 * the arena.</p>
+	 * @param handle - The handle returned when the text was added
+	 * @return the text, or null for NO_TEXT
+	 */
+	String get(int handle) {
+		if (handle == NO_TEXT) {
+			return null;
+		}
+
+		int block = handle >>> ENTRY_BITS;
+		int entry = handle & MAX_ENTRIES;
+		byte[] compressed;
+		int[] offsets;
+		int rollback;
+
+		synchronized (this) {
+			String text = cache.get(handle);
+			if (text != null) {
+				return text;
+			}
+
+			if (block == blocks.size()) {
+				byte[] raw = openBlock.toByteArray();
+				return new String(raw, openOffsets[entry], openOffsets[entry + 1] - openOffsets[entry], UTF_8);
+			}
+
+			compressed = blocks.get(block);
+			offsets = blockOffsets.get(block);
+			rollback = rollbacks;
+		}
+
+		byte[] raw = inflate(compressed, offsets, block);
+		String text = new String(raw, offsets[entry], offsets[entry + 1] - offsets[entry], UTF_8);
+
+		synchronized (this) {
+			if (rollback == rollbacks) {
+				cache.put(handle, text);
+			}
+		}
+		return text;
+	}
+
+	/**
+	 * <h1>getCompressedSize</h1>
+	 * <p>synchronized long getCompressedSize()</p>
+	 * <p>Retrieves the number of bytes held by the sealed, compressed blocks.</p>
+	 * @return the size of the compressed blocks in bytes
+	 */
+	synchronized long getCompressedSize() {
+		long size = 0;
+		for (int i = 0; i < blocks.size(); i++) {
+			size += blocks.get(i).length + 4 * blockOffsets.get(i).length;
+		}
+		return size;
+	}
+
+	/**
+	 * <h1>estimateBytes</h1>
+	 * <p>synchronized long estimateBytes()</p>
+	 * <p>Estimates the memory held by the arena: its compressed blocks, the
+	 * block still being filled, and the cache of decompressed values.</p>
+	 * @return the estimated bytes
+	 */
+	synchronized long estimateBytes() {
+		long bytes = MemoryFootprint.objectBytes(24) + MemoryFootprint.arrayBytes(openBlock.size(), 1) + MemoryFootprint.arrayBytes(openOffsets.length, 4);
+		for (int i = 0; i < blocks.size(); i++) {
+			bytes += MemoryFootprint.arrayBytes(blocks.get(i).length, 1) + MemoryFootprint.arrayBytes(blockOffsets.get(i).length, 4);
+		}
+		bytes += MemoryFootprint.hashMapBytes(cache.size(), true);
+		for (String value : cache.values()) {
+			bytes += MemoryFootprint.stringBytes(value) + MemoryFootprint.objectBytes(4);
+		}
+		return bytes;
+	}
+
+	//Decompresses a sealed block, given its compressed bytes and the offsets of its entries
+	private static byte[] inflate(byte[] compressed, int[] offsets, int block) {
+		byte[] raw = new byte[offsets[offsets.length - 1]];
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(compressed);
+			int length = 0;
+			while (length < raw.length) {
+				int inflated = inflater.inflate(raw, length, raw.length - length);
+				if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+					throw new DataFormatException("Truncated block");
+				}
+				length += inflated;
+			}
+		} catch (DataFormatException e) {
+			throw new IllegalStateException("Corrupt text block " + block, e);
+		} finally {
+			inflater.end();
+		}
+		return raw;
+	}
+}
@@ -0,0 +1,218 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package publicArt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * <p>The Tile class holds the number of Artworks in one Web Mercator map tile,
+ * in total and for each value of the column they were grouped by.</p>
+ *
+ * <p>Tiles are numbered the same way as the tiles of web maps: at zoom level z
+ * the world is 2^z tiles across and 2^z tiles down, x counting east from the
+ * 180th meridian and y counting south from the top of the map.</p>
+ * @version 1.0
+ */
+public class Tile {
+
+	private int zoom;
+	private int x;
+	private int y;
+	private int count;
+	private String[] categories;
+	private int[] counts;
+
+	/**
+	 * <h1>Tile</h1>
+	 * <p>Tile(int zoom, int x, int y, int count, String[] categories, int[] counts)</p>
+	 * <p>Creates a new Tile.</p>
+	 * @param zoom - The zoom level of the tile
+	 * @param x - The column of the tile
+	 * @param y - The row of the tile
+	 * @param count - The number of Artworks in the tile
+	 * @param categories - The values the Artworks were grouped by
+	 * @param counts - The number of Artworks in the tile with each of the values
+	 */
+	Tile(int zoom, int x, int y, int count, String[] categories, int[] counts) {
+		this.zoom = zoom;
+		this.x = x;
+		this.y = y;
+		this.count = count;
+		this.categories = categories;
+		this.counts = counts;
+	}
+
+	/**
+	 * <h1>add</h1>
+	 * <p>Tile add(Tile other)</p>
+	 * <p>Adds the counts of another Tile of the same zoom level, column and row,
+	 * which may be negative, to the counts of this one.</p>
+	 * @param other - The other Tile
+	 * @return a new Tile holding the sums of the counts
+	 */
+	Tile add(Tile other) {
+		ArrayList<String> merged = new ArrayList<String>(Arrays.asList(categories));
+		for (String category : other.categories) {
+			if (!merged.contains(category)) {
+				merged.add(category);
+			}
+		}
+
+		int[] sums = Arrays.copyOf(counts, merged.size());
+		for (int i = 0; i < other.categories.length; i++) {
+			sums[merged.indexOf(other.categories[i])] += other.counts[i];
+		}
+		return new Tile(zoom, x, y, count + other.count, merged.toArray(new String[merged.size()]), sums);
+	}
+
+	/**
+	 * <h1>getZoom</h1>
+	 * <p>public int getZoom()</p>
+	 * <p>Retrieves the zoom level of the tile.</p>
+	 * @return the zoom level
+	 */
+	public int getZoom() {
+		return zoom;
+	}
+
+	/**
+	 * <h1>getX</h1>
+	 * <p>public int getX()</p>
+	 * <p>Retrieves the column of the tile.</p>
+	 * @return the x of the tile
+	 */
+	public int getX() {
+		return x;
+	}
+
+	/**
+	 * <h1>getY</h1>
+	 * <p>public int getY()</p>
+	 * <p>Retrieves the row of the tile.</p>
+	 * @return the y of the tile
+	 */
+	public int getY() {
+		return y;
+	}
+
+	/**
+	 * <h1>getNorth</h1>
+	 * <p>public double getNorth()</p>
+	 * <p>Retrieves the latitude of the northern edge of the tile.</p>
+	 * @return the northern edge
+	 */
+	public double getNorth() {
+		return TilePyramid.tileLatitude(y, zoom);
+	}
+
+	/**
+	 * <h1>getSouth</h1>
+	 * <p>public double getSouth()</p>
+	 * <p>Retrieves the latitude of the southern edge of the tile.</p>
+	 * @return the southern edge
+	 */
+	public double getSouth() {
+		return TilePyramid.tileLatitude(y + 1, zoom);
+	}
+
+	/**
+	 * <h1>getWest</h1>
+	 * <p>public double getWest()</p>
+	 * <p>Retrieves the longitude of the western edge of the tile.</p>
+	 * @return the western edge
+	 */
+	public double getWest() {
+		return TilePyramid.tileLongitude(x, zoom);
+	}
+
+	/**
+	 * <h1>getEast</h1>
+	 * <p>public double getEast()</p>
+	 * <p>Retrieves the longitude of the eastern edge of the tile.</p>
+	 * @return the eastern edge
+	 */
+	public double getEast() {
+		return TilePyramid.tileLongitude(x + 1, zoom);
+	}
+
+	/**
+	 * <h1>getCount</h1>
+	 * <p>public int getCount()</p>
+	 * <p>Retrieves the number of Artworks in the tile, including those without
+	 * a value for the column they were grouped by.</p>
+	 * @return the number of Artworks
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * <h1>getCount</h1>
+	 * <p>public int getCount(String category)</p>
+	 * <p>Retrieves the number of Artworks in the tile with a value, ignoring case.</p>
+	 * @param category - The value to count
+	 * @return the number of Artworks with the value, 0 if there are none
+	 */
+	public int getCount(String category) {
+		for (int i = 0; i < categories.length; i++) {
+			if (categories[i].equalsIgnoreCase(category)) {
+				return counts[i];
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * <h1>getCategories</h1>
+	 * <p>public String[] getCategories()</p>
+	 * <p>Retrieves the values of the Artworks in the tile, in the same order
+	 * as getCounts().</p>
+	 * @return the values held by at least one Artwork in the tile
+	 */
+	public String[] getCategories() {
+		int found = 0;
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] > 0) {
+				found++;
+			}
+		}
+
+		String[] present = new String[found];
+		found = 0;
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] > 0) {
+				present[found++] = categories[i];
+			}
+		}
+		return present;
+	}
+
+	/**
+	 * <h1>getCounts</h1>
+	 * <p>public int[] getCounts()</p>
+	 * <p>Retrieves the number of Artworks in the tile with each of the values
+	 * returned by getCategories().</p>
+	 * @return the number of Artworks with each value
+	 */
+	public int[] getCounts() {
+		int found = 0;
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] > 0) {
+				found++;
+			}
+		}
+
+		int[] present = new int[found];
+		found = 0;
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] > 0) {
+				present[found++] = counts[i];
+			}
+		}
+		return present;
+	}
+}
@@ -0,0 +1,275 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package publicArt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * <p>The TilePyramid class holds the number of records of each category in
+ * every map tile, at every zoom level up to MAX_ZOOM, so that the counts for a
+ * viewport can be read without looking at the records themselves.</p>
+ *
+ * <p>Tiles are the Web Mercator tiles used by web maps. Each record is placed
+ * in a tile at MAX_ZOOM, and the tiles holding records are kept sorted by the
+ * Morton code of the tile, which interleaves the bits of its x and y. The
+ * tiles inside any larger tile then sit next to each other in that order, so
+ * the pyramid of counts at every lower zoom is given by running totals of the
+ * counts of each category over the sorted tiles.</p>
+ * @version 1.0
+ */
+final class TilePyramid {
+
+	static final int MAX_ZOOM = 20;
+
+	private static final double MAX_LATITUDE = 85.0511287798066;
+
+	private final String[] categories;
+	private final long[] codes;
+	private final int[][] totals;
+
+	/**
+	 * <h1>TilePyramid</h1>
+	 * <p>TilePyramid(double[] latitudes, double[] longitudes, String[] values)</p>
+	 * <p>Counts the records in every tile, grouped by the value of one of their
+	 * columns. Records without a value are counted in the total of a tile only.</p>
+	 * @param latitudes - The latitude of each record
+	 * @param longitudes - The longitude of each record
+	 * @param values - The category of each record, may hold null
+	 */
+	TilePyramid(double[] latitudes, double[] longitudes, String[] values) {
+		this(latitudes, longitudes, values, null);
+	}
+
+	/**
+	 * <h1>TilePyramid</h1>
+	 * <p>TilePyramid(double[] latitudes, double[] longitudes, String[] values, int[] weights)</p>
+	 * <p>Counts the records in every tile like TilePyramid(double[], double[], String[]),
+	 * except that each record adds its weight to the counts instead of one. A
+	 * pyramid of the changes made to a list weighs the records added by 1 and
+	 * the records taken away by -1.</p>
+	 * @param latitudes - The latitude of each record
+	 * @param longitudes - The longitude of each record
+	 * @param values - The category of each record, may hold null
+	 * @param weights - The weight of each record, or null to weigh each by 1
+	 */
+	TilePyramid(double[] latitudes, double[] longitudes, String[] values, int[] weights) {
+		int count = latitudes.length;
+
+		ArrayList<String> distinct = new ArrayList<String>();
+		int[] category = new int[count];
+		long[] recordCodes = new long[count];
+
+		for (int i = 0; i < count; i++) {
+			String value = values[i];
+			category[i] = value == null ? -1 : distinct.indexOf(value);
+			if (value != null && category[i] == -1) {
+				category[i] = distinct.size();
+				distinct.add(value);
+			}
+			recordCodes[i] = code(tileX(longitudes[i], MAX_ZOOM), tileY(latitudes[i], MAX_ZOOM));
+		}
+
+		categories = distinct.toArray(new String[distinct.size()]);
+
+		//The distinct tiles holding records, in Morton order
+		long[] sorted = recordCodes.clone();
+		Arrays.sort(sorted);
+		int tiles = 0;
+		for (int i = 0; i < count; i++) {
+			if (i == 0 || sorted[i] != sorted[i - 1]) {
+				sorted[tiles++] = sorted[i];
+			}
+		}
+		codes = Arrays.copyOf(sorted, tiles);
+
+		//Row 0 holds the running total of all records, the other rows one category each
+		totals = new int[categories.length + 1][tiles + 1];
+		for (int i = 0; i < count; i++) {
+			int tile = Arrays.binarySearch(codes, recordCodes[i]) + 1;
+			int weight = weights == null ? 1 : weights[i];
+			totals[0][tile] += weight;
+			if (category[i] >= 0) {
+				totals[category[i] + 1][tile] += weight;
+			}
+		}
+		for (int[] row : totals) {
+			for (int tile = 1; tile <= tiles; tile++) {
+				row[tile] += row[tile - 1];
+			}
+		}
+	}
+
+	/**
+	 * <h1>tiles</h1>
+	 * <p>Tile[] tiles(double south, double west, double north, double east, int zoom)</p>
+	 * <p>Retrieves the counts of the tiles at a zoom level that overlap an area
+	 * and hold at least one record. Areas with a west edge east of their east edge
+	 * cross the 180th meridian.</p>
+	 * @param south - The southern edge of the area
+	 * @param west - The western edge of the area
+	 * @param north - The northern edge of the area
+	 * @param east - The eastern edge of the area
+	 * @param zoom - The zoom level of the tiles, from 0 to MAX_ZOOM
+	 * @return the tiles in Morton order
+	 */
+	Tile[] tiles(double south, double west, double north, double east, int zoom) {
+		int left = tileX(west, zoom);
+		int right = tileX(east, zoom);
+		int top = tileY(north, zoom);
+		int bottom = tileY(south, zoom);
+		ArrayList<Tile> found = new ArrayList<Tile>();
+
+		if (west <= east) {
+			collect(0, 0, 0, 0, codes.length, zoom, left, right, top, bottom, found);
+		} else if (left > right) {
+			collect(0, 0, 0, 0, codes.length, zoom, 0, right, top, bottom, found);
+			collect(0, 0, 0, 0, codes.length, zoom, left, (1 << zoom) - 1, top, bottom, found);
+		} else {
+			//The two sides of the 180th meridian meet in the same column, so every column is inside
+			collect(0, 0, 0, 0, codes.length, zoom, 0, (1 << zoom) - 1, top, bottom, found);
+		}
+
+		return found.toArray(new Tile[found.size()]);
+	}
+
+	/**
+	 * <h1>tiles</h1>
+	 * <p>Tile[] tiles(double south, double west, double north, double east, int zoom, TilePyramid changes)</p>
+	 * <p>Retrieves the counts of the tiles like tiles(double, double, double, double, int),
+	 * with the counts of a pyramid of changes added to them. Both pyramids are
+	 * read in the same order, so their tiles are matched up in one pass, and
+	 * tiles left with no records are dropped.</p>
+	 * @param south - The southern edge of the area
+	 * @param west - The western edge of the area
+	 * @param north - The northern edge of the area
+	 * @param east - The eastern edge of the area
+	 * @param zoom - The zoom level of the tiles, from 0 to MAX_ZOOM
+	 * @param changes - The pyramid of the changes
+	 * @return the tiles in the same order as tiles(double, double, double, double, int)
+	 */
+	Tile[] tiles(double south, double west, double north, double east, int zoom, TilePyramid changes) {
+		Tile[] tiles = tiles(south, west, north, east, zoom);
+		Tile[] changed = changes.tiles(south, west, north, east, zoom);
+		ArrayList<Tile> merged = new ArrayList<Tile>();
+
+		//Areas crossing the 180th meridian are read as their eastern part and then their western part
+		int left = tileX(west, zoom);
+		int right = tileX(east, zoom);
+		int split = west > east && left > right ? left : Integer.MAX_VALUE;
+
+		int i = 0;
+		int j = 0;
+		while (i < tiles.length || j < changed.length) {
+			int order = i == tiles.length ? 1 : j == changed.length ? -1 : compare(tiles[i], changed[j], split);
+			Tile tile = order < 0 ? tiles[i++] : order > 0 ? changed[j++] : tiles[i++].add(changed[j++]);
+			if (tile.getCount() > 0) {
+				merged.add(tile);
+			}
+		}
+
+		return merged.toArray(new Tile[merged.size()]);
+	}
+
+	/**
+	 * <h1>estimateBytes</h1>
+	 * <p>long estimateBytes()</p>
+	 * <p>Estimates the memory held by the counts of the pyramid. The categories
+	 * are shared with the records and are not counted.</p>
+	 * @return the estimated bytes
+	 */
+	long estimateBytes() {
+		return MemoryFootprint.objectBytes(12) + MemoryFootprint.arrayBytes(categories.length, 4) + MemoryFootprint.arrayBytes(codes.length, 8)
+				+ MemoryFootprint.intArraysBytes(totals);
+	}
+
+	/*
+	 * Walks down from the tile (level, x, y), whose tiles at MAX_ZOOM are
+	 * codes[start, end), to the tiles at zoom inside the columns left to right
+	 * and the rows top to bottom, skipping the parts without records
+	 */
+	private void collect(int level, int x, int y, int start, int end, int zoom, int left, int right, int top,
+			int bottom, ArrayList<Tile> found) {
+
+		int shift = zoom - level;
+		if (start == end || ((x + 1) << shift) <= left || (x << shift) > right || ((y + 1) << shift) <= top
+				|| (y << shift) > bottom) {
+			return;
+		}
+
+		if (level == zoom) {
+			int[] counts = new int[categories.length];
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] = totals[i + 1][end] - totals[i + 1][start];
+			}
+			found.add(new Tile(zoom, x, y, totals[0][end] - totals[0][start], categories, counts));
+			return;
+		}
+
+		//The four quarters of the tile, split where their Morton codes begin
+		int quarter = 2 * (MAX_ZOOM - level - 1);
+		long first = code(x << 1, y << 1) << quarter;
+		int previous = start;
+		for (int child = 0; child < 4; child++) {
+			int next = child == 3 ? end : search(first + ((long) (child + 1) << quarter), previous, end);
+			collect(level + 1, (x << 1) | (child & 1), (y << 1) | (child >> 1), previous, next, zoom, left, right,
+					top, bottom, found);
+			previous = next;
+		}
+	}
+
+	//Compares two tiles of the same zoom level in the order they are read in, tiles from split on being read last
+	private static int compare(Tile first, Tile second, int split) {
+		boolean firstLater = first.getX() >= split;
+		if (firstLater != (second.getX() >= split)) {
+			return firstLater ? 1 : -1;
+		}
+		return Long.compare(code(first.getX(), first.getY()), code(second.getX(), second.getY()));
+	}
+
+	//Finds the first of codes[start, end) that is not less than code
+	private int search(long code, int start, int end) {
+		while (start < end) {
+			int middle = (start + end) >>> 1;
+			if (codes[middle] < code) {
+				start = middle + 1;
+			} else {
+				end = middle;
+			}
+		}
+		return start;
+	}
+
+	//Interleaves the bits of x and y, x taking the even bits
+	static long code(int x, int y) {
+		long code = 0;
+		for (int bit = 0; bit < MAX_ZOOM; bit++) {
+			code |= ((long) (x >> bit & 1) << (2 * bit)) | ((long) (y >> bit & 1) << (2 * bit + 1));
+		}
+		return code;
+	}
+
+	static int tileX(double longitude, int zoom) {
+		int tiles = 1 << zoom;
+		int x = (int) Math.floor((longitude + 180) / 360 * tiles);
+		return Math.max(0, Math.min(tiles - 1, x));
+	}
+
+	static int tileY(double latitude, int zoom) {
+		int tiles = 1 << zoom;
+		double radians = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+		double y = (1 - Math.log(Math.tan(radians) + 1 / Math.cos(radians)) / Math.PI) / 2;
+		return Math.max(0, Math.min(tiles - 1, (int) Math.floor(y * tiles)));
+	}
+
+	static double tileLongitude(int x, int zoom) {
+		return x * 360.0 / (1 << zoom) - 180;
+	}
+
+	static double tileLatitude(int y, int zoom) {
+		return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2.0 * y / (1 << zoom)))));
+	}
+}
@@ -0,0 +1,210 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package queryService;
+
+import java.util.stream.Stream;
+
+import alternateFuelStations.Station;
+import alternateFuelStations.StationList;
+import publicArt.Artwork;
+import publicArt.ArtworkList;
+import votingLocations.Location;
+import votingLocations.VotingLocationList;
+
+/**
+ * <p>The Dataset class lets the QueryService answer requests the same way
+ * whichever of the oden lists it serves, by giving access to the queries of
+ * the list and to the coordinates and String fields of its records.</p>
+ * @version 1.0
+ */
+abstract class Dataset<T> {
+
+	private final String[] fields;
+
+	Dataset(String... fields) {
+		this.fields = fields;
+	}
+
+	abstract T nearest(double latitude, double longitude);
+
+	abstract Stream<T> byDistance(double latitude, double longitude);
+
+	abstract Stream<T> byName(String name);
+
+	abstract Stream<T> all();
+
+	abstract double latitude(T item);
+
+	abstract double longitude(T item);
+
+	abstract String field(T item, int field);
+
+	/**
+	 * <h1>fields</h1>
+	 * <p>String[] fields()</p>
+	 * <p>Retrieves the names of the String fields of the records, in the order
+	 * used by field(T, int) and in the JSON written for each record.</p>
+	 * @return the field names
+	 */
+	String[] fields() {
+		return fields;
+	}
+
+	/**
+	 * <h1>field</h1>
+	 * <p>int field(String name)</p>
+	 * <p>Finds a String field of the records by name, ignoring case.</p>
+	 * @param name - The name of the field
+	 * @return the index of the field, or -1 if the records have no such field
+	 */
+	int field(String name) {
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i].equalsIgnoreCase(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	static Dataset<Station> of(final StationList list) {
+		return new Dataset<Station>("name", "fuelType", "address", "access") {
+			@Override
+			Station nearest(double latitude, double longitude) {
+				return list.getClosestStation(latitude, longitude);
+			}
+
+			@Override
+			Stream<Station> byDistance(double latitude, double longitude) {
+				return list.streamByDistance(latitude, longitude);
+			}
+
+			@Override
+			Stream<Station> byName(String name) {
+				return list.streamByName(name);
+			}
+
+			@Override
+			Stream<Station> all() {
+				return list.stream();
+			}
+
+			@Override
+			double latitude(Station item) {
+				return item.getLatitude();
+			}
+
+			@Override
+			double longitude(Station item) {
+				return item.getLongitude();
+			}
+
+			@Override
+			String field(Station item, int field) {
+				switch (field) {
+				case 0:
+					return item.getName();
+				case 1:
+					return item.getFuelType();
+				case 2:
+					return item.getAddress();
+				default:
+					return item.getAccess();
+				}
+			}
+		};
+	}
+
+	static Dataset<Artwork> of(final ArtworkList list) {
+		return new Dataset<Artwork>("name", "address", "artistName", "artType", "summary", "description") {
+			@Override
+			Artwork nearest(double latitude, double longitude) {
+				return list.getClosestArtwork(latitude, longitude);
+			}
+
+			@Override
+			Stream<Artwork> byDistance(double latitude, double longitude) {
+				return list.streamByDistance(latitude, longitude);
+			}
+
+			@Override
+			Stream<Artwork> byName(String name) {
+				return list.streamByName(name);
+			}
+
+			@Override
+			Stream<Artwork> all() {
+				return list.stream();
+			}
+
+			@Override
+			double latitude(Artwork item) {
+				return item.getLatitude();
+			}
+
+			@Override
+			double longitude(Artwork item) {
+				return item.getLongitude();
+			}
+
+			@Override
+			String field(Artwork item, int field) {
+				switch (field) {
+				case 0:
+					return item.getName();
+				case 1:
+					return item.getAddress();
+				case 2:
+					return item.getArtistName();
+				case 3:
+					return item.getArtType();
+				case 4:
+					return item.getSummary();
+				default:
+					return item.getDescription();
+				}
+			}
+		};
+	}
+
+	static Dataset<Location> of(final VotingLocationList list) {
+		return new Dataset<Location>("name", "address") {
+			@Override
+			Location nearest(double latitude, double longitude) {
+				return list.getClosestLocation(latitude, longitude);
+			}
+
+			@Override
+			Stream<Location> byDistance(double latitude, double longitude) {
+				return list.streamByDistance(latitude, longitude);
+			}
+
+			@Override
+			Stream<Location> byName(String name) {
+				return list.streamByName(name);
+			}
+
+			@Override
+			Stream<Location> all() {
+				return list.stream();
+			}
+
+			@Override
+			double latitude(Location item) {
+				return item.getLatitude();
+			}
+
+			@Override
+			double longitude(Location item) {
+				return item.getLongitude();
+			}
+
+			@Override
+			String field(Location item, int field) {
+				return field == 0 ? item.getName() : item.getAddress();
+			}
+		};
+	}
+}
@@ -0,0 +1,113 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package queryService;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * <p>The LatencyMetrics class counts the requests made to one endpoint of a
+ * QueryService and how long they took to answer.</p>
+ *
+ * <p>Latencies are kept in a histogram with a bucket for each power of two
+ * microseconds, so recording a request only increments a few counters and
+ * never blocks. The percentiles reported are the upper bounds of the buckets
+ * they fall in, so they are accurate to within a factor of two.</p>
+ * @version 1.0
+ */
+final class LatencyMetrics {
+
+	private static final int BUCKETS = 40;
+
+	private final String endpoint;
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	LatencyMetrics(String endpoint) {
+		this.endpoint = endpoint;
+	}
+
+	String getEndpoint() {
+		return endpoint;
+	}
+
+	/**
+	 * <h1>record</h1>
+	 * <p>void record(long nanos, boolean error)</p>
+	 * <p>Records a request that was answered.</p>
+	 * @param nanos - How long the request took to answer in nanoseconds
+	 * @param error - Whether the request was answered with an error status
+	 */
+	void record(long nanos, boolean error) {
+		long micros = nanos / 1000;
+		int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+
+		buckets.incrementAndGet(bucket);
+		count.increment();
+		totalNanos.add(nanos);
+		if (error) {
+			errors.increment();
+		}
+
+		long max = maxNanos.get();
+		while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+			max = maxNanos.get();
+		}
+	}
+
+	void reject() {
+		rejected.increment();
+	}
+
+	/**
+	 * <h1>write</h1>
+	 * <p>void write(JsonWriter json) throws IOException</p>
+	 * <p>Writes the counts and latencies as a JSON object.</p>
+	 * @param json - Where the object is written
+	 * @throws IOException if the object cannot be written
+	 */
+	void write(JsonWriter json) throws IOException {
+		long requests = count.sum();
+
+		json.beginObject();
+		json.name("count").value(requests);
+		json.name("errors").value(errors.sum());
+		json.name("rejected").value(rejected.sum());
+		json.name("meanMicros").value(requests > 0 ? totalNanos.sum() / requests / 1000 : 0);
+		json.name("p50Micros").value(percentile(0.5));
+		json.name("p95Micros").value(percentile(0.95));
+		json.name("p99Micros").value(percentile(0.99));
+		json.name("maxMicros").value(maxNanos.get() / 1000);
+		json.endObject();
+	}
+
+	//The upper bound in microseconds of the bucket holding the given fraction of the requests
+	private long percentile(double fraction) {
+		long[] snapshot = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = buckets.get(i);
+			total += snapshot[i];
+		}
+
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen > 0 && seen >= fraction * total) {
+				return 1L << i;
+			}
+		}
+		return 0;
+	}
+}
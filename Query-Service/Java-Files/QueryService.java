@@ -0,0 +1,512 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package queryService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import alternateFuelStations.StationList;
+import publicArt.ArtworkList;
+import votingLocations.VotingLocationList;
+
+/**
+ * <p>The QueryService class answers queries over a loaded list through an
+ * embedded HTTP server, so that a list can be searched by programs that are
+ * not written in Java. It uses the HTTP server of the JDK and needs nothing
+ * else to be running.</p>
+ *
+ * <p>The service answers GET requests with JSON:</p>
+ * <ul>
+ * <li>/nearest?lat=&amp;lon= - the record closest to a point</li>
+ * <li>/radius?lat=&amp;lon=&amp;metres=[&amp;limit=] - the records within a distance of a point, closest first</li>
+ * <li>/search?name=[&amp;limit=] - the records with a name containing a keyword</li>
+ * <li>/filter?field=&amp;value=[&amp;limit=] - the records with a field equal to a value, ignoring case</li>
+ * <li>/metrics - the number of requests made to each endpoint and how long they took</li>
+ * </ul>
+ *
+ * <p>Records are written as objects holding their latitude, longitude and
+ * String fields. Lists of records are streamed to the client as they are
+ * found, so the whole response is never held in memory, except for /radius,
+ * which holds up to limit records to put them in order of metres. Bad
+ * requests are answered with a 400 status and an object holding an error
+ * message.</p>
+ *
+ * <p>Each request is answered on its own virtual thread when the JDK provides
+ * them, and on a pooled thread otherwise. Only ServiceOptions.getMaxInFlight()
+ * requests are answered at once; any more are turned away with a 503 status
+ * and a Retry-After header rather than queued, so that a client sending too
+ * many requests is told to slow down instead of making every request wait.</p>
+ * @version 1.0
+ */
+public class QueryService {
+
+	private static final double EARTH_RADIUS = 6371008.8;
+	private static final String[] ENDPOINTS = { "nearest", "radius", "search", "filter", "metrics" };
+
+	private final Dataset<?> dataset;
+	private final ServiceOptions options;
+	private final Semaphore inFlight;
+	private final LinkedHashMap<String, LatencyMetrics> metrics = new LinkedHashMap<String, LatencyMetrics>();
+
+	private HttpServer server;
+	private ExecutorService executor;
+
+	//An error that is answered with the given status and message
+	private static final class RequestException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		final int status;
+
+		RequestException(int status, String message) {
+			super(message);
+			this.status = status;
+		}
+	}
+
+	//A record found within the distance of a radius request, with the order it was found in
+	private static final class Found<T> {
+
+		final T item;
+		final double metres;
+		final long order;
+
+		Found(T item, double metres, long order) {
+			this.item = item;
+			this.metres = metres;
+			this.order = order;
+		}
+	}
+
+	/**
+	 * <h1>QueryService</h1>
+	 * <p>public QueryService(StationList list, ServiceOptions options)</p>
+	 * <p>Creates a new QueryService over a list of Stations. The service does not
+	 * listen for requests until it is started.</p>
+	 * @param list - The Stations to serve
+	 * @param options - The settings of the service
+	 */
+	public QueryService(StationList list, ServiceOptions options) {
+		this(Dataset.of(list), options);
+	}
+
+	/**
+	 * <h1>QueryService</h1>
+	 * <p>public QueryService(ArtworkList list, ServiceOptions options)</p>
+	 * <p>Creates a new QueryService over a list of Artworks. The service does not
+	 * listen for requests until it is started.</p>
+	 * @param list - The Artworks to serve
+	 * @param options - The settings of the service
+	 */
+	public QueryService(ArtworkList list, ServiceOptions options) {
+		this(Dataset.of(list), options);
+	}
+
+	/**
+	 * <h1>QueryService</h1>
+	 * <p>public QueryService(VotingLocationList list, ServiceOptions options)</p>
+	 * <p>Creates a new QueryService over a list of voting Locations. The service
+	 * does not listen for requests until it is started.</p>
+	 * @param list - The Locations to serve
+	 * @param options - The settings of the service
+	 */
+	public QueryService(VotingLocationList list, ServiceOptions options) {
+		this(Dataset.of(list), options);
+	}
+
+	private QueryService(Dataset<?> dataset, ServiceOptions options) {
+		this.dataset = dataset;
+		this.options = options;
+		inFlight = new Semaphore(options.getMaxInFlight());
+		for (String endpoint : ENDPOINTS) {
+			metrics.put(endpoint, new LatencyMetrics(endpoint));
+		}
+	}
+
+	/**
+	 * <h1>start</h1>
+	 * <p>public void start() throws IOException</p>
+	 * <p>Starts listening for requests on the host and port of the ServiceOptions.</p>
+	 * @throws IOException if the port cannot be listened on
+	 */
+	public synchronized void start() throws IOException {
+		if (server != null) {
+			throw new IllegalStateException("the service is already started");
+		}
+
+		HttpServer created = HttpServer.create(new InetSocketAddress(options.getHost(), options.getPort()), 0);
+		created.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				QueryService.this.handle(exchange);
+			}
+		});
+
+		executor = newExecutor();
+		created.setExecutor(executor);
+		created.start();
+		server = created;
+	}
+
+	/**
+	 * <h1>stop</h1>
+	 * <p>public void stop()</p>
+	 * <p>Stops listening for requests. Requests being answered are given a
+	 * second to finish.</p>
+	 */
+	public synchronized void stop() {
+		if (server != null) {
+			server.stop(1);
+			executor.shutdown();
+			server = null;
+			executor = null;
+		}
+	}
+
+	/**
+	 * <h1>getPort</h1>
+	 * <p>public int getPort()</p>
+	 * <p>Retrieves the port the service listens on, which is the port picked by
+	 * the system when the ServiceOptions ask for port 0.</p>
+	 * @return the port, or -1 if the service is not started
+	 */
+	public synchronized int getPort() {
+		return server == null ? -1 : server.getAddress().getPort();
+	}
+
+	//Uses a virtual thread per request when the JDK has them, without needing it to compile
+	private static ExecutorService newExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	//Answers one request, turning it away if too many are being answered already
+	private void handle(HttpExchange exchange) throws IOException {
+		long start = System.nanoTime();
+		String path = exchange.getRequestURI().getPath();
+		LatencyMetrics endpoint = path.length() > 1 ? metrics.get(path.substring(1)) : null;
+
+		try {
+			if (!inFlight.tryAcquire()) {
+				if (endpoint != null) {
+					endpoint.reject();
+				}
+				exchange.getResponseHeaders().set("Retry-After", "1");
+				sendError(exchange, 503, "too many requests are in flight");
+				return;
+			}
+
+			boolean error = false;
+			try {
+				if (endpoint == null) {
+					throw new RequestException(404, "no endpoint at " + path);
+				}
+				if (!exchange.getRequestMethod().equals("GET")) {
+					exchange.getResponseHeaders().set("Allow", "GET");
+					throw new RequestException(405, "only GET requests are answered");
+				}
+				answer(exchange, dataset, endpoint.getEndpoint(), parameters(exchange.getRequestURI().getRawQuery()));
+			} catch (RequestException e) {
+				error = true;
+				sendError(exchange, e.status, e.getMessage());
+			} catch (RuntimeException e) {
+				error = true;
+				sendError(exchange, 500, "the request could not be answered");
+			} finally {
+				inFlight.release();
+				if (endpoint != null) {
+					endpoint.record(System.nanoTime() - start, error);
+				}
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private <T> void answer(HttpExchange exchange, Dataset<T> dataset, String endpoint,
+			HashMap<String, String> parameters) throws IOException, RequestException {
+
+		if (endpoint.equals("nearest")) {
+			nearest(exchange, dataset, latitude(parameters), longitude(parameters));
+		} else if (endpoint.equals("radius")) {
+			double metres = number(parameters, "metres");
+			if (metres < 0) {
+				throw new RequestException(400, "metres must not be negative");
+			}
+			radius(exchange, dataset, latitude(parameters), longitude(parameters), metres, limit(parameters));
+		} else if (endpoint.equals("search")) {
+			String name = text(parameters, "name");
+			write(exchange, dataset, dataset.byName(name).limit(limit(parameters)));
+		} else if (endpoint.equals("filter")) {
+			filter(exchange, dataset, text(parameters, "field"), text(parameters, "value"), limit(parameters));
+		} else {
+			metrics(exchange);
+		}
+	}
+
+	private static <T> void nearest(HttpExchange exchange, Dataset<T> dataset, double latitude, double longitude)
+			throws IOException, RequestException {
+
+		T item = dataset.nearest(latitude, longitude);
+		if (item == null) {
+			throw new RequestException(404, "the list is empty");
+		}
+
+		JsonWriter json = open(exchange, 200);
+		writeItem(json, dataset, item, -1);
+		json.close();
+	}
+
+	/*
+	 * Writes the records within the distance, closest first in metres. The records
+	 * come from the list in order of their distance in degrees, which is not the
+	 * order of their distance in metres, so every record is read until that
+	 * distance is farther than any record within the given metres could be, and
+	 * the closest limit of them in metres are kept in a heap. The list still
+	 * works out the distance in degrees of each of its records for every request.
+	 */
+	private static <T> void radius(HttpExchange exchange, Dataset<T> dataset, double latitude, double longitude,
+			double metres, long limit) throws IOException {
+
+		double latitudeRadius = Math.toDegrees(metres / EARTH_RADIUS);
+		double ratio = Math.sin(Math.min(Math.PI, metres / EARTH_RADIUS) / 2)
+				/ Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + latitudeRadius)));
+		double longitudeRadius = ratio < 1 ? Math.toDegrees(2 * Math.asin(ratio)) : 360;
+		double farthest = latitudeRadius * latitudeRadius + longitudeRadius * longitudeRadius;
+
+		//The farthest record kept is at the top, and of records at the same distance the one found last
+		PriorityQueue<Found<T>> closest = new PriorityQueue<Found<T>>(16, new Comparator<Found<T>>() {
+			@Override
+			public int compare(Found<T> first, Found<T> second) {
+				int order = Double.compare(second.metres, first.metres);
+				return order != 0 ? order : Long.compare(second.order, first.order);
+			}
+		});
+
+		Iterator<T> items = dataset.byDistance(latitude, longitude).iterator();
+		long found = 0;
+		while (limit > 0 && items.hasNext()) {
+			T item = items.next();
+			double latitudeOffset = dataset.latitude(item) - latitude;
+			double longitudeOffset = dataset.longitude(item) - longitude;
+			if (latitudeOffset * latitudeOffset + longitudeOffset * longitudeOffset > farthest) {
+				break;
+			}
+
+			double distance = metres(latitude, longitude, dataset.latitude(item), dataset.longitude(item));
+			if (distance <= metres) {
+				closest.add(new Found<T>(item, distance, found++));
+				if (closest.size() > limit) {
+					closest.poll();
+				}
+			}
+		}
+
+		ArrayList<Found<T>> closestFirst = new ArrayList<Found<T>>(closest.size());
+		while (!closest.isEmpty()) {
+			closestFirst.add(closest.poll());
+		}
+		Collections.reverse(closestFirst);
+
+		JsonWriter json = open(exchange, 200);
+		json.beginArray();
+		for (Found<T> record : closestFirst) {
+			writeItem(json, dataset, record.item, record.metres);
+		}
+		json.endArray();
+		json.close();
+	}
+
+	private static <T> void filter(HttpExchange exchange, Dataset<T> dataset, String field, final String value,
+			long limit) throws IOException, RequestException {
+
+		final int index = dataset.field(field);
+		if (index < 0) {
+			throw new RequestException(400, "field must be one of " + String.join(", ", dataset.fields()));
+		}
+
+		Iterator<T> items = dataset.all().iterator();
+		JsonWriter json = open(exchange, 200);
+		json.beginArray();
+
+		long written = 0;
+		while (written < limit && items.hasNext()) {
+			T item = items.next();
+			if (value.equalsIgnoreCase(dataset.field(item, index))) {
+				writeItem(json, dataset, item, -1);
+				written++;
+			}
+		}
+
+		json.endArray();
+		json.close();
+	}
+
+	private static <T> void write(HttpExchange exchange, Dataset<T> dataset, Stream<T> items) throws IOException {
+		JsonWriter json = open(exchange, 200);
+		json.beginArray();
+
+		Iterator<T> iterator = items.iterator();
+		while (iterator.hasNext()) {
+			writeItem(json, dataset, iterator.next(), -1);
+		}
+
+		json.endArray();
+		json.close();
+	}
+
+	private void metrics(HttpExchange exchange) throws IOException {
+		JsonWriter json = open(exchange, 200);
+		json.beginObject();
+		json.name("inFlight").value(options.getMaxInFlight() - inFlight.availablePermits());
+		json.name("maxInFlight").value(options.getMaxInFlight());
+		json.name("endpoints").beginObject();
+		for (LatencyMetrics endpoint : metrics.values()) {
+			json.name(endpoint.getEndpoint());
+			endpoint.write(json);
+		}
+		json.endObject();
+		json.endObject();
+		json.close();
+	}
+
+	//Writes a record as an object, along with its distance in metres when it is not negative
+	private static <T> void writeItem(JsonWriter json, Dataset<T> dataset, T item, double distance)
+			throws IOException {
+
+		String[] fields = dataset.fields();
+
+		json.beginObject();
+		json.name("latitude").value(dataset.latitude(item));
+		json.name("longitude").value(dataset.longitude(item));
+		for (int i = 0; i < fields.length; i++) {
+			json.name(fields[i]).value(dataset.field(item, i));
+		}
+		if (distance >= 0) {
+			json.name("metres").value(distance);
+		}
+		json.endObject();
+	}
+
+	//Sends the headers of a streamed response and opens its body for JSON
+	private static JsonWriter open(HttpExchange exchange, int status) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, 0);
+		return new JsonWriter(new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), "UTF-8")));
+	}
+
+	private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+		JsonWriter json = open(exchange, status);
+		json.beginObject();
+		json.name("error").value(message);
+		json.endObject();
+		json.close();
+	}
+
+	//Splits a query string into its decoded parameters
+	private static HashMap<String, String> parameters(String query) throws RequestException {
+		HashMap<String, String> parameters = new HashMap<String, String>();
+		if (query == null || query.isEmpty()) {
+			return parameters;
+		}
+
+		try {
+			for (String pair : query.split("&")) {
+				int equals = pair.indexOf('=');
+				String name = equals < 0 ? pair : pair.substring(0, equals);
+				String value = equals < 0 ? "" : pair.substring(equals + 1);
+				parameters.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+			}
+		} catch (UnsupportedEncodingException | IllegalArgumentException e) {
+			throw new RequestException(400, "the query string is not properly encoded");
+		}
+		return parameters;
+	}
+
+	private static String text(HashMap<String, String> parameters, String name) throws RequestException {
+		String value = parameters.get(name);
+		if (value == null) {
+			throw new RequestException(400, name + " is required");
+		}
+		return value;
+	}
+
+	private static double number(HashMap<String, String> parameters, String name) throws RequestException {
+		try {
+			double value = Double.parseDouble(text(parameters, name));
+			if (Double.isNaN(value) || Double.isInfinite(value)) {
+				throw new NumberFormatException();
+			}
+			return value;
+		} catch (NumberFormatException e) {
+			throw new RequestException(400, name + " must be a number");
+		}
+	}
+
+	private static double latitude(HashMap<String, String> parameters) throws RequestException {
+		double latitude = number(parameters, "lat");
+		if (latitude < -90 || latitude > 90) {
+			throw new RequestException(400, "lat must be between -90 and 90");
+		}
+		return latitude;
+	}
+
+	private static double longitude(HashMap<String, String> parameters) throws RequestException {
+		double longitude = number(parameters, "lon");
+		if (longitude < -180 || longitude > 180) {
+			throw new RequestException(400, "lon must be between -180 and 180");
+		}
+		return longitude;
+	}
+
+	private long limit(HashMap<String, String> parameters) throws RequestException {
+		if (!parameters.containsKey("limit")) {
+			return Math.min(options.getDefaultLimit(), options.getMaxLimit());
+		}
+
+		try {
+			int limit = Integer.parseInt(parameters.get("limit"));
+			if (limit < 0) {
+				throw new RequestException(400, "limit must not be negative");
+			}
+			return Math.min(limit, options.getMaxLimit());
+		} catch (NumberFormatException e) {
+			throw new RequestException(400, "limit must be a whole number");
+		}
+	}
+
+	//The great circle distance in metres between two points, using the haversine formula
+	private static double metres(double latitude1, double longitude1, double latitude2, double longitude2) {
+		double latitudeDifference = Math.toRadians(latitude2 - latitude1);
+		double longitudeDifference = Math.toRadians(longitude2 - longitude1);
+		double a = Math.pow(Math.sin(latitudeDifference / 2), 2) + Math.cos(Math.toRadians(latitude1))
+				* Math.cos(Math.toRadians(latitude2)) * Math.pow(Math.sin(longitudeDifference / 2), 2);
+		return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+	}
+}
@@ -0,0 +1,164 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package queryService;
+
+/**
+ * <p>The ServiceOptions class holds the settings of a QueryService.</p>
+ *
+ * <p>The setters return the ServiceOptions object so that they can be chained.</p>
+ * @version 1.0
+ */
+public class ServiceOptions {
+
+	private String host;
+	private int port;
+	private int maxInFlight;
+	private int defaultLimit;
+	private int maxLimit;
+
+	/**
+	 * <h1>ServiceOptions</h1>
+	 * <p>ServiceOptions()</p>
+	 * <p>Creates a new ServiceOptions with the default settings.</p>
+	 */
+	public ServiceOptions() {
+		host = "localhost";
+		port = 8080;
+		maxInFlight = 64;
+		defaultLimit = 100;
+		maxLimit = 1000;
+	}
+
+	/**
+	 * <h1>setHost</h1>
+	 * <p>public ServiceOptions setHost(String host)</p>
+	 * <p>Sets the host name or address the service listens on. The default is
+	 * localhost, so the service can only be reached from the same machine.</p>
+	 * @param host - The host name or address to listen on
+	 * @return this ServiceOptions
+	 */
+	public ServiceOptions setHost(String host) {
+		this.host = host;
+		return this;
+	}
+
+	/**
+	 * <h1>getHost</h1>
+	 * <p>public String getHost()</p>
+	 * <p>Retrieves the host name or address the service listens on.</p>
+	 * @return the host
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * <h1>setPort</h1>
+	 * <p>public ServiceOptions setPort(int port)</p>
+	 * <p>Sets the port the service listens on. The default is 8080, and 0 picks
+	 * a free port, which QueryService.getPort() reports once it is started.</p>
+	 * @param port - The port to listen on
+	 * @return this ServiceOptions
+	 */
+	public ServiceOptions setPort(int port) {
+		if (port < 0 || port > 65535) {
+			throw new IllegalArgumentException("port must be between 0 and 65535");
+		}
+		this.port = port;
+		return this;
+	}
+
+	/**
+	 * <h1>getPort</h1>
+	 * <p>public int getPort()</p>
+	 * <p>Retrieves the port the service listens on.</p>
+	 * @return the port
+	 */
+	public int getPort() {
+		return port;
+	}
+
+	/**
+	 * <h1>setMaxInFlight</h1>
+	 * <p>public ServiceOptions setMaxInFlight(int maxInFlight)</p>
+	 * <p>Sets the largest number of requests answered at once. Requests arriving
+	 * while that many are being answered are turned away straight away with a
+	 * 503 status, so a burst of requests cannot pile up inside the service. The
+	 * default is 64.</p>
+	 * @param maxInFlight - The number of requests answered at once
+	 * @return this ServiceOptions
+	 */
+	public ServiceOptions setMaxInFlight(int maxInFlight) {
+		if (maxInFlight <= 0) {
+			throw new IllegalArgumentException("maxInFlight must be positive");
+		}
+		this.maxInFlight = maxInFlight;
+		return this;
+	}
+
+	/**
+	 * <h1>getMaxInFlight</h1>
+	 * <p>public int getMaxInFlight()</p>
+	 * <p>Retrieves the largest number of requests answered at once.</p>
+	 * @return the number of requests answered at once
+	 */
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	/**
+	 * <h1>setDefaultLimit</h1>
+	 * <p>public ServiceOptions setDefaultLimit(int defaultLimit)</p>
+	 * <p>Sets the number of records returned by requests without a limit
+	 * parameter. The default is 100.</p>
+	 * @param defaultLimit - The number of records returned by default
+	 * @return this ServiceOptions
+	 */
+	public ServiceOptions setDefaultLimit(int defaultLimit) {
+		if (defaultLimit <= 0) {
+			throw new IllegalArgumentException("defaultLimit must be positive");
+		}
+		this.defaultLimit = defaultLimit;
+		return this;
+	}
+
+	/**
+	 * <h1>getDefaultLimit</h1>
+	 * <p>public int getDefaultLimit()</p>
+	 * <p>Retrieves the number of records returned by requests without a limit
+	 * parameter.</p>
+	 * @return the number of records returned by default
+	 */
+	public int getDefaultLimit() {
+		return defaultLimit;
+	}
+
+	/**
+	 * <h1>setMaxLimit</h1>
+	 * <p>public ServiceOptions setMaxLimit(int maxLimit)</p>
+	 * <p>Sets the largest number of records a single request can ask for. The
+	 * default is 1000.</p>
+	 * @param maxLimit - The largest number of records returned
+	 * @return this ServiceOptions
+	 */
+	public ServiceOptions setMaxLimit(int maxLimit) {
+		if (maxLimit <= 0) {
+			throw new IllegalArgumentException("maxLimit must be positive");
+		}
+		this.maxLimit = maxLimit;
+		return this;
+	}
+
+	/**
+	 * <h1>getMaxLimit</h1>
+	 * <p>public int getMaxLimit()</p>
+	 * <p>Retrieves the largest number of records a single request can ask for.</p>
+	 * @return the largest number of records returned
+	 */
+	public int getMaxLimit() {
+		return maxLimit;
+	}
+}
@@ -0,0 +1,55 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package spatialJoin;
+
+/**
+ * <p>The JoinPair class is one result of a SpatialJoin: an item of the left
+ * PointSet, a matching item of the right PointSet, and the distance between
+ * them.</p>
+ * @version 1.0
+ */
+public final class JoinPair<L, R> {
+
+	private final L left;
+	private final R right;
+	private final double distance;
+
+	JoinPair(L left, R right, double distance) {
+		this.left = left;
+		this.right = right;
+		this.distance = distance;
+	}
+
+	/**
+	 * <h1>getLeft</h1>
+	 * <p>public L getLeft()</p>
+	 * <p>Retrieves the item of the left PointSet.</p>
+	 * @return the left item
+	 */
+	public L getLeft() {
+		return left;
+	}
+
+	/**
+	 * <h1>getRight</h1>
+	 * <p>public R getRight()</p>
+	 * <p>Retrieves the item of the right PointSet matched to the left item.</p>
+	 * @return the right item
+	 */
+	public R getRight() {
+		return right;
+	}
+
+	/**
+	 * <h1>getDistance</h1>
+	 * <p>public double getDistance()</p>
+	 * <p>Retrieves the great circle distance between the two items in metres.</p>
+	 * @return the distance in metres
+	 */
+	public double getDistance() {
+		return distance;
+	}
+}
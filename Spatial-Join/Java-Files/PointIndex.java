@@ -0,0 +1,206 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package spatialJoin;
+
+/**
+ * <p>The PointIndex class is a k-d tree over the coordinates of a PointSet,
+ * used to find the items of the set near a point without checking all of
+ * them.</p>
+ *
+ * <p>The tree is held in a single array of item indexes. The middle entry of
+ * every range of the array splits the rest of the range in two, alternately by
+ * latitude and by longitude, so no node objects are needed. The index is read
+ * only once it is built and can be searched by several threads at once.</p>
+ * @version 1.0
+ */
+final class PointIndex {
+
+	static final double EARTH_RADIUS = 6371008.8;
+
+	private final double[] latitudes;
+	private final double[] longitudes;
+	private final int[] tree;
+
+	/**
+	 * <h1>PointIndex</h1>
+	 * <p>PointIndex(PointSet&lt;?&gt; points)</p>
+	 * <p>Builds the index over the items of a PointSet.</p>
+	 * @param points - The items to index
+	 */
+	PointIndex(PointSet<?> points) {
+		int count = points.size();
+		latitudes = new double[count];
+		longitudes = new double[count];
+		tree = new int[count];
+
+		for (int i = 0; i < count; i++) {
+			latitudes[i] = points.latitude(i);
+			longitudes[i] = points.longitude(i);
+			tree[i] = i;
+		}
+
+		build(0, count, 0);
+	}
+
+	/**
+	 * <h1>nearest</h1>
+	 * <p>int nearest(double latitude, double longitude)</p>
+	 * <p>Finds the item closest to a point, measured the same way as the
+	 * getClosest methods of the lists. When several are equally close the one
+	 * with the lowest index is returned.</p>
+	 * @param latitude - The latitude of the point
+	 * @param longitude - The longitude of the point
+	 * @return the index of the closest item, or -1 if the index is empty
+	 */
+	int nearest(double latitude, double longitude) {
+		double[] best = {Double.MAX_VALUE, -1};
+		nearest(latitude, longitude, 0, tree.length, 0, best);
+		return (int) best[1];
+	}
+
+	/**
+	 * <h1>within</h1>
+	 * <p>int within(double latitude, double longitude, double metres, int[] found)</p>
+	 * <p>Finds the items no more than the given great circle distance from a
+	 * point. The search does not wrap around the 180th meridian.</p>
+	 * @param latitude - The latitude of the point
+	 * @param longitude - The longitude of the point
+	 * @param metres - The largest distance in metres
+	 * @param found - Receives the indexes of the items found, in no order
+	 * @return the number of items found, which may be larger than found, in
+	 * which case found is not filled and the caller should retry with a larger array
+	 */
+	int within(double latitude, double longitude, double metres, int[] found) {
+		double latitudeRadius = Math.toDegrees(metres / EARTH_RADIUS);
+
+		//Haversine gives sin(d / 2R) >= cos(farthest latitude) * sin(longitude difference / 2)
+		double ratio = Math.sin(Math.min(Math.PI, metres / EARTH_RADIUS) / 2)
+				/ Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + latitudeRadius)));
+		double longitudeRadius = ratio < 1 ? Math.toDegrees(2 * Math.asin(ratio)) : 360;
+
+		return within(latitude, longitude, metres, latitudeRadius, longitudeRadius, 0, tree.length, 0, found, 0);
+	}
+
+	/**
+	 * <h1>metres</h1>
+	 * <p>static double metres(double latitude1, double longitude1, double latitude2, double longitude2)</p>
+	 * <p>Computes the great circle distance between two points with the
+	 * haversine formula.</p>
+	 * @param latitude1 - The latitude of the first point
+	 * @param longitude1 - The longitude of the first point
+	 * @param latitude2 - The latitude of the second point
+	 * @param longitude2 - The longitude of the second point
+	 * @return the distance in metres
+	 */
+	static double metres(double latitude1, double longitude1, double latitude2, double longitude2) {
+		double latitudeSin = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+		double longitudeSin = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+		double a = latitudeSin * latitudeSin + Math.cos(Math.toRadians(latitude1))
+				* Math.cos(Math.toRadians(latitude2)) * longitudeSin * longitudeSin;
+		return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+	}
+
+	//Orders tree[start, end) so that the middle entry splits the rest by latitude or longitude
+	private void build(int start, int end, int depth) {
+		if (end - start <= 1) {
+			return;
+		}
+
+		int middle = (start + end) >>> 1;
+		double[] axis = depth % 2 == 0 ? latitudes : longitudes;
+
+		//Quickselect the median into the middle
+		int low = start;
+		int high = end - 1;
+		while (low < high) {
+			double pivot = axis[tree[(low + high) >>> 1]];
+			int i = low;
+			int j = high;
+			while (i <= j) {
+				while (axis[tree[i]] < pivot) {
+					i++;
+				}
+				while (axis[tree[j]] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					int swap = tree[i];
+					tree[i++] = tree[j];
+					tree[j--] = swap;
+				}
+			}
+			if (middle <= j) {
+				high = j;
+			} else if (middle >= i) {
+				low = i;
+			} else {
+				break;
+			}
+		}
+
+		build(start, middle, depth + 1);
+		build(middle + 1, end, depth + 1);
+	}
+
+	//Searches tree[start, end), keeping the closest distance and item found so far in best
+	private void nearest(double latitude, double longitude, int start, int end, int depth, double[] best) {
+		if (start >= end) {
+			return;
+		}
+
+		int middle = (start + end) >>> 1;
+		int item = tree[middle];
+		double dist = Math.sqrt(Math.pow((latitudes[item] - latitude), 2)
+				+ Math.pow((longitudes[item] - longitude), 2));
+		if (dist < best[0] || (dist == best[0] && item < best[1])) {
+			best[0] = dist;
+			best[1] = item;
+		}
+
+		double offset = depth % 2 == 0 ? latitude - latitudes[item] : longitude - longitudes[item];
+		if (offset < 0) {
+			nearest(latitude, longitude, start, middle, depth + 1, best);
+			if (-offset <= best[0]) {
+				nearest(latitude, longitude, middle + 1, end, depth + 1, best);
+			}
+		} else {
+			nearest(latitude, longitude, middle + 1, end, depth + 1, best);
+			if (offset <= best[0]) {
+				nearest(latitude, longitude, start, middle, depth + 1, best);
+			}
+		}
+	}
+
+	private int within(double latitude, double longitude, double metres, double latitudeRadius,
+			double longitudeRadius, int start, int end, int depth, int[] found, int size) {
+
+		if (start >= end) {
+			return size;
+		}
+
+		int middle = (start + end) >>> 1;
+		int item = tree[middle];
+		if (Math.abs(latitudes[item] - latitude) <= latitudeRadius
+				&& metres(latitude, longitude, latitudes[item], longitudes[item]) <= metres) {
+			if (size < found.length) {
+				found[size] = item;
+			}
+			size++;
+		}
+
+		double offset = depth % 2 == 0 ? latitude - latitudes[item] : longitude - longitudes[item];
+		double radius = depth % 2 == 0 ? latitudeRadius : longitudeRadius;
+		if (offset <= radius) {
+			size = within(latitude, longitude, metres, latitudeRadius, longitudeRadius, start, middle,
+					depth + 1, found, size);
+		}
+		if (-offset <= radius) {
+			size = within(latitude, longitude, metres, latitudeRadius, longitudeRadius, middle + 1, end,
+					depth + 1, found, size);
+		}
+		return size;
+	}
+}
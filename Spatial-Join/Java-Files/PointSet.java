@@ -0,0 +1,125 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package spatialJoin;
+
+import alternateFuelStations.Station;
+import alternateFuelStations.StationList;
+import publicArt.Artwork;
+import publicArt.ArtworkList;
+import votingLocations.Location;
+import votingLocations.VotingLocationList;
+
+/**
+ * <p>The PointSet class holds the items of one of the oden lists together
+ * with their coordinates, so that lists of different types can be joined by
+ * the SpatialJoin class.</p>
+ *
+ * <p>A PointSet is a snapshot of the list it was created from and can be
+ * joined any number of times, from several threads at once.</p>
+ * @version 1.0
+ */
+public final class PointSet<T> {
+
+	private final T[] items;
+	private final double[] latitudes;
+	private final double[] longitudes;
+
+	private PointSet(T[] items, double[] latitudes, double[] longitudes) {
+		this.items = items;
+		this.latitudes = latitudes;
+		this.longitudes = longitudes;
+	}
+
+	/**
+	 * <h1>of</h1>
+	 * <p>public static PointSet&lt;Station&gt; of(StationList stations)</p>
+	 * <p>Creates a PointSet of the Stations of a list.</p>
+	 * @param stations - The list of Stations
+	 * @return the PointSet of the Stations
+	 */
+	public static PointSet<Station> of(StationList stations) {
+		Station[] items = stations.getAllStations();
+		double[] latitudes = new double[items.length];
+		double[] longitudes = new double[items.length];
+
+		for (int i = 0; i < items.length; i++) {
+			latitudes[i] = items[i].getLatitude();
+			longitudes[i] = items[i].getLongitude();
+		}
+
+		return new PointSet<Station>(items, latitudes, longitudes);
+	}
+
+	/**
+	 * <h1>of</h1>
+	 * <p>public static PointSet&lt;Artwork&gt; of(ArtworkList artworks)</p>
+	 * <p>Creates a PointSet of the Artworks of a list.</p>
+	 * @param artworks - The list of Artworks
+	 * @return the PointSet of the Artworks
+	 */
+	public static PointSet<Artwork> of(ArtworkList artworks) {
+		Artwork[] items = artworks.getAllArtworks();
+		double[] latitudes = new double[items.length];
+		double[] longitudes = new double[items.length];
+
+		for (int i = 0; i < items.length; i++) {
+			latitudes[i] = items[i].getLatitude();
+			longitudes[i] = items[i].getLongitude();
+		}
+
+		return new PointSet<Artwork>(items, latitudes, longitudes);
+	}
+
+	/**
+	 * <h1>of</h1>
+	 * <p>public static PointSet&lt;Location&gt; of(VotingLocationList locations)</p>
+	 * <p>Creates a PointSet of the Locations of a list.</p>
+	 * @param locations - The list of Locations
+	 * @return the PointSet of the Locations
+	 */
+	public static PointSet<Location> of(VotingLocationList locations) {
+		Location[] items = locations.getAllLocations();
+		double[] latitudes = new double[items.length];
+		double[] longitudes = new double[items.length];
+
+		for (int i = 0; i < items.length; i++) {
+			latitudes[i] = items[i].getLatitude();
+			longitudes[i] = items[i].getLongitude();
+		}
+
+		return new PointSet<Location>(items, latitudes, longitudes);
+	}
+
+	/**
+	 * <h1>size</h1>
+	 * <p>public int size()</p>
+	 * <p>Retrieves the number of items in the PointSet.</p>
+	 * @return the number of items
+	 */
+	public int size() {
+		return items.length;
+	}
+
+	/**
+	 * <h1>get</h1>
+	 * <p>public T get(int index)</p>
+	 * <p>Retrieves an item of the PointSet, in the order of the list it was
+	 * created from.</p>
+	 * @param index - The index of the item
+	 * @return the item
+	 */
+	public T get(int index) {
+		return items[index];
+	}
+
+	double latitude(int index) {
+		return latitudes[index];
+	}
+
+	double longitude(int index) {
+		return longitudes[index];
+	}
+}
@@ -0,0 +1,160 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package spatialJoin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * <p>The SpatialJoin class pairs up the items of two PointSets by location,
+ * for example every voting Location with its closest Station, or every
+ * Artwork with the Stations within walking distance of it.</p>
+ *
+ * <p>The joins are index nested loop joins: a PointIndex is built over the
+ * right PointSet once, and each item of the left PointSet is looked up in it.
+ * The left PointSet is split into chunks which are looked up in parallel on
+ * the common fork join pool, and the results are put back together in the
+ * order of the left PointSet.</p>
+ * @version 1.0
+ */
+public final class SpatialJoin {
+
+	private static final int CHUNK_SIZE = 1024;
+
+	private SpatialJoin() {
+	}
+
+	/**
+	 * <h1>nearest</h1>
+	 * <p>public static &lt;L, R&gt; List&lt;JoinPair&lt;L, R&gt;&gt; nearest(PointSet&lt;L&gt; left, PointSet&lt;R&gt; right)</p>
+	 * <p>Pairs every item of left with the closest item of right. The closest
+	 * item is chosen the same way as by the getClosest methods of the lists, so
+	 * each pair matches what a call to getClosest on the right list would have
+	 * given. The distance of each pair is the great circle distance in metres.</p>
+	 * @param left - The items to find the closest item for
+	 * @param right - The items to choose from
+	 * @return one pair for each item of left, in the order of left, or an empty
+	 * list if either PointSet is empty
+	 */
+	public static <L, R> List<JoinPair<L, R>> nearest(final PointSet<L> left, final PointSet<R> right) {
+		if (left.size() == 0 || right.size() == 0) {
+			return new ArrayList<JoinPair<L, R>>();
+		}
+
+		final PointIndex index = new PointIndex(right);
+
+		return join(left, new IntFunction<List<JoinPair<L, R>>>() {
+			@Override
+			public List<JoinPair<L, R>> apply(int chunk) {
+				int start = chunk * CHUNK_SIZE;
+				int end = Math.min(left.size(), start + CHUNK_SIZE);
+				List<JoinPair<L, R>> pairs = new ArrayList<JoinPair<L, R>>(end - start);
+
+				for (int i = start; i < end; i++) {
+					double latitude = left.latitude(i);
+					double longitude = left.longitude(i);
+					int closest = index.nearest(latitude, longitude);
+					pairs.add(new JoinPair<L, R>(left.get(i), right.get(closest), PointIndex.metres(latitude,
+							longitude, right.latitude(closest), right.longitude(closest))));
+				}
+				return pairs;
+			}
+		});
+	}
+
+	/**
+	 * <h1>withinDistance</h1>
+	 * <p>public static &lt;L, R&gt; List&lt;JoinPair&lt;L, R&gt;&gt; withinDistance(PointSet&lt;L&gt; left, PointSet&lt;R&gt; right, double metres)</p>
+	 * <p>Pairs every item of left with each item of right no more than the
+	 * given great circle distance away. Items more than 180 degrees of
+	 * longitude apart are not paired across the 180th meridian.</p>
+	 * @param left - The items to find the nearby items for
+	 * @param right - The items to choose from
+	 * @param metres - The largest distance between the items of a pair in metres
+	 * @return the pairs in the order of left, and for each item of left from
+	 * closest to farthest, or an empty list if nothing is close enough
+	 */
+	public static <L, R> List<JoinPair<L, R>> withinDistance(final PointSet<L> left, final PointSet<R> right,
+			final double metres) {
+
+		if (metres < 0) {
+			throw new IllegalArgumentException("metres must not be negative");
+		}
+		if (left.size() == 0 || right.size() == 0) {
+			return new ArrayList<JoinPair<L, R>>();
+		}
+
+		final PointIndex index = new PointIndex(right);
+
+		return join(left, new IntFunction<List<JoinPair<L, R>>>() {
+			@Override
+			public List<JoinPair<L, R>> apply(int chunk) {
+				int start = chunk * CHUNK_SIZE;
+				int end = Math.min(left.size(), start + CHUNK_SIZE);
+				List<JoinPair<L, R>> pairs = new ArrayList<JoinPair<L, R>>();
+				int[] found = new int[16];
+
+				for (int i = start; i < end; i++) {
+					double latitude = left.latitude(i);
+					double longitude = left.longitude(i);
+
+					int count = index.within(latitude, longitude, metres, found);
+					if (count > found.length) {
+						found = new int[Integer.highestOneBit(count) << 1];
+						count = index.within(latitude, longitude, metres, found);
+					}
+
+					final double[] distances = new double[count];
+					Integer[] matches = new Integer[count];
+					for (int j = 0; j < count; j++) {
+						matches[j] = j;
+						distances[j] = PointIndex.metres(latitude, longitude, right.latitude(found[j]),
+								right.longitude(found[j]));
+					}
+
+					//Closest first, ties in the order of the right PointSet
+					final int[] items = found;
+					Arrays.sort(matches, new Comparator<Integer>() {
+						@Override
+						public int compare(Integer a, Integer b) {
+							int order = Double.compare(distances[a], distances[b]);
+							return order != 0 ? order : Integer.compare(items[a], items[b]);
+						}
+					});
+
+					for (int j = 0; j < count; j++) {
+						pairs.add(new JoinPair<L, R>(left.get(i), right.get(found[matches[j]]),
+								distances[matches[j]]));
+					}
+				}
+				return pairs;
+			}
+		});
+	}
+
+	//Runs the lookups of each chunk of left in parallel and concatenates the results in order
+	private static <L, R> List<JoinPair<L, R>> join(PointSet<L> left, IntFunction<List<JoinPair<L, R>>> lookup) {
+		int chunks = (left.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		List<List<JoinPair<L, R>>> results = IntStream.range(0, chunks).parallel().mapToObj(lookup)
+				.collect(Collectors.<List<JoinPair<L, R>>>toList());
+
+		int size = 0;
+		for (List<JoinPair<L, R>> result : results) {
+			size += result.size();
+		}
+
+		List<JoinPair<L, R>> pairs = new ArrayList<JoinPair<L, R>>(size);
+		for (List<JoinPair<L, R>> result : results) {
+			pairs.addAll(result);
+		}
+		return pairs;
+	}
+}
@@ -0,0 +1,170 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package tools;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import alternateFuelStations.LoadOptions;
+import alternateFuelStations.Station;
+import alternateFuelStations.StationList;
+
+/**
+ * <p>The DistanceKernelBenchmark class times getClosestStation and
+ * sortByDistance of a StationList, which run on the DistanceKernel, against
+ * the scans they replaced: a loop over the Stations working out each distance
+ * with Math.pow and Math.sqrt, and a sort whose comparator works out both
+ * distances on every comparison.</p>
+ *
+ * <p>It reads random Stations around Halifax into a list held on the heap,
+ * checks that it gives the same results as the old scans, and then prints the
+ * average time of each query once the JIT has compiled them. Lists held
+ * off-heap are left out, as reading the store costs more than the distances
+ * either way. It is run with</p>
+ *
+ * <p>java -cp &lt;classpath&gt; tools.DistanceKernelBenchmark [records] [rounds]</p>
+ *
+ * <p>where records is 50,000 and rounds is 3 by default. Only the last round
+ * is printed, as the first ones warm the JIT up.</p>
+ * @version 1.0
+ */
+public final class DistanceKernelBenchmark {
+
+	//Each timed loop runs for about this many record visits, so small lists are queried more often
+	private static final int VISITS = 20000000;
+
+	private DistanceKernelBenchmark() {
+	}
+
+	/**
+	 * <h1>main</h1>
+	 * <p>public static void main(String[] args) throws IOException</p>
+	 * <p>Times the queries on a list of the given number of records, over
+	 * the given number of rounds.</p>
+	 * @param args - The number of records and of rounds, both optional
+	 * @throws IOException if the generated records cannot be read, which is a fault in the benchmark
+	 */
+	public static void main(String[] args) throws IOException {
+		int records = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+		byte[] json = stations(records, new Random(1)).getBytes("UTF-8");
+
+		StationList list = new StationList(new InputStream[] {new ByteArrayInputStream(json)}, new LoadOptions());
+		Station[] all = list.getAllStations();
+		check(list, all, new Random(2));
+
+		int closestQueries = Math.max(200, VISITS / records);
+		int sortQueries = Math.max(5, closestQueries / 200);
+		double sink = 0;
+
+		for (int round = 1; round <= rounds; round++) {
+			long start = System.nanoTime();
+			for (int q = 0; q < closestQueries; q++) {
+				sink += oldClosest(all, 44 + q * 1e-6, -63.5).getLatitude();
+			}
+			double oldClosest = (System.nanoTime() - start) / 1e3 / closestQueries;
+
+			start = System.nanoTime();
+			for (int q = 0; q < closestQueries; q++) {
+				sink += list.getClosestStation(44 + q * 1e-6, -63.5).getLatitude();
+			}
+			double newClosest = (System.nanoTime() - start) / 1e3 / closestQueries;
+
+			start = System.nanoTime();
+			for (int q = 0; q < sortQueries; q++) {
+				sink += oldSort(all, 44 + q * 1e-6, -63.5)[0].getLatitude();
+			}
+			double oldSort = (System.nanoTime() - start) / 1e6 / sortQueries;
+
+			start = System.nanoTime();
+			for (int q = 0; q < sortQueries; q++) {
+				sink += list.sortByDistance(44 + q * 1e-6, -63.5)[0].getLatitude();
+			}
+			double newSort = (System.nanoTime() - start) / 1e6 / sortQueries;
+
+			if (round == rounds) {
+				System.out.printf("%d records: getClosestStation %.1f us, was %.1f us; "
+						+ "sortByDistance %.2f ms, was %.2f ms%n", records, newClosest, oldClosest, newSort, oldSort);
+			}
+		}
+
+		//Keeps the JIT from dropping the timed calls, as their results are otherwise unused
+		if (sink == 0) {
+			System.out.println();
+		}
+	}
+
+	//Writes the records as a JSON file in the oden unified format, on a grid of a thousandth of a degree
+	private static String stations(int records, Random random) {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < records; i++) {
+			json.append(i > 0 ? ",\n" : "").append("{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\","
+					+ "\"coordinates\":[").append(44 + random.nextInt(2000) / 1000.0).append(',')
+					.append(-63 - random.nextInt(2000) / 1000.0).append("]},\"properties\":{\"nm\":\"S").append(i)
+					.append("\",\"fT\":\"ELEC\",\"adr\":\"x\",\"ac\":\"Public\"}}");
+		}
+		return json.append(']').toString();
+	}
+
+	//Checks that the list finds the same Stations as the old scans, so that the timings compare like with like
+	private static void check(StationList list, Station[] all, Random random) {
+		for (int q = 0; q < 50; q++) {
+			double latitude = 44 + random.nextDouble() * 2;
+			double longitude = -63 - random.nextDouble() * 2;
+
+			Station closest = list.getClosestStation(latitude, longitude);
+			if (!closest.getName().equals(oldClosest(all, latitude, longitude).getName())) {
+				throw new IllegalStateException("getClosestStation differs at " + latitude + ", " + longitude);
+			}
+			if (q < 5) {
+				Station[] sorted = list.sortByDistance(latitude, longitude);
+				Station[] expected = oldSort(all, latitude, longitude);
+				for (int i = 0; i < sorted.length; i++) {
+					if (!sorted[i].getName().equals(expected[i].getName())) {
+						throw new IllegalStateException("sortByDistance differs at " + latitude + ", " + longitude);
+					}
+				}
+			}
+		}
+	}
+
+	//The scan getClosestStation used before the DistanceKernel
+	private static Station oldClosest(Station[] stations, double latitude, double longitude) {
+		int closest = -1;
+		double shortestDist = 0;
+
+		for (int i = 0; i < stations.length; i++) {
+			double currentDist = Math.sqrt(Math.pow((stations[i].getLatitude() - latitude), 2)
+					+ Math.pow((stations[i].getLongitude() - longitude), 2));
+			if (closest == -1 || currentDist < shortestDist) {
+				shortestDist = currentDist;
+				closest = i;
+			}
+		}
+		return stations[closest];
+	}
+
+	//The sort sortByDistance used before the DistanceKernel
+	private static Station[] oldSort(Station[] stations, final double latitude, final double longitude) {
+		Station[] sorted = stations.clone();
+
+		Arrays.sort(sorted, new Comparator<Station>() {
+			@Override
+			public int compare(Station first, Station second) {
+				double firstDist = Math.sqrt(Math.pow((first.getLatitude() - latitude), 2)
+						+ Math.pow((first.getLongitude() - longitude), 2));
+				double secondDist = Math.sqrt(Math.pow((second.getLatitude() - latitude), 2)
+						+ Math.pow((second.getLongitude() - longitude), 2));
+				return Double.compare(firstDist, secondDist);
+			}
+		});
+		return sorted;
+	}
+}
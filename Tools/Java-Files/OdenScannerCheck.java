@@ -0,0 +1,463 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package tools;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import com.google.gson.stream.JsonReader;
+
+/**
+ * <p>The OdenScannerCheck class checks that the OdenScanner of each list
+ * package reads the same features as Gson. It writes random files in the oden
+ * unified format, with escaped and non-ASCII text, numbers in every JSON form,
+ * varied whitespace and unknown properties holding every kind of JSON value,
+ * and reads each of them with Gson, with the OdenScanner, and with the
+ * OdenScanner in the chunks used for parallel parsing.</p>
+ *
+ * <p>The scanner may refuse a file by throwing an IOException, as the lists
+ * then read it with Gson instead, but whenever it does read one it must find
+ * the same coordinates and property values as Gson. The lists only hand the
+ * scanner files of up to SCAN_LIMIT, 16 MB, unless parallel parsing is on;
+ * larger files are streamed through Gson, so the speed-up of the scanner never
+ * applies to large single files and this check has nothing to say about
+ * them.</p>
+ *
+ * <p>The OdenScanner is package-private, so it is reached through reflection
+ * in each of alternateFuelStations, publicArt and votingLocations that is on
+ * the classpath. The check is run with</p>
+ *
+ * <p>java -cp &lt;classpath&gt; tools.OdenScannerCheck [files] [seed]</p>
+ *
+ * <p>and exits with a status of 1 if any file was read differently.</p>
+ * @version 1.0
+ */
+public final class OdenScannerCheck {
+
+	//The packages holding an OdenScanner
+	private static final String[] PACKAGES = {"alternateFuelStations", "publicArt", "votingLocations"};
+
+	//The properties read by any of the lists, with their names in the files
+	private static final String[] KEYS = {"NM", "ADR", "FT", "AC", "ANM", "TYPE", "SUMM", "DESC"};
+	private static final String[] NAMES = {"nm", "adr", "fT", "ac", "aNm", "type", "summ", "desc"};
+
+	//Names of unknown properties, some of which start like the names above
+	private static final String[] UNKNOWN = {"id", "n", "nmx", "adr2", "fTy", "a", "", "geometry", "coordinates",
+			"properties", "\u00e9t\u00e9"};
+
+	private static final String[] WHITESPACE = {"", "", "", " ", "  ", "\n", "\r\n\t", "\t "};
+
+	//The OdenScanner of one package, called through reflection
+	private static final class Scanner {
+
+		private final int[] keys = new int[KEYS.length];
+		private final Constructor<?> create;
+		private final Method retain;
+		private final Method beginArray;
+		private final Method nextFeature;
+		private final Method getString;
+		private final Method getCoordinate;
+		private final Method split;
+		private final Method readFeatures;
+		private final Method size;
+		private final Method featureString;
+		private final Method featureCoordinate;
+
+		Scanner(Class<?> scanner) throws ReflectiveOperationException {
+			for (int column = 0; column < KEYS.length; column++) {
+				keys[column] = accessible(scanner.getDeclaredField(KEYS[column])).getInt(null);
+			}
+			create = accessible(scanner.getDeclaredConstructor(byte[].class, int.class, int.class));
+			retain = accessible(scanner.getDeclaredMethod("retain", int[].class));
+			beginArray = accessible(scanner.getDeclaredMethod("beginArray"));
+			nextFeature = accessible(scanner.getDeclaredMethod("nextFeature"));
+			getString = accessible(scanner.getDeclaredMethod("getString", int.class));
+			getCoordinate = accessible(scanner.getDeclaredMethod("getCoordinate", int.class));
+			split = accessible(scanner.getDeclaredMethod("split", byte[].class, int.class, int.class, int.class));
+			readFeatures = accessible(scanner.getDeclaredMethod("readFeatures", int[].class, boolean.class,
+					boolean.class));
+
+			Class<?> features = Class.forName(scanner.getName() + "$Features");
+			size = accessible(features.getDeclaredMethod("size"));
+			featureString = accessible(features.getDeclaredMethod("getString", int.class, int.class));
+			featureCoordinate = accessible(features.getDeclaredMethod("getCoordinate", int.class, int.class));
+		}
+
+		private static <T extends AccessibleObject> T accessible(T member) {
+			member.setAccessible(true);
+			return member;
+		}
+
+		List<List<Object>> scan(byte[] json) throws IOException {
+			List<List<Object>> features = new ArrayList<List<Object>>();
+			Object scanner = call(null, json, 0, json.length);
+
+			call(retain, scanner, keys);
+			call(beginArray, scanner);
+			while ((Boolean) call(nextFeature, scanner)) {
+				Object[] feature = new Object[2 + keys.length];
+				feature[0] = call(getCoordinate, scanner, 0);
+				feature[1] = call(getCoordinate, scanner, 1);
+				for (int column = 0; column < keys.length; column++) {
+					feature[2 + column] = call(getString, scanner, keys[column]);
+				}
+				features.add(Arrays.asList(feature));
+			}
+			return features;
+		}
+
+		List<List<Object>> scanChunks(byte[] json, int parts) throws IOException {
+			List<List<Object>> features = new ArrayList<List<Object>>();
+			int[] bounds = (int[]) call(split, null, json, 0, json.length, parts);
+
+			for (int chunk = 0; chunk < bounds.length - 1; chunk++) {
+				Object read = call(readFeatures, call(null, json, bounds[chunk], bounds[chunk + 1]), keys, chunk == 0,
+						chunk == bounds.length - 2);
+				int count = (Integer) call(size, read);
+				for (int i = 0; i < count; i++) {
+					Object[] feature = new Object[2 + keys.length];
+					feature[0] = call(featureCoordinate, read, i, 0);
+					feature[1] = call(featureCoordinate, read, i, 1);
+					for (int column = 0; column < keys.length; column++) {
+						feature[2 + column] = call(featureString, read, i, keys[column]);
+					}
+					features.add(Arrays.asList(feature));
+				}
+			}
+			return features;
+		}
+
+		//Calls a method, or the constructor when it is null, passing on the IOExceptions of the scanner
+		private Object call(Method method, Object target, Object... args) throws IOException {
+			try {
+				return method == null ? create.newInstance(prepend(target, args)) : method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException) e.getCause();
+				}
+				throw new IllegalStateException(e.getCause());
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		private static Object[] prepend(Object first, Object[] rest) {
+			Object[] args = new Object[rest.length + 1];
+			args[0] = first;
+			System.arraycopy(rest, 0, args, 1, rest.length);
+			return args;
+		}
+	}
+
+	private OdenScannerCheck() {
+	}
+
+	/**
+	 * <h1>main</h1>
+	 * <p>public static void main(String[] args) throws IOException, ReflectiveOperationException</p>
+	 * <p>Checks the given number of random files, 2000 by default, made from
+	 * the given seed, 1 by default, with the OdenScanner of every package on
+	 * the classpath, and prints how many were read the same.</p>
+	 * @param args - The number of files and the seed, both optional
+	 * @throws IOException if Gson cannot read one of the files, which is a fault in the check
+	 * @throws ReflectiveOperationException if an OdenScanner does not have the methods the check calls
+	 */
+	public static void main(String[] args) throws IOException, ReflectiveOperationException {
+		int files = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+		int mismatches = 0;
+
+		for (String name : PACKAGES) {
+			Class<?> scanner;
+			try {
+				scanner = Class.forName(name + ".OdenScanner");
+			} catch (ClassNotFoundException e) {
+				System.out.println(name + ": not on the classpath");
+				continue;
+			}
+			mismatches += check(name, new Scanner(scanner), files, seed);
+		}
+		if (mismatches > 0) {
+			System.exit(1);
+		}
+	}
+
+	//Checks one package, giving the number of files it read differently from Gson
+	private static int check(String name, Scanner scanner, int files, long seed) throws IOException {
+		Random random = new Random(seed);
+		int features = 0;
+		int refused = 0;
+		int refusedChunks = 0;
+		int mismatches = 0;
+
+		for (int file = 0; file < files; file++) {
+			String json = file(random);
+			byte[] bytes = json.getBytes("UTF-8");
+			List<List<Object>> expected = readWithGson(json);
+			features += expected.size();
+
+			try {
+				List<List<Object>> scanned = scanner.scan(bytes);
+				if (!scanned.equals(expected)) {
+					mismatches++;
+					report(file, "scanned", json, expected, scanned);
+				}
+			} catch (IOException e) {
+				refused++;
+			}
+
+			int parts = 2 + random.nextInt(7);
+			try {
+				List<List<Object>> scanned = scanner.scanChunks(bytes, parts);
+				if (!scanned.equals(expected)) {
+					mismatches++;
+					report(file, "scanned in " + parts + " chunks", json, expected, scanned);
+				}
+			} catch (IOException e) {
+				refusedChunks++;
+			}
+		}
+
+		System.out.println(name + ": " + files + " files of " + features + " features checked with seed " + seed
+				+ ": " + mismatches + " read differently, " + refused + " refused by the scanner and "
+				+ refusedChunks + " refused in chunks");
+		return mismatches;
+	}
+
+	private static List<List<Object>> readWithGson(String json) throws IOException {
+		List<List<Object>> features = new ArrayList<List<Object>>();
+		JsonReader reader = new JsonReader(new StringReader(json));
+
+		reader.beginArray();
+		while (reader.hasNext()) {
+			Object[] feature = new Object[2 + KEYS.length];
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String name = reader.nextName();
+				if (name.equals("geometry")) {
+					reader.beginObject();
+					while (reader.hasNext()) {
+						if (reader.nextName().equals("coordinates")) {
+							reader.beginArray();
+							feature[0] = reader.nextDouble();
+							feature[1] = reader.nextDouble();
+							reader.endArray();
+						} else {
+							reader.skipValue();
+						}
+					}
+					reader.endObject();
+				} else if (name.equals("properties")) {
+					reader.beginObject();
+					while (reader.hasNext()) {
+						int column = Arrays.asList(NAMES).indexOf(reader.nextName());
+						if (column >= 0) {
+							feature[2 + column] = reader.nextString();
+						} else {
+							reader.skipValue();
+						}
+					}
+					reader.endObject();
+				} else {
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			features.add(Arrays.asList(feature));
+		}
+		reader.endArray();
+		return features;
+	}
+
+	private static void report(int file, String how, String json, List<List<Object>> expected,
+			List<List<Object>> scanned) {
+		System.out.println("File " + file + " " + how + " differently from Gson");
+		for (int i = 0; i < Math.max(expected.size(), scanned.size()); i++) {
+			Object gson = i < expected.size() ? expected.get(i) : null;
+			Object scanner = i < scanned.size() ? scanned.get(i) : null;
+			if (gson == null || !gson.equals(scanner)) {
+				System.out.println("  feature " + i + "\n  Gson:    " + gson + "\n  scanner: " + scanner);
+				break;
+			}
+		}
+		System.out.println("  " + (json.length() > 2000 ? json.substring(0, 2000) + "..." : json));
+	}
+
+	//Writes an array of features, which may start with a byte order mark
+	private static String file(Random random) {
+		StringBuilder json = new StringBuilder();
+		if (random.nextInt(20) == 0) {
+			json.append('\ufeff');
+		}
+		json.append(space(random)).append('[');
+
+		int count = random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(40);
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(space(random)).append(',');
+			}
+			json.append(space(random));
+			feature(random, json);
+		}
+		return json.append(space(random)).append(']').append(space(random)).toString();
+	}
+
+	private static void feature(Random random, StringBuilder json) {
+		List<String> members = new ArrayList<String>();
+		members.add("\"type\"" + space(random) + ":" + space(random) + "\"Feature\"");
+		members.add("\"geometry\"" + space(random) + ":" + space(random) + geometry(random));
+		members.add("\"properties\"" + space(random) + ":" + space(random) + properties(random));
+		if (random.nextBoolean()) {
+			members.add("\"id\":" + space(random) + value(random, 2));
+		}
+		Collections.shuffle(members, random);
+		object(random, members, json);
+	}
+
+	private static String geometry(Random random) {
+		List<String> members = new ArrayList<String>();
+		members.add("\"type\":" + space(random) + "\"Point\"");
+		members.add("\"coordinates\"" + space(random) + ":" + space(random) + "[" + space(random) + number(random)
+				+ space(random) + "," + space(random) + number(random) + space(random) + "]");
+		Collections.shuffle(members, random);
+
+		StringBuilder json = new StringBuilder();
+		object(random, members, json);
+		return json.toString();
+	}
+
+	//Writes some of the known properties, as strings or numbers, among unknown ones
+	private static String properties(Random random) {
+		List<String> members = new ArrayList<String>();
+		for (String name : NAMES) {
+			if (random.nextInt(5) > 0) {
+				String value = random.nextInt(10) == 0 ? number(random) : string(random);
+				members.add("\"" + name + "\"" + space(random) + ":" + space(random) + value);
+			}
+		}
+		for (int i = random.nextInt(4); i > 0; i--) {
+			//An escaped name, which the scanner refuses, now and then
+			String name = random.nextInt(200) == 0 ? "\\u0069d" : UNKNOWN[random.nextInt(UNKNOWN.length)];
+			members.add("\"" + name + "\"" + space(random) + ":" + space(random) + value(random, 3));
+		}
+		Collections.shuffle(members, random);
+
+		StringBuilder json = new StringBuilder();
+		object(random, members, json);
+		return json.toString();
+	}
+
+	private static void object(Random random, List<String> members, StringBuilder json) {
+		json.append('{');
+		for (int i = 0; i < members.size(); i++) {
+			json.append(i > 0 ? "," : "").append(space(random)).append(members.get(i)).append(space(random));
+		}
+		json.append('}');
+	}
+
+	//Writes any JSON value, nesting objects and arrays up to the given depth
+	private static String value(Random random, int depth) {
+		switch (random.nextInt(depth > 0 ? 8 : 6)) {
+		case 0:
+			return "null";
+		case 1:
+			return "true";
+		case 2:
+			return "false";
+		case 3:
+			return number(random);
+		case 4:
+		case 5:
+			return string(random);
+		case 6:
+			StringBuilder array = new StringBuilder("[");
+			for (int i = random.nextInt(4); i > 0; i--) {
+				array.append(space(random)).append(value(random, depth - 1)).append(i > 1 ? "," : "");
+			}
+			return array.append(space(random)).append(']').toString();
+		default:
+			List<String> members = new ArrayList<String>();
+			for (int i = random.nextInt(4); i > 0; i--) {
+				members.add("\"" + UNKNOWN[random.nextInt(UNKNOWN.length)] + "\"" + space(random) + ":" + space(random)
+						+ value(random, depth - 1));
+			}
+			StringBuilder object = new StringBuilder();
+			object(random, members, object);
+			return object.toString();
+		}
+	}
+
+	//Writes a JSON number: negative or not, with any number of digits, a fraction and an exponent
+	private static String number(Random random) {
+		StringBuilder number = new StringBuilder();
+		if (random.nextBoolean()) {
+			number.append('-');
+		}
+		if (random.nextInt(8) == 0) {
+			number.append('0');
+		} else {
+			number.append(1 + random.nextInt(9));
+			for (int i = random.nextInt(random.nextInt(4) == 0 ? 22 : 3); i > 0; i--) {
+				number.append(random.nextInt(10));
+			}
+		}
+		if (random.nextInt(4) > 0) {
+			number.append('.');
+			for (int i = 1 + random.nextInt(random.nextInt(4) == 0 ? 25 : 12); i > 0; i--) {
+				number.append(random.nextInt(10));
+			}
+		}
+		if (random.nextInt(6) == 0) {
+			number.append(random.nextBoolean() ? 'e' : 'E');
+			int sign = random.nextInt(3);
+			number.append(sign == 0 ? "" : sign == 1 ? "+" : "-");
+			number.append(random.nextInt(random.nextBoolean() ? 10 : 280));
+		}
+		return number.toString();
+	}
+
+	//Writes a JSON string of plain, escaped, non-ASCII and surrogate pair characters
+	private static String string(Random random) {
+		StringBuilder string = new StringBuilder("\"");
+		for (int i = random.nextInt(random.nextInt(6) == 0 ? 200 : 16); i > 0; i--) {
+			switch (random.nextInt(12)) {
+			case 0:
+				string.append('\\').append("\"\\/bfnrt".charAt(random.nextInt(8)));
+				break;
+			case 1:
+				string.append(String.format("\\u%04x", random.nextInt(0x10000)).replace("\\ud", "\\u0"));
+				break;
+			case 2:
+				string.append(random.nextBoolean() ? "\\uD83D\\uDE00" : "\\ud834\\udd1e");
+				break;
+			case 3:
+				string.append("\u00e9\u00df\u20ac\u4e2d\u0416".charAt(random.nextInt(5)));
+				break;
+			case 4:
+				string.appendCodePoint(0x1F600 + random.nextInt(64));
+				break;
+			default:
+				char c = (char) (' ' + random.nextInt(95));
+				string.append(c == '"' || c == '\\' ? "\\" : "").append(c);
+				break;
+			}
+		}
+		return string.append('"').toString();
+	}
+
+	private static String space(Random random) {
+		return WHITESPACE[random.nextInt(WHITESPACE.length)];
+	}
+}
@@ -0,0 +1,27 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package votingLocations;
+
+/**
+ * <p>The AssignmentListener interface receives progress reports while
+ * VotingLocationList.assignNearest() works through a file of points.</p>
+ *
+ * <p>Reports are made from the thread that called assignNearest(), after each
+ * batch of points has been written out.</p>
+ * @version 1.0
+ */
+public interface AssignmentListener {
+
+	/**
+	 * <h1>progress</h1>
+	 * <p>void progress(long assigned, long skipped, double pointsPerSecond)</p>
+	 * <p>Called each time a batch of points has been written out.</p>
+	 * @param assigned - The number of points assigned to a Location so far
+	 * @param skipped - The number of lines skipped so far because they could not be read
+	 * @param pointsPerSecond - The average number of lines handled per second since the start
+	 */
+	void progress(long assigned, long skipped, double pointsPerSecond);
+}
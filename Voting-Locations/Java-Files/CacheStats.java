@@ -0,0 +1,87 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package votingLocations;
+
+/**
+ * <p>The CacheStats class is a snapshot of how well the result cache of
+ * a VotingLocationList is working.</p>
+ * @version 1.0
+ */
+public class CacheStats {
+
+	private long hits;
+	private long misses;
+	private long evictions;
+	private int size;
+
+	/**
+	 * <h1>CacheStats</h1>
+	 * <p>CacheStats(long hits, long misses, long evictions, int size)</p>
+	 * <p>Creates a new CacheStats.</p>
+	 * @param hits - The number of queries answered from the cache
+	 * @param misses - The number of queries that had to be computed
+	 * @param evictions - The number of results removed because the cache was full or they expired
+	 * @param size - The number of results currently cached
+	 */
+	CacheStats(long hits, long misses, long evictions, int size) {
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.size = size;
+	}
+
+	/**
+	 * <h1>getHits</h1>
+	 * <p>public long getHits()</p>
+	 * <p>Retrieves the number of queries answered from the cache.</p>
+	 * @return the number of hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * <h1>getMisses</h1>
+	 * <p>public long getMisses()</p>
+	 * <p>Retrieves the number of queries that were not in the cache.</p>
+	 * @return the number of misses
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * <h1>getEvictions</h1>
+	 * <p>public long getEvictions()</p>
+	 * <p>Retrieves the number of results removed because the cache was full
+	 * or because they expired.</p>
+	 * @return the number of evictions
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * <h1>getSize</h1>
+	 * <p>public int getSize()</p>
+	 * <p>Retrieves the number of results currently cached.</p>
+	 * @return the number of cached results
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * <h1>getHitRate</h1>
+	 * <p>public double getHitRate()</p>
+	 * <p>Retrieves the fraction of queries answered from the cache.</p>
+	 * @return the hit rate between 0 and 1, or 0 if there have been no queries
+	 */
+	public double getHitRate() {
+		long total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+}
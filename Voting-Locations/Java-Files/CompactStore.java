@@ -0,0 +1,270 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package votingLocations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/**
+ * <p>The CompactStore class holds the records of a list on the heap in
+ * primitive arrays rather than as one object per record, for devices such as
+ * phones where memory is short.</p>
+ *
+ * <p>Coordinates are held as whole micro-degrees in two int arrays, taking 8
+ * bytes per record instead of the 16 of two doubles, and the String columns
+ * are held in one array each. Categorical columns
+ * share a single String for each of their values. A record only becomes an
+ * object when it is retrieved.</p>
+ *
+ * <p>Each coordinate is rounded to the nearest micro-degree, so it is never
+ * more than 0.5 micro-degrees, about 5.6 centimetres of latitude, from the
+ * value that was read in. Coordinates beyond 1000 degrees either way, which
+ * no valid coordinate is, are clamped to that limit, and coordinates that are
+ * not numbers are held as 0. A squared distance between two points held as
+ * micro-degrees is then at most 8 * 10^18, which fits in a long, so distances
+ * between them are compared exactly in integer arithmetic.</p>
+ *
+ * <p>Records are only appended while a list is being read in, after which the
+ * store is read only and can be read from several threads at once.</p>
+ * @version 1.0
+ */
+final class CompactStore {
+
+	/**
+	 * <p>The number of units a coordinate is held in for each degree.</p>
+	 */
+	static final double MICRODEGREES = 1000000.0;
+
+	//The largest number of micro-degrees a coordinate can hold, either way
+	private static final int LIMIT = 1000000000;
+
+	private final boolean[] categorical;
+	private final ArrayList<HashMap<String, String>> dictionaries = new ArrayList<HashMap<String, String>>();
+
+	private int[] latitudes = new int[16];
+	private int[] longitudes = new int[16];
+	private String[][] columns;
+	private int size;
+
+	/**
+	 * <h1>CompactStore</h1>
+	 * <p>CompactStore(boolean[] categorical)</p>
+	 * <p>Creates a new, empty CompactStore.</p>
+	 * @param categorical - One entry per String column, true if the column
+	 * only holds a few distinct values that are shared between records
+	 */
+	CompactStore(boolean[] categorical) {
+		this.categorical = categorical.clone();
+		columns = new String[categorical.length][16];
+
+		for (int i = 0; i < categorical.length; i++) {
+			dictionaries.add(new HashMap<String, String>());
+		}
+	}
+
+	/**
+	 * <h1>add</h1>
+	 * <p>void add(double latitude, double longitude, String... values)</p>
+	 * <p>Appends a record to the store, rounding its coordinates to the
+	 * nearest micro-degree.</p>
+	 * @param latitude - The latitude of the record
+	 * @param longitude - The longitude of the record
+	 * @param values - The value of each String column, may contain nulls
+	 */
+	void add(double latitude, double longitude, String... values) {
+		if (size == latitudes.length) {
+			resize(size * 2);
+		}
+
+		latitudes[size] = quantise(latitude);
+		longitudes[size] = quantise(longitude);
+
+		for (int column = 0; column < columns.length; column++) {
+			String value = values[column];
+			if (value != null && categorical[column]) {
+				String shared = dictionaries.get(column).get(value);
+				if (shared == null) {
+					dictionaries.get(column).put(value, value);
+				} else {
+					value = shared;
+				}
+			}
+			columns[column][size] = value;
+		}
+
+		size++;
+	}
+
+	/**
+	 * <h1>truncate</h1>
+	 * <p>void truncate(int size)</p>
+	 * <p>Removes the records added after the store held the given number of
+	 * records. This is used to drop a file that failed part way through.</p>
+	 * @param size - The number of records to keep
+	 */
+	void truncate(int size) {
+		if (size < this.size) {
+			for (String[] column : columns) {
+				Arrays.fill(column, size, this.size, null);
+			}
+			this.size = size;
+		}
+	}
+
+	/**
+	 * <h1>trim</h1>
+	 * <p>void trim()</p>
+	 * <p>Shrinks the arrays to the number of records once the list is read
+	 * in, and drops the dictionaries used to share categorical values.</p>
+	 */
+	void trim() {
+		resize(size);
+		dictionaries.clear();
+	}
+
+	/**
+	 * <h1>size</h1>
+	 * <p>int size()</p>
+	 * <p>Retrieves the number of records in the store.</p>
+	 * @return the number of records
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * <h1>latitude</h1>
+	 * <p>double latitude(int record)</p>
+	 * <p>Retrieves the latitude of a record, as rounded when it was added.</p>
+	 * @param record - The index of the record
+	 * @return the latitude
+	 */
+	double latitude(int record) {
+		return latitudes[record] / MICRODEGREES;
+	}
+
+	/**
+	 * <h1>longitude</h1>
+	 * <p>double longitude(int record)</p>
+	 * <p>Retrieves the longitude of a record, as rounded when it was added.</p>
+	 * @param record - The index of the record
+	 * @return the longitude
+	 */
+	double longitude(int record) {
+		return longitudes[record] / MICRODEGREES;
+	}
+
+	/**
+	 * <h1>latitudes</h1>
+	 * <p>int[] latitudes()</p>
+	 * <p>Retrieves the latitude of every record in micro-degrees, for the
+	 * scans of DistanceKernel. The array is shared and must not be changed,
+	 * and may be longer than the number of records while the list is read in.</p>
+	 * @return the latitudes
+	 */
+	int[] latitudes() {
+		return latitudes;
+	}
+
+	/**
+	 * <h1>longitudes</h1>
+	 * <p>int[] longitudes()</p>
+	 * <p>Retrieves the longitude of every record in micro-degrees, in the
+	 * same way as latitudes().</p>
+	 * @return the longitudes
+	 */
+	int[] longitudes() {
+		return longitudes;
+	}
+
+	/**
+	 * <h1>string</h1>
+	 * <p>String string(int record, int column)</p>
+	 * <p>Retrieves the value of a String column of a record.</p>
+	 * @param record - The index of the record
+	 * @param column - The index of the column
+	 * @return the value, which may be null
+	 */
+	String string(int record, int column) {
+		return columns[column][record];
+	}
+
+	/**
+	 * <h1>columnBytes</h1>
+	 * <p>long columnBytes(int column)</p>
+	 * <p>Estimates the heap memory held by one String column: its array and
+	 * each distinct String in it.</p>
+	 * @param column - The index of the column
+	 * @return the estimated bytes
+	 */
+	long columnBytes(int column) {
+		long bytes = MemoryFootprint.arrayBytes(columns[column].length, 4);
+		IdentityHashMap<String, Boolean> counted = new IdentityHashMap<String, Boolean>();
+
+		for (int record = 0; record < size; record++) {
+			String value = columns[column][record];
+			if (value != null && counted.put(value, Boolean.TRUE) == null) {
+				bytes += MemoryFootprint.stringBytes(value);
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * <h1>coordinateBytes</h1>
+	 * <p>long coordinateBytes()</p>
+	 * <p>Estimates the heap memory held by the coordinates.</p>
+	 * @return the estimated bytes
+	 */
+	long coordinateBytes() {
+		return 2 * MemoryFootprint.arrayBytes(latitudes.length, 4);
+	}
+
+	/**
+	 * <h1>covers</h1>
+	 * <p>static boolean covers(double latitude, double longitude)</p>
+	 * <p>Tells whether a point can be held as micro-degrees without being
+	 * clamped, which points that are not numbers cannot.</p>
+	 * @param latitude - The latitude of the point
+	 * @param longitude - The longitude of the point
+	 * @return true if both coordinates are within the limit
+	 */
+	static boolean covers(double latitude, double longitude) {
+		return Math.abs(latitude) * MICRODEGREES <= LIMIT && Math.abs(longitude) * MICRODEGREES <= LIMIT;
+	}
+
+	/**
+	 * <h1>quantise</h1>
+	 * <p>static int quantise(double degrees)</p>
+	 * <p>Rounds a coordinate to the nearest micro-degree, within the limit.</p>
+	 * @param degrees - The coordinate in degrees
+	 * @return the coordinate in micro-degrees
+	 */
+	static int quantise(double degrees) {
+		return (int) Math.max(-LIMIT, Math.min(LIMIT, Math.round(degrees * MICRODEGREES)));
+	}
+
+	/**
+	 * <h1>round</h1>
+	 * <p>static double round(double degrees)</p>
+	 * <p>Rounds a coordinate to the value a CompactStore would hold for it.</p>
+	 * @param degrees - The coordinate in degrees
+	 * @return the rounded coordinate in degrees
+	 */
+	static double round(double degrees) {
+		return quantise(degrees) / MICRODEGREES;
+	}
+
+	private void resize(int capacity) {
+		latitudes = Arrays.copyOf(latitudes, capacity);
+		longitudes = Arrays.copyOf(longitudes, capacity);
+		for (int column = 0; column < columns.length; column++) {
+			columns[column] = Arrays.copyOf(columns[column], capacity);
+		}
+	}
+}
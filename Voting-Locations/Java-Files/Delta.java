@@ -0,0 +1,309 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package votingLocations;
+
+import java.util.Arrays;
+
+/**
+ * <p>The Delta class holds the Locations added, updated and removed since the
+ * Locations of a list were last stored together, so that a change makes a new
+ * version of the list without copying the Locations that did not change.</p>
+ *
+ * <p>Every Location of the list has a slot. The Locations the list was made
+ * from keep their slots, and each added Location takes the next slot after the
+ * last one used, so slots never move and the indexes built over the stored
+ * Locations stay valid. The Delta keeps the slots left empty by removed
+ * Locations and the Locations of the slots that were updated or added, both
+ * sorted by slot. The list is the full slots in order, so the index of a
+ * Location is its slot less the empty slots before it.</p>
+ *
+ * <p>A Delta is never changed once made: add, update and remove return a new
+ * one, copying only its arrays, which hold one entry per change.</p>
+ * @version 1.0
+ */
+final class Delta {
+
+	private final int storedCount;
+	private final int slotCount;
+	private final int[] gaps;
+	private final int[] slots;
+	private final Location[] locations;
+
+	/**
+	 * <h1>Delta</h1>
+	 * <p>Delta(int storedCount)</p>
+	 * <p>Creates a new Delta with no changes.</p>
+	 * @param storedCount - The number of Locations stored together
+	 */
+	Delta(int storedCount) {
+		this(storedCount, storedCount, new int[0], new int[0], new Location[0]);
+	}
+
+	private Delta(int storedCount, int slotCount, int[] gaps, int[] slots, Location[] locations) {
+		this.storedCount = storedCount;
+		this.slotCount = slotCount;
+		this.gaps = gaps;
+		this.slots = slots;
+		this.locations = locations;
+	}
+
+	/**
+	 * <h1>size</h1>
+	 * <p>int size()</p>
+	 * <p>Retrieves the number of Locations in the list after the changes.</p>
+	 * @return the number of Locations
+	 */
+	int size() {
+		return slotCount - gaps.length;
+	}
+
+	/**
+	 * <h1>getChangeCount</h1>
+	 * <p>int getChangeCount()</p>
+	 * <p>Retrieves the number of entries the changes take up, which is the
+	 * number of empty slots and of Locations held by the Delta.</p>
+	 * @return the number of changes
+	 */
+	int getChangeCount() {
+		return gaps.length + slots.length;
+	}
+
+	/**
+	 * <h1>count</h1>
+	 * <p>int count()</p>
+	 * <p>Retrieves the number of Locations held by the Delta, which are the
+	 * updated and added Locations still in the list.</p>
+	 * @return the number of Locations held
+	 */
+	int count() {
+		return slots.length;
+	}
+
+	/**
+	 * <h1>location</h1>
+	 * <p>Location location(int position)</p>
+	 * <p>Retrieves a Location held by the Delta.</p>
+	 * @param position - The position of the Location, from 0 to count() - 1, in slot order
+	 * @return the Location
+	 */
+	Location location(int position) {
+		return locations[position];
+	}
+
+	/**
+	 * <h1>slotAt</h1>
+	 * <p>int slotAt(int position)</p>
+	 * <p>Retrieves the slot of a Location held by the Delta.</p>
+	 * @param position - The position of the Location, from 0 to count() - 1
+	 * @return the slot of the Location
+	 */
+	int slotAt(int position) {
+		return slots[position];
+	}
+
+	/**
+	 * <h1>find</h1>
+	 * <p>int find(int slot)</p>
+	 * <p>Finds the Location held by the Delta for a slot.</p>
+	 * @param slot - The slot
+	 * @return the position of the Location, or -1 if the slot holds a stored Location or none
+	 */
+	int find(int slot) {
+		int position = Arrays.binarySearch(slots, slot);
+		return position >= 0 ? position : -1;
+	}
+
+	/**
+	 * <h1>slot</h1>
+	 * <p>int slot(int index)</p>
+	 * <p>Retrieves the slot of the Location at an index of the list.</p>
+	 * @param index - The index of the Location
+	 * @return the slot of the Location
+	 */
+	int slot(int index) {
+		//The empty slots are sorted, so those at or before the slot are the ones with gaps[g] - g at most the index
+		int low = 0;
+		int high = gaps.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (gaps[middle] - middle <= index) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return index + low;
+	}
+
+	/**
+	 * <h1>index</h1>
+	 * <p>int index(int slot)</p>
+	 * <p>Retrieves the index in the list of the Location in a full slot.</p>
+	 * @param slot - The slot
+	 * @return the index of the Location
+	 */
+	int index(int slot) {
+		int before = Arrays.binarySearch(gaps, slot);
+		return slot - (before >= 0 ? before : -before - 1);
+	}
+
+	/**
+	 * <h1>isStored</h1>
+	 * <p>boolean isStored(int slot)</p>
+	 * <p>Tells whether a slot still holds the Location stored for it, so that
+	 * the indexes of the stored Locations are right about it.</p>
+	 * @param slot - The slot of a stored Location
+	 * @return false if the Location was removed or updated
+	 */
+	boolean isStored(int slot) {
+		return Arrays.binarySearch(gaps, slot) < 0 && Arrays.binarySearch(slots, slot) < 0;
+	}
+
+	/**
+	 * <h1>hidden</h1>
+	 * <p>int[] hidden()</p>
+	 * <p>Retrieves the slots of the stored Locations that were removed or
+	 * updated, whose entries in the indexes of the stored Locations are out of
+	 * date.</p>
+	 * @return the slots, in increasing order
+	 */
+	int[] hidden() {
+		int[] hidden = new int[gaps.length + slots.length];
+		int count = 0;
+		int g = 0;
+		int s = 0;
+
+		while ((g < gaps.length && gaps[g] < storedCount) || (s < slots.length && slots[s] < storedCount)) {
+			if (s == slots.length || slots[s] >= storedCount || (g < gaps.length && gaps[g] < slots[s])) {
+				hidden[count++] = gaps[g++];
+			} else {
+				hidden[count++] = slots[s++];
+			}
+		}
+		return Arrays.copyOf(hidden, count);
+	}
+
+	/**
+	 * <h1>map</h1>
+	 * <p>void map(int start, int length, int[] slots, int[] positions)</p>
+	 * <p>Finds the slots of a run of Locations of the list, walking the changes
+	 * alongside the slots rather than searching them for every Location.</p>
+	 * @param start - The index of the first Location
+	 * @param length - The number of Locations
+	 * @param slots - Where the slot of each Location is written
+	 * @param positions - Where the position of each Location held by the Delta is written, -1 for stored ones
+	 */
+	void map(int start, int length, int[] slots, int[] positions) {
+		int slot = slot(start);
+		int g = slot - start;
+		int s = Arrays.binarySearch(this.slots, slot);
+		s = s >= 0 ? s : -s - 1;
+
+		for (int i = 0; i < length; i++, slot++) {
+			while (g < gaps.length && gaps[g] == slot) {
+				g++;
+				slot++;
+			}
+			while (s < this.slots.length && this.slots[s] < slot) {
+				s++;
+			}
+			slots[i] = slot;
+			positions[i] = s < this.slots.length && this.slots[s] == slot ? s : -1;
+		}
+	}
+
+	/**
+	 * <h1>add</h1>
+	 * <p>Delta add(Location location)</p>
+	 * <p>Adds a Location after the last one of the list.</p>
+	 * @param location - The Location to add
+	 * @return the changes with the Location added
+	 */
+	Delta add(Location location) {
+		int[] moreSlots = Arrays.copyOf(slots, slots.length + 1);
+		Location[] moreLocations = Arrays.copyOf(locations, locations.length + 1);
+		moreSlots[slots.length] = slotCount;
+		moreLocations[locations.length] = location;
+		return new Delta(storedCount, slotCount + 1, gaps, moreSlots, moreLocations);
+	}
+
+	/**
+	 * <h1>update</h1>
+	 * <p>Delta update(int index, Location location)</p>
+	 * <p>Replaces the Location at an index of the list, keeping its place.</p>
+	 * @param index - The index of the Location to replace
+	 * @param location - The Location to put in its place
+	 * @return the changes with the Location replaced
+	 */
+	Delta update(int index, Location location) {
+		int slot = slot(index);
+		int position = Arrays.binarySearch(slots, slot);
+
+		if (position >= 0) {
+			Location[] changed = locations.clone();
+			changed[position] = location;
+			return new Delta(storedCount, slotCount, gaps, slots, changed);
+		}
+
+		position = -position - 1;
+		return new Delta(storedCount, slotCount, gaps, insert(slots, position, slot),
+				insert(locations, position, location));
+	}
+
+	/**
+	 * <h1>remove</h1>
+	 * <p>Delta remove(int index)</p>
+	 * <p>Removes the Location at an index of the list, leaving its slot empty.</p>
+	 * @param index - The index of the Location to remove
+	 * @return the changes with the Location removed
+	 */
+	Delta remove(int index) {
+		int slot = slot(index);
+		int position = Arrays.binarySearch(slots, slot);
+		int[] fewerSlots = slots;
+		Location[] fewerLocations = locations;
+
+		if (position >= 0) {
+			fewerSlots = new int[slots.length - 1];
+			fewerLocations = new Location[locations.length - 1];
+			System.arraycopy(slots, 0, fewerSlots, 0, position);
+			System.arraycopy(slots, position + 1, fewerSlots, position, fewerSlots.length - position);
+			System.arraycopy(locations, 0, fewerLocations, 0, position);
+			System.arraycopy(locations, position + 1, fewerLocations, position, fewerLocations.length - position);
+		}
+
+		int gap = -Arrays.binarySearch(gaps, slot) - 1;
+		return new Delta(storedCount, slotCount, insert(gaps, gap, slot), fewerSlots, fewerLocations);
+	}
+
+	/**
+	 * <h1>estimateBytes</h1>
+	 * <p>long estimateBytes()</p>
+	 * <p>Estimates the memory held by the arrays of the changes, not counting
+	 * the Locations they hold.</p>
+	 * @return the estimated bytes
+	 */
+	long estimateBytes() {
+		return MemoryFootprint.objectBytes(20) + MemoryFootprint.arrayBytes(gaps.length, 4)
+				+ MemoryFootprint.arrayBytes(slots.length, 4) + MemoryFootprint.arrayBytes(locations.length, 4);
+	}
+
+	private static int[] insert(int[] values, int position, int value) {
+		int[] inserted = new int[values.length + 1];
+		System.arraycopy(values, 0, inserted, 0, position);
+		inserted[position] = value;
+		System.arraycopy(values, position, inserted, position + 1, values.length - position);
+		return inserted;
+	}
+
+	private static Location[] insert(Location[] values, int position, Location value) {
+		Location[] inserted = new Location[values.length + 1];
+		System.arraycopy(values, 0, inserted, 0, position);
+		inserted[position] = value;
+		System.arraycopy(values, position, inserted, position + 1, values.length - position);
+		return inserted;
+	}
+}
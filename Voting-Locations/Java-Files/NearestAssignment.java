@@ -0,0 +1,233 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package votingLocations;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>The NearestAssignment class assigns every point of a CSV file to its
+ * closest Location and writes the assignments out as CSV.</p>
+ *
+ * <p>Lines are read in batches by the calling thread and handed to a pool of
+ * worker threads, which look up the closest Location of each point and format
+ * the output of the whole batch. The calling thread writes the batches out in
+ * the order they were read. At most two batches per worker are in flight at
+ * once, so the memory used does not depend on the size of the file.</p>
+ * @version 1.0
+ */
+final class NearestAssignment {
+
+	private static final int BATCH_SIZE = 4096;
+	private static final String HEADER = "id,latitude,longitude,name,address";
+
+	private final VotingLocationList list;
+	private final String[] assignments;
+
+	private static final class Batch {
+
+		final StringBuilder output = new StringBuilder();
+		int assigned;
+		int skipped;
+	}
+
+	/**
+	 * <h1>NearestAssignment</h1>
+	 * <p>NearestAssignment(VotingLocationList list)</p>
+	 * <p>Prepares to assign points to the Locations of a list.</p>
+	 * @param list - The Locations points are assigned to
+	 */
+	NearestAssignment(VotingLocationList list) {
+		this.list = list;
+
+		//The name and address columns of each Location are formatted once
+		assignments = new String[list.size()];
+		for (int i = 0; i < assignments.length; i++) {
+			Location location = list.location(i);
+			assignments[i] = "," + quote(location.getName()) + "," + quote(location.getAddress());
+		}
+	}
+
+	/**
+	 * <h1>run</h1>
+	 * <p>long run(Reader points, Writer output, int threads, AssignmentListener listener) throws IOException</p>
+	 * <p>Assigns every point read from points and writes the assignments to output.</p>
+	 * @param points - The CSV lines of the points
+	 * @param output - Where the CSV lines of the assignments are written
+	 * @param threads - The number of worker threads
+	 * @param listener - Receives progress reports, may be null
+	 * @return the number of points assigned
+	 * @throws IOException if the points cannot be read or the output cannot be written
+	 */
+	long run(Reader points, Writer output, int threads, AssignmentListener listener) throws IOException {
+		BufferedReader reader = points instanceof BufferedReader ? (BufferedReader) points : new BufferedReader(points);
+		ExecutorService workers = Executors.newFixedThreadPool(threads);
+		ArrayDeque<Future<Batch>> pending = new ArrayDeque<Future<Batch>>();
+
+		long start = System.nanoTime();
+		long assigned = 0;
+		long skipped = 0;
+
+		try {
+			output.write(HEADER);
+			output.write('\n');
+
+			boolean first = true;
+			ArrayList<String> lines = new ArrayList<String>(BATCH_SIZE);
+			String line;
+
+			while (true) {
+				line = reader.readLine();
+
+				if (line != null) {
+					//A first line without coordinates is taken to be a header
+					if (first && !isPoint(line)) {
+						first = false;
+						continue;
+					}
+					first = false;
+					lines.add(line);
+					if (lines.size() < BATCH_SIZE) {
+						continue;
+					}
+				}
+
+				if (!lines.isEmpty()) {
+					pending.add(workers.submit(task(lines)));
+					lines = new ArrayList<String>(BATCH_SIZE);
+				}
+
+				//Write out finished batches, waiting for the oldest when too many are in flight
+				while (!pending.isEmpty() && (pending.size() >= 2 * threads || line == null
+						|| pending.peek().isDone())) {
+					Batch batch = await(pending.poll());
+					output.write(batch.output.toString());
+					assigned += batch.assigned;
+					skipped += batch.skipped;
+
+					if (listener != null) {
+						double seconds = (System.nanoTime() - start) / 1e9;
+						listener.progress(assigned, skipped, seconds > 0 ? (assigned + skipped) / seconds : 0);
+					}
+				}
+
+				if (line == null) {
+					break;
+				}
+			}
+
+			output.flush();
+		} finally {
+			for (Future<Batch> future : pending) {
+				future.cancel(true);
+			}
+			workers.shutdownNow();
+		}
+
+		return assigned;
+	}
+
+	private Callable<Batch> task(final ArrayList<String> lines) {
+		return new Callable<Batch>() {
+			@Override
+			public Batch call() {
+				Batch batch = new Batch();
+				for (int i = 0; i < lines.size(); i++) {
+					assign(lines.get(i), batch);
+				}
+				return batch;
+			}
+		};
+	}
+
+	//Appends the assignment of the point on a line to the batch
+	private void assign(String line, Batch batch) {
+		double[] point = new double[2];
+		int end = readPoint(line, point);
+		int closest = end < 0 ? -1 : list.closestIndex(point[0], point[1]);
+
+		if (closest == -1) {
+			batch.skipped++;
+			return;
+		}
+
+		batch.output.append(line, 0, end).append(assignments[closest]).append('\n');
+		batch.assigned++;
+	}
+
+	private static boolean isPoint(String line) {
+		return readPoint(line, new double[2]) >= 0;
+	}
+
+	/*
+	 * Reads the latitude and longitude from the second and third fields of a
+	 * line into point. Returns the position where the third field ends, or -1
+	 * if the line does not hold a point.
+	 */
+	private static int readPoint(String line, double[] point) {
+		int first = fieldEnd(line, 0);
+		int second = first < line.length() ? fieldEnd(line, first + 1) : -1;
+		int third = second >= 0 && second < line.length() ? fieldEnd(line, second + 1) : -1;
+
+		if (third < 0) {
+			return -1;
+		}
+
+		try {
+			point[0] = Double.parseDouble(line.substring(first + 1, second).trim());
+			point[1] = Double.parseDouble(line.substring(second + 1, third).trim());
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+		return third;
+	}
+
+	//Finds the comma or end of line that ends the field starting at start, skipping quoted commas
+	private static int fieldEnd(String line, int start) {
+		boolean quoted = false;
+		for (int i = start; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '"') {
+				quoted = !quoted;
+			} else if (c == ',' && !quoted) {
+				return i;
+			}
+		}
+		return line.length();
+	}
+
+	//Quotes a CSV value if it holds a comma, a quote or a line break
+	private static String quote(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return "\"" + value.replace("\"", "\"\"") + "\"";
+	}
+
+	private static Batch await(Future<Batch> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while assigning points");
+		} catch (ExecutionException e) {
+			throw new IOException("Could not assign a batch of points", e.getCause());
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package votingLocations;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>The NearestFirst class hands out record indexes in order of increasing
+ * distance, one at a time.</p>
+ *
+ * <p>The indexes are arranged into a binary heap, which takes linear time,
+ * and each index handed out is removed from the top of the heap. Reading the
+ * first k records of n therefore costs n + k log n steps instead of the
+ * n log n of a full sort, which is what makes the first page of a distance
+ * ordered Stream cheap. Records at the same distance come out in index order,
+ * as they would from a stable sort.</p>
+ * @version 1.0
+ */
+final class NearestFirst extends Spliterators.AbstractIntSpliterator {
+
+	private final double[] distances;
+	private final int[] heap;
+	private int size;
+
+	/**
+	 * <h1>NearestFirst</h1>
+	 * <p>NearestFirst(double[] distances)</p>
+	 * <p>Creates a new NearestFirst over every record.</p>
+	 * @param distances - The distance of each record, indexed by record
+	 */
+	NearestFirst(double[] distances) {
+		super(distances.length, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL);
+		this.distances = distances;
+		this.heap = new int[distances.length];
+		this.size = distances.length;
+
+		for (int i = 0; i < size; i++) {
+			heap[i] = i;
+		}
+		for (int i = size / 2 - 1; i >= 0; i--) {
+			siftDown(i);
+		}
+	}
+
+	@Override
+	public boolean tryAdvance(IntConsumer action) {
+		if (size == 0) {
+			return false;
+		}
+
+		int nearest = heap[0];
+		heap[0] = heap[--size];
+		siftDown(0);
+		action.accept(nearest);
+		return true;
+	}
+
+	@Override
+	public long estimateSize() {
+		return size;
+	}
+
+	private void siftDown(int position) {
+		int record = heap[position];
+
+		while (true) {
+			int child = 2 * position + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && closer(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if (!closer(heap[child], record)) {
+				break;
+			}
+			heap[position] = heap[child];
+			position = child;
+		}
+
+		heap[position] = record;
+	}
+
+	private boolean closer(int first, int second) {
+		int order = Double.compare(distances[first], distances[second]);
+		return order < 0 || (order == 0 && first < second);
+	}
+}
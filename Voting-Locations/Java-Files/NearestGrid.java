@@ -0,0 +1,385 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package votingLocations;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * <p>The NearestGrid class answers "which location is closest to this point"
+ * with a table lookup instead of a scan of every location.</p>
+ *
+ * <p>The bounding box of the locations, with a small margin, is split into a
+ * grid of cells. For every cell the grid stores the locations that can be the
+ * closest one to some point inside it: any location farther from the centre
+ * of the cell than the closest location plus the diagonal of the cell can
+ * never win. These are found with a k-d tree that is only kept while the grid
+ * is built. In most cells a single location remains, and a lookup is one
+ * array read. Cells near the boundary between two locations keep every
+ * location that might win and compare them exactly, so results always match
+ * a full scan. Locations with the same coordinates are stored once, as the
+ * one with the lowest index. Points outside of the grid are not answered.</p>
+ *
+ * <p>The grid is read only once it is built and can be used by several
+ * threads at once.</p>
+ * @version 1.0
+ */
+final class NearestGrid {
+
+	/**
+	 * <p>Returned by nearest for points outside of the grid.</p>
+	 */
+	static final int NOT_COVERED = -1;
+
+	private static final int MIN_CELLS = 1024;
+	private static final int MAX_CELLS = 1 << 20;
+	private static final int CELLS_PER_LOCATION = 16;
+	private static final double MARGIN = 0.05;
+
+	private final double[] latitudes;
+	private final double[] longitudes;
+	private final int[] siteLocations;
+
+	private final double minLatitude;
+	private final double minLongitude;
+	private final double cellHeight;
+	private final double cellWidth;
+	private final int rows;
+	private final int columns;
+
+	private final int[] cellStart;
+	private final int[] candidates;
+
+	private int[] tree;
+
+	/**
+	 * <h1>NearestGrid</h1>
+	 * <p>NearestGrid(double[] latitudes, double[] longitudes)</p>
+	 * <p>Builds the grid over the given locations.</p>
+	 * @param latitudes - The latitude of each location
+	 * @param longitudes - The longitude of each location
+	 */
+	NearestGrid(final double[] latitudes, final double[] longitudes) {
+		
+		//Locations sharing coordinates can only be returned as the one with the lowest index
+		Integer[] order = new Integer[latitudes.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer first, Integer second) {
+				int compare = Double.compare(latitudes[first], latitudes[second]);
+				if (compare == 0) {
+					compare = Double.compare(longitudes[first], longitudes[second]);
+				}
+				return compare != 0 ? compare : first.compareTo(second);
+			}
+		});
+		
+		int[] firsts = new int[order.length];
+		int count = 0;
+		for (int i = 0; i < order.length; i++) {
+			if (i == 0 || latitudes[order[i]] != latitudes[order[i - 1]]
+					|| longitudes[order[i]] != longitudes[order[i - 1]]) {
+				firsts[count++] = order[i];
+			}
+		}
+		siteLocations = Arrays.copyOf(firsts, count);
+		Arrays.sort(siteLocations);
+		
+		this.latitudes = new double[count];
+		this.longitudes = new double[count];
+		for (int i = 0; i < count; i++) {
+			this.latitudes[i] = latitudes[siteLocations[i]];
+			this.longitudes[i] = longitudes[siteLocations[i]];
+		}
+
+		double lowLatitude = Double.MAX_VALUE;
+		double highLatitude = -Double.MAX_VALUE;
+		double lowLongitude = Double.MAX_VALUE;
+		double highLongitude = -Double.MAX_VALUE;
+		for (int i = 0; i < count; i++) {
+			lowLatitude = Math.min(lowLatitude, this.latitudes[i]);
+			highLatitude = Math.max(highLatitude, this.latitudes[i]);
+			lowLongitude = Math.min(lowLongitude, this.longitudes[i]);
+			highLongitude = Math.max(highLongitude, this.longitudes[i]);
+		}
+
+		if (count == 0) {
+			lowLatitude = highLatitude = lowLongitude = highLongitude = 0;
+		}
+
+		//Pad the box so nearby points outside of it are still covered, and so it is never empty
+		double height = highLatitude - lowLatitude;
+		double width = highLongitude - lowLongitude;
+		double pad = Math.max(Math.max(height, width) * MARGIN, 1e-6);
+		minLatitude = lowLatitude - pad;
+		minLongitude = lowLongitude - pad;
+		height += 2 * pad;
+		width += 2 * pad;
+
+		int cells = (int) Math.min(MAX_CELLS, Math.max(MIN_CELLS, (long) count * CELLS_PER_LOCATION));
+		columns = Math.max(1, Math.min(cells, (int) Math.ceil(Math.sqrt(cells * width / height))));
+		rows = Math.max(1, cells / columns);
+		cellHeight = height / rows;
+		cellWidth = width / columns;
+
+		//Arrange the locations into a k-d tree used to find the candidates of each cell
+		tree = new int[count];
+		for (int i = 0; i < count; i++) {
+			tree[i] = i;
+		}
+		buildTree(0, count, 0);
+
+		cellStart = new int[rows * columns + 1];
+		int[] found = new int[16];
+		int[] stored = new int[rows * columns + 16];
+		int total = 0;
+
+		for (int cell = 0; cell < rows * columns; cell++) {
+			int size = candidatesOf(cell / columns, cell % columns, found);
+			if (size > found.length) {
+				found = new int[size];
+				size = candidatesOf(cell / columns, cell % columns, found);
+			}
+			if (total + size > stored.length) {
+				stored = Arrays.copyOf(stored, Math.max(stored.length * 2, total + size));
+			}
+			System.arraycopy(found, 0, stored, total, size);
+			cellStart[cell] = total;
+			total += size;
+		}
+
+		cellStart[rows * columns] = total;
+		candidates = Arrays.copyOf(stored, total);
+		tree = null;
+	}
+
+	/**
+	 * <h1>nearest</h1>
+	 * <p>int nearest(double latitude, double longitude)</p>
+	 * <p>Finds the location closest to a point. When several are equally close
+	 * the one with the lowest index is returned, as a full scan would.</p>
+	 * @param latitude - The latitude of the point
+	 * @param longitude - The longitude of the point
+	 * @return the index of the closest location, or NOT_COVERED if the point
+	 * is outside of the grid or there are no locations
+	 */
+	int nearest(double latitude, double longitude) {
+		double row = Math.floor((latitude - minLatitude) / cellHeight);
+		double column = Math.floor((longitude - minLongitude) / cellWidth);
+		if (!(row >= 0 && row < rows && column >= 0 && column < columns)) {
+			return NOT_COVERED;
+		}
+
+		int cell = (int) row * columns + (int) column;
+		int start = cellStart[cell];
+		int end = cellStart[cell + 1];
+
+		if (end - start == 1) {
+			return siteLocations[candidates[start]];
+		}
+
+		int closest = NOT_COVERED;
+		double shortestDist = 0;
+		for (int i = start; i < end; i++) {
+			int site = candidates[i];
+			double currentDist = distance(site, latitude, longitude);
+
+			if (closest == NOT_COVERED || currentDist < shortestDist) {
+				shortestDist = currentDist;
+				closest = site;
+			}
+		}
+		return closest == NOT_COVERED ? NOT_COVERED : siteLocations[closest];
+	}
+
+	/**
+	 * <h1>getCandidateCount</h1>
+	 * <p>int getCandidateCount()</p>
+	 * <p>Retrieves the total number of candidates stored over all cells, which
+	 * is close to the number of cells when most lookups are a single read.</p>
+	 * @return the number of stored candidates
+	 */
+	int getCandidateCount() {
+		return candidates.length;
+	}
+
+	/**
+	 * <h1>getCellCount</h1>
+	 * <p>int getCellCount()</p>
+	 * <p>Retrieves the number of cells in the grid.</p>
+	 * @return the number of cells
+	 */
+	int getCellCount() {
+		return rows * columns;
+	}
+
+	/**
+	 * <h1>estimateBytes</h1>
+	 * <p>long estimateBytes()</p>
+	 * <p>Estimates the memory held by the grid and its candidate lists.</p>
+	 * @return the estimated bytes
+	 */
+	long estimateBytes() {
+		return MemoryFootprint.objectBytes(64) + 2 * MemoryFootprint.arrayBytes(latitudes.length, 8)
+				+ MemoryFootprint.arrayBytes(siteLocations.length, 4) + MemoryFootprint.arrayBytes(cellStart.length, 4)
+				+ MemoryFootprint.arrayBytes(candidates.length, 4) + (tree == null ? 0 : MemoryFootprint.arrayBytes(tree.length, 4));
+	}
+
+	/*
+	 * Collects, in increasing order, the locations that can be the closest to
+	 * some point of a cell. Only locations no farther from the centre of the
+	 * cell than the closest location plus the diagonal of the cell can be, and
+	 * of those, a location is dropped if every corner of the cell is closer to
+	 * the location closest to the centre, since the cell then lies entirely on
+	 * that location's side of the line between them. Returns the number of
+	 * candidates, which may be larger than found, in which case found is not
+	 * filled and the caller retries with a larger array.
+	 */
+	private int candidatesOf(int row, int column, int[] found) {
+		double south = minLatitude + row * cellHeight;
+		double west = minLongitude + column * cellWidth;
+		double centreLatitude = south + 0.5 * cellHeight;
+		double centreLongitude = west + 0.5 * cellWidth;
+		double diagonal = Math.sqrt(cellHeight * cellHeight + cellWidth * cellWidth);
+
+		double best = closestInTree(centreLatitude, centreLongitude, 0, tree.length, 0, Double.MAX_VALUE);
+		double reach = widen(best + diagonal);
+
+		int size = withinInTree(centreLatitude, centreLongitude, reach, 0, tree.length, 0, found, 0);
+		if (size > found.length) {
+			return size;
+		}
+
+		int closest = -1;
+		for (int i = 0; i < size; i++) {
+			if (closest == -1 || distance(found[i], centreLatitude, centreLongitude) == best) {
+				closest = found[i];
+			}
+		}
+
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			int site = found[i];
+			boolean canWin = site == closest;
+			for (int corner = 0; corner < 4 && !canWin; corner++) {
+				double latitude = south + (corner / 2) * cellHeight;
+				double longitude = west + (corner % 2) * cellWidth;
+				canWin = distance(site, latitude, longitude) <= widen(distance(closest, latitude, longitude));
+			}
+			if (canWin) {
+				found[kept++] = site;
+			}
+		}
+
+		Arrays.sort(found, 0, kept);
+		return kept;
+	}
+
+	//Widens a distance slightly so rounding can never drop a location that ties
+	private static double widen(double distance) {
+		return distance * (1 + 1e-9) + 1e-12;
+	}
+
+	//Orders tree[start, end) so that the middle entry splits the rest by latitude or longitude
+	private void buildTree(int start, int end, int depth) {
+		if (end - start <= 1) {
+			return;
+		}
+
+		int middle = (start + end) >>> 1;
+		double[] axis = depth % 2 == 0 ? latitudes : longitudes;
+
+		//Quickselect the median into the middle
+		int low = start;
+		int high = end - 1;
+		while (low < high) {
+			double pivot = axis[tree[(low + high) >>> 1]];
+			int i = low;
+			int j = high;
+			while (i <= j) {
+				while (axis[tree[i]] < pivot) {
+					i++;
+				}
+				while (axis[tree[j]] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					int swap = tree[i];
+					tree[i++] = tree[j];
+					tree[j--] = swap;
+				}
+			}
+			if (middle <= j) {
+				high = j;
+			} else if (middle >= i) {
+				low = i;
+			} else {
+				break;
+			}
+		}
+
+		buildTree(start, middle, depth + 1);
+		buildTree(middle + 1, end, depth + 1);
+	}
+
+	private double closestInTree(double latitude, double longitude, int start, int end, int depth, double best) {
+		if (start >= end) {
+			return best;
+		}
+
+		int middle = (start + end) >>> 1;
+		int site = tree[middle];
+		best = Math.min(best, distance(site, latitude, longitude));
+
+		double offset = depth % 2 == 0 ? latitude - latitudes[site] : longitude - longitudes[site];
+		if (offset < 0) {
+			best = closestInTree(latitude, longitude, start, middle, depth + 1, best);
+			if (-offset < best) {
+				best = closestInTree(latitude, longitude, middle + 1, end, depth + 1, best);
+			}
+		} else {
+			best = closestInTree(latitude, longitude, middle + 1, end, depth + 1, best);
+			if (offset < best) {
+				best = closestInTree(latitude, longitude, start, middle, depth + 1, best);
+			}
+		}
+		return best;
+	}
+
+	private int withinInTree(double latitude, double longitude, double reach, int start, int end, int depth,
+			int[] found, int size) {
+
+		if (start >= end) {
+			return size;
+		}
+
+		int middle = (start + end) >>> 1;
+		int site = tree[middle];
+		if (distance(site, latitude, longitude) <= reach) {
+			if (size < found.length) {
+				found[size] = site;
+			}
+			size++;
+		}
+
+		double offset = depth % 2 == 0 ? latitude - latitudes[site] : longitude - longitudes[site];
+		if (offset <= reach) {
+			size = withinInTree(latitude, longitude, reach, start, middle, depth + 1, found, size);
+		}
+		if (-offset <= reach) {
+			size = withinInTree(latitude, longitude, reach, middle + 1, end, depth + 1, found, size);
+		}
+		return size;
+	}
+
+	private double distance(int site, double latitude, double longitude) {
+		return Math.sqrt(Math.pow((latitudes[site] - latitude), 2)
+				+ Math.pow((longitudes[site] - longitude), 2));
+	}
+}
@@ -0,0 +1,203 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package votingLocations;
+
+/**
+ * <p>The NearestTracker class follows the closest Location to a user who keeps
+ * moving, such as a vehicle asking for the closest Location every second.</p>
+ *
+ * <p>Each answer comes with a safe radius: if the closest Location is at
+ * distance d1 and the next closest at d2, then moving less than (d2 - d1) / 2
+ * cannot bring any other Location closer, so while the user stays within that
+ * radius of where the answer was worked out it is returned again without
+ * looking at any Location. Outside of it, the tracker first compares the few
+ * Locations that were closest when the list was last scanned, and only scans
+ * the whole list again once the user has moved far enough that a Location
+ * outside of those could be the closest one.</p>
+ *
+ * <p>Distances are measured the same way as VotingLocationList.getClosestLocation(),
+ * and the answers are always the same as it would give without a result
+ * cache, except on lists read in with compact coordinates. Those round the
+ * position of the user to micro-degrees as well, which the tracker does not,
+ * so its answer may be another record within the bound documented by
+ * LoadOptions.setCompactCoordinates(). A NearestTracker holds the position of
+ * one user and is not meant to be shared between threads.</p>
+ * @version 1.0
+ */
+public class NearestTracker {
+
+	private static final int CANDIDATES = 8;
+	//Taken off each bound to cover rounding in the distances it is worked out from
+	private static final double ROUNDING = 1e-9;
+
+	private final VotingLocationList list;
+
+	private final int[] candidates = new int[CANDIDATES + 1];
+	private final double[] candidateDistances = new double[CANDIDATES + 1];
+	private int candidateCount;
+	private double anchorLatitude;
+	private double anchorLongitude;
+	private double boundary;
+
+	private int closest = -1;
+	private double lastLatitude;
+	private double lastLongitude;
+	private double safeRadius;
+
+	private long lookups;
+	private long scans;
+
+	/**
+	 * <h1>NearestTracker</h1>
+	 * <p>NearestTracker(VotingLocationList list)</p>
+	 * <p>Creates a new NearestTracker following the closest Location of a list.</p>
+	 * @param list - The list of Locations to search
+	 */
+	NearestTracker(VotingLocationList list) {
+		this.list = list;
+	}
+
+	/**
+	 * <h1>getClosestLocation</h1>
+	 * <p>public Location getClosestLocation(double latitude, double longitude)</p>
+	 * <p>Takes in the current latitude and longitude of the user and returns
+	 * the Location in the list that is closest to them.</p>
+	 * <p>This method returns <b>null</b> if the list is empty.</p>
+	 * @param latitude - The latitude of the User
+	 * @param longitude - The longitude of the User
+	 * @return the Location closest to the given latitude and longitude
+	 */
+	public Location getClosestLocation(double latitude, double longitude) {
+
+		lookups++;
+		if (list.size() == 0) {
+			return null;
+		}
+
+		if (closest == -1 || distance(latitude, longitude, lastLatitude, lastLongitude) >= safeRadius) {
+			if (candidateCount == 0 || !resolve(latitude, longitude)) {
+				scan(latitude, longitude);
+				if (!resolve(latitude, longitude)) {
+					//Too many Locations are tied for closest to tell when another could win
+					closest = candidates[0];
+					lastLatitude = latitude;
+					lastLongitude = longitude;
+					safeRadius = 0;
+				}
+			}
+		}
+
+		return list.location(closest);
+	}
+
+	/**
+	 * <h1>getSafeRadius</h1>
+	 * <p>public double getSafeRadius()</p>
+	 * <p>Retrieves how far, in degrees, the user can move from where the last
+	 * answer was worked out before the closest Location may change.</p>
+	 * @return the safe radius, or 0 if nothing has been asked yet
+	 */
+	public double getSafeRadius() {
+		return closest == -1 ? 0 : safeRadius;
+	}
+
+	/**
+	 * <h1>getLookupCount</h1>
+	 * <p>public long getLookupCount()</p>
+	 * <p>Retrieves the number of times the closest Location has been asked for.</p>
+	 * @return the number of lookups
+	 */
+	public long getLookupCount() {
+		return lookups;
+	}
+
+	/**
+	 * <h1>getScanCount</h1>
+	 * <p>public long getScanCount()</p>
+	 * <p>Retrieves the number of lookups that had to look at every Location in
+	 * the list. The other lookups were answered from the safe radius or from
+	 * the few Locations closest to the last scan.</p>
+	 * @return the number of scans
+	 */
+	public long getScanCount() {
+		return scans;
+	}
+
+	/**
+	 * <h1>reset</h1>
+	 * <p>public void reset()</p>
+	 * <p>Forgets the last answer, so that the next lookup scans the list again.
+	 * This is useful when the user jumps to a new position rather than moving
+	 * to it.</p>
+	 */
+	public void reset() {
+		closest = -1;
+		candidateCount = 0;
+	}
+
+	//Finds the closest Location among the candidates, failing if one that is not a candidate could be closer
+	private boolean resolve(double latitude, double longitude) {
+
+		double limit = boundary - distance(latitude, longitude, anchorLatitude, anchorLongitude) - ROUNDING;
+		int best = -1;
+		double first = 0;
+		double second = Double.POSITIVE_INFINITY;
+
+		for (int i = 0; i < candidateCount; i++) {
+			double dist = distance(list.latitudeAt(candidates[i]), list.longitudeAt(candidates[i]), latitude, longitude);
+
+			if (best == -1 || dist < first || (dist == first && candidates[i] < best)) {
+				second = best == -1 ? second : first;
+				first = dist;
+				best = candidates[i];
+			} else if (dist < second) {
+				second = dist;
+			}
+		}
+
+		if (!(first < limit)) {
+			return false;
+		}
+
+		closest = best;
+		lastLatitude = latitude;
+		lastLongitude = longitude;
+		safeRadius = Math.max(0, (Math.min(second, limit) - first) / 2 - ROUNDING);
+		return true;
+	}
+
+	//Keeps the Locations closest to the given coordinates, and the distance of the next closest
+	private void scan(double latitude, double longitude) {
+
+		scans++;
+		int count = 0;
+
+		for (int i = 0; i < list.size(); i++) {
+			double dist = distance(list.latitudeAt(i), list.longitudeAt(i), latitude, longitude);
+			if (count == candidates.length && !(dist < candidateDistances[count - 1])) {
+				continue;
+			}
+
+			int position = count < candidates.length ? count++ : count - 1;
+			while (position > 0 && dist < candidateDistances[position - 1]) {
+				candidates[position] = candidates[position - 1];
+				candidateDistances[position] = candidateDistances[position - 1];
+				position--;
+			}
+			candidates[position] = i;
+			candidateDistances[position] = dist;
+		}
+
+		candidateCount = Math.min(count, CANDIDATES);
+		boundary = count > CANDIDATES ? candidateDistances[CANDIDATES] : Double.POSITIVE_INFINITY;
+		anchorLatitude = latitude;
+		anchorLongitude = longitude;
+	}
+
+	private static double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+		return Math.sqrt(Math.pow((latitude1 - latitude2), 2) + Math.pow((longitude1 - longitude2), 2));
+	}
+}
@@ -0,0 +1,786 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package votingLocations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * <p>The OdenScanner class reads features in the oden unified format directly
+ * from UTF-8 encoded bytes. Property names are matched against a precomputed
+ * key table while they are scanned, coordinates are parsed without creating
+ * intermediate Strings, and values of unknown properties are skipped without
+ * being decoded.</p>
+ *
+ * <p>The scanner only understands the subset of JSON used by the oden unified
+ * format. Whenever it meets input it does not handle it throws an IOException
+ * so that the caller can read the same bytes again with Gson.</p>
+ *
+ * @version 1.0
+ */
+final class OdenScanner {
+
+	static final int UNKNOWN = 0;
+	static final int GEOMETRY = 1;
+	static final int COORDINATES = 2;
+	static final int PROPERTIES = 3;
+	static final int NM = 4;
+	static final int ADR = 5;
+	static final int FT = 6;
+	static final int AC = 7;
+	static final int ANM = 8;
+	static final int TYPE = 9;
+	static final int SUMM = 10;
+	static final int DESC = 11;
+	static final int KEY_COUNT = 12;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+	private static final byte[][] KEYS = new byte[KEY_COUNT][];
+	private static final int TABLE_MASK = 63;
+	private static final int[] KEY_TABLE = new int[TABLE_MASK + 1];
+
+	private static final double[] POWERS_OF_TEN = new double[23];
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+	static {
+		String[] names = {null, "geometry", "coordinates", "properties", "nm", "adr",
+				"fT", "ac", "aNm", "type", "summ", "desc"};
+
+		for (int key = 1; key < KEY_COUNT; key++) {
+			KEYS[key] = names[key].getBytes(UTF_8);
+
+			int hash = 0;
+			for (int i = 0; i < KEYS[key].length; i++) {
+				hash = 31 * hash + KEYS[key][i];
+			}
+
+			int slot = spread(hash);
+			while (KEY_TABLE[slot] != UNKNOWN) {
+				slot = (slot + 1) & TABLE_MASK;
+			}
+			KEY_TABLE[slot] = key;
+		}
+
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	private final byte[] buffer;
+	private int pos;
+	private final int limit;
+	private boolean firstFeature;
+	private boolean openEnded;
+
+	private final boolean[] retained = new boolean[KEY_COUNT];
+	private final String[] values = new String[KEY_COUNT];
+	private final double[] coordinates = new double[2];
+	private int coordinateCount;
+
+	private byte[] unescaped = new byte[64];
+
+	/**
+	 * <p>The Features class holds the coordinates and retained property values
+	 * of the features of one chunk, read by readFeatures(int[], boolean, boolean).</p>
+	 */
+	static final class Features {
+
+		private final int[] keys;
+		private final int[] columns = new int[KEY_COUNT];
+		private double[] coordinates = new double[256];
+		private String[] values;
+		private int size;
+
+		Features(int[] keys) {
+			this.keys = keys;
+			Arrays.fill(columns, -1);
+			for (int i = 0; i < keys.length; i++) {
+				columns[keys[i]] = i;
+			}
+			values = new String[128 * keys.length];
+		}
+
+		int size() {
+			return size;
+		}
+
+		double getCoordinate(int feature, int index) {
+			return coordinates[2 * feature + index];
+		}
+
+		String getString(int feature, int key) {
+			int column = columns[key];
+			return column < 0 ? null : values[keys.length * feature + column];
+		}
+
+		private void add(double[] featureCoordinates, String[] featureValues) {
+			if (2 * size == coordinates.length) {
+				coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
+				values = Arrays.copyOf(values, values.length * 2);
+			}
+			coordinates[2 * size] = featureCoordinates[0];
+			coordinates[2 * size + 1] = featureCoordinates[1];
+			for (int i = 0; i < keys.length; i++) {
+				values[keys.length * size + i] = featureValues[keys[i]];
+			}
+			size++;
+		}
+	}
+
+	/**
+	 * <h1>OdenScanner</h1>
+	 * <p>OdenScanner(byte[] buffer, int start, int end)</p>
+	 * <p>Creates a new OdenScanner over the bytes between start (inclusive)
+	 * and end (exclusive) of the given buffer. No property values are decoded
+	 * until the properties of interest are set with retain(int[]).</p>
+	 * @param buffer - The UTF-8 encoded JSON
+	 * @param start - The index of the first byte to scan
+	 * @param end - The index after the last byte to scan
+	 */
+	OdenScanner(byte[] buffer, int start, int end) {
+		this.buffer = buffer;
+		this.pos = start;
+		this.limit = end;
+	}
+
+	/**
+	 * <h1>retain</h1>
+	 * <p>void retain(int[] keys)</p>
+	 * <p>Sets the properties whose values are decoded. The values of every
+	 * other property are skipped without being decoded.</p>
+	 * @param keys - The key constants of the properties to decode
+	 */
+	void retain(int[] keys) {
+		for (int i = 0; i < KEY_COUNT; i++) {
+			retained[i] = false;
+		}
+		for (int i = 0; i < keys.length; i++) {
+			retained[keys[i]] = true;
+		}
+	}
+
+	/**
+	 * <h1>readFully</h1>
+	 * <p>static byte[] readFully(InputStream stream, int limit) throws IOException</p>
+	 * <p>Reads the remaining bytes of the given stream into an array, stopping
+	 * once it holds more than limit bytes, so that a file too large to be held
+	 * in memory is found without reading all of it. The stream is not closed.</p>
+	 * @param stream - The stream being read
+	 * @param limit - The largest number of bytes to read the whole stream into
+	 * @return the bytes read from the stream, more than limit of them if the
+	 * stream has not been read to its end
+	 * @throws IOException if there is a problem reading from the stream
+	 */
+	static byte[] readFully(InputStream stream, int limit) throws IOException {
+		//The array never grows past limit + 1 bytes, which is enough to tell that the stream goes on
+		int capacity = limit == Integer.MAX_VALUE ? limit : limit + 1;
+		byte[] bytes = new byte[Math.min(Math.max(stream.available(), 8192), capacity)];
+		int size = 0;
+		int read;
+		while (size < capacity) {
+			if (size == bytes.length) {
+				bytes = Arrays.copyOf(bytes, (int) Math.min(2L * bytes.length, capacity));
+			}
+			read = stream.read(bytes, size, bytes.length - size);
+			if (read == -1) {
+				break;
+			}
+			size += read;
+		}
+		return size == bytes.length ? bytes : Arrays.copyOf(bytes, size);
+	}
+
+	/**
+	 * <h1>beginArray</h1>
+	 * <p>void beginArray() throws IOException</p>
+	 * <p>Consumes the opening bracket of the top level array of features,
+	 * skipping a leading byte order mark if there is one.</p>
+	 * @throws IOException if the input does not start with an array
+	 */
+	void beginArray() throws IOException {
+		if (limit - pos >= 3 && buffer[pos] == (byte) 0xEF && buffer[pos + 1] == (byte) 0xBB
+				&& buffer[pos + 2] == (byte) 0xBF) {
+			pos += 3;
+		}
+		expect('[');
+		firstFeature = true;
+	}
+
+	/**
+	 * <h1>split</h1>
+	 * <p>static int[] split(byte[] buffer, int start, int end, int parts)</p>
+	 * <p>Splits the top level array of features between start and end into
+	 * about the given number of chunks of similar size. Each chunk after the
+	 * first begins at a comma followed by the opening brace of a feature and
+	 * its first property name.</p>
+	 * <p>The split points are found by looking for that pattern near even
+	 * intervals rather than by scanning the whole array, so one may fall
+	 * inside a feature which holds an array of objects. The chunks on either
+	 * side of such a point do not hold whole features, so readFeatures(int[],
+	 * boolean, boolean) throws an IOException for them, and the array should
+	 * then be read in one piece instead.</p>
+	 * @param buffer - The UTF-8 encoded JSON
+	 * @param start - The index of the first byte of the array
+	 * @param end - The index after the last byte of the array
+	 * @param parts - The number of chunks wanted
+	 * @return the start of each chunk followed by end
+	 */
+	static int[] split(byte[] buffer, int start, int end, int parts) {
+		int[] bounds = new int[parts + 1];
+		int count = 0;
+		bounds[count++] = start;
+
+		for (int i = 1; i < parts; i++) {
+			int target = Math.max(start + (int) ((long) (end - start) * i / parts), bounds[count - 1] + 1);
+			int bound = nextBoundary(buffer, target, end);
+			if (bound < 0) {
+				break;
+			}
+			bounds[count++] = bound;
+		}
+
+		bounds[count++] = end;
+		return Arrays.copyOf(bounds, count);
+	}
+
+	//Finds the next comma followed by a brace and a quote, allowing whitespace between them
+	private static int nextBoundary(byte[] buffer, int from, int end) {
+		for (int i = from; i < end; i++) {
+			if (buffer[i] == ',') {
+				int j = skipWhitespace(buffer, i + 1, end);
+				if (j < end && buffer[j] == '{') {
+					j = skipWhitespace(buffer, j + 1, end);
+					if (j < end && buffer[j] == '"') {
+						return i;
+					}
+				}
+			}
+		}
+		return -1;
+	}
+
+	private static int skipWhitespace(byte[] buffer, int from, int end) {
+		while (from < end && (buffer[from] == ' ' || buffer[from] == '\t' || buffer[from] == '\n'
+				|| buffer[from] == '\r')) {
+			from++;
+		}
+		return from;
+	}
+
+	/**
+	 * <h1>readFeatures</h1>
+	 * <p>Features readFeatures(int[] keys, boolean first, boolean last) throws IOException</p>
+	 * <p>Reads every feature of a chunk made by split(byte[], int, int, int),
+	 * decoding the values of the given properties. The scanner must have been
+	 * created over exactly the bytes of the chunk.</p>
+	 * @param keys - The key constants of the properties to decode
+	 * @param first - Whether the chunk is the first, which opens the array
+	 * @param last - Whether the chunk is the last, which closes the array
+	 * @return the features of the chunk
+	 * @throws IOException if the chunk does not hold whole features
+	 */
+	Features readFeatures(int[] keys, boolean first, boolean last) throws IOException {
+		retain(keys);
+		if (first) {
+			beginArray();
+		} else {
+			firstFeature = false;
+		}
+		openEnded = !last;
+
+		Features features = new Features(keys);
+		while (nextFeature()) {
+			features.add(coordinates, values);
+		}
+		return features;
+	}
+
+	/**
+	 * <h1>nextFeature</h1>
+	 * <p>boolean nextFeature() throws IOException</p>
+	 * <p>Reads the next feature of the top level array. The values of the
+	 * known properties and the coordinates of the feature can then be
+	 * retrieved with getString(int) and getCoordinate(int).</p>
+	 * @return true if a feature was read, false at the end of the array
+	 * @throws IOException if the feature cannot be read by the scanner
+	 */
+	boolean nextFeature() throws IOException {
+		if (openEnded) {
+			pos = skipWhitespace(buffer, pos, limit);
+			if (pos == limit) {
+				return false;
+			}
+		}
+
+		int c = nextNonWhitespace();
+		if (c == ']') {
+			if (openEnded) {
+				throw syntaxError("Unexpected end of array");
+			}
+			pos++;
+			return false;
+		}
+		if (!firstFeature) {
+			expect(',');
+		}
+		firstFeature = false;
+
+		for (int i = 0; i < KEY_COUNT; i++) {
+			values[i] = null;
+		}
+		coordinateCount = 0;
+
+		expect('{'); //Start of each feature
+		if (!endOfObject()) {
+			do {
+				int key = readKey();
+				if (key == GEOMETRY) {
+					readGeometry();
+				} else if (key == PROPERTIES) {
+					readProperties();
+				} else {
+					skipValue();
+				}
+			} while (nextMember());
+		}
+
+		if (coordinateCount < 2) {
+			throw syntaxError("Feature is missing its coordinates");
+		}
+		return true;
+	}
+
+	/**
+	 * <h1>getString</h1>
+	 * <p>String getString(int key)</p>
+	 * <p>Retrieves the value of a known property of the last feature read.</p>
+	 * @param key - The key constant of the property
+	 * @return the value of the property, or null if the feature did not have it
+	 */
+	String getString(int key) {
+		return values[key];
+	}
+
+	/**
+	 * <h1>getCoordinate</h1>
+	 * <p>double getCoordinate(int index)</p>
+	 * <p>Retrieves one of the first two coordinates of the last feature read.</p>
+	 * @param index - 0 for the first coordinate, 1 for the second
+	 * @return the coordinate
+	 */
+	double getCoordinate(int index) {
+		return coordinates[index];
+	}
+
+	private void readGeometry() throws IOException {
+		expect('{');
+		if (endOfObject()) {
+			return;
+		}
+		do {
+			if (readKey() == COORDINATES) {
+				readCoordinates();
+			} else {
+				skipValue(); //Ignores "type" : "feature"
+			}
+		} while (nextMember());
+	}
+
+	private void readProperties() throws IOException {
+		expect('{');
+		if (endOfObject()) {
+			return;
+		}
+		do {
+			int key = readKey();
+			if (key >= NM && retained[key]) {
+				values[key] = readString();
+			} else {
+				skipValue();
+			}
+		} while (nextMember());
+	}
+
+	private void readCoordinates() throws IOException {
+		expect('[');
+		coordinateCount = 0;
+		if (nextNonWhitespace() == ']') {
+			pos++;
+			return;
+		}
+		do {
+			nextNonWhitespace();
+			double value = readDouble();
+			if (coordinateCount < 2) {
+				coordinates[coordinateCount] = value;
+			}
+			coordinateCount++;
+		} while (nextElement(']'));
+	}
+
+	//Reads a property name and its colon, returning the key constant for it
+	private int readKey() throws IOException {
+		expect('"');
+		int start = pos;
+		int hash = 0;
+		while (true) {
+			if (pos >= limit) {
+				throw syntaxError("Unterminated name");
+			}
+			byte b = buffer[pos];
+			if (b == '"') {
+				break;
+			}
+			if (b == '\\') {
+				throw syntaxError("Escaped names are not supported");
+			}
+			hash = 31 * hash + b;
+			pos++;
+		}
+		int length = pos - start;
+		pos++;
+		expect(':');
+
+		int slot = spread(hash);
+		int key;
+		while ((key = KEY_TABLE[slot]) != UNKNOWN) {
+			if (matches(KEYS[key], start, length)) {
+				return key;
+			}
+			slot = (slot + 1) & TABLE_MASK;
+		}
+		return UNKNOWN;
+	}
+
+	private boolean matches(byte[] key, int start, int length) {
+		if (key.length != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (buffer[start + i] != key[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String readString() throws IOException {
+		int c = nextNonWhitespace();
+		if (c != '"') {
+			if (c == '-' || (c >= '0' && c <= '9')) {
+				int start = pos;
+				readDouble();
+				return new String(buffer, start, pos - start, ISO_8859_1);
+			}
+			throw syntaxError("Expected a string");
+		}
+		pos++;
+		int start = pos;
+		while (pos < limit) {
+			byte b = buffer[pos];
+			if (b == '"') {
+				pos++;
+				return new String(buffer, start, pos - 1 - start, UTF_8);
+			}
+			if (b == '\\') {
+				return readEscapedString(start);
+			}
+			pos++;
+		}
+		throw syntaxError("Unterminated string");
+	}
+
+	//Copies the string into the unescape buffer, resolving escape sequences as it goes
+	private String readEscapedString(int start) throws IOException {
+		int length = 0;
+		pos = start;
+		while (pos < limit) {
+			byte b = buffer[pos++];
+			if (length + 4 > unescaped.length) {
+				byte[] larger = new byte[unescaped.length * 2];
+				System.arraycopy(unescaped, 0, larger, 0, length);
+				unescaped = larger;
+			}
+			if (b == '"') {
+				return new String(unescaped, 0, length, UTF_8);
+			}
+			if (b != '\\') {
+				unescaped[length++] = b;
+				continue;
+			}
+			if (pos >= limit) {
+				break;
+			}
+			byte escape = buffer[pos++];
+			switch (escape) {
+			case '"':
+			case '\\':
+			case '/':
+				unescaped[length++] = escape;
+				break;
+			case 'b':
+				unescaped[length++] = '\b';
+				break;
+			case 'f':
+				unescaped[length++] = '\f';
+				break;
+			case 'n':
+				unescaped[length++] = '\n';
+				break;
+			case 'r':
+				unescaped[length++] = '\r';
+				break;
+			case 't':
+				unescaped[length++] = '\t';
+				break;
+			case 'u':
+				int codePoint = readHex();
+				if (codePoint >= 0xD800 && codePoint <= 0xDBFF) {
+					if (pos + 1 >= limit || buffer[pos] != '\\' || buffer[pos + 1] != 'u') {
+						throw syntaxError("Unpaired surrogate");
+					}
+					pos += 2;
+					int low = readHex();
+					if (low < 0xDC00 || low > 0xDFFF) {
+						throw syntaxError("Unpaired surrogate");
+					}
+					codePoint = 0x10000 + ((codePoint - 0xD800) << 10) + (low - 0xDC00);
+				} else if (codePoint >= 0xDC00 && codePoint <= 0xDFFF) {
+					throw syntaxError("Unpaired surrogate");
+				}
+				length = appendUtf8(codePoint, length);
+				break;
+			default:
+				throw syntaxError("Invalid escape sequence");
+			}
+		}
+		throw syntaxError("Unterminated string");
+	}
+
+	private int readHex() throws IOException {
+		if (pos + 4 > limit) {
+			throw syntaxError("Unterminated escape sequence");
+		}
+		int value = 0;
+		for (int i = 0; i < 4; i++) {
+			int digit = Character.digit(buffer[pos++], 16);
+			if (digit < 0) {
+				throw syntaxError("Invalid escape sequence");
+			}
+			value = (value << 4) | digit;
+		}
+		return value;
+	}
+
+	private int appendUtf8(int codePoint, int length) {
+		if (codePoint < 0x80) {
+			unescaped[length++] = (byte) codePoint;
+		} else if (codePoint < 0x800) {
+			unescaped[length++] = (byte) (0xC0 | (codePoint >> 6));
+			unescaped[length++] = (byte) (0x80 | (codePoint & 0x3F));
+		} else if (codePoint < 0x10000) {
+			unescaped[length++] = (byte) (0xE0 | (codePoint >> 12));
+			unescaped[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+			unescaped[length++] = (byte) (0x80 | (codePoint & 0x3F));
+		} else {
+			unescaped[length++] = (byte) (0xF0 | (codePoint >> 18));
+			unescaped[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+			unescaped[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+			unescaped[length++] = (byte) (0x80 | (codePoint & 0x3F));
+		}
+		return length;
+	}
+
+	/*
+	 * Parses a JSON number in place. Numbers whose digits fit in 53 bits and whose
+	 * exponent is small are exact after a single multiplication or division, anything
+	 * else is handed to Double.parseDouble so the result always matches Gson.
+	 */
+	private double readDouble() throws IOException {
+		int start = pos;
+		boolean negative = false;
+		if (pos < limit && buffer[pos] == '-') {
+			negative = true;
+			pos++;
+		}
+
+		long mantissa = 0;
+		int exponent = 0;
+		int digits = 0;
+		boolean exact = true;
+
+		int integerStart = pos;
+		while (pos < limit && buffer[pos] >= '0' && buffer[pos] <= '9') {
+			if (mantissa < MAX_EXACT_MANTISSA / 10) {
+				mantissa = mantissa * 10 + (buffer[pos] - '0');
+			} else {
+				exact = false;
+			}
+			pos++;
+			digits++;
+		}
+		if (digits == 0 || (buffer[integerStart] == '0' && digits > 1)) {
+			throw syntaxError("Expected a number");
+		}
+
+		if (pos < limit && buffer[pos] == '.') {
+			pos++;
+			int fractionDigits = 0;
+			while (pos < limit && buffer[pos] >= '0' && buffer[pos] <= '9') {
+				if (mantissa < MAX_EXACT_MANTISSA / 10) {
+					mantissa = mantissa * 10 + (buffer[pos] - '0');
+					exponent--;
+				} else {
+					exact = false;
+				}
+				pos++;
+				fractionDigits++;
+			}
+			if (fractionDigits == 0) {
+				throw syntaxError("Expected a number");
+			}
+		}
+
+		if (pos < limit && (buffer[pos] == 'e' || buffer[pos] == 'E')) {
+			pos++;
+			boolean negativeExponent = false;
+			if (pos < limit && (buffer[pos] == '+' || buffer[pos] == '-')) {
+				negativeExponent = buffer[pos] == '-';
+				pos++;
+			}
+			int exponentDigits = 0;
+			int explicitExponent = 0;
+			while (pos < limit && buffer[pos] >= '0' && buffer[pos] <= '9') {
+				if (explicitExponent < 1000) {
+					explicitExponent = explicitExponent * 10 + (buffer[pos] - '0');
+				}
+				pos++;
+				exponentDigits++;
+			}
+			if (exponentDigits == 0) {
+				throw syntaxError("Expected a number");
+			}
+			exponent += negativeExponent ? -explicitExponent : explicitExponent;
+		}
+
+		if (exact && exponent >= -22 && exponent <= 22) {
+			double value = mantissa;
+			value = exponent < 0 ? value / POWERS_OF_TEN[-exponent] : value * POWERS_OF_TEN[exponent];
+			return negative ? -value : value;
+		}
+		return Double.parseDouble(new String(buffer, start, pos - start, ISO_8859_1));
+	}
+
+	//Skips over any JSON value without decoding it
+	private void skipValue() throws IOException {
+		int c = nextNonWhitespace();
+		if (c == '"') {
+			pos++;
+			skipStringBody();
+		} else if (c == '{' || c == '[') {
+			int depth = 0;
+			while (pos < limit) {
+				byte b = buffer[pos++];
+				if (b == '"') {
+					skipStringBody();
+				} else if (b == '{' || b == '[') {
+					depth++;
+				} else if (b == '}' || b == ']') {
+					if (--depth == 0) {
+						return;
+					}
+				}
+			}
+			throw syntaxError("Unterminated value");
+		} else {
+			int start = pos;
+			skipLiteral();
+			if (pos == start) {
+				throw syntaxError("Expected a value");
+			}
+		}
+	}
+
+	private void skipStringBody() throws IOException {
+		while (pos < limit) {
+			byte b = buffer[pos++];
+			if (b == '"') {
+				return;
+			}
+			if (b == '\\') {
+				pos++;
+			}
+		}
+		throw syntaxError("Unterminated string");
+	}
+
+	private void skipLiteral() {
+		while (pos < limit) {
+			byte b = buffer[pos];
+			if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+				return;
+			}
+			pos++;
+		}
+	}
+
+	//Checks for an empty object right after its opening brace
+	private boolean endOfObject() throws IOException {
+		if (nextNonWhitespace() == '}') {
+			pos++;
+			return true;
+		}
+		return false;
+	}
+
+	//Consumes the separator after an object member, returning false at the closing brace
+	private boolean nextMember() throws IOException {
+		return nextElement('}');
+	}
+
+	private boolean nextElement(char close) throws IOException {
+		int c = nextNonWhitespace();
+		pos++;
+		if (c == ',') {
+			return true;
+		}
+		if (c == close) {
+			return false;
+		}
+		throw syntaxError("Expected ',' or '" + close + "'");
+	}
+
+	private void expect(char c) throws IOException {
+		if (nextNonWhitespace() != c) {
+			throw syntaxError("Expected '" + c + "'");
+		}
+		pos++;
+	}
+
+	private int nextNonWhitespace() throws IOException {
+		while (pos < limit) {
+			byte b = buffer[pos];
+			if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+				return b;
+			}
+			pos++;
+		}
+		throw syntaxError("Unexpected end of input");
+	}
+
+	private IOException syntaxError(String message) {
+		return new IOException(message + " at byte " + pos);
+	}
+
+	private static int spread(int hash) {
+		return (hash ^ (hash >>> 7) ^ (hash >>> 13)) & TABLE_MASK;
+	}
+}
@@ -0,0 +1,196 @@
+/**This file was created for Terratap-Technologies-Inc by
+ * Cody Clattenburg, Sam Collins, Martin Suryadi, and Sergio Josue Villegas.
+ * This file is under the protection of the Apache 2.0 License.
+ **/
+
+package votingLocations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>The PrefixIndex class completes a partially typed value, such as the text
+ * of a search box, to the values of a column.</p>
+ *
+ * <p>The distinct values of the column are kept in two sorted dictionaries of
+ * lower case keys. The first holds each value as a whole, and the second holds
+ * the rest of the value from the start of each of its other words, so that
+ * typing "lib" completes to "Central Library". The keys starting with a prefix
+ * are next to each other in a sorted dictionary, so a completion is a binary
+ * search followed by reading the next few keys, however many values there are.
+ * Completions of the whole value come before completions of a later word.</p>
+ * @version 1.0
+ */
+final class PrefixIndex {
+
+	private final String[] values;
+	private final int[][] records;
+
+	private final String[] startKeys;
+	private final int[] startValues;
+	private final String[] wordKeys;
+	private final int[] wordValues;
+
+	/**
+	 * <h1>PrefixIndex</h1>
+	 * <p>PrefixIndex(String[] column)</p>
+	 * <p>Builds the index over one value per record.</p>
+	 * @param column - The value of each record, may contain nulls
+	 */
+	PrefixIndex(String[] column) {
+		LinkedHashMap<String, ArrayList<Integer>> distinct = new LinkedHashMap<String, ArrayList<Integer>>();
+
+		for (int i = 0; i < column.length; i++) {
+			if (column[i] == null || column[i].length() == 0) {
+				continue;
+			}
+			ArrayList<Integer> list = distinct.get(column[i]);
+			if (list == null) {
+				list = new ArrayList<Integer>();
+				distinct.put(column[i], list);
+			}
+			list.add(i);
+		}
+
+		values = new String[distinct.size()];
+		records = new int[distinct.size()][];
+
+		ArrayList<String> starts = new ArrayList<String>();
+		ArrayList<String> words = new ArrayList<String>();
+		ArrayList<Integer> wordOwners = new ArrayList<Integer>();
+
+		int value = 0;
+		for (Map.Entry<String, ArrayList<Integer>> entry : distinct.entrySet()) {
+			values[value] = entry.getKey();
+			records[value] = new int[entry.getValue().size()];
+			for (int i = 0; i < records[value].length; i++) {
+				records[value][i] = entry.getValue().get(i);
+			}
+
+			String lower = entry.getKey().toLowerCase(Locale.ROOT);
+			starts.add(lower);
+			for (int i = 1; i < lower.length(); i++) {
+				if (Character.isLetterOrDigit(lower.charAt(i)) && !Character.isLetterOrDigit(lower.charAt(i - 1))) {
+					words.add(lower.substring(i));
+					wordOwners.add(value);
+				}
+			}
+			value++;
+		}
+
+		startKeys = new String[starts.size()];
+		startValues = new int[starts.size()];
+		sort(starts, null, startKeys, startValues);
+
+		wordKeys = new String[words.size()];
+		wordValues = new int[words.size()];
+		sort(words, wordOwners, wordKeys, wordValues);
+	}
+
+	/**
+	 * <h1>complete</h1>
+	 * <p>int[] complete(String prefix, int limit)</p>
+	 * <p>Finds up to limit distinct values starting with the prefix, or having
+	 * a word starting with it, ignoring case. Values are returned in
+	 * alphabetical order, with those starting with the prefix first.</p>
+	 * @param prefix - The partially typed value
+	 * @param limit - The largest number of values to return
+	 * @return the positions of the values, to be passed to value and records
+	 */
+	int[] complete(String prefix, int limit) {
+		String lower = prefix.toLowerCase(Locale.ROOT);
+		int[] found = new int[Math.min(limit, values.length)];
+		HashSet<Integer> seen = new HashSet<Integer>();
+
+		int count = collect(startKeys, startValues, lower, found, 0, seen);
+		count = collect(wordKeys, wordValues, lower, found, count, seen);
+
+		return count == found.length ? found : Arrays.copyOf(found, count);
+	}
+
+	/**
+	 * <h1>value</h1>
+	 * <p>String value(int value)</p>
+	 * <p>Retrieves a value found by complete.</p>
+	 * @param value - The position of the value
+	 * @return the value, as it appears in the records
+	 */
+	String value(int value) {
+		return values[value];
+	}
+
+	/**
+	 * <h1>records</h1>
+	 * <p>int[] records(int value)</p>
+	 * <p>Retrieves the records holding a value found by complete. The array
+	 * is shared and must not be changed.</p>
+	 * @param value - The position of the value
+	 * @return the indexes of the records, in increasing order
+	 */
+	int[] records(int value) {
+		return records[value];
+	}
+
+	/**
+	 * <h1>estimateBytes</h1>
+	 * <p>long estimateBytes()</p>
+	 * <p>Estimates the memory held by the index. The distinct values are shared
+	 * with the records and are not counted, but the lower cased keys are.</p>
+	 * @return the estimated bytes
+	 */
+	long estimateBytes() {
+		return MemoryFootprint.objectBytes(24) + MemoryFootprint.arrayBytes(values.length, 4) + MemoryFootprint.intArraysBytes(records)
+				+ MemoryFootprint.stringArrayBytes(startKeys) + MemoryFootprint.arrayBytes(startValues.length, 4)
+				+ MemoryFootprint.stringArrayBytes(wordKeys) + MemoryFootprint.arrayBytes(wordValues.length, 4);
+	}
+
+	//Copies the keys that start with the prefix into found, skipping values already found
+	private static int collect(String[] keys, int[] owners, String prefix, int[] found, int count,
+			HashSet<Integer> seen) {
+
+		int low = 0;
+		int high = keys.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (keys[middle].compareTo(prefix) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+
+		for (int i = low; i < keys.length && count < found.length && keys[i].startsWith(prefix); i++) {
+			if (seen.add(owners[i])) {
+				found[count++] = owners[i];
+			}
+		}
+		return count;
+	}
+
+	//Sorts the keys, moving the value each belongs to along with it
+	private static void sort(final ArrayList<String> keys, ArrayList<Integer> owners, String[] sortedKeys,
+			int[] sortedOwners) {
+
+		Integer[] order = new Integer[keys.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer first, Integer second) {
+				return keys.get(first).compareTo(keys.get(second));
+			}
+		});
+
+		for (int i = 0; i < order.length; i++) {
+			sortedKeys[i] = keys.get(order[i]);
+			sortedOwners[i] = owners == null ? order[i] : owners.get(order[i]);
+		}
+	}
+}
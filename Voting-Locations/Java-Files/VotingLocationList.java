@@ -5,15 +5,32 @@
 
 package votingLocations;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.google.gson.stream.JsonReader;
 
@@ -32,9 +49,71 @@ import com.google.gson.stream.JsonReader;
  */
 public class VotingLocationList {
 
+	static final int NAME = 0;
+	static final int ADDRESS = 1;
+	
+	//The names of the String fields, in column order, used by getMemoryFootprint() and ListDiff
+	static final String[] FIELDS = {"name", "address"};
+	
+	private static final int NEARBY_CANDIDATES = 64;
+	
+	//A changed list stores its Locations together again once its changes outnumber 8 times the square root of its size, or 256
+	private static final int MIN_CHANGES = 256;
+	private static final int CHANGES_PER_ROOT = 8;
+	
+	//The String columns stored off-heap as codes into a dictionary
+	private static final boolean[] CATEGORICAL = {false, false};
+	
+	private static final int CLOSEST_QUERY = 0;
+	private static final int SORT_QUERY = 1;
+	
+	//Files are only split for parallel parsing into chunks of at least this many bytes
+	private static final int PARALLEL_CHUNK = 1 << 22;
+	
+	//Files smaller than this are parsed on one thread, as splitting them costs more than it saves
+	private static final int PARALLEL_MINIMUM = 1 << 25;
+	
+	//Files larger than this are read with Gson as they are streamed, rather than held in memory for the OdenScanner
+	private static final int SCAN_LIMIT = 1 << 24;
+	
+	//The largest array the JVM can make, which is as much of a file as parallel parsing can hold
+	private static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+	
+	//Runs each asynchronous load on a thread of its own, as reading files blocks
+	private static final Executor LOADER = new Executor() {
+		@Override
+		public void execute(Runnable task) {
+			Thread thread = new Thread(task, "VotingLocationList loader");
+			thread.setDaemon(true);
+			thread.start();
+		}
+	};
+	
 	private ArrayList<Location> inputLocations;
 	
 	private Location[] locations;
+	private int locationCount;
+	private OffHeapStore store;
+	private CompactStore compact;
+	private ResultCache resultCache;
+	private DuplicateFilter duplicateFilter;
+	private int duplicates;
+	private boolean parallelParsing;
+	private boolean partial;
+	
+	//The Locations given to partial lists while the list is read in, which share the array up to their own size
+	private Location[] snapshotLocations;
+	private int snapshotCount;
+	
+	//The list holding the stored Locations of a changed list, and the changes made since they were stored
+	private VotingLocationList base;
+	private Delta delta;
+	
+	private volatile FuzzyIndex nameIndex;
+	private volatile NearestGrid nearestGrid;
+	private volatile PrefixIndex[] prefixIndexes = new PrefixIndex[2];
+	private volatile ClusterIndex clusterIndex;
+	private volatile double[][] coordinates;
 	
 	/**
 	 * <h1>VotingLocationList</h1>
@@ -48,19 +127,35 @@ public class VotingLocationList {
 	 * through the parameters
 	 */
 	public VotingLocationList(Reader json) throws IOException {
+		this(json, new LoadOptions());
+	}
+	
+	/**
+	 * <h1>VotingLocationList</h1>
+	 * <p>public VotingLocationList(Reader json, LoadOptions options) throws IOException</p>
+	 * <p>Creates a new VotingLocationList when given a Reader to a JSON file and 
+	 * the options to read it in with. For the list to be created properly the 
+	 * JSON file must contain geographic data (GeoJSON) for voting locations that 
+	 * is in the oden unified format.</p>
+	 * @param json - The reader reading in data from a JSON file
+	 * @param options - The options used to read in the data
+	 * @throws IOException if there is a problem with the Reader given
+	 * through the parameters
+	 */
+	public VotingLocationList(Reader json, LoadOptions options) throws IOException {
 			
-		inputLocations = new ArrayList<Location>();
+		startLoading(options);
 		JsonReader reader = new JsonReader(json);
 		
 		try {
-			inputLocations = readLocations(reader);
+			readLocations(reader);
 		} catch (IOException e) {
 			System.err.println("Caught IOException: " + e.getMessage());
 		} finally {
 			reader.close();
 		}
 		
-		locations = inputLocations.toArray(new Location[inputLocations.size()]);
+		finishLoading(options);
 	}
 	
 	/**
@@ -74,28 +169,72 @@ public class VotingLocationList {
 	 * @throws IOException if there is a problem reading in data from the files
 	 */
 	public VotingLocationList(String filePath) throws IOException {
+		this(filePath, new LoadOptions());
+	}
+	
+	/**
+	 * <h1>VotingLocationList</h1>
+	 * <p>public VotingLocationList(String filePath, LoadOptions options) throws IOException</p>
+	 * <p>Creates a new VotingLocationList when given a file path (as a String) to a 
+	 * folder containing JSON files and the options to read them in with. The file 
+	 * path must be the full system path and the folder must only contain JSON files 
+	 * containing geographic data (GeoJSON) for voting locations that is in the oden 
+	 * unified format.
+	 * <p>The folder may also hold gzip compressed JSON files ending in .json.gz and zip 
+	 * files of JSON files ending in .zip, which are decompressed while they are parsed 
+	 * rather than being decompressed in memory first.</p>
+	 * <p>Files of up to 16 MB are held in memory while they are parsed, and larger files 
+	 * are parsed as they are read without being held in memory.</p>
+	 * @param filePath - The file path to the folder containing the JSON files
+	 * @param options - The options used to read in the data
+	 * @throws IOException if there is a problem reading in data from the files
+	 */
+	public VotingLocationList(String filePath, LoadOptions options) throws IOException {
+		this(inputFiles(filePath), options, null);
+	}
+	
+	//Reads in the JSON files of a folder, reporting to the listener after each file but the last
+	private VotingLocationList(File[] inputFiles, LoadOptions options, LoadListener listener) throws IOException {
 			
-		inputLocations = new ArrayList<Location>();
-		File folder = new File(filePath);
-		File[] fileList = folder.listFiles();
+		startLoading(options);
+		int fileCount = inputFiles.length;
+		Decompressor decompressor = new Decompressor(inputFiles);
 		
 		try {
 			
-			FileInputStream fileStream;
-			for (int i = 0; i < fileList.length; i++) {
+			for (int filesRead = 1; filesRead <= fileCount; filesRead++) {
 				
-				if (fileList[i].isFile() && fileList[i].getName().endsWith(".json")) {
-					
-					fileStream = new FileInputStream(fileList[i]);
-					ArrayList<Location> temp = readLocations(new JsonReader(new InputStreamReader(fileStream, "UTF-8")));
-					inputLocations.addAll(temp);
+				InputStream json;
+				while ((json = decompressor.next()) != null) {
+					readLocations(json);
+				}
+				
+				if (listener != null && filesRead < fileCount) {
+					listener.progress(snapshot(), filesRead, fileCount);
 				}
 			}
 		} catch (IOException e) {
 			System.err.println("Caught IOException: " + e.getMessage());
-		} 
+		} finally {
+			decompressor.close();
+		}
+		
+		finishLoading(options);
+	}
+	
+	//Lists the files of a folder that hold JSON files, going by their names
+	private static File[] inputFiles(String filePath) {
+		File folder = new File(filePath);
+		File[] fileList = folder.listFiles();
+		ArrayList<File> inputFiles = new ArrayList<File>();
+		
+		for (int i = 0; i < fileList.length; i++) {
+			if (fileList[i].isFile() && Decompressor.isInput(fileList[i].getName())) {
+				inputFiles.add(fileList[i]);
+			}
+		}
 		
-		locations = inputLocations.toArray(new Location[inputLocations.size()]);
+		return inputFiles.toArray(new File[inputFiles.size()]);
 	}
 	
 	/**
@@ -110,21 +249,181 @@ public class VotingLocationList {
 	 * @throws IOException if there is a problem reading in data from the files
 	 */
 	public VotingLocationList(InputStream[] inputStreams) throws IOException {
+		this(inputStreams, new LoadOptions());
+	}
+	
+	/**
+	 * <h1>VotingLocationList</h1>
+	 * <p>public VotingLocationList(InputStream[] inputStreams, LoadOptions options) throws IOException</p>
+	 * <p>Creates a new VotingLocationList when given an array of InputStream objects that are 
+	 * being reading JSON files and the options to read them in with. The InputStreams must 
+	 * be from JSON files containing geographic data (GeoJSON) for voting locations that are 
+	 * in the oden unified format.
+	 * <p>InputStreams of gzip compressed JSON files or of zip files holding JSON files
+	 * are recognised from their first bytes and decompressed as they are read in.</p>
+	 * <p>Files of up to 16 MB are held in memory while they are parsed, and larger files 
+	 * are parsed as they are read without being held in memory.</p>
+	 * <p>It is recommended that this constructor be used with Android, where the
+	 * compactCoordinates option of LoadOptions keeps the list small.</p>
+	 * @param inputStreams - The array of InputStreams to the JSON files
+	 * @param options - The options used to read in the data
+	 * @throws IOException if there is a problem reading in data from the files
+	 */
+	public VotingLocationList(InputStream[] inputStreams, LoadOptions options) throws IOException {
+		this(inputStreams, options, null);
+	}
+	
+	//Reads in the JSON files of an array of InputStreams, reporting to the listener after each file but the last
+	private VotingLocationList(InputStream[] inputStreams, LoadOptions options, LoadListener listener)
+			throws IOException {
 		
-		inputLocations = new ArrayList<Location>();
+		startLoading(options);
+		Decompressor decompressor = new Decompressor(inputStreams);
 		
 		try {
 			
 			for (int i = 0; i < inputStreams.length; i++) {
-									
-				ArrayList<Location> temp = readLocations(new JsonReader(new InputStreamReader(inputStreams[i], "UTF-8")));
-				inputLocations.addAll(temp);
+				
+				InputStream json;
+				while ((json = decompressor.next()) != null) {
+					readLocations(json);
+				}
+				
+				if (listener != null && i + 1 < inputStreams.length) {
+					listener.progress(snapshot(), i + 1, inputStreams.length);
+				}
 			}
 		} catch (IOException e) {
 			System.err.println("Caught IOException: " + e.getMessage());
-		} 
+		} finally {
+			decompressor.close();
+		}
+		
+		finishLoading(options);
+	}
+	
+	//Creates a partial list holding the Locations read in so far
+	private VotingLocationList(Location[] locations, int count) {
+		this.locations = locations;
+		this.locationCount = count;
+		partial = true;
+	}
+	
+	//Creates a changed list sharing the stored Locations of another list
+	private VotingLocationList(VotingLocationList base, Delta delta, ResultCache resultCache) {
+		this.base = base;
+		this.delta = delta;
+		this.resultCache = resultCache != null ? resultCache.emptyCopy() : null;
+		duplicates = base.duplicates;
+	}
+	
+	//Stores the Locations of a changed list together in a new list, off-heap or compact if its stored Locations were
+	private VotingLocationList(VotingLocationList changed) {
+		
+		if (changed.base.store != null || changed.base.compact != null) {
+			if (changed.base.compact != null) {
+				compact = new CompactStore(CATEGORICAL);
+			} else {
+				store = new OffHeapStore(CATEGORICAL);
+			}
+			int[] slots = new int[DistanceKernel.BLOCK];
+			int[] positions = new int[DistanceKernel.BLOCK];
+			String[] values = new String[FIELDS.length];
+			
+			for (int start = 0; start < changed.size(); start += DistanceKernel.BLOCK) {
+				int length = Math.min(DistanceKernel.BLOCK, changed.size() - start);
+				changed.delta.map(start, length, slots, positions);
+				for (int i = 0; i < length; i++) {
+					for (int column = 0; column < values.length; column++) {
+						values[column] = positions[i] >= 0 ? field(changed.delta.location(positions[i]), column)
+								: changed.base.stringAt(slots[i], column);
+					}
+					if (compact != null) {
+						compact.add(changed.slotLatitude(slots[i]), changed.slotLongitude(slots[i]), values);
+					} else {
+						store.add(changed.slotLatitude(slots[i]), changed.slotLongitude(slots[i]), values);
+					}
+				}
+			}
+			if (compact != null) {
+				compact.trim();
+			}
+		} else {
+			locations = changed.getAllLocations();
+			locationCount = locations.length;
+		}
+		
+		resultCache = changed.resultCache;
+		duplicates = changed.duplicates;
+	}
+	
+	/**
+	 * <h1>loadAsync</h1>
+	 * <p>public static CompletableFuture&lt;VotingLocationList&gt; loadAsync(String filePath, LoadOptions options, 
+	 * LoadListener listener)</p>
+	 * <p>Starts reading in a VotingLocationList from a folder of JSON files on a background thread,
+	 * in the same way as the VotingLocationList(String, LoadOptions) constructor, and returns
+	 * without waiting for it.</p>
+	 * <p>After each file but the last the listener is given a partial VotingLocationList of the 
+	 * Locations read so far, which can be queried while the rest of the files are read 
+	 * in. Once every file is read it is given the finished VotingLocationList.</p>
+	 * @param filePath - The file path to the folder containing the JSON files
+	 * @param options - The options used to read in the data
+	 * @param listener - Receives the progress of the loading, may be null
+	 * @return a future completed with the VotingLocationList once every file is read in
+	 */
+	public static CompletableFuture<VotingLocationList> loadAsync(final String filePath,
+			final LoadOptions options, final LoadListener listener) {
+		
+		return CompletableFuture.supplyAsync(new Supplier<VotingLocationList>() {
+			@Override
+			public VotingLocationList get() {
+				try {
+					File[] inputFiles = inputFiles(filePath);
+					VotingLocationList list = new VotingLocationList(inputFiles, options, listener);
+					if (listener != null) {
+						listener.progress(list, inputFiles.length, inputFiles.length);
+					}
+					return list;
+				} catch (IOException e) {
+					throw new CompletionException(e);
+				}
+			}
+		}, LOADER);
+	}
+	
+	/**
+	 * <h1>loadAsync</h1>
+	 * <p>public static CompletableFuture&lt;VotingLocationList&gt; loadAsync(InputStream[] inputStreams, 
+	 * LoadOptions options, LoadListener listener)</p>
+	 * <p>Starts reading in a VotingLocationList from an array of InputStreams on a background thread,
+	 * in the same way as the VotingLocationList(InputStream[], LoadOptions) constructor, and returns
+	 * without waiting for it.</p>
+	 * <p>After each InputStream but the last the listener is given a partial VotingLocationList of 
+	 * the Locations read so far, which can be queried while the rest of the InputStreams 
+	 * are read in. Once every InputStream is read it is given the finished VotingLocationList.</p>
+	 * @param inputStreams - The array of InputStreams to the JSON files
+	 * @param options - The options used to read in the data
+	 * @param listener - Receives the progress of the loading, may be null
+	 * @return a future completed with the VotingLocationList once every InputStream is read in
+	 */
+	public static CompletableFuture<VotingLocationList> loadAsync(final InputStream[] inputStreams,
+			final LoadOptions options, final LoadListener listener) {
 		
-		locations = inputLocations.toArray(new Location[inputLocations.size()]);
+		return CompletableFuture.supplyAsync(new Supplier<VotingLocationList>() {
+			@Override
+			public VotingLocationList get() {
+				try {
+					VotingLocationList list = new VotingLocationList(inputStreams, options, listener);
+					if (listener != null) {
+						listener.progress(list, inputStreams.length, inputStreams.length);
+					}
+					return list;
+				} catch (IOException e) {
+					throw new CompletionException(e);
+				}
+			}
+		}, LOADER);
 	}
 	
 	/**
@@ -134,7 +433,74 @@ public class VotingLocationList {
 	 * @return The full list of Locations
 	 */
 	public Location[] getAllLocations() {
-		return locations;
+		
+		if (locations != null) {
+			return locationCount == locations.length ? locations : Arrays.copyOf(locations, locationCount);
+		}
+		
+		Location[] allLocations = new Location[size()];
+		
+		if (delta != null) {
+			int[] slots = new int[DistanceKernel.BLOCK];
+			int[] positions = new int[DistanceKernel.BLOCK];
+			
+			for (int start = 0; start < allLocations.length; start += DistanceKernel.BLOCK) {
+				int length = Math.min(DistanceKernel.BLOCK, allLocations.length - start);
+				delta.map(start, length, slots, positions);
+				for (int i = 0; i < length; i++) {
+					allLocations[start + i] = positions[i] >= 0 ? delta.location(positions[i]) : base.location(slots[i]);
+				}
+			}
+			return allLocations;
+		}
+		
+		for (int i = 0; i < allLocations.length; i++) {
+			allLocations[i] = location(i);
+		}
+		
+		return allLocations;
+	}
+	
+	/**
+	 * <h1>size</h1>
+	 * <p>public int size()</p>
+	 * <p>Retrieves the number of Locations in the list.</p>
+	 * @return The number of Locations
+	 */
+	public final int size() {
+		
+		if (delta != null) {
+			return delta.size();
+		}
+		
+		if (compact != null) {
+			return compact.size();
+		}
+		
+		return locations != null ? locationCount : store.size();
+	}
+	
+	/**
+	 * <h1>isPartial</h1>
+	 * <p>public boolean isPartial()</p>
+	 * <p>Retrieves whether the list is a partial list given to a LoadListener while 
+	 * loadAsync() is still reading in the rest of the Locations.</p>
+	 * @return true if the list only holds some of the Locations
+	 */
+	public boolean isPartial() {
+		return partial;
+	}
+	
+	/**
+	 * <h1>getDuplicateCount</h1>
+	 * <p>public int getDuplicateCount()</p>
+	 * <p>Retrieves the number of Locations left out of the list while it was read in 
+	 * because they were duplicates of Locations already in it. This is always 0 unless 
+	 * LoadOptions.setDeduplicate(true) was set.</p>
+	 * @return The number of duplicate Locations left out
+	 */
+	public int getDuplicateCount() {
+		return duplicates;
 	}
 	
 	/**
@@ -142,33 +508,88 @@ public class VotingLocationList {
 	 * <p>public Location getClosestLocation(double latitude, double longitude)</p>
 	 * <p>Takes in the latitude and longitude as doubles and returns the 
 	 * Location in the list that is closest to the given coordinates.</p>
+	 * <p>The first call builds a grid over the area of the locations that stores,
+	 * for each small cell, the locations that can be closest to a point in it. 
+	 * Later calls from inside the area are answered with a lookup in the grid 
+	 * rather than a check of every Location, and give the same result.</p>
 	 * @param latitude - The latitude of the User
 	 * @param longitude - The longitude of the User
 	 * @return the Location closest to the given latitude and longitude
 	 */
 	public Location getClosestLocation(double latitude, double longitude) {
 		
-		Location closest = null;
-		double shortestDist = 0;
-
-		if (locations != null) {
+		if (resultCache != null) {
+			ResultCache.Key key = resultCache.key(CLOSEST_QUERY, latitude, longitude);
+			Location cached = (Location) resultCache.get(key);
 			
-			closest = locations[0];
-			shortestDist = Math.sqrt(Math.pow((locations[0].getLatitude() - latitude), 2) 
-					+ Math.pow((locations[0].getLongitude() - longitude), 2));
+			if (cached == null) {
+				cached = closestLocation(resultCache.latitude(key), resultCache.longitude(key));
+				resultCache.put(key, cached);
+			}
+			return cached;
 		}
 		
-		for (int i = 0; i < locations.length; i++) {
-			double currentDist = Math.sqrt(Math.pow((locations[i].getLatitude() - latitude), 2) 
-					+ Math.pow((locations[i].getLongitude() - longitude), 2));
-			
-			if (currentDist < shortestDist) {
-				shortestDist = currentDist;
-				closest = locations[i];
-			}
+		return closestLocation(latitude, longitude);
+	}
+	
+	/**
+	 * <h1>trackClosestLocation</h1>
+	 * <p>public NearestTracker trackClosestLocation()</p>
+	 * <p>Creates a NearestTracker for a user who keeps asking for the closest
+	 * Location while they move. The tracker remembers its last answer and how far
+	 * the user can move before it could change, so repeated lookups from nearby
+	 * positions cost next to nothing compared to getClosestLocation(). Each moving
+	 * user should have a tracker of their own.</p>
+	 * @return a new NearestTracker over this list
+	 */
+	public NearestTracker trackClosestLocation() {
+		return new NearestTracker(this);
+	}
+	
+	/**
+	 * <h1>assignNearest</h1>
+	 * <p>public long assignNearest(Reader points, Writer assignments) throws IOException</p>
+	 * <p>Assigns every point of a CSV file to its closest Location, using every
+	 * core of the machine. See assignNearest(Reader, Writer, int, AssignmentListener).</p>
+	 * @param points - The CSV file of points, one "id,latitude,longitude" line per point
+	 * @param assignments - Where the CSV file of assignments is written
+	 * @return the number of points assigned
+	 * @throws IOException if the points cannot be read or the assignments cannot be written
+	 */
+	public long assignNearest(Reader points, Writer assignments) throws IOException {
+		return assignNearest(points, assignments, Runtime.getRuntime().availableProcessors(), null);
+	}
+	
+	/**
+	 * <h1>assignNearest</h1>
+	 * <p>public long assignNearest(Reader points, Writer assignments, int threads, 
+	 * AssignmentListener listener) throws IOException</p>
+	 * <p>Assigns every point of a CSV file to its closest Location. Each line of
+	 * points starts with an id, a latitude and a longitude, and may hold more
+	 * fields after them, which are dropped. A first line without coordinates is
+	 * taken to be a header, and other lines without coordinates are skipped.</p>
+	 * <p>The assignments are written in the same order as the points, as 
+	 * "id,latitude,longitude,name,address" lines below a header line, where name
+	 * and address are those of the closest Location.</p>
+	 * <p>The points are read in batches that are assigned by several threads at
+	 * once using the same grid as getClosestLocation(double, double). Only a few 
+	 * batches are held in memory at a time, so files of any size can be assigned.</p>
+	 * @param points - The CSV file of points
+	 * @param assignments - Where the CSV file of assignments is written
+	 * @param threads - The number of threads assigning points
+	 * @param listener - Receives the progress after each batch is written, may be null
+	 * @return the number of points assigned
+	 * @throws IOException if the points cannot be read or the assignments cannot be written
+	 */
+	public long assignNearest(Reader points, Writer assignments, int threads, AssignmentListener listener) 
+			throws IOException {
+		
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads must be positive");
 		}
 		
-		return closest;
+		nearestGrid();
+		return new NearestAssignment(this).run(points, assignments, threads, listener);
 	}
 
 	/**
@@ -182,29 +603,134 @@ public class VotingLocationList {
 	 * @return the list of Locations sorted by their distance to the given latitude and longitude
 	 */
 	public Location[] sortByDistance(final double latitude, final double longitude) {
-		Location[] sortedLocations = locations;
 		
-		Arrays.sort(sortedLocations, new Comparator<Location>() {
-			@Override
-			public int compare(Location first, Location second) {
-
-				double firstDist = Math.sqrt(Math.pow((first.getLatitude() - latitude), 2) 
-						+ Math.pow((first.getLongitude() - longitude), 2));
-				
-				double secondDist = Math.sqrt(Math.pow((second.getLatitude() - latitude), 2) 
-						+ Math.pow((second.getLongitude() - longitude), 2));
-				
-				if (firstDist < secondDist) {
-					return -1;
-				} else if (firstDist > secondDist) {
-					return 1;
-				} else {
-					return 0;
+		if (resultCache != null) {
+			ResultCache.Key key = resultCache.key(SORT_QUERY, latitude, longitude);
+			Location[] cached = (Location[]) resultCache.get(key);
+			
+			if (cached == null) {
+				cached = sortLocationsByDistance(resultCache.latitude(key), resultCache.longitude(key));
+				resultCache.put(key, cached);
+			}
+			return cached.clone();
+		}
+		
+		return sortLocationsByDistance(latitude, longitude);
+	}
+	
+	/**
+	 * <h1>getCacheStats</h1>
+	 * <p>public CacheStats getCacheStats()</p>
+	 * <p>Retrieves the hit, miss and eviction counts of the result cache set up
+	 * with LoadOptions.setResultCacheSize(int).</p>
+	 * <p>This method returns <b>null</b> if the result cache is off.</p>
+	 * @return a snapshot of the result cache counts
+	 */
+	public CacheStats getCacheStats() {
+		return resultCache != null ? resultCache.getStats() : null;
+	}
+	
+	/**
+	 * <h1>clearCache</h1>
+	 * <p>public void clearCache()</p>
+	 * <p>Removes every result from the result cache, if there is one. The cache
+	 * of a list is emptied automatically whenever its locations change, so this is
+	 * only needed to free memory.</p>
+	 */
+	public final void clearCache() {
+		if (resultCache != null) {
+			resultCache.clear();
+		}
+	}
+	
+	/**
+	 * <h1>getMemoryFootprint</h1>
+	 * <p>public MemoryFootprint getMemoryFootprint()</p>
+	 * <p>Estimates the memory held by the list, broken down into the Location objects,
+	 * their coordinates, each of their String fields, and whichever of the name search
+	 * index, the autocomplete indexes, the cluster index, the nearest neighbour grid
+	 * and the result cache have been built. The sizes are worked out from what the
+	 * list holds rather than measured, so they are estimates; lists read in off-heap
+	 * report most of their memory as off-heap bytes.</p>
+	 * <p>The String fields are walked once for each call, so this is meant for
+	 * sizing and monitoring rather than for being called on every query.</p>
+	 * <p>A list made by add, update or remove also counts the list it shares its stored 
+	 * Locations with, along with its own changes and the indexes built over them.</p>
+	 * @return the estimated memory footprint of the list
+	 */
+	public MemoryFootprint getMemoryFootprint() {
+		
+		int count = size();
+		MemoryFootprint footprint = new MemoryFootprint(count);
+		
+		if (delta != null) {
+			footprint.add(base.getMemoryFootprint());
+			long bytes = delta.estimateBytes();
+			for (int i = 0; i < delta.count(); i++) {
+				bytes += MemoryFootprint.objectBytes(24);
+				for (int column = 0; column < FIELDS.length; column++) {
+					bytes += MemoryFootprint.stringBytes(field(delta.location(i), column));
 				}
 			}
-		});
+			footprint.add("changes", bytes, 0);
+		} else if (compact != null) {
+			footprint.add("coordinates", compact.coordinateBytes(), 0);
+			for (int column = 0; column < FIELDS.length; column++) {
+				footprint.add(FIELDS[column], compact.columnBytes(column), 0);
+			}
+		} else if (locations == null) {
+			footprint.add("coordinates", 0, 16L * count);
+			long used = 16L * count;
+			for (int column = 0; column < FIELDS.length; column++) {
+				long bytes = store.columnBytes(column);
+				footprint.add(FIELDS[column], store.dictionaryBytes(column), bytes);
+				used += bytes;
+			}
+			footprint.add("unused", 0, Math.max(0, store.getDirectBytes() - used));
+		} else {
+			footprint.add("locations", MemoryFootprint.arrayBytes(count, 4)
+					+ count * (MemoryFootprint.objectBytes(24) - 16), 0);
+			footprint.add("coordinates", 16L * count, 0);
+			IdentityHashMap<String, Boolean> counted = new IdentityHashMap<String, Boolean>();
+			for (int column = 0; column < FIELDS.length; column++) {
+				long bytes = 0;
+				for (int i = 0; i < count; i++) {
+					String value = stringAt(i, column);
+					if (value != null && counted.put(value, Boolean.TRUE) == null) {
+						bytes += MemoryFootprint.stringBytes(value);
+					}
+				}
+				footprint.add(FIELDS[column], bytes, 0);
+			}
+		}
 		
-		return sortedLocations;
+		FuzzyIndex names = nameIndex;
+		if (names != null) {
+			footprint.add("nameIndex", names.estimateBytes(), 0);
+		}
+		for (int column = 0; column < FIELDS.length; column++) {
+			PrefixIndex completions = prefixIndexes[column];
+			if (completions != null) {
+				footprint.add(FIELDS[column] + "Completions", completions.estimateBytes(), 0);
+			}
+		}
+		double[][] arrays = coordinates;
+		if (arrays != null) {
+			footprint.add("coordinateArrays", 2 * MemoryFootprint.arrayBytes(arrays[0].length, 8), 0);
+		}
+		ClusterIndex clusters = clusterIndex;
+		if (clusters != null) {
+			footprint.add("clusterIndex", clusters.estimateBytes(), 0);
+		}
+		NearestGrid grid = nearestGrid;
+		if (grid != null) {
+			footprint.add("nearestGrid", grid.estimateBytes(), 0);
+		}
+		if (resultCache != null) {
+			footprint.add("resultCache", resultCache.estimateBytes(), 0);
+		}
+		
+		return footprint;
 	}
 	
 	/**
@@ -220,9 +746,10 @@ public class VotingLocationList {
 		
 		ArrayList<Location> searchLocations = new ArrayList<Location>();
 
-		for (int i = 0; i < locations.length; i++) {
-			if (locations[i].getName().toLowerCase().contains(name.toLowerCase())) {
-				searchLocations.add(locations[i]);
+		for (int i = 0; i < size(); i++) {
+			String value = stringAt(i, NAME);
+			if (value != null && value.toLowerCase().contains(name.toLowerCase())) {
+				searchLocations.add(location(i));
 			}
 		}
 		
@@ -233,6 +760,78 @@ public class VotingLocationList {
 		return null;
 	}
 	
+	/**
+	 * <h1>fuzzySearchByName</h1>
+	 * <p>public Location[] fuzzySearchByName(String name, int maxDistance)</p>
+	 * <p>Takes in a String and returns an array of all locations whose name has,
+	 * for every word of the String, a word that is at most maxDistance single 
+	 * character edits away from it. Searching for "Lbrary" finds the locations 
+	 * named "Central Library". The locations are ordered from the best match to the worst.</p>
+	 * <p>The index used by this method is built the first time it is called.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param name - The name of the Location being searched for
+	 * @param maxDistance - The number of edits allowed per word, 1 or 2 is recommended
+	 * @return all the locations with a name matching the given keywords, best match first
+	 */
+	public Location[] fuzzySearchByName(String name, int maxDistance) {
+		return fuzzySearch(name, maxDistance, false, 0, 0);
+	}
+	
+	/**
+	 * <h1>fuzzySearchByName</h1>
+	 * <p>public Location[] fuzzySearchByName(String name, int maxDistance, double latitude, 
+	 * double longitude)</p>
+	 * <p>Works like fuzzySearchByName(String, int), except that locations that match
+	 * the name equally well are ordered from closest to farthest away from the given
+	 * coordinates.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param name - The name of the Location being searched for
+	 * @param maxDistance - The number of edits allowed per word, 1 or 2 is recommended
+	 * @param latitude - The latitude of the User
+	 * @param longitude - The longitude of the User
+	 * @return all the locations with a name matching the given keywords, best match first
+	 */
+	public Location[] fuzzySearchByName(String name, int maxDistance, double latitude, double longitude) {
+		return fuzzySearch(name, maxDistance, true, latitude, longitude);
+	}
+	
+	/**
+	 * <h1>autocompleteName</h1>
+	 * <p>public String[] autocompleteName(String prefix, int limit)</p>
+	 * <p>Takes in the start of a name and returns up to limit distinct names of
+	 * locations that start with it, or have a word that starts with it, ignoring case.
+	 * Typing "lib" completes to "Central Library". The names that start with the prefix
+	 * come first, each group in alphabetical order.</p>
+	 * <p>The index used by this method is built the first time it is called, after
+	 * which each call only reads as many entries as it returns.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param prefix - The part of the name typed so far
+	 * @param limit - The largest number of completions to return
+	 * @return the completed names
+	 */
+	public String[] autocompleteName(String prefix, int limit) {
+		return autocomplete(NAME, prefix, limit, false, 0, 0);
+	}
+	
+	/**
+	 * <h1>autocompleteName</h1>
+	 * <p>public String[] autocompleteName(String prefix, int limit, double latitude, 
+	 * double longitude)</p>
+	 * <p>Works like autocompleteName(String, int), except that the first 64 
+	 * completions, or limit if it is larger, are ordered by how close the nearest 
+	 * Location with that name is to the given coordinates before the first limit of 
+	 * them are returned.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param prefix - The part of the name typed so far
+	 * @param limit - The largest number of completions to return
+	 * @param latitude - The latitude of the User
+	 * @param longitude - The longitude of the User
+	 * @return the completed names, closest first
+	 */
+	public String[] autocompleteName(String prefix, int limit, double latitude, double longitude) {
+		return autocomplete(NAME, prefix, limit, true, latitude, longitude);
+	}
+	
 	/**
 	 * <h1>searchByAddress</h1>
 	 * <p>public Location[] searchByAddress(String address)</p>
@@ -246,9 +845,10 @@ public class VotingLocationList {
 		
 		ArrayList<Location> searchLocations = new ArrayList<Location>();
 
-		for (int i = 0; i < locations.length; i++) {
-			if (locations[i].getAddress().toLowerCase().contains(address.toLowerCase())) {
-				searchLocations.add(locations[i]);
+		for (int i = 0; i < size(); i++) {
+			String value = stringAt(i, ADDRESS);
+			if (value != null && value.toLowerCase().contains(address.toLowerCase())) {
+				searchLocations.add(location(i));
 			}
 		}
 		
@@ -259,19 +859,1249 @@ public class VotingLocationList {
 		return null;
 	}
 	
-	private ArrayList<Location> readLocations(JsonReader reader) throws IOException {
-		ArrayList<Location> readLocations = new ArrayList<Location>();
-
-		reader.beginArray();
-		while (reader.hasNext()) {
-			readLocations.add(readLocation(reader));
+	/**
+	 * <h1>autocompleteAddress</h1>
+	 * <p>public String[] autocompleteAddress(String prefix, int limit)</p>
+	 * <p>Takes in the start of an address and returns up to limit distinct addresses of
+	 * locations that start with it, or have a word that starts with it, ignoring case.
+	 * Typing "main" completes to "123 Main St". The addresses that start with the prefix
+	 * come first, each group in alphabetical order.</p>
+	 * <p>The index used by this method is built the first time it is called, after
+	 * which each call only reads as many entries as it returns.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param prefix - The part of the address typed so far
+	 * @param limit - The largest number of completions to return
+	 * @return the completed addresses
+	 */
+	public String[] autocompleteAddress(String prefix, int limit) {
+		return autocomplete(ADDRESS, prefix, limit, false, 0, 0);
+	}
+	
+	/**
+	 * <h1>autocompleteAddress</h1>
+	 * <p>public String[] autocompleteAddress(String prefix, int limit, double latitude, 
+	 * double longitude)</p>
+	 * <p>Works like autocompleteAddress(String, int), except that the first 64 
+	 * completions, or limit if it is larger, are ordered by how close the nearest 
+	 * Location with that address is to the given coordinates before the first limit of 
+	 * them are returned.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param prefix - The part of the address typed so far
+	 * @param limit - The largest number of completions to return
+	 * @param latitude - The latitude of the User
+	 * @param longitude - The longitude of the User
+	 * @return the completed addresses, closest first
+	 */
+	public String[] autocompleteAddress(String prefix, int limit, double latitude, double longitude) {
+		return autocomplete(ADDRESS, prefix, limit, true, latitude, longitude);
+	}	
+	/**
+	 * <h1>getClusters</h1>
+	 * <p>public Cluster[] getClusters(double south, double west, double north, double east, int zoom)</p>
+	 * <p>Takes in the edges of a map viewport and a zoom level and returns the 
+	 * Locations in the viewport grouped into Clusters, so that a map can draw one 
+	 * marker for each Cluster. Locations within about 40 pixels of each other at 
+	 * the zoom level are grouped together. Above zoom level 16 every Location is 
+	 * returned as a Cluster of its own. A viewport with its west edge east of its 
+	 * east edge crosses the 180th meridian.</p>
+	 * <p>The Clusters of every zoom level are built once, either while the list is 
+	 * read in if LoadOptions.setPrecomputeClusters(true) is set, or the first time 
+	 * they are needed.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param south - The latitude of the southern edge of the viewport
+	 * @param west - The longitude of the western edge of the viewport
+	 * @param north - The latitude of the northern edge of the viewport
+	 * @param east - The longitude of the eastern edge of the viewport
+	 * @param zoom - The zoom level of the map
+	 * @return the Clusters in the viewport
+	 */
+	public Cluster[] getClusters(double south, double west, double north, double east, int zoom) {
+		
+		if (zoom < 0) {
+			throw new IllegalArgumentException("zoom must not be negative");
+		}
+		if (south > north) {
+			throw new IllegalArgumentException("south must not be greater than north");
+		}
+		
+		ClusterIndex index = clusterIndex();
+		int level = Math.min(zoom, ClusterIndex.MAX_ZOOM + 1);
+		int[] entries = index.clusters(south, west, north, east, level);
+		
+		if (entries.length == 0) {
+			return null;
+		}
+		
+		Cluster[] clusters = new Cluster[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			int record = index.record(level, entries[i]);
+			clusters[i] = new Cluster(index.latitude(level, entries[i]), index.longitude(level, entries[i]), 
+					index.count(level, entries[i]), index.expansionZoom(level, entries[i]), 
+					record >= 0 ? location(record) : null);
+		}
+		
+		return clusters;
+	}
+	
+	/**
+	 * <h1>getLocationsAlongRoute</h1>
+	 * <p>public Location[] getLocationsAlongRoute(double[] latitudes, double[] longitudes, double metres)</p>
+	 * <p>Takes in a route as the latitudes and longitudes of its points, in order, and
+	 * returns the Locations within the given distance of it, in the order they are reached
+	 * along the route. Each segment of the route is the shortest path over the Earth
+	 * between its two points, and distances are great circle distances in metres. A
+	 * Location near several parts of the route is placed at the first of them.</p>
+	 * <p>Only the Locations near each segment are read from the spatial index built for
+	 * getClusters(), so the Locations far from the route are never measured.</p>
+	 * <p>This method returns <b>null</b> if no results are found.</p>
+	 * @param latitudes - The latitude of each point of the route
+	 * @param longitudes - The longitude of each point of the route
+	 * @param metres - The largest distance from the route in metres
+	 * @return the Locations within the distance of the route, in order along it
+	 * @throws IllegalArgumentException if the route has no points, a point is not a valid
+	 * latitude and longitude, or the distance is negative
+	 */
+	public Location[] getLocationsAlongRoute(double[] latitudes, double[] longitudes, double metres) {
+		
+		if (delta != null) {
+			return changedAlongRoute(latitudes, longitudes, metres);
 		}
-		reader.endArray();
 		
-		return readLocations;
+		Corridor corridor = new Corridor(latitudes, longitudes, metres) {
+			@Override
+			double latitude(int record) {
+				return latitudeAt(record);
+			}
+			
+			@Override
+			double longitude(int record) {
+				return longitudeAt(record);
+			}
+		};
+		
+		int[] records = corridor.search(clusterIndex());
+		if (records.length == 0) {
+			return null;
+		}
+		
+		Location[] along = new Location[records.length];
+		for (int i = 0; i < records.length; i++) {
+			along[i] = location(records[i]);
+		}
+		
+		return along;
+	}
+	
+	/**
+	 * <h1>diff</h1>
+	 * <p>public ListDiff diff(VotingLocationList previous)</p>
+	 * <p>Compares this list with an earlier version of it, such as the list read in 
+	 * by the last refresh, and returns the Locations that were added, removed or changed 
+	 * since, so that only the differences need to be passed on. Locations are known by 
+	 * their name and address, and the lists are compared in time in proportion to 
+	 * their sizes.</p>
+	 * @param previous - The earlier version of the list
+	 * @return the differences between the earlier version and this list
+	 * @throws IllegalArgumentException if previous is null
+	 */
+	public ListDiff diff(VotingLocationList previous) {
+		
+		if (previous == null) {
+			throw new IllegalArgumentException("previous must not be null");
+		}
+		
+		return new ListDiff(previous, this);
+	}
+	
+	/**
+	 * <h1>add</h1>
+	 * <p>public VotingLocationList add(Location location)</p>
+	 * <p>Returns a new version of the list with the given Location added after the last
+	 * one. This list is not changed, so threads still reading it keep seeing the same 
+	 * Locations, and the new version shares the Locations and indexes of this one instead 
+	 * of copying them.</p>
+	 * <p>The changes made by add, update and remove are kept apart from the stored 
+	 * Locations, with small indexes of their own that each query combines with the 
+	 * indexes of the stored Locations, so a change costs about as much as the number of 
+	 * changes rather than the size of the list. Once the changes outnumber 8 times the 
+	 * square root of the number of Locations, or 256 if that is larger, the Locations are 
+	 * stored together again and their indexes are built again as they are needed. The 
+	 * Clusters of getClusters() depend on every Location and are built again for each 
+	 * version.</p>
+	 * @param location - The Location to add
+	 * @return the new version of the list
+	 * @throws IllegalArgumentException if location is null
+	 */
+	public VotingLocationList add(Location location) {
+		
+		if (location == null) {
+			throw new IllegalArgumentException("location must not be null");
+		}
+		
+		return change(changes().add(fit(location)));
+	}
+	
+	/**
+	 * <h1>update</h1>
+	 * <p>public VotingLocationList update(int index, Location location)</p>
+	 * <p>Returns a new version of the list with the Location at the given index replaced
+	 * by the given Location, in the same place. Like add(Location), this list is not 
+	 * changed.</p>
+	 * @param index - The index of the Location to replace, as in getAllLocations()
+	 * @param location - The Location to put in its place
+	 * @return the new version of the list
+	 * @throws IllegalArgumentException if the index is outside of the list or location is null
+	 */
+	public VotingLocationList update(int index, Location location) {
+		
+		if (index < 0 || index >= size()) {
+			throw new IllegalArgumentException("index must be between 0 and " + (size() - 1));
+		}
+		if (location == null) {
+			throw new IllegalArgumentException("location must not be null");
+		}
+		
+		return change(changes().update(index, fit(location)));
+	}
+	
+	/**
+	 * <h1>remove</h1>
+	 * <p>public VotingLocationList remove(int index)</p>
+	 * <p>Returns a new version of the list without the Location at the given index. The 
+	 * Locations after it move down by one. Like add(Location), this list is not changed.</p>
+	 * @param index - The index of the Location to remove, as in getAllLocations()
+	 * @return the new version of the list
+	 * @throws IllegalArgumentException if the index is outside of the list
+	 */
+	public VotingLocationList remove(int index) {
+		
+		if (index < 0 || index >= size()) {
+			throw new IllegalArgumentException("index must be between 0 and " + (size() - 1));
+		}
+		
+		return change(changes().remove(index));
+	}
+	
+	/**
+	 * <h1>indexOf</h1>
+	 * <p>public int indexOf(Location location)</p>
+	 * <p>Finds the index of the first Location in the list with the same coordinates and
+	 * fields as the given one, such as a Location returned by a query or by diff(), to be 
+	 * passed to update or remove.</p>
+	 * @param location - The Location to look for
+	 * @return the index of the Location, or -1 if the list does not hold it
+	 */
+	public int indexOf(Location location) {
+		
+		if (location == null) {
+			return -1;
+		}
+		
+		for (int i = 0; i < size(); i++) {
+			if (latitudeAt(i) == location.getLatitude() && longitudeAt(i) == location.getLongitude()
+					&& sameFields(i, location)) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * <h1>stream</h1>
+	 * <p>public Stream&lt;Location&gt; stream()</p>
+	 * <p>Retrieves the full list of Locations as a Stream. The locations are only read as
+	 * the Stream is consumed, so limit and skip stop reading early.</p>
+	 * @return a Stream of every Location
+	 */
+	public Stream<Location> stream() {
+		return toLocations(IntStream.range(0, size()));
+	}
+	
+	/**
+	 * <h1>streamByDistance</h1>
+	 * <p>public Stream&lt;Location&gt; streamByDistance(double latitude, double longitude)</p>
+	 * <p>Works like sortByDistance(double, double), except that the locations are
+	 * returned as a Stream that is evaluated lazily. The locations are not sorted up 
+	 * front; each one is taken from a heap as it is needed, so reading the closest 
+	 * few locations costs little more than a single pass over the list.</p>
+	 * @param latitude - The latitude of the User
+	 * @param longitude - The longitude of the User
+	 * @return a Stream of the locations ordered from closest to farthest away
+	 */
+	public Stream<Location> streamByDistance(final double latitude, final double longitude) {
+		final int count = size();
+		
+		return toLocations(StreamSupport.intStream(new Supplier<Spliterator.OfInt>() {
+			@Override
+			public Spliterator.OfInt get() {
+				double[] distances = new double[count];
+				
+				distancesTo(latitude, longitude, distances);
+				return new NearestFirst(distances);
+			}
+		}, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL, false));
+	}
+	
+	/**
+	 * <h1>streamByName</h1>
+	 * <p>public Stream&lt;Location&gt; streamByName(String name)</p>
+	 * <p>Works like searchByName(String), except that the locations are returned as a Stream
+	 * that is evaluated lazily. The Stream is empty, never <b>null</b>, if no 
+	 * results are found.</p>
+	 * @param name - The name of the Location being searched for
+	 * @return a Stream of the locations that have a name containing the given keyword
+	 */
+	public Stream<Location> streamByName(String name) {
+		return toLocations(IntStream.range(0, size()).filter(containing(NAME, name)));
+	}
+	
+	/**
+	 * <h1>streamByAddress</h1>
+	 * <p>public Stream&lt;Location&gt; streamByAddress(String address)</p>
+	 * <p>Works like searchByAddress(String), except that the locations are returned as a Stream
+	 * that is evaluated lazily. The Stream is empty, never <b>null</b>, if no 
+	 * results are found.</p>
+	 * @param address - The address of the Location being searched for
+	 * @return a Stream of the locations that have an address containing the given keyword
+	 */
+	public Stream<Location> streamByAddress(String address) {
+		return toLocations(IntStream.range(0, size()).filter(containing(ADDRESS, address)));
+	}
+	
+	//Finds the Location closest to the given coordinates
+	private Location closestLocation(double latitude, double longitude) {
+		int closest = closestIndex(latitude, longitude);
+		return closest == -1 ? null : location(closest);
+	}
+	
+	//Finds the index of the closest Location, checking every Location if the grid does not cover the coordinates
+	final int closestIndex(double latitude, double longitude) {
+		
+		if (isCompact() && CompactStore.covers(latitude, longitude)) {
+			//The grid of a compact list is built from the rounded coordinates, so the point is rounded the same way
+			latitude = CompactStore.round(latitude);
+			longitude = CompactStore.round(longitude);
+		}
+		
+		if (delta != null) {
+			return changedClosest(latitude, longitude);
+		}
+		
+		int closest = nearestGrid().nearest(latitude, longitude);
+		if (closest != NearestGrid.NOT_COVERED) {
+			return closest;
+		}
+		
+		return scanClosest(latitude, longitude);
+	}
+	
+	/*
+	 * Finds the index of the closest Location of a changed list from the grid of the stored Locations 
+	 * and the Locations held by the changes. The Location the grid finds is the closest stored one 
+	 * unless it was removed or updated, in which case every Location is checked.
+	 */
+	private int changedClosest(double latitude, double longitude) {
+		
+		int closest = base.nearestGrid().nearest(latitude, longitude);
+		if (closest == NearestGrid.NOT_COVERED || !delta.isStored(closest)) {
+			return scanClosest(latitude, longitude);
+		}
+		
+		//Slots are in the same order as indexes, so of two equally close Locations the lower slot comes first
+		double shortestDist = DistanceKernel.distance(base.latitudeAt(closest), base.longitudeAt(closest), latitude, longitude);
+		for (int i = 0; i < delta.count(); i++) {
+			Location location = delta.location(i);
+			double currentDist = DistanceKernel.distance(location.getLatitude(), location.getLongitude(), latitude, longitude);
+			if (currentDist < shortestDist || (currentDist == shortestDist && delta.slotAt(i) < closest)) {
+				shortestDist = currentDist;
+				closest = delta.slotAt(i);
+			}
+		}
+		
+		return delta.index(closest);
+	}
+	
+	//Finds the index of the Location closest to the given coordinates by checking every Location
+	private int scanClosest(double latitude, double longitude) {
+		
+		if (isCompact() && CompactStore.covers(latitude, longitude)) {
+			return compactClosest(CompactStore.quantise(latitude), CompactStore.quantise(longitude));
+		}
+		
+		int closest = -1;
+		
+		if (locations != null) {
+			double[][] coordinates = coordinates();
+			closest = DistanceKernel.nearest(coordinates[0], coordinates[1], 0, size(), latitude, longitude);
+		} else {
+			double shortestDist = 0;
+			double[] latitudes = new double[DistanceKernel.BLOCK];
+			double[] longitudes = new double[DistanceKernel.BLOCK];
+			
+			for (int start = 0; start < size(); start += DistanceKernel.BLOCK) {
+				int length = Math.min(DistanceKernel.BLOCK, size() - start);
+				copyCoordinates(start, length, latitudes, longitudes);
+				
+				int nearest = DistanceKernel.nearest(latitudes, longitudes, 0, length, latitude, longitude);
+				if (nearest != -1) {
+					double currentDist = DistanceKernel.distance(latitudes[nearest], longitudes[nearest], latitude, longitude);
+					if (closest == -1 || currentDist < shortestDist) {
+						shortestDist = currentDist;
+						closest = start + nearest;
+					}
+				}
+			}
+		}
+		
+		//Only coordinates that are not numbers give no closest Location, and a plain scan would then keep the first
+		return closest == -1 && size() > 0 ? 0 : closest;
+	}
+	
+	//Sorts a copy of the locations by their distance to the given coordinates
+	private Location[] sortLocationsByDistance(double latitude, double longitude) {
+		
+		double[] distances = new double[size()];
+		
+		distancesTo(latitude, longitude, distances);
+		
+		//The distances are worked out once, rather than twice for every comparison of the sort
+		int[] order = DistanceKernel.order(distances);
+		
+		Location[] allLocations = locations != null ? locations : getAllLocations();
+		Location[] sortedLocations = new Location[order.length];
+		for (int i = 0; i < order.length; i++) {
+			sortedLocations[i] = allLocations[order[i]];
+		}
+		
+		return sortedLocations;
+	}
+	
+	//Works out the distance of every Location to the given coordinates, which both sortByDistance and streamByDistance order by
+	private void distancesTo(double latitude, double longitude, double[] distances) {
+		if (isCompact() && CompactStore.covers(latitude, longitude)) {
+			compactDistances(CompactStore.quantise(latitude), CompactStore.quantise(longitude), distances);
+		} else if (locations != null) {
+			double[][] coordinates = coordinates();
+			DistanceKernel.distances(coordinates[0], coordinates[1], 0, distances.length, latitude, longitude, distances);
+		} else {
+			double[] latitudes = new double[DistanceKernel.BLOCK];
+			double[] longitudes = new double[DistanceKernel.BLOCK];
+			double[] block = new double[DistanceKernel.BLOCK];
+			
+			for (int start = 0; start < distances.length; start += DistanceKernel.BLOCK) {
+				int length = Math.min(DistanceKernel.BLOCK, distances.length - start);
+				copyCoordinates(start, length, latitudes, longitudes);
+				DistanceKernel.distances(latitudes, longitudes, 0, length, latitude, longitude, block);
+				System.arraycopy(block, 0, distances, start, length);
+			}
+		}
+	}
+	
+	//Finds the index of the Location closest to the given micro-degrees in a compact list, or one changed from it
+	private int compactClosest(int latitude, int longitude) {
+		
+		if (compact != null) {
+			return DistanceKernel.nearest(compact.latitudes(), compact.longitudes(), 0, size(), latitude, longitude);
+		}
+		
+		int closest = -1;
+		long shortest = 0;
+		double[] latitudes = new double[DistanceKernel.BLOCK];
+		double[] longitudes = new double[DistanceKernel.BLOCK];
+		int[] microLatitudes = new int[DistanceKernel.BLOCK];
+		int[] microLongitudes = new int[DistanceKernel.BLOCK];
+		
+		for (int start = 0; start < size(); start += DistanceKernel.BLOCK) {
+			int length = Math.min(DistanceKernel.BLOCK, size() - start);
+			copyMicrodegrees(start, length, latitudes, longitudes, microLatitudes, microLongitudes);
+			
+			int nearest = DistanceKernel.nearest(microLatitudes, microLongitudes, 0, length, latitude, longitude);
+			long squared = DistanceKernel.squaredDistance(microLatitudes[nearest], microLongitudes[nearest],
+					latitude, longitude);
+			if (closest == -1 || squared < shortest) {
+				shortest = squared;
+				closest = start + nearest;
+			}
+		}
+		
+		return closest;
+	}
+	
+	//Works out the squared distance in micro-degrees from the given point to each Location of a compact list
+	private void compactDistances(int latitude, int longitude, double[] distances) {
+		
+		if (compact != null) {
+			DistanceKernel.squaredDistances(compact.latitudes(), compact.longitudes(), 0, distances.length,
+					latitude, longitude, distances);
+			return;
+		}
+		
+		double[] latitudes = new double[DistanceKernel.BLOCK];
+		double[] longitudes = new double[DistanceKernel.BLOCK];
+		int[] microLatitudes = new int[DistanceKernel.BLOCK];
+		int[] microLongitudes = new int[DistanceKernel.BLOCK];
+		double[] block = new double[DistanceKernel.BLOCK];
+		
+		for (int start = 0; start < distances.length; start += DistanceKernel.BLOCK) {
+			int length = Math.min(DistanceKernel.BLOCK, distances.length - start);
+			copyMicrodegrees(start, length, latitudes, longitudes, microLatitudes, microLongitudes);
+			DistanceKernel.squaredDistances(microLatitudes, microLongitudes, 0, length, latitude, longitude, block);
+			System.arraycopy(block, 0, distances, start, length);
+		}
+	}
+	
+	//Copies the coordinates of a block of Locations of a list changed from a compact one into arrays of micro-degrees
+	private void copyMicrodegrees(int start, int length, double[] latitudes, double[] longitudes,
+			int[] microLatitudes, int[] microLongitudes) {
+		
+		//The coordinates were rounded to micro-degrees, so rounding them again gives back the same values
+		copyCoordinates(start, length, latitudes, longitudes);
+		for (int i = 0; i < length; i++) {
+			microLatitudes[i] = CompactStore.quantise(latitudes[i]);
+			microLongitudes[i] = CompactStore.quantise(longitudes[i]);
+		}
+	}
+	
+	//Tells whether the coordinates of the list are held as micro-degrees, by it or by the list it was changed from
+	private boolean isCompact() {
+		return compact != null || (base != null && base.compact != null);
+	}
+	
+	//Copies the coordinates of a block of Locations held off-heap, compact, or by a changed list, into arrays
+	private void copyCoordinates(int start, int length, double[] latitudes, double[] longitudes) {
+		
+		if (delta != null) {
+			int[] slots = new int[length];
+			int[] positions = new int[length];
+			delta.map(start, length, slots, positions);
+			
+			for (int i = 0; i < length; i++) {
+				if (positions[i] >= 0) {
+					latitudes[i] = delta.location(positions[i]).getLatitude();
+					longitudes[i] = delta.location(positions[i]).getLongitude();
+				} else {
+					latitudes[i] = base.latitudeAt(slots[i]);
+					longitudes[i] = base.longitudeAt(slots[i]);
+				}
+			}
+			return;
+		}
+		
+		if (compact != null) {
+			for (int i = 0; i < length; i++) {
+				latitudes[i] = compact.latitude(start + i);
+				longitudes[i] = compact.longitude(start + i);
+			}
+			return;
+		}
+		
+		for (int i = 0; i < length; i++) {
+			latitudes[i] = store.latitude(start + i);
+			longitudes[i] = store.longitude(start + i);
+		}
+	}
+	
+	private Location[] fuzzySearch(String name, int maxDistance, boolean byDistance,
+			final double latitude, final double longitude) {
+		
+		if (maxDistance < 0) {
+			throw new IllegalArgumentException("maxDistance must not be negative");
+		}
+		
+		ArrayList<FuzzyIndex.Match> matches = nameMatches(name, maxDistance);
+		
+		if (byDistance) {
+			Collections.sort(matches, new Comparator<FuzzyIndex.Match>() {
+				@Override
+				public int compare(FuzzyIndex.Match first, FuzzyIndex.Match second) {
+					
+					if (first.score != second.score) {
+						return first.score < second.score ? -1 : 1;
+					}
+					
+					double firstDist = Math.pow((latitudeAt(first.record) - latitude), 2) 
+							+ Math.pow((longitudeAt(first.record) - longitude), 2);
+					double secondDist = Math.pow((latitudeAt(second.record) - latitude), 2) 
+							+ Math.pow((longitudeAt(second.record) - longitude), 2);
+					
+					return Double.compare(firstDist, secondDist);
+				}
+			});
+		}
+		
+		if (matches.size() > 0) {
+			Location[] searchLocations = new Location[matches.size()];
+			for (int i = 0; i < searchLocations.length; i++) {
+				searchLocations[i] = location(matches.get(i).record);
+			}
+			return searchLocations;
+		}
+		
+		return null;
+	}
+	
+	//Builds the closest location grid the first time it is needed, which a changed list shares with its stored Locations
+	private NearestGrid nearestGrid() {
+		
+		if (delta != null) {
+			return base.nearestGrid();
+		}
+		
+		NearestGrid grid = nearestGrid;
+		
+		if (grid == null) {
+			synchronized (this) {
+				grid = nearestGrid;
+				if (grid == null) {
+					double[] latitudes = new double[size()];
+					double[] longitudes = new double[size()];
+					for (int i = 0; i < latitudes.length; i++) {
+						latitudes[i] = latitudeAt(i);
+						longitudes[i] = longitudeAt(i);
+					}
+					grid = new NearestGrid(latitudes, longitudes);
+					nearestGrid = grid;
+				}
+			}
+		}
+		
+		return grid;
+	}
+	
+	//Builds the fuzzy name index the first time it is needed
+	private FuzzyIndex nameIndex() {
+		FuzzyIndex index = nameIndex;
+		
+		if (index == null) {
+			synchronized (this) {
+				index = nameIndex;
+				if (index == null) {
+					index = new FuzzyIndex(delta != null ? changedColumn(NAME) : column(NAME));
+					nameIndex = index;
+				}
+			}
+		}
+		
+		return index;
+	}
+	
+	private String[] autocomplete(int column, String prefix, int limit, boolean byDistance,
+			double latitude, double longitude) {
+		
+		if (limit < 1) {
+			throw new IllegalArgumentException("limit must be positive");
+		}
+		
+		int wanted = byDistance ? Math.max(limit, NEARBY_CANDIDATES) : limit;
+		PrefixIndex index = completions(column);
+		int[] indexed = null;
+		
+		//A changed list completes from an index of just the Locations holding the values that can come first
+		if (delta != null) {
+			indexed = completionRecords(column, prefix, wanted);
+			String[] values = new String[indexed.length];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = stringAt(indexed[i], column);
+			}
+			index = new PrefixIndex(values);
+		}
+		
+		int[] found = index.complete(prefix, wanted);
+		
+		if (byDistance) {
+			final double[] distances = new double[found.length];
+			Integer[] order = new Integer[found.length];
+			
+			for (int i = 0; i < found.length; i++) {
+				int[] records = index.records(found[i]);
+				distances[i] = Double.MAX_VALUE;
+				for (int r = 0; r < records.length; r++) {
+					int record = indexed != null ? indexed[records[r]] : records[r];
+					distances[i] = Math.min(distances[i], Math.pow((latitudeAt(record) - latitude), 2) 
+							+ Math.pow((longitudeAt(record) - longitude), 2));
+				}
+				order[i] = i;
+			}
+			
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer first, Integer second) {
+					return Double.compare(distances[first], distances[second]);
+				}
+			});
+			
+			int[] nearest = new int[Math.min(limit, found.length)];
+			for (int i = 0; i < nearest.length; i++) {
+				nearest[i] = found[order[i]];
+			}
+			found = nearest;
+		}
+		
+		if (found.length > 0) {
+			String[] completions = new String[found.length];
+			for (int i = 0; i < completions.length; i++) {
+				completions[i] = index.value(found[i]);
+			}
+			return completions;
+		}
+		
+		return null;
+	}
+	
+	//Builds the autocomplete index of a column the first time it is needed
+	private PrefixIndex completions(int column) {
+		PrefixIndex[] indexes = prefixIndexes;
+		
+		if (indexes[column] == null) {
+			synchronized (this) {
+				indexes = prefixIndexes;
+				if (indexes[column] == null) {
+					indexes = indexes.clone();
+					indexes[column] = new PrefixIndex(delta != null ? changedColumn(column) : column(column));
+					prefixIndexes = indexes;
+				}
+			}
+		}
+		
+		return indexes[column];
+	}
+	
+	//Copies the coordinates of every Location into arrays the first time the list held on the heap is scanned
+	private double[][] coordinates() {
+		double[][] arrays = coordinates;
+		
+		if (arrays == null) {
+			synchronized (this) {
+				arrays = coordinates;
+				if (arrays == null) {
+					arrays = new double[2][size()];
+					for (int i = 0; i < size(); i++) {
+						arrays[0][i] = locations[i].getLatitude();
+						arrays[1][i] = locations[i].getLongitude();
+					}
+					
+					coordinates = arrays;
+				}
+			}
+		}
+		
+		return arrays;
+	}
+	
+	//Builds the Clusters of every zoom level the first time they are needed
+	private ClusterIndex clusterIndex() {
+		ClusterIndex index = clusterIndex;
+		
+		if (index == null) {
+			synchronized (this) {
+				index = clusterIndex;
+				if (index == null) {
+					double[] latitudes = new double[size()];
+					double[] longitudes = new double[size()];
+					for (int i = 0; i < latitudes.length; i++) {
+						latitudes[i] = latitudeAt(i);
+						longitudes[i] = longitudeAt(i);
+					}
+					
+					index = new ClusterIndex(latitudes, longitudes);
+					clusterIndex = index;
+				}
+			}
+		}
+		
+		return index;
+	}
+	
+	//Retrieves one of the String columns of every Location
+	private String[] column(int column) {
+		String[] values = new String[size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = stringAt(i, column);
+		}
+		return values;
+	}
+	
+	//Turns a Stream of indexes into a Stream of the Locations at those indexes
+	private Stream<Location> toLocations(IntStream indexes) {
+		return indexes.mapToObj(new IntFunction<Location>() {
+			@Override
+			public Location apply(int i) {
+				return location(i);
+			}
+		});
+	}
+	
+	//Accepts the indexes of the Locations that have a column containing the keyword, ignoring case
+	private IntPredicate containing(final int column, String keyword) {
+		final String lowerKeyword = keyword.toLowerCase();
+		
+		return new IntPredicate() {
+			@Override
+			public boolean test(int i) {
+				String value = stringAt(i, column);
+				return value != null && value.toLowerCase().contains(lowerKeyword);
+			}
+		};
+	}
+	
+	//Retrieves the Location at the given index, creating a view of it when the list is held off-heap or compact
+	final Location location(int i) {
+		
+		if (delta != null) {
+			int slot = delta.slot(i);
+			int position = delta.find(slot);
+			return position >= 0 ? delta.location(position) : base.location(slot);
+		}
+		
+		if (locations != null) {
+			return locations[i];
+		}
+		
+		if (compact != null) {
+			return new Location(compact.latitude(i), compact.longitude(i), compact.string(i, NAME),
+					compact.string(i, ADDRESS));
+		}
+		
+		return new Location(store.latitude(i), store.longitude(i), store.string(i, NAME),
+				store.string(i, ADDRESS));
+	}
+	
+	final double latitudeAt(int i) {
+		
+		if (delta != null) {
+			return slotLatitude(delta.slot(i));
+		}
+		
+		if (compact != null) {
+			return compact.latitude(i);
+		}
+		
+		return locations != null ? locations[i].getLatitude() : store.latitude(i);
+	}
+	
+	final double longitudeAt(int i) {
+		
+		if (delta != null) {
+			return slotLongitude(delta.slot(i));
+		}
+		
+		if (compact != null) {
+			return compact.longitude(i);
+		}
+		
+		return locations != null ? locations[i].getLongitude() : store.longitude(i);
+	}
+	
+	//Retrieves one of the String columns of the Location at the given index without creating a view
+	final String stringAt(int i, int column) {
+		
+		if (delta != null) {
+			int slot = delta.slot(i);
+			int position = delta.find(slot);
+			return position >= 0 ? field(delta.location(position), column) : base.stringAt(slot, column);
+		}
+		
+		if (compact != null) {
+			return compact.string(i, column);
+		}
+		
+		if (locations == null) {
+			return store.string(i, column);
+		}
+		
+		return field(locations[i], column);
+	}
+	
+	private static String field(Location location, int column) {
+		return column == NAME ? location.getName() : location.getAddress();
+	}
+	
+	//Tells whether the Location at the given index has the same String fields as another Location
+	private boolean sameFields(int i, Location location) {
+		
+		for (int column = 0; column < FIELDS.length; column++) {
+			String value = stringAt(i, column);
+			String other = field(location, column);
+			if (value == null ? other != null : !value.equals(other)) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	//Rounds the coordinates of a Location added to a compact list to the micro-degrees the list would hold
+	private Location fit(Location location) {
+		
+		if (!isCompact()) {
+			return location;
+		}
+		
+		return new Location(CompactStore.round(location.getLatitude()), CompactStore.round(location.getLongitude()),
+				location.getName(), location.getAddress());
+	}
+	
+	//Retrieves the changes of the list, which a list that was never changed has none of
+	private Delta changes() {
+		return delta != null ? delta : new Delta(size());
+	}
+	
+	//Creates the version of the list holding the given changes, storing its Locations together once there are many
+	private VotingLocationList change(Delta changes) {
+		
+		VotingLocationList stored = base != null ? base : this;
+		VotingLocationList changed = new VotingLocationList(stored, changes, resultCache);
+		
+		if (changes.getChangeCount() > Math.max(MIN_CHANGES, (int) Math.sqrt(stored.size()) * CHANGES_PER_ROOT)) {
+			return new VotingLocationList(changed);
+		}
+		
+		return changed;
+	}
+	
+	//Retrieves the latitude of the Location in a slot of a changed list
+	private double slotLatitude(int slot) {
+		int position = delta.find(slot);
+		return position >= 0 ? delta.location(position).getLatitude() : base.latitudeAt(slot);
+	}
+	
+	//Retrieves the longitude of the Location in a slot of a changed list
+	private double slotLongitude(int slot) {
+		int position = delta.find(slot);
+		return position >= 0 ? delta.location(position).getLongitude() : base.longitudeAt(slot);
+	}
+	
+	//Retrieves one of the String columns of the Locations held by the changes of a changed list
+	private String[] changedColumn(int column) {
+		String[] values = new String[delta.count()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = field(delta.location(i), column);
+		}
+		return values;
+	}
+	
+	/*
+	 * Finds the Locations matching a name in a changed list, merging the matches of the stored 
+	 * Locations that did not change with those of the Locations held by the changes. Both are in 
+	 * order of score and then slot, and slots are in the same order as indexes.
+	 */
+	private ArrayList<FuzzyIndex.Match> nameMatches(String name, int maxDistance) {
+		
+		if (delta == null) {
+			return nameIndex().search(name, maxDistance);
+		}
+		
+		ArrayList<FuzzyIndex.Match> stored = base.nameIndex().search(name, maxDistance);
+		ArrayList<FuzzyIndex.Match> changed = nameIndex().search(name, maxDistance);
+		ArrayList<FuzzyIndex.Match> matches = new ArrayList<FuzzyIndex.Match>();
+		int i = 0;
+		int j = 0;
+		
+		while (true) {
+			while (i < stored.size() && !delta.isStored(stored.get(i).record)) {
+				i++;
+			}
+			if (i == stored.size() && j == changed.size()) {
+				break;
+			}
+			
+			if (j == changed.size() || (i < stored.size() && (stored.get(i).score < changed.get(j).score
+					|| (stored.get(i).score == changed.get(j).score 
+					&& stored.get(i).record < delta.slotAt(changed.get(j).record))))) {
+				matches.add(new FuzzyIndex.Match(delta.index(stored.get(i).record), stored.get(i).score));
+				i++;
+			} else {
+				matches.add(new FuzzyIndex.Match(delta.index(delta.slotAt(changed.get(j).record)), changed.get(j).score));
+				j++;
+			}
+		}
+		
+		return matches;
+	}
+	
+	/*
+	 * Finds the Locations of a changed list holding the values that can be among the first 
+	 * completions of a prefix: the first completions of the Locations held by the changes, 
+	 * and those of the stored Locations that did not change. Each stored Location removed or 
+	 * updated can take away at most one value, so that many more stored values are read.
+	 */
+	private int[] completionRecords(int column, String prefix, int wanted) {
+		
+		PrefixIndex stored = base.completions(column);
+		PrefixIndex changed = completions(column);
+		ArrayList<Integer> records = new ArrayList<Integer>();
+		
+		for (int value : stored.complete(prefix, wanted + delta.hidden().length)) {
+			for (int slot : stored.records(value)) {
+				if (delta.isStored(slot)) {
+					records.add(delta.index(slot));
+				}
+			}
+		}
+		for (int value : changed.complete(prefix, wanted)) {
+			for (int position : changed.records(value)) {
+				records.add(delta.index(delta.slotAt(position)));
+			}
+		}
+		
+		//In index order, values that tie keep the order of their first Location, as in an index of the whole list
+		int[] sorted = new int[records.size()];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = records.get(i);
+		}
+		Arrays.sort(sorted);
+		return sorted;
+	}
+	
+	//Finds the Locations of a changed list along a route, from the spatial index of the stored Locations and the changes
+	private Location[] changedAlongRoute(double[] latitudes, double[] longitudes, double metres) {
+		
+		Corridor corridor = new Corridor(latitudes, longitudes, metres) {
+			@Override
+			double latitude(int slot) {
+				return slotLatitude(slot);
+			}
+			
+			@Override
+			double longitude(int slot) {
+				return slotLongitude(slot);
+			}
+			
+			@Override
+			boolean excludes(int slot) {
+				return !delta.isStored(slot);
+			}
+		};
+		
+		int[] changedSlots = new int[delta.count()];
+		for (int i = 0; i < changedSlots.length; i++) {
+			changedSlots[i] = delta.slotAt(i);
+		}
+		
+		int[] slots = corridor.search(base.clusterIndex(), changedSlots);
+		if (slots.length == 0) {
+			return null;
+		}
+		
+		Location[] along = new Location[slots.length];
+		for (int i = 0; i < slots.length; i++) {
+			along[i] = location(delta.index(slots[i]));
+		}
+		
+		return along;
+	}
+	//Prepares the list to have Locations added to it, either on the heap or off-heap
+	private void startLoading(LoadOptions options) {
+		
+		parallelParsing = options.isParallelParsing();
+		
+		if (options.isOffHeap()) {
+			store = new OffHeapStore(CATEGORICAL);
+		} else if (options.isCompactCoordinates()) {
+			compact = new CompactStore(CATEGORICAL);
+		} else {
+			inputLocations = new ArrayList<Location>();
+		}
+		
+		if (options.isDeduplicate()) {
+			duplicateFilter = new DuplicateFilter(options.getDuplicateTolerance(), options.isDuplicateByName(),
+					options.isDuplicateByAddress());
+		}
+		
+		if (options.getResultCacheSize() > 0) {
+			resultCache = new ResultCache(options.getResultCacheSize(), options.getResultCacheTtl(),
+					options.getResultCacheResolution());
+		}
+	}
+	
+	private void finishLoading(LoadOptions options) {
+		
+		duplicateFilter = null;
+		snapshotLocations = null;
+		
+		if (compact != null) {
+			compact.trim();
+		} else if (store == null) {
+			locations = inputLocations.toArray(new Location[inputLocations.size()]);
+			locationCount = locations.length;
+		}
+		
+		clearCache();
+		
+		if (options.isPrecomputeClusters()) {
+			clusterIndex();
+		}
+	}
+	
+	/*
+	 * Creates a partial list of the Locations read in so far, while the list is being read in.
+	 * The partial lists share one array, which only has the Locations read since the last
+	 * partial list added to it, so each Location is copied, or made a view of, only once.
+	 */
+	private VotingLocationList snapshot() {
+		int count = loadedCount();
+		
+		if (snapshotLocations == null) {
+			snapshotLocations = new Location[Math.max(16, count)];
+		} else if (count > snapshotLocations.length) {
+			snapshotLocations = Arrays.copyOf(snapshotLocations, Math.max(count, 2 * snapshotLocations.length));
+		}
+		
+		for (int i = snapshotCount; i < count; i++) {
+			Location location = inputLocations != null ? inputLocations.get(i) : location(i);
+			snapshotLocations[i] = location;
+		}
+		snapshotCount = count;
+		
+		return new VotingLocationList(snapshotLocations, count);
+	}
+	
+	private int loadedCount() {
+		if (compact != null) {
+			return compact.size();
+		}
+		
+		return store != null ? store.size() : inputLocations.size();
+	}
+	
+	//Removes the Locations of a file that could not be read
+	private void truncate(int count) {
+		
+		if (duplicateFilter != null) {
+			duplicateFilter.truncate(count);
+		}
+		
+		if (store != null) {
+			store.truncate(count);
+		} else if (compact != null) {
+			compact.truncate(count);
+		} else {
+			inputLocations.subList(count, inputLocations.size()).clear();
+		}
+	}
+	
+	private void addLocation(double latitude, double longitude, String name, String address) {
+		
+		if (duplicateFilter != null && !duplicateFilter.add(latitude, longitude, name, address)) {
+			duplicates++;
+			return;
+		}
+		
+		if (store != null) {
+			store.add(latitude, longitude, name, address);
+		} else if (compact != null) {
+			compact.add(latitude, longitude, name, address);
+		} else {
+			inputLocations.add(new Location(latitude, longitude, name, address));
+		}
+	}
+	
+	/*
+	 * Reads the locations of one JSON file from the Decompressor. Files up to SCAN_LIMIT,
+	 * or up to MAX_ARRAY when they are parsed in parallel, are held in memory and read 
+	 * with the OdenScanner, and larger files are read with Gson as they are streamed.
+	 */
+	private void readLocations(InputStream json) throws IOException {
+		int limit = parallelParsing ? MAX_ARRAY : SCAN_LIMIT;
+		byte[] start = OdenScanner.readFully(json, limit);
+		
+		if (start.length <= limit) {
+			readLocations(start);
+		} else {
+			readLocations(new JsonReader(new InputStreamReader(new SequenceInputStream(new ByteArrayInputStream(start), json),
+					"UTF-8")));
+		}
+	}
+	
+	/*
+	 * Reads the locations from the raw bytes of a JSON file with the OdenScanner,
+	 * reading the same bytes again with Gson if the scanner cannot handle them
+	 */
+	private void readLocations(byte[] json) throws IOException {
+		int mark = loadedCount();
+		int duplicateMark = duplicates;
+		
+		try {
+			if (parallelParsing && json.length >= PARALLEL_MINIMUM) {
+				scanLocationsInParallel(json);
+			} else {
+				scanLocations(new OdenScanner(json, 0, json.length));
+			}
+		} catch (IOException e) {
+			truncate(mark);
+			duplicates = duplicateMark;
+			readLocations(new JsonReader(new InputStreamReader(new ByteArrayInputStream(json), "UTF-8")));
+		}
+	}
+	
+	private void scanLocations(OdenScanner scanner) throws IOException {
+		
+		scanner.retain(new int[] {OdenScanner.NM, OdenScanner.ADR});
+		scanner.beginArray();
+		while (scanner.nextFeature()) {
+			addLocation(scanner.getCoordinate(0), scanner.getCoordinate(1),
+					scanner.getString(OdenScanner.NM), scanner.getString(OdenScanner.ADR));
+		}
+	}
+	
+	/*
+	 * Reads the locations of a large JSON file by parsing chunks of it in parallel,
+	 * adding them in the order of the file once every chunk is parsed. The file 
+	 * is parsed on one thread instead if it cannot be split into whole features.
+	 */
+	private void scanLocationsInParallel(final byte[] json) throws IOException {
+		
+		int parts = Math.min(json.length / PARALLEL_CHUNK, 4 * Runtime.getRuntime().availableProcessors());
+		final int[] bounds = OdenScanner.split(json, 0, json.length, parts);
+		final int[] keys = new int[] {OdenScanner.NM, OdenScanner.ADR};
+		List<OdenScanner.Features> chunks;
+		
+		try {
+			chunks = IntStream.range(0, bounds.length - 1).parallel()
+					.mapToObj(new IntFunction<OdenScanner.Features>() {
+						@Override
+						public OdenScanner.Features apply(int chunk) {
+							try {
+								return new OdenScanner(json, bounds[chunk], bounds[chunk + 1])
+										.readFeatures(keys, chunk == 0, chunk == bounds.length - 2);
+							} catch (IOException e) {
+								throw new UncheckedIOException(e);
+							}
+						}
+					}).collect(Collectors.<OdenScanner.Features>toList());
+		} catch (UncheckedIOException e) {
+			scanLocations(new OdenScanner(json, 0, json.length));
+			return;
+		}
+		
+		for (OdenScanner.Features chunk : chunks) {
+			for (int i = 0; i < chunk.size(); i++) {
+				addLocation(chunk.getCoordinate(i, 0), chunk.getCoordinate(i, 1),
+						chunk.getString(i, OdenScanner.NM), chunk.getString(i, OdenScanner.ADR));
+			}
+		}
+	}
+	
+	//Reads the locations of a file with Gson, keeping none of them if the file cannot be read
+	private void readLocations(JsonReader reader) throws IOException {
+		int mark = loadedCount();
+		int duplicateMark = duplicates;
+
+		try {
+			reader.beginArray();
+			while (reader.hasNext()) {
+				readLocation(reader);
+			}
+			reader.endArray();
+		} catch (IOException e) {
+			truncate(mark);
+			duplicates = duplicateMark;
+			throw e;
+		}
 	}
 	
-	private Location readLocation(JsonReader reader) throws IOException {
+	private void readLocation(JsonReader reader) throws IOException {
 		ArrayList<Double> coordinates = null;
 		String name = null;
 		String address = null;
@@ -308,7 +2138,7 @@ public class VotingLocationList {
 		}
 		reader.endObject();
 		
-		return new Location(coordinates.get(0), coordinates.get(1), name, address);
+		addLocation(coordinates.get(0), coordinates.get(1), name, address);
 	}
 	
 	private ArrayList<Double> readCoordinates(JsonReader reader) throws IOException {